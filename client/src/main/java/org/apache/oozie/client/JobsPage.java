@@ -0,0 +1,67 @@
+/**
+ * Copyright (c) 2010 Yahoo! Inc. All rights reserved.
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License. See accompanying LICENSE file.
+ */
+package org.apache.oozie.client;
+
+import java.util.List;
+
+/**
+ * A page of jobs returned by a jobs listing paged by continuation.
+ */
+public class JobsPage<T> {
+    private final List<T> jobs;
+    private final int total;
+    private final String continuation;
+
+    /**
+     * Create a page of jobs.
+     *
+     * @param jobs jobs of the page.
+     * @param total total number of jobs matching the filter, <code>-1</code> if they were not counted.
+     * @param continuation continuation to get the next page, <code>null</code> if this is the last page.
+     */
+    public JobsPage(List<T> jobs, int total, String continuation) {
+        this.jobs = jobs;
+        this.total = total;
+        this.continuation = continuation;
+    }
+
+    /**
+     * Return the jobs of the page, newest first.
+     *
+     * @return the jobs of the page.
+     */
+    public List<T> getJobs() {
+        return jobs;
+    }
+
+    /**
+     * Return the total number of jobs matching the filter.
+     *
+     * @return the total number of jobs matching the filter, <code>-1</code> if they were not counted.
+     */
+    public int getTotal() {
+        return total;
+    }
+
+    /**
+     * Return the continuation to get the next page.
+     *
+     * @return the continuation to get the next page, <code>null</code> if this is the last page.
+     */
+    public String getContinuation() {
+        return continuation;
+    }
+
+}
@@ -907,6 +907,67 @@ public class OozieClient {
         }
     }
 
+    private class JobsPageStatus extends ClientCallable<JobsPage<WorkflowJob>> {
+
+        JobsPageStatus(String filter, String continuation, int len, boolean count) {
+            super("GET", RestConstants.JOBS, "", prepareParams(RestConstants.JOBS_FILTER_PARAM, filter,
+                    RestConstants.JOBTYPE_PARAM, "wf", RestConstants.CONTINUATION_PARAM,
+                    (continuation != null) ? continuation : "", RestConstants.LEN_PARAM, Integer.toString(len),
+                    RestConstants.COUNT_PARAM, Boolean.toString(count)));
+        }
+
+        @Override
+        protected JobsPage<WorkflowJob> call(HttpURLConnection conn) throws IOException, OozieClientException {
+            conn.setRequestProperty("content-type", RestConstants.XML_CONTENT_TYPE);
+            if ((conn.getResponseCode() == HttpURLConnection.HTTP_OK)) {
+                Reader reader = new InputStreamReader(conn.getInputStream());
+                JSONObject json = (JSONObject) JSONValue.parse(reader);
+                JSONArray workflows = (JSONArray) json.get(JsonTags.WORKFLOWS_JOBS);
+                if (workflows == null) {
+                    workflows = new JSONArray();
+                }
+                Long total = (Long) json.get(JsonTags.WORKFLOWS_TOTAL);
+                return new JobsPage<WorkflowJob>(JsonWorkflowJob.fromJSONArray(workflows),
+                        (total != null) ? total.intValue() : -1, (String) json.get(JsonTags.WORKFLOWS_CONTINUATION));
+            }
+            else {
+                handleError(conn);
+            }
+            return null;
+        }
+    }
+
+    private class CoordJobsPageStatus extends ClientCallable<JobsPage<JsonCoordinatorJob>> {
+
+        CoordJobsPageStatus(String filter, String continuation, int len, boolean count) {
+            super("GET", RestConstants.JOBS, "", prepareParams(RestConstants.JOBS_FILTER_PARAM, filter,
+                    RestConstants.JOBTYPE_PARAM, "coord", RestConstants.CONTINUATION_PARAM,
+                    (continuation != null) ? continuation : "", RestConstants.LEN_PARAM, Integer.toString(len),
+                    RestConstants.COUNT_PARAM, Boolean.toString(count)));
+        }
+
+        @Override
+        protected JobsPage<JsonCoordinatorJob> call(HttpURLConnection conn) throws IOException,
+                OozieClientException {
+            conn.setRequestProperty("content-type", RestConstants.XML_CONTENT_TYPE);
+            if ((conn.getResponseCode() == HttpURLConnection.HTTP_OK)) {
+                Reader reader = new InputStreamReader(conn.getInputStream());
+                JSONObject json = (JSONObject) JSONValue.parse(reader);
+                JSONArray jobs = (JSONArray) json.get(JsonTags.COORDINATOR_JOBS);
+                if (jobs == null) {
+                    jobs = new JSONArray();
+                }
+                Long total = (Long) json.get(JsonTags.COORD_JOB_TOTAL);
+                return new JobsPage<JsonCoordinatorJob>(JsonCoordinatorJob.fromJSONArray(jobs),
+                        (total != null) ? total.intValue() : -1, (String) json.get(JsonTags.COORD_JOB_CONTINUATION));
+            }
+            else {
+                handleError(conn);
+            }
+            return null;
+        }
+    }
+
     private class CoordRerun extends ClientCallable<List<JsonCoordinatorAction>> {
 
         CoordRerun(String jobId, String rerunType, String scope, boolean refresh, boolean noCleanup) {
@@ -1012,6 +1073,24 @@ public class OozieClient {
         return getJobsInfo(filter, 1, 50);
     }
 
+    /**
+     * Return a page of the workflow jobs that match the filter, newest first.
+     * <p/>
+     * Unlike {@link #getJobsInfo(String, int, int)}, the server does not skip the jobs of the previous pages, so deep
+     * pages are as cheap as the first one.
+     *
+     * @param filter job filter. Refer to the {@link OozieClient} for the filter syntax.
+     * @param continuation continuation of the previous page, <code>null</code> for the first page.
+     * @param len number of jobs to return.
+     * @param count if the jobs that match the filter are counted, if not the total of the page is -1.
+     * @return a page with the workflow jobs info, without node details.
+     * @throws OozieClientException thrown if the jobs info could not be retrieved.
+     */
+    public JobsPage<WorkflowJob> getJobsPage(String filter, String continuation, int len, boolean count)
+            throws OozieClientException {
+        return new JobsPageStatus(filter, continuation, len, count).call();
+    }
+
     /**
      * Print sla info about coordinator and workflow jobs and actions.
      *
@@ -1197,6 +1276,21 @@ public class OozieClient {
         return new CoordJobsStatus(filter, start, len).call();
     }
 
+    /**
+     * Return a page of the coordinator jobs that match the filter, newest first.
+     *
+     * @param filter job filter. Refer to the {@link OozieClient} for the filter syntax.
+     * @param continuation continuation of the previous page, <code>null</code> for the first page.
+     * @param len number of jobs to return.
+     * @param count if the jobs that match the filter are counted, if not the total of the page is -1.
+     * @return a page with the coordinator jobs info
+     * @throws OozieClientException thrown if the jobs info could not be retrieved.
+     */
+    public JobsPage<JsonCoordinatorJob> getCoordJobsPage(String filter, String continuation, int len, boolean count)
+            throws OozieClientException {
+        return new CoordJobsPageStatus(filter, continuation, len, count).call();
+    }
+
     private class GetQueueDump extends ClientCallable<List<String>> {
         GetQueueDump() {
             super("GET", RestConstants.ADMIN, RestConstants.ADMIN_QUEUE_DUMP_RESOURCE, prepareParams());
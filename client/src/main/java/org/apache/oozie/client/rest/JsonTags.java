@@ -48,6 +48,7 @@ public interface JsonTags {
     public static final String WORKFLOWS_TOTAL = "total";
     public static final String WORKFLOWS_OFFSET = "offset";
     public static final String WORKFLOWS_LEN = "len";
+    public static final String WORKFLOWS_CONTINUATION = "continuation";
 
     public static final String WORKFLOW_ACTION_ID = "id";
     public static final String WORKFLOW_ACTION_NAME = "name";
@@ -151,6 +152,10 @@ public interface JsonTags {
     public static final String INSTR_TIMER_OWN_MAX_TIME = "ownMaxTime";
     public static final String INSTR_TIMER_TOTAL_MIN_TIME = "totalMinTime";
     public static final String INSTR_TIMER_TOTAL_MAX_TIME = "totalMaxTime";
+    public static final String INSTR_TIMER_TOTAL_P50_TIME = "totalP50Time";
+    public static final String INSTR_TIMER_TOTAL_P95_TIME = "totalP95Time";
+    public static final String INSTR_TIMER_TOTAL_P99_TIME = "totalP99Time";
+    public static final String INSTR_TIMER_TOTAL_P999_TIME = "totalP999Time";
 
     public static final String INSTR_VARIABLE_VALUE = "value";
 
@@ -159,5 +164,6 @@ public interface JsonTags {
     public static final Object COORD_JOB_TOTAL = "total";
     public static final Object COORD_JOB_OFFSET = "offset";
     public static final Object COORD_JOB_LEN = "len";
+    public static final Object COORD_JOB_CONTINUATION = "continuation";
 
 }
@@ -41,6 +41,10 @@ public interface RestConstants {
 
     public static final String LEN_PARAM = "len";
 
+    public static final String CONTINUATION_PARAM = "continuation";
+
+    public static final String COUNT_PARAM = "count";
+
     public static final String JOB_RESOURCE = "/job";
 
     public static final String JOB_ACTION_START = "start";
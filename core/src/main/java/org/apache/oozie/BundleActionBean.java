@@ -44,6 +44,10 @@ import org.apache.openjpa.persistence.jdbc.Index;
 
         @NamedQuery(name = "GET_BUNDLE_ACTIONS_FOR_BUNDLE", query = "select OBJECT(w) from BundleActionBean w where w.bundleId = :bundleId"),
 
+        @NamedQuery(name = "GET_BUNDLE_ACTIONS_STATUS_COUNTS_PENDING_OR_RUNNING", query = "select w.bundleId, w.status, w.pending, count(w) from BundleActionBean w where w.bundleId IN (select b.id from BundleJobBean b where b.pending = 1 OR b.status = 'RUNNING' OR b.status = 'RUNNINGWITHERROR') group by w.bundleId, w.status, w.pending"),
+
+        @NamedQuery(name = "GET_BUNDLE_ACTIONS_STATUS_COUNTS_BY_LAST_MODIFIED_TIME", query = "select w.bundleId, w.status, w.pending, count(w) from BundleActionBean w where w.bundleId IN (select distinct a.bundleId from BundleActionBean a where a.lastModifiedTimestamp >= :lastModifiedTime) group by w.bundleId, w.status, w.pending"),
+
         @NamedQuery(name = "GET_BUNDLE_ACTIONS", query = "select OBJECT(w) from BundleActionBean w"),
 
         @NamedQuery(name = "GET_BUNDLE_ACTIONS_BY_LAST_MODIFIED_TIME", query = "select OBJECT(w) from BundleActionBean w where w.lastModifiedTimestamp >= :lastModifiedTime"),
@@ -53,6 +53,10 @@ import org.apache.openjpa.persistence.jdbc.Index;
 
         @NamedQuery(name = "GET_BUNDLE_JOBS_PENDING", query = "select OBJECT(w) from BundleJobBean w where w.pending = 1 order by w.lastModifiedTimestamp"),
 
+        @NamedQuery(name = "GET_BUNDLE_JOBS_STATUS_PENDING_OR_RUNNING", query = "select w.id, w.status, w.pending from BundleJobBean w where w.pending = 1 OR w.status = 'RUNNING' OR w.status = 'RUNNINGWITHERROR'"),
+
+        @NamedQuery(name = "GET_BUNDLE_JOBS_STATUS_BY_ACTION_LAST_MODIFIED_TIME", query = "select w.id, w.status, w.pending from BundleJobBean w where w.id IN (select distinct a.bundleId from BundleActionBean a where a.lastModifiedTimestamp >= :lastModifiedTime)"),
+
         @NamedQuery(name = "GET_BUNDLE_JOBS_RUNNING", query = "select OBJECT(w) from BundleJobBean w where w.status = 'RUNNING' OR w.status = 'RUNNINGWITHERROR' order by w.lastModifiedTimestamp"),
 
         @NamedQuery(name = "GET_BUNDLE_JOBS_NEED_START", query = "select OBJECT(w) from BundleJobBean w where w.status = 'PREP' and (w.kickoffTimestamp IS NULL OR w.kickoffTimestamp <= :currentTime) order by w.lastModifiedTimestamp"),
@@ -243,6 +247,7 @@ public class BundleJobBean extends JsonBundleJob implements Writable {
      */
     @Override
     public void setPending() {
+        super.setPending();
         this.pending = 1;
     }
 
@@ -253,6 +258,7 @@ public class BundleJobBean extends JsonBundleJob implements Writable {
      */
     @Override
     public void resetPending() {
+        super.resetPending();
         this.pending = 0;
     }
 
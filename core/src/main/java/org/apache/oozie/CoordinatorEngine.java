@@ -32,6 +32,7 @@ import org.apache.oozie.client.WorkflowJob;
 import org.apache.oozie.command.CommandException;
 import org.apache.oozie.command.coord.CoordActionInfoCommand;
 import org.apache.oozie.command.coord.CoordActionInfoXCommand;
+import org.apache.oozie.command.coord.CoordActionsStreamXCommand;
 import org.apache.oozie.command.coord.CoordChangeCommand;
 import org.apache.oozie.command.coord.CoordChangeXCommand;
 import org.apache.oozie.command.coord.CoordJobCommand;
@@ -48,9 +49,11 @@ import org.apache.oozie.command.coord.CoordSubmitCommand;
 import org.apache.oozie.command.coord.CoordSubmitXCommand;
 import org.apache.oozie.command.coord.CoordSuspendCommand;
 import org.apache.oozie.command.coord.CoordSuspendXCommand;
+import org.apache.oozie.executor.jpa.JPAResultHandler;
 import org.apache.oozie.service.DagXLogInfoService;
 import org.apache.oozie.service.Services;
 import org.apache.oozie.service.XLogService;
+import org.apache.oozie.util.ContinuationToken;
 import org.apache.oozie.util.ParamChecker;
 import org.apache.oozie.util.XLog;
 import org.apache.oozie.util.XLogStreamer;
@@ -173,6 +176,45 @@ public class CoordinatorEngine extends BaseEngine {
         }
     }
 
+    /**
+     * Return a coordinator job without its actions.
+     *
+     * @param jobId coordinator job id.
+     * @return the coordinator job, its actions are not loaded.
+     * @throws BaseEngineException thrown if the coordinator job could not be loaded.
+     */
+    public CoordinatorJobBean getCoordJobWithoutActions(String jobId) throws BaseEngineException {
+        try {
+            return new CoordJobXCommand(jobId, false).call();
+        }
+        catch (CommandException ex) {
+            throw new BaseEngineException(ex);
+        }
+    }
+
+    /**
+     * Read a subset of the actions of a coordinator job and pass them to a handler.
+     * <p/>
+     * The actions are ordered by action number and are read in pages, each page in its own transaction, so they are
+     * not loaded in a list and the handler is not called while a transaction is open.
+     *
+     * @param jobId coordinator job id.
+     * @param start starting index in the list of actions belonging to the job.
+     * @param length number of actions to read.
+     * @param handler handler the actions are passed to.
+     * @return the number of actions read.
+     * @throws BaseEngineException thrown if the actions could not be read or the handler failed.
+     */
+    public int streamCoordActions(String jobId, int start, int length,
+            JPAResultHandler<? super CoordinatorActionBean> handler) throws BaseEngineException {
+        try {
+            return new CoordActionsStreamXCommand(jobId, start, length, handler).call();
+        }
+        catch (CommandException ex) {
+            throw new BaseEngineException(ex);
+        }
+    }
+
     /*
      * (non-Javadoc)
      *
@@ -405,11 +447,24 @@ public class CoordinatorEngine extends BaseEngine {
      * @throws CoordinatorEngineException
      */
     public CoordinatorJobInfo getCoordJobs(String filterStr, int start, int len) throws CoordinatorEngineException {
+        return getCoordJobs(filterStr, start, len, true);
+    }
+
+    /**
+     * @param filterStr
+     * @param start
+     * @param len
+     * @param count if the matching jobs are counted, if not the total is -1
+     * @return CoordinatorJobInfo
+     * @throws CoordinatorEngineException
+     */
+    public CoordinatorJobInfo getCoordJobs(String filterStr, int start, int len, boolean count)
+            throws CoordinatorEngineException {
         Map<String, List<String>> filter = parseFilter(filterStr);
 
         try {
-            if (useXCommand) {
-                return new CoordJobsXCommand(filter, start, len).call();
+            if (useXCommand || !count) {
+                return new CoordJobsXCommand(filter, start, len, count).call();
             }
             else {
                 return new CoordJobsCommand(filter, start, len).call();
@@ -420,6 +475,34 @@ public class CoordinatorEngine extends BaseEngine {
         }
     }
 
+    /**
+     * Return the coordinator jobs that follow a continuation, newest first.
+     *
+     * @param filterStr
+     * @param continuation continuation returned with the previous page, null or empty for the first page
+     * @param len
+     * @param count if the matching jobs are counted, if not the total is -1
+     * @return CoordinatorJobInfo with the continuation for the next page
+     * @throws CoordinatorEngineException
+     */
+    public CoordinatorJobInfo getCoordJobsAfter(String filterStr, String continuation, int len, boolean count)
+            throws CoordinatorEngineException {
+        Map<String, List<String>> filter = parseFilter(filterStr);
+        ContinuationToken after;
+        try {
+            after = ContinuationToken.parse(continuation);
+        }
+        catch (IllegalArgumentException ex) {
+            throw new CoordinatorEngineException(ErrorCode.E0421, continuation, ex.getMessage());
+        }
+        try {
+            return new CoordJobsXCommand(filter, after, len, count).call();
+        }
+        catch (CommandException ex) {
+            throw new CoordinatorEngineException(ex);
+        }
+    }
+
     /**
      * @param filter
      * @return Map<String, List<String>>
@@ -54,8 +54,12 @@ import org.apache.openjpa.persistence.jdbc.Index;
 
         @NamedQuery(name = "GET_COORD_JOBS_OLDER_THAN_STATUS", query = "select OBJECT(w) from CoordinatorJobBean w where w.status = :status AND w.lastModifiedTimestamp <= :lastModTime order by w.lastModifiedTimestamp"),
 
+        @NamedQuery(name = "GET_COORD_JOBS_OLDER_THAN_STATUS_PAGE", query = "select w.id, w.lastModifiedTimestamp from CoordinatorJobBean w where w.status = :status AND w.lastModifiedTimestamp <= :lastModTime AND (w.lastModifiedTimestamp > :lastModified OR (w.lastModifiedTimestamp = :lastModified AND w.id > :lastId)) order by w.lastModifiedTimestamp, w.id"),
+
         @NamedQuery(name = "GET_COMPLETED_COORD_JOBS_OLDER_THAN_STATUS", query = "select OBJECT(w) from CoordinatorJobBean w where ( w.status = 'SUCCEEDED' OR w.status = 'FAILED' or w.status = 'KILLED') AND w.lastModifiedTimestamp <= :lastModTime order by w.lastModifiedTimestamp"),
 
+        @NamedQuery(name = "GET_COMPLETED_COORD_JOBS_OLDER_THAN_STATUS_PAGE", query = "select w.id, w.lastModifiedTimestamp from CoordinatorJobBean w where ( w.status = 'SUCCEEDED' OR w.status = 'FAILED' or w.status = 'KILLED') AND w.lastModifiedTimestamp <= :lastModTime AND (w.lastModifiedTimestamp > :lastModified OR (w.lastModifiedTimestamp = :lastModified AND w.id > :lastId)) order by w.lastModifiedTimestamp, w.id"),
+
         @NamedQuery(name = "GET_COORD_JOBS_FOR_BUNDLE", query = "select OBJECT(w) from CoordinatorJobBean w where w.bundleId = :bundleId order by w.lastModifiedTimestamp") })
 public class CoordinatorJobBean extends JsonCoordinatorJob implements Writable {
 
@@ -21,6 +21,7 @@ public class CoordinatorJobInfo {
     private int len;
     private int total;
     private List<CoordinatorJobBean> jobs;
+    private String continuation;
 
     /**
      * Create a coordinator info bean.
@@ -37,6 +38,20 @@ public class CoordinatorJobInfo {
         this.jobs = jobs;
     }
 
+    /**
+     * Create a coordinator info bean for a listing paged by continuation.
+     *
+     * @param jobs coordinator jobs being returned.
+     * @param len number of coordinator jobs.
+     * @param total total coordinator jobs, <code>-1</code> if they were not counted.
+     * @param continuation continuation to get the coordinator jobs that follow, <code>null</code> if there are no
+     * more.
+     */
+    public CoordinatorJobInfo(List<CoordinatorJobBean> jobs, int len, int total, String continuation) {
+        this(jobs, 0, len, total);
+        this.continuation = continuation;
+    }
+
     /**
      * Return the coordiantor jobs being returned.
      *
@@ -67,10 +82,21 @@ public class CoordinatorJobInfo {
     /**
      * Return the total number of workflows. <p/> For pagination purposes.
      *
-     * @return the total number of coordiantor jobs.
+     * @return the total number of coordiantor jobs, <code>-1</code> if they were not counted.
      */
     public int getTotal() {
         return total;
     }
 
+    /**
+     * Return the continuation to get the coordinator jobs that follow the ones being returned. <p/> For pagination
+     * purposes.
+     *
+     * @return the continuation, <code>null</code> if there are no more coordinator jobs or if the jobs were not paged
+     * by continuation.
+     */
+    public String getContinuation() {
+        return continuation;
+    }
+
 }
@@ -18,14 +18,13 @@ import org.apache.hadoop.conf.Configuration;
 import org.apache.oozie.client.WorkflowAction;
 import org.apache.oozie.service.CallbackService;
 import org.apache.oozie.workflow.WorkflowInstance;
+import org.apache.oozie.service.ConfigurationCacheService;
 import org.apache.oozie.service.Services;
 import org.apache.oozie.util.ELEvaluator;
 import org.apache.oozie.util.PropertiesUtils;
-import org.apache.oozie.util.XConfiguration;
 import org.apache.oozie.util.ParamChecker;
 
 import java.io.IOException;
-import java.io.StringReader;
 import java.util.Properties;
 import java.util.Map;
 
@@ -57,7 +56,8 @@ public class DagELFunctions {
         }
         try {
             evaluator.setVariable(ACTION_PROTO_CONF,
-                                  new XConfiguration(new StringReader(workflow.getProtoActionConf())));
+                                  Services.get().get(ConfigurationCacheService.class)
+                                          .parse(workflow.getProtoActionConf()));
         }
         catch (IOException ex) {
             throw new RuntimeException("It should not happen", ex);
@@ -54,6 +54,7 @@ import org.apache.oozie.command.wf.SuspendXCommand;
 import org.apache.oozie.command.wf.WorkflowActionInfoCommand;
 import org.apache.oozie.command.wf.WorkflowActionInfoXCommand;
 import org.apache.oozie.service.Services;
+import org.apache.oozie.util.ContinuationToken;
 import org.apache.oozie.service.CallableQueueService;
 import org.apache.oozie.util.ParamChecker;
 import org.apache.oozie.util.XCallable;
@@ -502,10 +503,24 @@ public class DagEngine extends BaseEngine {
      * @throws DagEngineException thrown if the jobs info could not be obtained.
      */
     public WorkflowsInfo getJobs(String filterStr, int start, int len) throws DagEngineException {
+        return getJobs(filterStr, start, len, true);
+    }
+
+    /**
+     * Return the info about a set of jobs.
+     *
+     * @param filterStr job filter. Refer to the {@link org.apache.oozie.client.OozieClient} for the filter syntax.
+     * @param start offset, base 1.
+     * @param len number of jobs to return.
+     * @param count if the matching jobs are counted, if not the total is -1.
+     * @return job info for all matching jobs, the jobs don't contain node action information.
+     * @throws DagEngineException thrown if the jobs info could not be obtained.
+     */
+    public WorkflowsInfo getJobs(String filterStr, int start, int len, boolean count) throws DagEngineException {
         Map<String, List<String>> filter = parseFilter(filterStr);
         try {
-            if (useXCommand) {
-                return new JobsXCommand(filter, start, len).call();
+            if (useXCommand || !count) {
+                return new JobsXCommand(filter, start, len, count).call();
             }
             else {
                 return new JobsCommand(filter, start, len).call();
@@ -516,6 +531,35 @@ public class DagEngine extends BaseEngine {
         }
     }
 
+    /**
+     * Return the info about the jobs that follow a continuation, newest first.
+     *
+     * @param filterStr job filter. Refer to the {@link org.apache.oozie.client.OozieClient} for the filter syntax.
+     * @param continuation continuation returned with the previous page, <code>null</code> or empty for the first page.
+     * @param len number of jobs to return.
+     * @param count if the matching jobs are counted, if not the total is -1.
+     * @return job info for the matching jobs with the continuation for the next page, the jobs don't contain node
+     * action information.
+     * @throws DagEngineException thrown if the jobs info could not be obtained.
+     */
+    public WorkflowsInfo getJobsAfter(String filterStr, String continuation, int len, boolean count)
+            throws DagEngineException {
+        Map<String, List<String>> filter = parseFilter(filterStr);
+        ContinuationToken after;
+        try {
+            after = ContinuationToken.parse(continuation);
+        }
+        catch (IllegalArgumentException ex) {
+            throw new DagEngineException(ErrorCode.E0421, continuation, ex.getMessage());
+        }
+        try {
+            return new JobsXCommand(filter, after, len, count).call();
+        }
+        catch (CommandException dce) {
+            throw new DagEngineException(dce);
+        }
+    }
+
     /**
      * Return the workflow Job ID for an external ID. <p/> This is reverse lookup for recovery purposes.
      *
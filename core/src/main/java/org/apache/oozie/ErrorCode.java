@@ -67,6 +67,7 @@ public enum ErrorCode {
     E0403(XLog.STD, "Invalid callback data, {0}"),
 
     E0420(XLog.STD, "Invalid jobs filter [{0}], {1}"),
+    E0421(XLog.STD, "Invalid jobs continuation [{0}], {1}"),
 
     E0500(XLog.OPS, "Not authorized, {0}"),
     E0501(XLog.OPS, "Could not perform authorization operation, {0}"),
@@ -90,6 +91,7 @@ public enum ErrorCode {
     E0608(XLog.OPS, "JDBC setup error [{0}], {1}"),
     E0609(XLog.OPS, "Missing [{0}] ORM file [{1}]"),
     E0610(XLog.OPS, "Missing JPAService, StoreService cannot run without a JPAService"),
+    E0611(XLog.OPS, "Lease of lock [{0}] lost, transaction not committed"),
 
     E0700(XLog.STD, "XML error, {0}"),
     E0701(XLog.STD, "XML schema error, {0}"),
@@ -120,6 +122,7 @@ public enum ErrorCode {
     E0726(XLog.STD, "Workflow action can not be killed, {0}"),
     E0727(XLog.STD, "Workflow Job can not be suspended as its not in running state, {0}, Status: {1}"),
     E0728(XLog.STD, "Coordinator Job can not be suspended as job finished or does not exist, {0}, Status: {1}"),
+    E0729(XLog.STD, "Could not resolve the workflow instance of job [{0}], application [{1}], {2}"),
 
     E0800(XLog.STD, "Action it is not running its in [{1}] state, action [{0}]"),
     E0801(XLog.STD, "Workflow already running, workflow [{0}]"),
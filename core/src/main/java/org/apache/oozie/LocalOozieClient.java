@@ -19,6 +19,7 @@ import java.util.Iterator;
 import java.util.List;
 import java.util.Properties;
 
+import org.apache.oozie.client.JobsPage;
 import org.apache.oozie.client.OozieClient;
 import org.apache.oozie.client.OozieClientException;
 import org.apache.oozie.client.WorkflowJob;
@@ -289,6 +290,29 @@ public class LocalOozieClient extends OozieClient {
         }
     }
 
+    /**
+     * Return a page of the workflow jobs that match the filter, newest first.
+     *
+     * @param filter job filter. Refer to the {@link LocalOozieClient} for the filter syntax.
+     * @param continuation continuation of the previous page, <code>null</code> for the first page.
+     * @param len number of jobs to return.
+     * @param count if the jobs that match the filter are counted, if not the total of the page is -1.
+     * @return a page with the workflow jobs info, without node details.
+     * @throws org.apache.oozie.client.OozieClientException thrown if the jobs info could not be retrieved.
+     */
+    @Override
+    @SuppressWarnings("unchecked")
+    public JobsPage<WorkflowJob> getJobsPage(String filter, String continuation, int len, boolean count)
+            throws OozieClientException {
+        try {
+            WorkflowsInfo info = dagEngine.getJobsAfter(filter, continuation, len, count);
+            return new JobsPage<WorkflowJob>((List) info.getWorkflows(), info.getTotal(), info.getContinuation());
+        }
+        catch (DagEngineException ex) {
+            throw new OozieClientException(ex.getErrorCode().toString(), ex);
+        }
+    }
+
     /**
      * Return the info of the workflow jobs that match the filter. <p/> It returns the first 100 jobs that match the
      * filter.
@@ -22,6 +22,7 @@ import java.util.Properties;
 
 import org.apache.oozie.client.CoordinatorAction;
 import org.apache.oozie.client.CoordinatorJob;
+import org.apache.oozie.client.JobsPage;
 import org.apache.oozie.client.OozieClient;
 import org.apache.oozie.client.OozieClientException;
 import org.apache.oozie.client.WorkflowJob;
@@ -415,6 +416,29 @@ public class LocalOozieClientCoord extends OozieClient {
         }
     }
 
+    /**
+     * Return a page of the coordinator jobs that match the filter, newest first.
+     *
+     * @param filter job filter. Refer to the {@link LocalOozieClient} for the filter syntax.
+     * @param continuation continuation of the previous page, <code>null</code> for the first page.
+     * @param len number of jobs to return.
+     * @param count if the jobs that match the filter are counted, if not the total of the page is -1.
+     * @return a page with the coordinator jobs info
+     * @throws OozieClientException thrown if the jobs info could not be retrieved.
+     */
+    @Override
+    public JobsPage<JsonCoordinatorJob> getCoordJobsPage(String filter, String continuation, int len, boolean count)
+            throws OozieClientException {
+        try {
+            CoordinatorJobInfo info = coordEngine.getCoordJobsAfter(filter, continuation, len, count);
+            List<JsonCoordinatorJob> jobs = new ArrayList<JsonCoordinatorJob>(info.getCoordJobs());
+            return new JobsPage<JsonCoordinatorJob>(jobs, info.getTotal(), info.getContinuation());
+        }
+        catch (CoordinatorEngineException ex) {
+            throw new OozieClientException(ex.getErrorCode().toString(), ex);
+        }
+    }
+
     /**
      * Return the info of the workflow jobs that match the filter.
      * <p/>
@@ -0,0 +1,116 @@
+/**
+ * Copyright (c) 2010 Yahoo! Inc. All rights reserved.
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License. See accompanying LICENSE file.
+ */
+package org.apache.oozie;
+
+import java.util.Date;
+
+import javax.persistence.Basic;
+import javax.persistence.Column;
+import javax.persistence.Entity;
+import javax.persistence.Id;
+import javax.persistence.NamedQueries;
+import javax.persistence.NamedQuery;
+import javax.persistence.Table;
+
+import org.apache.oozie.util.DateUtils;
+
+/**
+ * Lease on a lock resource held by an Oozie server, used by the {@link org.apache.oozie.service.DBLocksService}.
+ * <p/>
+ * A lease is owned by the server that holds the lock until it is released or until it expires.
+ */
+@Entity
+@Table(name = "LOCK_LEASES")
+@NamedQueries( {
+        @NamedQuery(name = "UPDATE_LOCK_LEASE_IF_EXPIRED", query = "update LockLeaseBean l set l.owner = :owner, l.expiration = :expiration where l.resource = :resource and (l.expiration < :now or l.owner = :owner)"),
+
+        @NamedQuery(name = "UPDATE_LOCK_LEASES_EXPIRATION_FOR_OWNER", query = "update LockLeaseBean l set l.expiration = :expiration where l.owner = :owner"),
+
+        @NamedQuery(name = "UPDATE_LOCK_LEASE_EXPIRATION_FOR_OWNER", query = "update LockLeaseBean l set l.expiration = :expiration where l.resource = :resource and l.owner = :owner"),
+
+        @NamedQuery(name = "DELETE_LOCK_LEASE", query = "delete from LockLeaseBean l where l.resource = :resource and l.owner = :owner"),
+
+        @NamedQuery(name = "DELETE_LOCK_LEASES_FOR_OWNER", query = "delete from LockLeaseBean l where l.owner = :owner"),
+
+        @NamedQuery(name = "GET_LOCK_LEASES", query = "select OBJECT(l) from LockLeaseBean l") })
+public class LockLeaseBean {
+
+    @Id
+    @Column(name = "resource")
+    private String resource = null;
+
+    @Basic
+    @Column(name = "owner")
+    private String owner = null;
+
+    @Basic
+    @Column(name = "expiration")
+    private java.sql.Timestamp expiration = null;
+
+    /**
+     * Get the lock resource.
+     *
+     * @return the lock resource
+     */
+    public String getResource() {
+        return resource;
+    }
+
+    /**
+     * Set the lock resource.
+     *
+     * @param resource the lock resource
+     */
+    public void setResource(String resource) {
+        this.resource = resource;
+    }
+
+    /**
+     * Get the owner of the lease.
+     *
+     * @return the owner of the lease
+     */
+    public String getOwner() {
+        return owner;
+    }
+
+    /**
+     * Set the owner of the lease.
+     *
+     * @param owner the owner of the lease
+     */
+    public void setOwner(String owner) {
+        this.owner = owner;
+    }
+
+    /**
+     * Get the expiration time of the lease.
+     *
+     * @return the expiration time of the lease
+     */
+    public Date getExpiration() {
+        return DateUtils.toDate(expiration);
+    }
+
+    /**
+     * Set the expiration time of the lease.
+     *
+     * @param expiration the expiration time of the lease
+     */
+    public void setExpiration(Date expiration) {
+        this.expiration = DateUtils.convertDateToTimestamp(expiration);
+    }
+
+}
@@ -0,0 +1,161 @@
+/**
+ * Copyright (c) 2010 Yahoo! Inc. All rights reserved.
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License. See accompanying LICENSE file.
+ */
+package org.apache.oozie;
+
+import java.util.Date;
+
+import javax.persistence.Basic;
+import javax.persistence.Column;
+import javax.persistence.Entity;
+import javax.persistence.Id;
+import javax.persistence.Lob;
+import javax.persistence.NamedQueries;
+import javax.persistence.NamedQuery;
+import javax.persistence.Table;
+
+import org.apache.oozie.util.DateUtils;
+import org.apache.oozie.util.ParamChecker;
+import org.apache.oozie.util.WritableUtils;
+import org.apache.oozie.workflow.lite.LiteWorkflowApp;
+
+/**
+ * Workflow application definition stored once by its content hash and shared by the workflow jobs that run it.
+ * <p/>
+ * The workflow instance of a {@link WorkflowJobBean} references the definition by its hash, kept in the app_hash
+ * column of the job. The last used time is updated when a new job reuses a stored definition, the purge deletes the
+ * definitions that no job references and that have not been used since the purge cutoff.
+ */
+@Entity
+@NamedQueries({
+
+    @NamedQuery(name = "DELETE_UNREFERENCED_WORKFLOW_APP_DEFS", query = "delete from WorkflowAppDefBean d where d.lastUsedTimestamp < :lastUsedTime AND NOT EXISTS (select w.id from WorkflowJobBean w where w.appHash = d.hash)")
+})
+@Table(name = "WF_APP_DEFS")
+public class WorkflowAppDefBean {
+
+    @Id
+    @Column(name = "hash")
+    private String hash = null;
+
+    @Basic
+    @Column(name = "app_name")
+    private String appName = null;
+
+    @Column(name = "app_def")
+    @Lob
+    private byte[] appDef = null;
+
+    @Basic
+    @Column(name = "created_time")
+    private java.sql.Timestamp createdTimestamp = null;
+
+    @Basic
+    @Column(name = "last_used_time")
+    private java.sql.Timestamp lastUsedTimestamp = null;
+
+    /**
+     * Default constructor.
+     */
+    public WorkflowAppDefBean() {
+    }
+
+    /**
+     * Create a bean for a workflow application.
+     *
+     * @param app the workflow application.
+     */
+    public WorkflowAppDefBean(LiteWorkflowApp app) {
+        ParamChecker.notNull(app, "app");
+        hash = app.getHash();
+        appName = app.getName();
+        appDef = WritableUtils.toByteArray(app);
+        Date now = new Date();
+        setCreatedTime(now);
+        setLastUsedTime(now);
+    }
+
+    /**
+     * Get the content hash of the workflow application.
+     *
+     * @return the content hash of the workflow application
+     */
+    public String getHash() {
+        return hash;
+    }
+
+    /**
+     * Get the name of the workflow application.
+     *
+     * @return the name of the workflow application
+     */
+    public String getAppName() {
+        return appName;
+    }
+
+    /**
+     * Get the serialized workflow application.
+     *
+     * @return the serialized workflow application
+     */
+    public byte[] getAppDef() {
+        return appDef;
+    }
+
+    /**
+     * Get the workflow application.
+     *
+     * @return the workflow application deserialized from the bean
+     */
+    public LiteWorkflowApp getApp() {
+        return WritableUtils.fromByteArray(appDef, LiteWorkflowApp.class);
+    }
+
+    /**
+     * Get the time the workflow application was first stored.
+     *
+     * @return the created time
+     */
+    public Date getCreatedTime() {
+        return DateUtils.toDate(createdTimestamp);
+    }
+
+    /**
+     * Set the time the workflow application was first stored.
+     *
+     * @param createdTime the created time
+     */
+    public void setCreatedTime(Date createdTime) {
+        this.createdTimestamp = DateUtils.convertDateToTimestamp(createdTime);
+    }
+
+    /**
+     * Get the last time a job was submitted with the workflow application.
+     *
+     * @return the last used time
+     */
+    public Date getLastUsedTime() {
+        return DateUtils.toDate(lastUsedTimestamp);
+    }
+
+    /**
+     * Set the last time a job was submitted with the workflow application.
+     *
+     * @param lastUsedTime the last used time
+     */
+    public void setLastUsedTime(Date lastUsedTime) {
+        this.lastUsedTimestamp = DateUtils.convertDateToTimestamp(lastUsedTime);
+    }
+
+}
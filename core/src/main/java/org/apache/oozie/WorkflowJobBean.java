@@ -15,14 +15,21 @@
 package org.apache.oozie;
 
 import org.apache.oozie.workflow.WorkflowInstance;
+import org.apache.oozie.workflow.lite.LiteWorkflowApp;
 import org.apache.oozie.workflow.lite.LiteWorkflowInstance;
 import org.apache.oozie.client.rest.JsonWorkflowJob;
 import org.apache.oozie.client.WorkflowJob;
 import org.apache.oozie.util.DateUtils;
+import org.apache.oozie.util.ParamChecker;
 import org.apache.oozie.util.WritableUtils;
+import org.apache.oozie.util.XConfiguration;
+import org.apache.oozie.util.XLog;
+import org.apache.hadoop.conf.Configuration;
 import org.apache.hadoop.io.Writable;
 
+import java.io.ByteArrayOutputStream;
 import java.io.DataInput;
+import java.io.DataOutputStream;
 import java.io.IOException;
 import java.io.DataOutput;
 import java.util.Date;
@@ -41,7 +48,7 @@ import org.apache.openjpa.persistence.jdbc.Index;
 @Entity
 @NamedQueries({
 
-    @NamedQuery(name = "UPDATE_WORKFLOW", query = "update WorkflowJobBean w set w.appName = :appName, w.appPath = :appPath, w.conf = :conf, w.group = :groupName, w.run = :run, w.user = :user, w.authToken = :authToken, w.createdTimestamp = :createdTime, w.endTimestamp = :endTime, w.externalId = :externalId, w.lastModifiedTimestamp = :lastModTime, w.logToken = :logToken, w.protoActionConf = :protoActionConf, w.slaXml =:slaXml, w.startTimestamp = :startTime, w.status = :status, w.wfInstance = :wfInstance where w.id = :id"),
+    @NamedQuery(name = "UPDATE_WORKFLOW", query = "update WorkflowJobBean w set w.appName = :appName, w.appPath = :appPath, w.conf = :conf, w.group = :groupName, w.run = :run, w.user = :user, w.authToken = :authToken, w.createdTimestamp = :createdTime, w.endTimestamp = :endTime, w.externalId = :externalId, w.lastModifiedTimestamp = :lastModTime, w.logToken = :logToken, w.protoActionConf = :protoActionConf, w.slaXml =:slaXml, w.startTimestamp = :startTime, w.status = :status, w.wfInstance = :wfInstance, w.appHash = :appHash where w.id = :id"),
 
     @NamedQuery(name = "DELETE_WORKFLOW", query = "delete from WorkflowJobBean w where w.id = :id"),
 
@@ -54,6 +61,8 @@ import org.apache.openjpa.persistence.jdbc.Index;
 
     @NamedQuery(name = "GET_COMPLETED_WORKFLOWS_OLDER_THAN", query = "select w from WorkflowJobBean w where w.endTimestamp < :endTime"),
 
+    @NamedQuery(name = "GET_COMPLETED_WORKFLOWS_OLDER_THAN_PAGE", query = "select w.id, w.endTimestamp from WorkflowJobBean w where w.endTimestamp < :endTime AND (w.endTimestamp > :lastEnd OR (w.endTimestamp = :lastEnd AND w.id > :lastId)) order by w.endTimestamp, w.id"),
+
     @NamedQuery(name = "GET_WORKFLOW", query = "select OBJECT(w) from WorkflowJobBean w where w.id = :id"),
 
     @NamedQuery(name = "GET_WORKFLOW_FOR_UPDATE", query = "select OBJECT(w) from WorkflowJobBean w where w.id = :id"),
@@ -113,6 +122,15 @@ public class WorkflowJobBean extends JsonWorkflowJob implements Writable {
     @Lob
     private byte[] wfInstance = null;
 
+    @Basic
+    @Index
+    @Column(name = "app_hash")
+    private String appHash = null;
+
+    private transient Configuration instanceConf = null;
+
+    private transient LiteWorkflowApp instanceApp = null;
+
     @Column(name = "sla_xml")
     @Lob
     private String slaXml = null;
@@ -212,8 +230,55 @@ public class WorkflowJobBean extends JsonWorkflowJob implements Writable {
         this.slaXml = slaXml;
     }
 
+    /**
+     * Return the workflow instance.
+     * <p/>
+     * An instance written in the compact format must have been resolved with {@link #resolveWorkflowInstance}, the
+     * commands do it when they load the job.
+     *
+     * @return the workflow instance.
+     * @throws IllegalStateException thrown if the instance is in the compact format and it has not been resolved.
+     */
     public WorkflowInstance getWorkflowInstance() {
-        return get(this.wfInstance);
+        LiteWorkflowInstance instance = WritableUtils.fromByteArray(wfInstance, LiteWorkflowInstance.class);
+        if (!instance.isResolved()) {
+            if (instanceApp == null) {
+                throw new IllegalStateException(XLog.format("Workflow instance of job [{0}] is not resolved, "
+                        + "application [{1}]", getId(), instance.getAppHash()));
+            }
+            XConfiguration conf = new XConfiguration();
+            XConfiguration.copy(instanceConf, conf);
+            instance.resolve(conf, instanceApp);
+        }
+        return instance;
+    }
+
+    /**
+     * Return if the workflow instance can be returned by {@link #getWorkflowInstance()}.
+     *
+     * @return <code>false</code> if the instance is in the compact format and it has not been resolved.
+     */
+    public boolean isWorkflowInstanceResolved() {
+        return appHash == null || instanceApp != null;
+    }
+
+    /**
+     * Give the configuration and the workflow application to an instance written in the compact format.
+     * <p/>
+     * They are not persisted, they are given to the instance every time {@link #getWorkflowInstance()} is called.
+     *
+     * @param conf the job configuration.
+     * @param app the workflow application stored with the hash returned by {@link #getAppHash()}.
+     */
+    public void resolveWorkflowInstance(Configuration conf, LiteWorkflowApp app) {
+        ParamChecker.notNull(conf, "conf");
+        ParamChecker.notNull(app, "app");
+        if (!app.getHash().equals(appHash)) {
+            throw new IllegalArgumentException(XLog.format("Workflow application hash [{0}] is not [{1}]",
+                                                           app.getHash(), appHash));
+        }
+        this.instanceConf = conf;
+        this.instanceApp = app;
     }
 
     public byte[] getWfInstance() {
@@ -226,10 +291,58 @@ public class WorkflowJobBean extends JsonWorkflowJob implements Writable {
 
     public void setWfInstance(byte[] wfInstance) {
         this.wfInstance = wfInstance;
+        this.instanceConf = null;
+        this.instanceApp = null;
     }
 
+    /**
+     * Return the hash of the workflow application the instance references in the WF_APP_DEFS table.
+     *
+     * @return the hash of the workflow application, <code>null</code> if the instance is written with its application.
+     */
+    public String getAppHash() {
+        return appHash;
+    }
+
+    public void setAppHash(String appHash) {
+        this.appHash = appHash;
+    }
+
+    /**
+     * Set the workflow instance.
+     * <p/>
+     * The instance is written in the compact format when the job configuration is set and the workflow application
+     * is known to be stored in the WF_APP_DEFS table, see {@link LiteWorkflowInstance#isAppStored()}. Otherwise the
+     * instance is written with its configuration and application. The hash of the application of a compact instance
+     * is kept in the app_hash column, the purge deletes the applications no job references.
+     * <p/>
+     * Storing the application is up to the command writing the job, in the same transaction.
+     *
+     * @param wfInstance the workflow instance.
+     */
     public void setWfInstance(WorkflowInstance wfInstance) {
-        this.wfInstance = WritableUtils.toByteArray((LiteWorkflowInstance) wfInstance);
+        LiteWorkflowInstance instance = (LiteWorkflowInstance) wfInstance;
+        if (getConf() != null && instance.isAppStored()) {
+            try {
+                ByteArrayOutputStream baos = new ByteArrayOutputStream();
+                DataOutputStream daos = new DataOutputStream(baos);
+                instance.writeCompact(daos);
+                daos.close();
+                this.wfInstance = baos.toByteArray();
+                this.appHash = instance.getAppHash();
+                this.instanceConf = instance.getConf();
+                this.instanceApp = (LiteWorkflowApp) instance.getApp();
+            }
+            catch (IOException ex) {
+                throw new RuntimeException(ex);
+            }
+        }
+        else {
+            this.wfInstance = WritableUtils.toByteArray(instance);
+            this.appHash = null;
+            this.instanceConf = null;
+            this.instanceApp = null;
+        }
     }
 
     public String getProtoActionConf() {
@@ -349,9 +462,4 @@ public class WorkflowJobBean extends JsonWorkflowJob implements Writable {
         this.endTimestamp = DateUtils.convertDateToTimestamp(endTime);
     }
 
-    private WorkflowInstance get(byte[] array) {
-        LiteWorkflowInstance pInstance = WritableUtils.fromByteArray(array, LiteWorkflowInstance.class);
-        return pInstance;
-    }
-
 }
@@ -24,6 +24,7 @@ public class WorkflowsInfo {
     private int len;
     private int total;
     private List<WorkflowJobBean> workflows;
+    private String continuation;
 
     /**
      * Create  a workflows info bean.
@@ -40,6 +41,19 @@ public class WorkflowsInfo {
         this.workflows = workflows;
     }
 
+    /**
+     * Create a workflows info bean for a listing paged by continuation.
+     *
+     * @param workflows workflows being returned.
+     * @param len number of workflows.
+     * @param total total workflows, <code>-1</code> if they were not counted.
+     * @param continuation continuation to get the workflows that follow, <code>null</code> if there are no more.
+     */
+    public WorkflowsInfo(List<WorkflowJobBean> workflows, int len, int total, String continuation) {
+        this(workflows, 0, len, total);
+        this.continuation = continuation;
+    }
+
     /**
      * Return the workflows being returned.
      *
@@ -70,10 +84,20 @@ public class WorkflowsInfo {
     /**
      * Return the total number of workflows. <p/> For pagination purposes.
      *
-     * @return the total number of workflows.
+     * @return the total number of workflows, <code>-1</code> if they were not counted.
      */
     public int getTotal() {
         return total;
     }
 
+    /**
+     * Return the continuation to get the workflows that follow the ones being returned. <p/> For pagination purposes.
+     *
+     * @return the continuation, <code>null</code> if there are no more workflows or if the workflows were not paged
+     * by continuation.
+     */
+    public String getContinuation() {
+        return continuation;
+    }
+
 }
@@ -20,6 +20,7 @@ import org.apache.oozie.action.ActionExecutorException;
 import org.apache.oozie.DagEngine;
 import org.apache.oozie.LocalOozieClient;
 import org.apache.oozie.WorkflowJobBean;
+import org.apache.oozie.service.ConfigurationCacheService;
 import org.apache.oozie.service.DagEngineService;
 import org.apache.oozie.service.WorkflowAppService;
 import org.apache.oozie.client.WorkflowAction;
@@ -139,7 +140,8 @@ public class SubWorkflowActionExecutor extends ActionExecutor {
 
                 XConfiguration subWorkflowConf = new XConfiguration();
                 if (eConf.getChild(("propagate-configuration"), ns) != null) {
-                    Configuration parentConf = new XConfiguration(new StringReader(context.getWorkflow().getConf()));
+                    Configuration parentConf = Services.get().get(ConfigurationCacheService.class).parse(
+                            context.getWorkflow().getConf());
                     XConfiguration.copy(parentConf, subWorkflowConf);
                 }
 
@@ -168,6 +168,16 @@ public abstract class Command<T, S extends Store> implements XCallable<T> {
         return createdTime;
     }
 
+    /**
+     * Return the key of the command. <p/> Commands are always queued, this implementation returns <code>null</code>.
+     *
+     * @return <code>null</code>.
+     */
+    @Override
+    public String getKey() {
+        return null;
+    }
+
     /**
      * Execute the command {@link #call(WorkflowStore)} setting all the necessary context. <p/> The {@link XLog.Info} is
      * set to the values at instance creation time. <p/> The command execution is logged and instrumented. <p/> If a
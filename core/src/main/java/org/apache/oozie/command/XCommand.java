@@ -138,6 +138,21 @@ public abstract class XCommand<T> implements XCallable<T> {
         return createdTime;
     }
 
+    /**
+     * Return the key of the command.
+     * <p/>
+     * The {@link CallableQueueService} drops a command if another command with the same key is already queued.
+     * <p/>
+     * This implementation returns <code>null</code>, commands are always queued. Subclasses that are idempotent for
+     * a given entity should override this method returning the command name and the entity id.
+     *
+     * @return the command key, <code>null</code> if the command must always be queued.
+     */
+    @Override
+    public String getKey() {
+        return null;
+    }
+
     /**
      * Queue a command for execution after the current command execution completes.
      * <p/>
@@ -20,7 +20,6 @@ import java.util.Date;
 import java.util.List;
 
 import org.apache.hadoop.conf.Configuration;
-import org.apache.hadoop.fs.Path;
 import org.apache.oozie.CoordinatorActionBean;
 import org.apache.oozie.ErrorCode;
 import org.apache.oozie.client.CoordinatorAction;
@@ -28,8 +27,8 @@ import org.apache.oozie.client.OozieClient;
 import org.apache.oozie.command.CommandException;
 import org.apache.oozie.coord.CoordELEvaluator;
 import org.apache.oozie.coord.CoordELFunctions;
+import org.apache.oozie.service.DatasetAvailabilityService;
 import org.apache.oozie.service.HadoopAccessorException;
-import org.apache.oozie.service.HadoopAccessorService;
 import org.apache.oozie.service.Services;
 import org.apache.oozie.store.CoordinatorStore;
 import org.apache.oozie.store.StoreException;
@@ -299,12 +298,10 @@ public class CoordActionInputCheckCommand extends CoordinatorCommand<Void> {
 
     private boolean pathExists(String sPath, Configuration actionConf) throws IOException {
         log.debug("checking for the file " + sPath);
-        Path path = new Path(sPath);
         String user = ParamChecker.notEmpty(actionConf.get(OozieClient.USER_NAME), OozieClient.USER_NAME);
         String group = ParamChecker.notEmpty(actionConf.get(OozieClient.GROUP_NAME), OozieClient.GROUP_NAME);
         try {
-            return Services.get().get(HadoopAccessorService.class).createFileSystem(user, group, path.toUri(),
-                    actionConf).exists(path);
+            return Services.get().get(DatasetAvailabilityService.class).exists(sPath, user, group, actionConf);
         }
         catch (HadoopAccessorException e) {
             throw new IOException(e);
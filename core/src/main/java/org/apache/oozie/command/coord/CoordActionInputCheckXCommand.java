@@ -15,12 +15,10 @@
 package org.apache.oozie.command.coord;
 
 import java.io.IOException;
-import java.io.StringReader;
 import java.util.Date;
 import java.util.List;
 
 import org.apache.hadoop.conf.Configuration;
-import org.apache.hadoop.fs.Path;
 import org.apache.oozie.CoordinatorActionBean;
 import org.apache.oozie.ErrorCode;
 import org.apache.oozie.client.CoordinatorAction;
@@ -31,8 +29,10 @@ import org.apache.oozie.coord.CoordELEvaluator;
 import org.apache.oozie.coord.CoordELFunctions;
 import org.apache.oozie.executor.jpa.CoordActionGetJPAExecutor;
 import org.apache.oozie.executor.jpa.JPAExecutorException;
+import org.apache.oozie.service.ConfigurationCacheService;
+import org.apache.oozie.service.DatasetAvailabilityService;
+import org.apache.oozie.service.DependencyRegistryService;
 import org.apache.oozie.service.HadoopAccessorException;
-import org.apache.oozie.service.HadoopAccessorService;
 import org.apache.oozie.service.JPAService;
 import org.apache.oozie.service.Services;
 import org.apache.oozie.util.DateUtils;
@@ -40,7 +40,6 @@ import org.apache.oozie.util.ELEvaluator;
 import org.apache.oozie.util.Instrumentation;
 import org.apache.oozie.util.LogUtils;
 import org.apache.oozie.util.ParamChecker;
-import org.apache.oozie.util.XConfiguration;
 import org.apache.oozie.util.XLog;
 import org.apache.oozie.util.XmlUtils;
 import org.jdom.Element;
@@ -51,14 +50,29 @@ import org.jdom.Element;
 public class CoordActionInputCheckXCommand extends CoordinatorXCommand<Void> {
 
     private final String actionId;
+    private final boolean notified;
     private static XLog LOG = XLog.getLog(CoordActionInputCheckXCommand.class);
     private int COMMAND_REQUEUE_INTERVAL = 60000; // 1 minute
     private CoordinatorActionBean coordAction = null;
     private JPAService jpaService = null;
 
     public CoordActionInputCheckXCommand(String actionId) {
+        this(actionId, false);
+    }
+
+    /**
+     * Create an input check command.
+     * <p/>
+     * A command queued because a dependency of the action became available has its own key, so it is not dropped
+     * while the periodic check of the action is queued.
+     *
+     * @param actionId coordinator action ID.
+     * @param notified if the command is queued by the {@link DependencyRegistryService}.
+     */
+    public CoordActionInputCheckXCommand(String actionId, boolean notified) {
         super("coord_action_input", "coord_action_input", 1);
         this.actionId = ParamChecker.notEmpty(actionId, "actionId");
+        this.notified = notified;
     }
 
     /* (non-Javadoc)
@@ -70,7 +84,8 @@ public class CoordActionInputCheckXCommand extends CoordinatorXCommand<Void> {
         StringBuilder actionXml = new StringBuilder(coordAction.getActionXml());
         Instrumentation.Cron cron = new Instrumentation.Cron();
         try {
-            Configuration actionConf = new XConfiguration(new StringReader(coordAction.getRunConf()));
+            Configuration actionConf = Services.get().get(ConfigurationCacheService.class).parse(
+                    coordAction.getRunConf());
             cron.start();
             StringBuilder existList = new StringBuilder();
             StringBuilder nonExistList = new StringBuilder();
@@ -87,7 +102,11 @@ public class CoordActionInputCheckXCommand extends CoordinatorXCommand<Void> {
                 nonExistList.append(CoordCommandUtils.RESOLVED_UNRESOLVED_SEPARATOR).append(nonResolvedList);
             }
             coordAction.setMissingDependencies(nonExistList.toString());
+            DependencyRegistryService registry = Services.get().get(DependencyRegistryService.class);
             if (status == true) {
+                if (registry != null) {
+                    registry.unregister(actionId);
+                }
                 coordAction.setStatus(CoordinatorAction.Status.READY);
                 // pass jobID to the CoordActionReadyXCommand
                 queue(new CoordActionReadyXCommand(coordAction.getJobId()), 100);
@@ -98,11 +117,20 @@ public class CoordActionInputCheckXCommand extends CoordinatorXCommand<Void> {
                         / (60 * 1000);
                 int timeOut = coordAction.getTimeOut();
                 if ((timeOut >= 0) && (waitingTime > timeOut)) {
+                    if (registry != null) {
+                        registry.unregister(actionId);
+                    }
                     queue(new CoordActionTimeOutXCommand(coordAction), 100);
                     coordAction.setStatus(CoordinatorAction.Status.TIMEDOUT);
                 }
                 else {
-                    queue(new CoordActionInputCheckXCommand(coordAction.getId()), COMMAND_REQUEUE_INTERVAL);
+                    long requeueInterval = COMMAND_REQUEUE_INTERVAL;
+                    String dependency = getFirstMissing(nonExistList);
+                    if (registry != null && dependency != null
+                            && registry.register(dependency, actionId, actionConf.get(OozieClient.USER_NAME))) {
+                        requeueInterval = registry.getPollInterval();
+                    }
+                    queue(new CoordActionInputCheckXCommand(coordAction.getId()), requeueInterval);
                 }
             }
             coordAction.setLastModifiedTime(new Date());
@@ -116,6 +144,25 @@ public class CoordActionInputCheckXCommand extends CoordinatorXCommand<Void> {
         return null;
     }
 
+    /**
+     * Return the first missing resolved dependency, the one the input check stopped at.
+     *
+     * @param missingDeps missing dependencies of the action
+     * @return the URI of the first missing resolved dependency, null if there is none
+     */
+    private String getFirstMissing(StringBuilder missingDeps) {
+        String resolved = missingDeps.toString();
+        int index = resolved.indexOf(CoordCommandUtils.RESOLVED_UNRESOLVED_SEPARATOR);
+        if (index >= 0) {
+            resolved = resolved.substring(0, index);
+        }
+        index = resolved.indexOf(CoordELFunctions.INSTANCE_SEPARATOR);
+        if (index >= 0) {
+            resolved = resolved.substring(0, index);
+        }
+        return (resolved.length() > 0) ? resolved : null;
+    }
+
     /**
      * To check the list of input paths if all of them exist
      *
@@ -315,14 +362,13 @@ public class CoordActionInputCheckXCommand extends CoordinatorXCommand<Void> {
 
         String[] uriList = nonExistList.toString().split(CoordELFunctions.INSTANCE_SEPARATOR);
         nonExistList.delete(0, nonExistList.length());
-        boolean allExists = true;
+        int available = countAvailable(uriList, conf);
         String existSeparator = "", nonExistSeparator = "";
         for (int i = 0; i < uriList.length; i++) {
-            if (allExists) {
-                allExists = pathExists(uriList[i], conf);
-                LOG.info("[" + actionId + "]::ActionInputCheck:: File:" + uriList[i] + ", Exists? :" + allExists);
+            if (i <= available) {
+                LOG.info("[" + actionId + "]::ActionInputCheck:: File:" + uriList[i] + ", Exists? :" + (i < available));
             }
-            if (allExists) {
+            if (i < available) {
                 existList.append(existSeparator).append(uriList[i]);
                 existSeparator = CoordELFunctions.INSTANCE_SEPARATOR;
             }
@@ -331,25 +377,24 @@ public class CoordActionInputCheckXCommand extends CoordinatorXCommand<Void> {
                 nonExistSeparator = CoordELFunctions.INSTANCE_SEPARATOR;
             }
         }
-        return allExists;
+        return available == uriList.length;
     }
 
     /**
-     * Check if given path exists
+     * Return the number of given paths, from the first one, that exist, through the {@link
+     * DatasetAvailabilityService}
      *
-     * @param sPath uri path
+     * @param uriList uri paths
      * @param actionConf action configuration
-     * @return true if path exists
-     * @throws IOException thrown if unable to access the path
+     * @return the index of the first path that does not exist, the number of paths if all exist
+     * @throws IOException thrown if unable to access the paths
      */
-    private boolean pathExists(String sPath, Configuration actionConf) throws IOException {
-        LOG.debug("checking for the file " + sPath);
-        Path path = new Path(sPath);
+    private int countAvailable(String[] uriList, Configuration actionConf) throws IOException {
         String user = ParamChecker.notEmpty(actionConf.get(OozieClient.USER_NAME), OozieClient.USER_NAME);
         String group = ParamChecker.notEmpty(actionConf.get(OozieClient.GROUP_NAME), OozieClient.GROUP_NAME);
         try {
-            return Services.get().get(HadoopAccessorService.class).createFileSystem(user, group, path.toUri(),
-                    new Configuration()).exists(path);
+            return Services.get().get(DatasetAvailabilityService.class).countAvailable(uriList, user, group,
+                    new Configuration());
         }
         catch (HadoopAccessorException e) {
             throw new IOException(e);
@@ -400,6 +445,11 @@ public class CoordActionInputCheckXCommand extends CoordinatorXCommand<Void> {
         return coordAction.getJobId();
     }
 
+    @Override
+    public String getKey() {
+        return getName() + "_" + actionId + ((notified) ? "_notified" : "");
+    }
+
     /* (non-Javadoc)
      * @see org.apache.oozie.command.XCommand#isLockRequired()
      */
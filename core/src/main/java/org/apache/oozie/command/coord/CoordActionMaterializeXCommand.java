@@ -15,7 +15,6 @@
 package org.apache.oozie.command.coord;
 
 import java.io.IOException;
-import java.io.StringReader;
 import java.util.Calendar;
 import java.util.Date;
 import java.util.TimeZone;
@@ -24,24 +23,26 @@ import org.apache.hadoop.conf.Configuration;
 import org.apache.oozie.CoordinatorActionBean;
 import org.apache.oozie.CoordinatorJobBean;
 import org.apache.oozie.ErrorCode;
+import org.apache.oozie.SLAEventBean;
 import org.apache.oozie.client.CoordinatorJob;
 import org.apache.oozie.client.SLAEvent.SlaAppType;
 import org.apache.oozie.command.CommandException;
 import org.apache.oozie.command.PreconditionException;
+import org.apache.oozie.executor.jpa.BulkJPAExecutor;
 import org.apache.oozie.executor.jpa.CoordActionInsertJPAExecutor;
 import org.apache.oozie.executor.jpa.CoordJobGetJPAExecutor;
 import org.apache.oozie.executor.jpa.CoordJobUpdateJPAExecutor;
 import org.apache.oozie.executor.jpa.JPAExecutorException;
+import org.apache.oozie.executor.jpa.SLAEventInsertJPAExecutor;
 import org.apache.oozie.coord.TimeUnit;
+import org.apache.oozie.service.ConfigurationCacheService;
 import org.apache.oozie.service.JPAService;
 import org.apache.oozie.service.Service;
 import org.apache.oozie.service.Services;
-import org.apache.oozie.store.StoreException;
 import org.apache.oozie.util.DateUtils;
 import org.apache.oozie.util.Instrumentation;
 import org.apache.oozie.util.LogUtils;
 import org.apache.oozie.util.ParamChecker;
-import org.apache.oozie.util.XConfiguration;
 import org.apache.oozie.util.XLog;
 import org.apache.oozie.util.XmlUtils;
 import org.apache.oozie.util.db.SLADbOperations;
@@ -58,12 +59,24 @@ public class CoordActionMaterializeXCommand extends CoordinatorXCommand<Void> {
     private String group;
     private JPAService jpaService = null;
     CoordinatorJobBean job = null;
+    private BulkJPAExecutor bulk = null;
+    private Date pendingEndTime = null;
     
     /**
      * Default timeout for catchup jobs, in minutes, after which coordinator input check will timeout
      */
     public static final String CONF_DEFAULT_TIMEOUT_CATCHUP = Service.CONF_PREFIX + "coord.catchup.default.timeout";
 
+    /**
+     * Maximum number of actions created by a single materialization command, -1 means no limit.
+     */
+    public static final String CONF_MAX_ACTIONS = Service.CONF_PREFIX + "coord.materialization.max.actions";
+
+    /**
+     * Time budget of a single materialization command, in seconds, -1 means no limit.
+     */
+    public static final String CONF_MAX_TIME = Service.CONF_PREFIX + "coord.materialization.max.time";
+
     public CoordActionMaterializeXCommand(String jobId, Date startTime, Date endTime) {
         super("coord_action_mater", "coord_action_mater", 1);
         this.jobId = ParamChecker.notEmpty(jobId, "jobId");
@@ -80,7 +93,7 @@ public class CoordActionMaterializeXCommand extends CoordinatorXCommand<Void> {
             Configuration jobConf = null;
             log.debug("start job :" + jobId + " Materialization ");
             try {
-                jobConf = new XConfiguration(new StringReader(job.getConf()));
+                jobConf = Services.get().get(ConfigurationCacheService.class).parse(job.getConf());
             }
             catch (IOException ioe) {
                 log.warn("Configuration parse error. read from DB :" + job.getConf(), ioe);
@@ -90,6 +103,7 @@ public class CoordActionMaterializeXCommand extends CoordinatorXCommand<Void> {
             Instrumentation.Cron cron = new Instrumentation.Cron();
             cron.start();
             try {
+                bulk = new BulkJPAExecutor();
                 materializeJobs(false, job, jobConf, log);
                 updateJobTable(job);
             }
@@ -117,6 +131,10 @@ public class CoordActionMaterializeXCommand extends CoordinatorXCommand<Void> {
 
     /**
      * Create action instances starting from "start-time" to end-time" and store them into Action table.
+     * <p/>
+     * The job XML and configuration are parsed and serialized once. The actions and their SLA registration events are
+     * collected and stored with the job update in a single transaction. A run stops after {@link #CONF_MAX_ACTIONS}
+     * actions or {@link #CONF_MAX_TIME} seconds, the remaining materialization is queued as a new command.
      *
      * @param dryrun if this is a dry run
      * @param jobBean coordinator job bean
@@ -150,6 +168,12 @@ public class CoordActionMaterializeXCommand extends CoordinatorXCommand<Void> {
         // Move the time when the previous action finished
         effStart.add(freqTU.getCalendarUnit(), lastActionNumber * frequency);
 
+        String confXml = XmlUtils.prettyPrint(conf).toString();
+        int maxActions = Services.get().getConf().getInt(CONF_MAX_ACTIONS, 1000);
+        long maxTime = Services.get().getConf().getLong(CONF_MAX_TIME, 60) * 1000;
+        long runStart = System.currentTimeMillis();
+        int count = 0;
+
         String action = null;
         StringBuilder actionStrings = new StringBuilder();
         Date jobPauseTime = jobBean.getPauseTime();
@@ -163,14 +187,22 @@ public class CoordActionMaterializeXCommand extends CoordinatorXCommand<Void> {
             if (pause != null && effStart.compareTo(pause) >= 0) {
                 break;
             }
+            if (!dryrun && count > 0 && ((maxActions > 0 && count >= maxActions)
+                    || (maxTime > 0 && System.currentTimeMillis() - runStart >= maxTime))) {
+                log.info("Materialization limit reached after [{0}] actions in [{1}]ms, continuing from [{2}]", count,
+                        System.currentTimeMillis() - runStart, effStart.getTime());
+                pendingEndTime = endTime;
+                break;
+            }
             CoordinatorActionBean actionBean = new CoordinatorActionBean();
             lastActionNumber++;
 
             int timeout = jobBean.getTimeout();
             log.debug(origStart.getTime() + " Materializing action for time=" + effStart.getTime()
                     + ", lastactionnumber=" + lastActionNumber);
-            action = CoordCommandUtils.materializeOneInstance(jobId, dryrun, (Element) eJob.clone(),
-                    effStart.getTime(), lastActionNumber, conf, actionBean);
+            Element eAction = (Element) eJob.clone();
+            action = CoordCommandUtils.materializeOneInstance(jobId, dryrun, eAction, effStart.getTime(),
+                    lastActionNumber, conf, confXml, actionBean);
             int catchUpTOMultiplier = 1; // This value might be could be changed in future
             if (actionBean.getNominalTimestamp().before(jobBean.getCreatedTimestamp())) {
                 // Catchup action
@@ -181,7 +213,8 @@ public class CoordActionMaterializeXCommand extends CoordinatorXCommand<Void> {
             }
             actionBean.setTimeOut(timeout);
             if (!dryrun) {
-                storeToDB(actionBean, action); // Storing to table
+                storeToDB(actionBean, action, eAction); // Storing to table
+                count++;
             }
             else {
                 actionStrings.append("action for new instance");
@@ -201,23 +234,26 @@ public class CoordActionMaterializeXCommand extends CoordinatorXCommand<Void> {
         }
     }
 
-    private void storeToDB(CoordinatorActionBean actionBean, String actionXml) throws Exception {
+    private void storeToDB(CoordinatorActionBean actionBean, String actionXml, Element eAction) throws Exception {
         log.debug("In storeToDB() action Id " + actionBean.getId() + " Size of actionXml " + actionXml.length());
         actionBean.setActionXml(actionXml);
 
-        jpaService.execute(new CoordActionInsertJPAExecutor(actionBean));
-        writeActionRegistration(actionXml, actionBean);
+        bulk.add(new CoordActionInsertJPAExecutor(actionBean));
+        writeActionRegistration(eAction, actionBean);
 
         // TODO: time 100s should be configurable
         queue(new CoordActionNotificationXCommand(actionBean), 100);
         queue(new CoordActionInputCheckXCommand(actionBean.getId()), 100);
     }
 
-    private void writeActionRegistration(String actionXml, CoordinatorActionBean actionBean)
+    private void writeActionRegistration(Element eAction, CoordinatorActionBean actionBean)
             throws Exception {
-        Element eAction = XmlUtils.parseXml(actionXml);
         Element eSla = eAction.getChild("action", eAction.getNamespace()).getChild("info", eAction.getNamespace("sla"));
-        SLADbOperations.writeSlaRegistrationEvent(eSla, actionBean.getId(), SlaAppType.COORDINATOR_ACTION, user, group, log);
+        SLAEventBean sla = SLADbOperations.createSlaRegistrationEvent(eSla, actionBean.getId(),
+                SlaAppType.COORDINATOR_ACTION, user, group);
+        if (sla != null) {
+            bulk.add(new SLAEventInsertJPAExecutor(sla));
+        }
     }
 
     private void updateJobTable(CoordinatorJobBean job) throws CommandException {
@@ -227,7 +263,13 @@ public class CoordActionMaterializeXCommand extends CoordinatorXCommand<Void> {
         // succeeded
         // we dont need to materialize this job anymore
         Date jobEndTime = job.getEndTime();
-        if (jobEndTime.compareTo(endTime) <= 0) {
+        if (pendingEndTime != null) {
+            // the run was capped, the job stays in PREMATER until the remaining actions are materialized
+            job.setLastModifiedTime(new Date());
+            queue(new CoordActionMaterializeXCommand(jobId, endTime, pendingEndTime));
+            log.info("[" + job.getId() + "]: Materialization continues from " + endTime + " to " + pendingEndTime);
+        }
+        else if (jobEndTime.compareTo(endTime) <= 0) {
             job.setStatus(CoordinatorJob.Status.SUCCEEDED);
             log.info("[" + job.getId() + "]: Update status from PREMATER to SUCCEEDED");
         }
@@ -237,7 +279,7 @@ public class CoordActionMaterializeXCommand extends CoordinatorXCommand<Void> {
         }
         job.setNextMaterializedTime(endTime);
         try {
-            jpaService.execute(new CoordJobUpdateJPAExecutor(job));
+            jpaService.execute(bulk.add(new CoordJobUpdateJPAExecutor(job)));
         }
         catch (JPAExecutorException ex) {
             throw new CommandException(ex);
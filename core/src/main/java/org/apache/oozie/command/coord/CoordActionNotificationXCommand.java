@@ -15,7 +15,6 @@
 package org.apache.oozie.command.coord;
 
 import java.io.IOException;
-import java.io.StringReader;
 import java.net.HttpURLConnection;
 import java.net.URL;
 
@@ -25,9 +24,10 @@ import org.apache.oozie.ErrorCode;
 import org.apache.oozie.client.OozieClient;
 import org.apache.oozie.command.CommandException;
 import org.apache.oozie.command.PreconditionException;
+import org.apache.oozie.service.ConfigurationCacheService;
+import org.apache.oozie.service.Services;
 import org.apache.oozie.util.LogUtils;
 import org.apache.oozie.util.ParamChecker;
-import org.apache.oozie.util.XConfiguration;
 import org.apache.oozie.util.XLog;
 
 /**
@@ -56,7 +56,7 @@ public class CoordActionNotificationXCommand extends CoordinatorXCommand<Void> {
         LOG.info("STARTED Coordinator Notification actionId=" + actionBean.getId() + " : " + actionBean.getStatus());
         Configuration conf;
         try {
-            conf = new XConfiguration(new StringReader(actionBean.getRunConf()));
+            conf = Services.get().get(ConfigurationCacheService.class).parse(actionBean.getRunConf());
         }
         catch (IOException e1) {
             LOG.warn("Configuration parse error. read from DB :" + actionBean.getRunConf());
@@ -126,6 +126,11 @@ public class CoordActionReadyXCommand extends CoordinatorXCommand<Void> {
         return jobId;
     }
 
+    @Override
+    public String getKey() {
+        return getName() + "_" + jobId;
+    }
+
     @Override
     protected boolean isLockRequired() {
         return true;
@@ -25,6 +25,7 @@ import org.apache.oozie.ErrorCode;
 import org.apache.oozie.WorkflowJobBean;
 import org.apache.oozie.command.CommandException;
 import org.apache.oozie.command.PreconditionException;
+import org.apache.oozie.service.ConfigurationCacheService;
 import org.apache.oozie.service.DagEngineService;
 import org.apache.oozie.service.JPAService;
 import org.apache.oozie.service.Services;
@@ -154,7 +155,8 @@ public class CoordActionStartXCommand extends CoordinatorXCommand<Void> {
             DagEngine dagEngine = Services.get().get(DagEngineService.class).getDagEngine(user, authToken);
             try {
                 boolean startJob = true;
-                Configuration conf = new XConfiguration(new StringReader(coordAction.getRunConf()));
+                Configuration conf = Services.get().get(ConfigurationCacheService.class).parse(
+                        coordAction.getRunConf());
                 SLADbOperations.writeStausEvent(coordAction.getSlaXml(), coordAction.getId(), Status.STARTED,
                                                 SlaAppType.COORDINATOR_ACTION, log);
 
@@ -233,6 +235,11 @@ public class CoordActionStartXCommand extends CoordinatorXCommand<Void> {
         return coordAction.getJobId();
     }
 
+    @Override
+    public String getKey() {
+        return getName() + "_" + actionId;
+    }
+
     @Override
     protected boolean isLockRequired() {
         return true;
@@ -0,0 +1,149 @@
+/**
+ * Copyright (c) 2010 Yahoo! Inc. All rights reserved.
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License. See accompanying LICENSE file.
+ */
+package org.apache.oozie.command.coord;
+
+import java.util.List;
+
+import org.apache.oozie.CoordinatorActionBean;
+import org.apache.oozie.ErrorCode;
+import org.apache.oozie.XException;
+import org.apache.oozie.command.CommandException;
+import org.apache.oozie.command.PreconditionException;
+import org.apache.oozie.executor.jpa.CoordActionsPageGetForJobJPAExecutor;
+import org.apache.oozie.executor.jpa.JPAResultHandler;
+import org.apache.oozie.service.JPAService;
+import org.apache.oozie.service.Services;
+import org.apache.oozie.util.ParamChecker;
+
+/**
+ * Command for reading the actions of a coordinator job, the actions are passed to a handler instead of being loaded
+ * in a list.
+ * <p/>
+ * The actions are read in pages of {@link #PAGE_SIZE} actions ordered by action number, each page in its own
+ * transaction, and a page is passed to the handler after its transaction ends, so a slow handler does not keep a
+ * transaction open.
+ */
+public class CoordActionsStreamXCommand extends CoordinatorXCommand<Integer> {
+    public static final int PAGE_SIZE = 100;
+
+    private final String id;
+    private final int start;
+    private final int len;
+    private final JPAResultHandler<? super CoordinatorActionBean> handler;
+    private final int pageSize;
+
+    /**
+     * Constructor for reading the actions of a coordinator job
+     *
+     * @param id coord jobId
+     * @param start starting index in the list of actions belonging to the job
+     * @param length number of actions to be read
+     * @param handler handler the actions are passed to
+     */
+    public CoordActionsStreamXCommand(String id, int start, int length,
+            JPAResultHandler<? super CoordinatorActionBean> handler) {
+        this(id, start, length, handler, PAGE_SIZE);
+    }
+
+    /**
+     * Constructor for reading the actions of a coordinator job with a given page size
+     *
+     * @param id coord jobId
+     * @param start starting index in the list of actions belonging to the job
+     * @param length number of actions to be read
+     * @param handler handler the actions are passed to
+     * @param pageSize number of actions read in a transaction
+     */
+    CoordActionsStreamXCommand(String id, int start, int length,
+            JPAResultHandler<? super CoordinatorActionBean> handler, int pageSize) {
+        super("job.info", "job.info", 1);
+        this.id = ParamChecker.notEmpty(id, "id");
+        this.start = start;
+        this.len = length;
+        this.handler = ParamChecker.notNull(handler, "handler");
+        this.pageSize = pageSize;
+    }
+
+    /* (non-Javadoc)
+     * @see org.apache.oozie.command.XCommand#isLockRequired()
+     */
+    @Override
+    protected boolean isLockRequired() {
+        return false;
+    }
+
+    /* (non-Javadoc)
+     * @see org.apache.oozie.command.XCommand#getEntityKey()
+     */
+    @Override
+    protected String getEntityKey() {
+        return this.id;
+    }
+
+    /* (non-Javadoc)
+     * @see org.apache.oozie.command.XCommand#loadState()
+     */
+    @Override
+    protected void loadState() throws CommandException {
+    }
+
+    /* (non-Javadoc)
+     * @see org.apache.oozie.command.XCommand#verifyPrecondition()
+     */
+    @Override
+    protected void verifyPrecondition() throws CommandException, PreconditionException {
+    }
+
+    /* (non-Javadoc)
+     * @see org.apache.oozie.command.XCommand#execute()
+     */
+    @Override
+    protected Integer execute() throws CommandException {
+        JPAService jpaService = Services.get().get(JPAService.class);
+        if (jpaService == null) {
+            throw new CommandException(ErrorCode.E0610);
+        }
+        int count = 0;
+        int afterActionNumber = 0;
+        int pageStart = start;
+        while (count < len) {
+            int pageLen = Math.min(pageSize, len - count);
+            List<CoordinatorActionBean> page;
+            try {
+                page = jpaService.execute(new CoordActionsPageGetForJobJPAExecutor(id, afterActionNumber, pageStart,
+                        pageLen));
+            }
+            catch (XException ex) {
+                throw new CommandException(ex);
+            }
+            for (CoordinatorActionBean action : page) {
+                try {
+                    handler.handle(action);
+                }
+                catch (Exception ex) {
+                    throw new CommandException(ErrorCode.E0307, ex.getMessage(), ex);
+                }
+            }
+            count += page.size();
+            if (page.size() < pageLen) {
+                break;
+            }
+            afterActionNumber = page.get(page.size() - 1).getActionNumber();
+            pageStart = 1;
+        }
+        return count;
+    }
+
+}
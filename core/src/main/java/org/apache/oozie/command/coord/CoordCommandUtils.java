@@ -14,7 +14,6 @@
  */
 package org.apache.oozie.command.coord;
 
-import java.io.StringReader;
 import java.util.Date;
 import java.util.List;
 
@@ -29,11 +28,11 @@ import org.apache.oozie.coord.CoordUtils;
 import org.apache.oozie.coord.CoordinatorJobException;
 import org.apache.oozie.coord.SyncCoordAction;
 import org.apache.oozie.coord.TimeUnit;
+import org.apache.oozie.service.ConfigurationCacheService;
 import org.apache.oozie.service.Services;
 import org.apache.oozie.service.UUIDService;
 import org.apache.oozie.util.DateUtils;
 import org.apache.oozie.util.ELEvaluator;
-import org.apache.oozie.util.XConfiguration;
 import org.apache.oozie.util.XmlUtils;
 import org.jdom.Element;
 
@@ -364,9 +363,31 @@ public class CoordCommandUtils {
      * @return one materialized action for specific nominal time
      * @throws Exception
      */
-    @SuppressWarnings("unchecked")
     public static String materializeOneInstance(String jobId, boolean dryrun, Element eAction, Date nominalTime,
             int instanceCount, Configuration conf, CoordinatorActionBean actionBean) throws Exception {
+        return materializeOneInstance(jobId, dryrun, eAction, nominalTime, instanceCount, conf, XmlUtils.prettyPrint(
+                conf).toString(), actionBean);
+    }
+
+    /**
+     * Materialize one instance for specific nominal time, with the job configuration already serialized.
+     * <p/>
+     * Used when materializing many instances of the same job, the configuration is serialized only once.
+     *
+     * @param jobId coordinator job id
+     * @param dryrun true if it is dryrun
+     * @param eAction frequency unexploded-job
+     * @param nominalTime materialization time
+     * @param instanceCount instance numbers
+     * @param conf job configuration
+     * @param confXml job configuration pretty printed XML
+     * @param actionBean CoordinatorActionBean to materialize
+     * @return one materialized action for specific nominal time
+     * @throws Exception
+     */
+    @SuppressWarnings("unchecked")
+    public static String materializeOneInstance(String jobId, boolean dryrun, Element eAction, Date nominalTime,
+            int instanceCount, Configuration conf, String confXml, CoordinatorActionBean actionBean) throws Exception {
         String actionId = Services.get().get(UUIDService.class).generateChildId(jobId, instanceCount + "");
         SyncCoordAction appInst = new SyncCoordAction();
         appInst.setActionId(actionId);
@@ -405,8 +426,8 @@ public class CoordCommandUtils {
                 "info", eAction.getNamespace("sla")), nominalTime, conf);
 
         // Setting up action bean
-        actionBean.setCreatedConf(XmlUtils.prettyPrint(conf).toString());
-        actionBean.setRunConf(XmlUtils.prettyPrint(conf).toString());
+        actionBean.setCreatedConf(confXml);
+        actionBean.setRunConf(confXml);
         actionBean.setCreatedTime(new Date());
         actionBean.setJobId(jobId);
         actionBean.setId(actionId);
@@ -438,7 +459,8 @@ public class CoordCommandUtils {
             StringBuilder nonResolvedList = new StringBuilder();
             getResolvedList(actionBean.getMissingDependencies(), nonExistList, nonResolvedList);
             Date actualTime = new Date();
-            Configuration actionConf = new XConfiguration(new StringReader(actionBean.getRunConf()));
+            Configuration actionConf = Services.get().get(ConfigurationCacheService.class).parse(
+                    actionBean.getRunConf());
             coordActionInput.checkInput(actionXml, existList, nonExistList, actionConf, actualTime);
             return actionXml.toString();
         }
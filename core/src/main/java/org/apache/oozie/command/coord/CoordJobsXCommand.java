@@ -25,6 +25,7 @@ import org.apache.oozie.command.PreconditionException;
 import org.apache.oozie.executor.jpa.CoordJobInfoGetJPAExecutor;
 import org.apache.oozie.service.JPAService;
 import org.apache.oozie.service.Services;
+import org.apache.oozie.util.ContinuationToken;
 import org.apache.oozie.util.XLog;
 
 /**
@@ -34,13 +35,42 @@ public class CoordJobsXCommand extends CoordinatorXCommand<CoordinatorJobInfo> {
     private Map<String, List<String>> filter;
     private int start = 1;
     private int len = 50;
+    private boolean byContinuation = false;
+    private ContinuationToken after;
+    private boolean count = true;
     private final XLog LOG = XLog.getLog(CoordJobsXCommand.class);
 
     public CoordJobsXCommand(Map<String, List<String>> filter, int start, int length) {
+        this(filter, start, length, true);
+    }
+
+    /**
+     * @param filter Can be name, status, user, group and combination of these
+     * @param start starting from this index in the list of coordinator jobs matching the filter are returned
+     * @param length number of coordinator jobs to be returned
+     * @param count if the coordinator jobs matching the filter are counted
+     */
+    public CoordJobsXCommand(Map<String, List<String>> filter, int start, int length, boolean count) {
         super("job.info", "job.info", 1);
         this.filter = filter;
         this.start = start;
         this.len = length;
+        this.count = count;
+    }
+
+    /**
+     * @param filter Can be name, status, user, group and combination of these
+     * @param after position of the last coordinator job of the previous page, null for the first page
+     * @param length number of coordinator jobs to be returned
+     * @param count if the coordinator jobs matching the filter are counted
+     */
+    public CoordJobsXCommand(Map<String, List<String>> filter, ContinuationToken after, int length, boolean count) {
+        super("job.info", "job.info", 1);
+        this.filter = filter;
+        this.len = length;
+        this.byContinuation = true;
+        this.after = after;
+        this.count = count;
     }
 
     /* (non-Javadoc)
@@ -82,7 +112,12 @@ public class CoordJobsXCommand extends CoordinatorXCommand<CoordinatorJobInfo> {
             JPAService jpaService = Services.get().get(JPAService.class);
             CoordinatorJobInfo coordInfo = null;
             if (jpaService != null) {
-                coordInfo = jpaService.execute(new CoordJobInfoGetJPAExecutor(filter, start, len));
+                if (byContinuation) {
+                    coordInfo = jpaService.execute(new CoordJobInfoGetJPAExecutor(filter, after, len, count));
+                }
+                else {
+                    coordInfo = jpaService.execute(new CoordJobInfoGetJPAExecutor(filter, start, len, count));
+                }
             }
             else {
                 LOG.error(ErrorCode.E0610);
@@ -23,8 +23,9 @@ import org.apache.oozie.command.bundle.BundleStatusUpdateXCommand;
 import org.apache.oozie.command.wf.KillXCommand;
 import org.apache.oozie.command.CommandException;
 import org.apache.oozie.command.PreconditionException;
-import org.apache.oozie.executor.jpa.CoordActionUpdateJPAExecutor;
-import org.apache.oozie.executor.jpa.CoordJobGetActionsJPAExecutor;
+import org.apache.oozie.executor.jpa.BulkJPAExecutor;
+import org.apache.oozie.executor.jpa.CoordActionUpdateStatusJPAExecutor;
+import org.apache.oozie.executor.jpa.CoordJobGetActionsStatusJPAExecutor;
 import org.apache.oozie.executor.jpa.CoordJobGetJPAExecutor;
 import org.apache.oozie.executor.jpa.CoordJobUpdateJPAExecutor;
 import org.apache.oozie.executor.jpa.JPAExecutorException;
@@ -68,7 +69,8 @@ public class CoordKillXCommand extends CoordinatorXCommand<Void> {
 
             if (jpaService != null) {
                 this.coordJob = jpaService.execute(new CoordJobGetJPAExecutor(jobId));
-                this.actionList = jpaService.execute(new CoordJobGetActionsJPAExecutor(jobId));
+                // only the id, status and external id of the actions are needed to kill them
+                this.actionList = jpaService.execute(new CoordJobGetActionsStatusJPAExecutor(jobId));
                 LogUtils.setLogInfo(coordJob, logInfo);
             }
             else {
@@ -94,6 +96,8 @@ public class CoordKillXCommand extends CoordinatorXCommand<Void> {
         try {
             coordJob.setEndTime(new Date());
             coordJob.setStatus(CoordinatorJob.Status.KILLED);
+            // all the updates are done in a single transaction
+            BulkJPAExecutor bulk = new BulkJPAExecutor();
             for (CoordinatorActionBean action : actionList) {
                 if (action.getStatus() != CoordinatorActionBean.Status.FAILED
                         && action.getStatus() != CoordinatorActionBean.Status.TIMEDOUT
@@ -104,10 +108,11 @@ public class CoordKillXCommand extends CoordinatorXCommand<Void> {
                         queue(new KillXCommand(action.getExternalId()));
                     }
                     action.setStatus(CoordinatorActionBean.Status.KILLED);
-                    jpaService.execute(new CoordActionUpdateJPAExecutor(action));
+                    bulk.add(new CoordActionUpdateStatusJPAExecutor(action));
                 }
             }
-            jpaService.execute(new CoordJobUpdateJPAExecutor(coordJob));
+            bulk.add(new CoordJobUpdateJPAExecutor(coordJob));
+            jpaService.execute(bulk);
         }
         catch (JPAExecutorException je) {
             throw new CommandException(je);
@@ -14,6 +14,8 @@
  */
 package org.apache.oozie.command.coord;
 
+import java.util.ArrayList;
+import java.util.Date;
 import java.util.List;
 
 import org.apache.oozie.CoordinatorJobBean;
@@ -21,23 +23,33 @@ import org.apache.oozie.ErrorCode;
 import org.apache.oozie.XException;
 import org.apache.oozie.command.CommandException;
 import org.apache.oozie.command.PreconditionException;
+import org.apache.oozie.executor.jpa.BulkJPAExecutor;
 import org.apache.oozie.executor.jpa.CoordActionsDeleteForPurgeJPAExecutor;
-import org.apache.oozie.executor.jpa.CoordJobDeleteJPAExecutor;
-import org.apache.oozie.executor.jpa.CoordJobsGetForPurgeJPAExecutor;
+import org.apache.oozie.executor.jpa.CoordJobsDeleteJPAExecutor;
+import org.apache.oozie.executor.jpa.CoordJobsGetPageForPurgeJPAExecutor;
 import org.apache.oozie.executor.jpa.JPAExecutorException;
 import org.apache.oozie.service.JPAService;
+import org.apache.oozie.service.PurgeService;
 import org.apache.oozie.service.Services;
 import org.apache.oozie.util.XLog;
 
 /**
  * This class is used for coordinator purge command
+ * <p/>
+ * The completed coordinator jobs are purged in chunks of <code>limit</code> jobs, ordered by last modified time and
+ * id. The ids of a chunk are loaded with a single query, then the completed actions and the jobs of the chunk are
+ * deleted with set-based DELETE statements in one transaction. A run deletes at most
+ * {@link PurgeService#CONF_PURGE_MAX_CHUNKS} chunks, the next runs of the {@link PurgeService} delete the remaining
+ * jobs.
  */
 public class CoordPurgeXCommand extends CoordinatorXCommand<Void> {
+    private static final long DAY_IN_MS = 24 * 60 * 60 * 1000;
     private static XLog LOG = XLog.getLog(CoordPurgeXCommand.class);
     private JPAService jpaService = null;
     private final int olderThan;
     private final int limit;
-    private List<CoordinatorJobBean> jobList = null;
+    private Date maxLastModifiedTime = null;
+    private int maxChunks;
 
     public CoordPurgeXCommand(int olderThan, int limit) {
         super("coord_purge", "coord_purge", 0);
@@ -52,19 +64,46 @@ public class CoordPurgeXCommand extends CoordinatorXCommand<Void> {
     protected Void execute() throws CommandException {
         LOG.debug("STARTED Coord-Purge to purge Jobs older than [{0}] days.", olderThan);
 
+        int chunks = 0;
+        int jobsDeleted = 0;
         int actionDeleted = 0;
-        if (jobList != null && jobList.size() != 0) {
-            for (CoordinatorJobBean coord : jobList) {
-                String jobId = coord.getId();
-                try {
-                    jpaService.execute(new CoordJobDeleteJPAExecutor(jobId));
-                    actionDeleted += jpaService.execute(new CoordActionsDeleteForPurgeJPAExecutor(jobId));
+        try {
+            List<CoordinatorJobBean> jobs = jpaService.execute(new CoordJobsGetPageForPurgeJPAExecutor(
+                    maxLastModifiedTime, limit));
+            while (jobs.size() > 0) {
+                List<String> ids = new ArrayList<String>(jobs.size());
+                for (CoordinatorJobBean job : jobs) {
+                    ids.add(job.getId());
+                }
+                List<Object> deleted = jpaService.execute(new BulkJPAExecutor().add(
+                        new CoordActionsDeleteForPurgeJPAExecutor(ids)).add(new CoordJobsDeleteJPAExecutor(ids)));
+                int chunkActions = (Integer) deleted.get(0);
+                int chunkJobs = (Integer) deleted.get(1);
+                actionDeleted += chunkActions;
+                jobsDeleted += chunkJobs;
+                instrumentation.incr(INSTRUMENTATION_GROUP, getName() + ".chunks", 1);
+                instrumentation.incr(INSTRUMENTATION_GROUP, getName() + ".jobs", chunkJobs);
+                instrumentation.incr(INSTRUMENTATION_GROUP, getName() + ".actions", chunkActions);
+                LOG.debug("Coord-Purge deleted jobs :" + jobsDeleted + " and actions " + actionDeleted + " so far");
+
+                if (jobs.size() < limit) {
+                    break;
                 }
-                catch (JPAExecutorException e) {
-                    throw new CommandException(e);
+                if (++chunks >= maxChunks) {
+                    LOG.debug("Coord-Purge reached [{0}] chunks, remaining jobs will be purged by the next run",
+                              maxChunks);
+                    break;
                 }
+                CoordinatorJobBean last = jobs.get(jobs.size() - 1);
+                jobs = jpaService.execute(new CoordJobsGetPageForPurgeJPAExecutor(maxLastModifiedTime,
+                        last.getLastModifiedTime(), last.getId(), limit));
             }
-            LOG.debug("ENDED Coord-Purge deleted jobs :" + jobList.size() + " and actions " + actionDeleted);
+        }
+        catch (JPAExecutorException e) {
+            throw new CommandException(e);
+        }
+        if (jobsDeleted > 0) {
+            LOG.debug("ENDED Coord-Purge deleted jobs :" + jobsDeleted + " and actions " + actionDeleted);
         }
         else {
             LOG.debug("ENDED Coord-Purge no Coord job to be deleted");
@@ -97,7 +136,8 @@ public class CoordPurgeXCommand extends CoordinatorXCommand<Void> {
             jpaService = Services.get().get(JPAService.class);
 
             if (jpaService != null) {
-                this.jobList = jpaService.execute(new CoordJobsGetForPurgeJPAExecutor(olderThan, limit));
+                this.maxLastModifiedTime = new Date(System.currentTimeMillis() - (olderThan * DAY_IN_MS));
+                this.maxChunks = Math.max(1, Services.get().getConf().getInt(PurgeService.CONF_PURGE_MAX_CHUNKS, 10));
             }
             else {
                 throw new CommandException(ErrorCode.E0610);
@@ -69,6 +69,11 @@ public class CoordRecoveryXCommand extends CoordinatorXCommand<Void> {
         return jobId;
     }
 
+    @Override
+    public String getKey() {
+        return getName() + "_" + jobId;
+    }
+
     /* (non-Javadoc)
      * @see org.apache.oozie.command.XCommand#isLockRequired()
      */
@@ -24,7 +24,7 @@ import org.apache.oozie.client.CoordinatorJob;
 import org.apache.oozie.command.CommandException;
 import org.apache.oozie.command.PreconditionException;
 import org.apache.oozie.command.wf.ResumeXCommand;
-import org.apache.oozie.executor.jpa.CoordJobGetActionsJPAExecutor;
+import org.apache.oozie.executor.jpa.CoordJobGetActionsStatusJPAExecutor;
 import org.apache.oozie.executor.jpa.CoordJobGetJPAExecutor;
 import org.apache.oozie.executor.jpa.CoordJobUpdateJPAExecutor;
 import org.apache.oozie.executor.jpa.JPAExecutorException;
@@ -54,7 +54,7 @@ public class CoordResumeXCommand extends CoordinatorXCommand<Void> {
             InstrumentUtils.incrJobCounter(getName(), 1, getInstrumentation());
             coordJob.setStatus(CoordinatorJob.Status.PREP);
 
-            List<CoordinatorActionBean> actionList = jpaService.execute(new CoordJobGetActionsJPAExecutor(jobId));
+            List<CoordinatorActionBean> actionList = jpaService.execute(new CoordJobGetActionsStatusJPAExecutor(jobId));
 
             for (CoordinatorActionBean action : actionList) {
                 // queue a ResumeCommand
@@ -29,8 +29,6 @@ import java.util.List;
 import java.util.Set;
 import java.util.TreeSet;
 
-import javax.xml.transform.stream.StreamSource;
-import javax.xml.validation.Validator;
 
 import org.apache.hadoop.conf.Configuration;
 import org.apache.hadoop.fs.FileSystem;
@@ -278,9 +276,8 @@ public class CoordSubmitXCommand extends CoordinatorXCommand<String> {
      */
     private void validateXml(String xmlContent) throws CoordinatorJobException {
         javax.xml.validation.Schema schema = Services.get().get(SchemaService.class).getSchema(SchemaName.COORDINATOR);
-        Validator validator = schema.newValidator();
         try {
-            validator.validate(new StreamSource(new StringReader(xmlContent)));
+            XmlUtils.validateXml(schema, xmlContent);
         }
         catch (SAXException ex) {
             log.warn("SAXException :", ex);
@@ -27,6 +27,7 @@ import org.apache.oozie.client.WorkflowJob;
 import org.apache.oozie.client.WorkflowAction.Status;
 import org.apache.oozie.command.CommandException;
 import org.apache.oozie.command.PreconditionException;
+import org.apache.oozie.executor.jpa.BulkJPAExecutor;
 import org.apache.oozie.executor.jpa.JPAExecutorException;
 import org.apache.oozie.executor.jpa.WorkflowActionGetJPAExecutor;
 import org.apache.oozie.executor.jpa.WorkflowActionUpdateJPAExecutor;
@@ -78,6 +79,7 @@ public class ActionCheckXCommand extends ActionXCommand<Void> {
             jpaService = Services.get().get(JPAService.class);
             if (jpaService != null) {
                 this.wfJob = jpaService.execute(new WorkflowJobGetJPAExecutor(jobId));
+                resolveWorkflowInstance(this.wfJob);
                 this.wfAction = jpaService.execute(new WorkflowActionGetJPAExecutor(actionId));
                 LogUtils.setLogInfo(wfJob, logInfo);
                 LogUtils.setLogInfo(wfAction, logInfo);
@@ -124,6 +126,11 @@ public class ActionCheckXCommand extends ActionXCommand<Void> {
         return this.jobId;
     }
 
+    @Override
+    public String getKey() {
+        return getName() + "_" + actionId;
+    }
+
     @Override
     protected void loadState() throws CommandException {
     }
@@ -169,16 +176,16 @@ public class ActionCheckXCommand extends ActionXCommand<Void> {
                             "Execution Complete, but Execution Data Missing from Action");
                     failJob(context);
                     wfAction.setLastCheckTime(new Date());
-                    jpaService.execute(new WorkflowActionUpdateJPAExecutor(wfAction));
-                    jpaService.execute(new WorkflowJobUpdateJPAExecutor(wfJob));
+                    jpaService.execute(new BulkJPAExecutor().add(new WorkflowActionUpdateJPAExecutor(wfAction)).add(
+                            new WorkflowJobUpdateJPAExecutor(wfJob)));
                     return null;
                 }
                 wfAction.setPending();
                 queue(new ActionEndXCommand(wfAction.getId(), wfAction.getType()));
             }
             wfAction.setLastCheckTime(new Date());
-            jpaService.execute(new WorkflowActionUpdateJPAExecutor(wfAction));
-            jpaService.execute(new WorkflowJobUpdateJPAExecutor(wfJob));
+            jpaService.execute(new BulkJPAExecutor().add(new WorkflowActionUpdateJPAExecutor(wfAction)).add(
+                    new WorkflowJobUpdateJPAExecutor(wfJob)));
         }
         catch (ActionExecutorException ex) {
             LOG.warn("Exception while executing check(). Error Code [{0}], Message[{1}]", ex.getErrorCode(), ex
@@ -191,8 +198,8 @@ public class ActionCheckXCommand extends ActionXCommand<Void> {
             }
             wfAction.setLastCheckTime(new Date());
             try {
-                jpaService.execute(new WorkflowActionUpdateJPAExecutor(wfAction));
-                jpaService.execute(new WorkflowJobUpdateJPAExecutor(wfJob));
+                jpaService.execute(new BulkJPAExecutor().add(new WorkflowActionUpdateJPAExecutor(wfAction)).add(
+                        new WorkflowJobUpdateJPAExecutor(wfJob)));
             }
             catch (JPAExecutorException e) {
                 throw new CommandException(e);
@@ -31,6 +31,7 @@ import org.apache.oozie.client.SLAEvent.SlaAppType;
 import org.apache.oozie.client.SLAEvent.Status;
 import org.apache.oozie.command.CommandException;
 import org.apache.oozie.command.PreconditionException;
+import org.apache.oozie.executor.jpa.BulkJPAExecutor;
 import org.apache.oozie.executor.jpa.JPAExecutorException;
 import org.apache.oozie.executor.jpa.WorkflowActionGetJPAExecutor;
 import org.apache.oozie.executor.jpa.WorkflowActionUpdateJPAExecutor;
@@ -74,12 +75,18 @@ public class ActionEndXCommand extends ActionXCommand<Void> {
         return this.jobId;
     }
 
+    @Override
+    public String getKey() {
+        return getName() + "_" + actionId;
+    }
+
     @Override
     protected void loadState() throws CommandException {
         try {
             jpaService = Services.get().get(JPAService.class);
             if (jpaService != null) {
                 this.wfJob = jpaService.execute(new WorkflowJobGetJPAExecutor(jobId));
+                resolveWorkflowInstance(this.wfJob);
                 this.wfAction = jpaService.execute(new WorkflowActionGetJPAExecutor(actionId));
                 LogUtils.setLogInfo(wfJob, logInfo);
                 LogUtils.setLogInfo(wfAction, logInfo);
@@ -157,14 +164,14 @@ public class ActionEndXCommand extends ActionXCommand<Void> {
                         executor.getType());
                 wfAction.setErrorInfo(END_DATA_MISSING, "Execution Ended, but End Data Missing from Action");
                 failJob(context);
-                jpaService.execute(new WorkflowActionUpdateJPAExecutor(wfAction));
-                jpaService.execute(new WorkflowJobUpdateJPAExecutor(wfJob));
+                jpaService.execute(new BulkJPAExecutor().add(new WorkflowActionUpdateJPAExecutor(wfAction)).add(
+                        new WorkflowJobUpdateJPAExecutor(wfJob)));
                 return null;
             }
             wfAction.setRetries(0);
             wfAction.setEndTime(new Date());
-            jpaService.execute(new WorkflowActionUpdateJPAExecutor(wfAction));
-            jpaService.execute(new WorkflowJobUpdateJPAExecutor(wfJob));
+            jpaService.execute(new BulkJPAExecutor().add(new WorkflowActionUpdateJPAExecutor(wfAction)).add(
+                    new WorkflowJobUpdateJPAExecutor(wfJob)));
 
             Status slaStatus = null;
             switch (wfAction.getStatus()) {
@@ -220,8 +227,8 @@ public class ActionEndXCommand extends ActionXCommand<Void> {
                     break;
             }
             try {
-                jpaService.execute(new WorkflowActionUpdateJPAExecutor(wfAction));
-                jpaService.execute(new WorkflowJobUpdateJPAExecutor(wfJob));
+                jpaService.execute(new BulkJPAExecutor().add(new WorkflowActionUpdateJPAExecutor(wfAction)).add(
+                        new WorkflowJobUpdateJPAExecutor(wfJob)));
             }
             catch (JPAExecutorException je) {
                 throw new CommandException(je);
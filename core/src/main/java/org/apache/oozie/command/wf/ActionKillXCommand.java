@@ -77,6 +77,7 @@ public class ActionKillXCommand extends ActionXCommand<Void> {
 
             if (jpaService != null) {
                 this.wfJob = jpaService.execute(new WorkflowJobGetJPAExecutor(jobId));
+                resolveWorkflowInstance(this.wfJob);
                 this.wfAction = jpaService.execute(new WorkflowActionGetJPAExecutor(actionId));
                 LogUtils.setLogInfo(wfJob, logInfo);
                 LogUtils.setLogInfo(wfAction, logInfo);
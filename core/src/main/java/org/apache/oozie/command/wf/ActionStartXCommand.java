@@ -34,6 +34,7 @@ import org.apache.oozie.client.SLAEvent.Status;
 import org.apache.oozie.command.CommandException;
 import org.apache.oozie.command.PreconditionException;
 import org.apache.oozie.command.coord.CoordActionUpdateXCommand;
+import org.apache.oozie.executor.jpa.BulkJPAExecutor;
 import org.apache.oozie.executor.jpa.JPAExecutorException;
 import org.apache.oozie.executor.jpa.WorkflowActionGetJPAExecutor;
 import org.apache.oozie.executor.jpa.WorkflowActionUpdateJPAExecutor;
@@ -81,12 +82,18 @@ public class ActionStartXCommand extends ActionXCommand<Void> {
         return this.jobId;
     }
 
+    @Override
+    public String getKey() {
+        return getName() + "_" + actionId;
+    }
+
     @Override
     protected void loadState() throws CommandException {
         try {
             jpaService = Services.get().get(JPAService.class);
             if (jpaService != null) {
                 this.wfJob = jpaService.execute(new WorkflowJobGetJPAExecutor(jobId));
+                resolveWorkflowInstance(this.wfJob);
                 this.wfAction = jpaService.execute(new WorkflowActionGetJPAExecutor(actionId));
                 LogUtils.setLogInfo(wfJob, logInfo);
                 LogUtils.setLogInfo(wfAction, logInfo);
@@ -193,8 +200,8 @@ public class ActionStartXCommand extends ActionXCommand<Void> {
                     wfAction.setErrorInfo(EXEC_DATA_MISSING,
                             "Execution Complete, but Execution Data Missing from Action");
                     failJob(context);
-                    jpaService.execute(new WorkflowActionUpdateJPAExecutor(wfAction));
-                    jpaService.execute(new WorkflowJobUpdateJPAExecutor(wfJob));
+                    jpaService.execute(new BulkJPAExecutor().add(new WorkflowActionUpdateJPAExecutor(wfAction)).add(
+                            new WorkflowJobUpdateJPAExecutor(wfJob)));
                     return null;
                 }
                 wfAction.setPending();
@@ -206,8 +213,8 @@ public class ActionStartXCommand extends ActionXCommand<Void> {
                             .getType());
                     wfAction.setErrorInfo(START_DATA_MISSING, "Execution Started, but Start Data Missing from Action");
                     failJob(context);
-                    jpaService.execute(new WorkflowActionUpdateJPAExecutor(wfAction));
-                    jpaService.execute(new WorkflowJobUpdateJPAExecutor(wfJob));
+                    jpaService.execute(new BulkJPAExecutor().add(new WorkflowActionUpdateJPAExecutor(wfAction)).add(
+                            new WorkflowJobUpdateJPAExecutor(wfJob)));
                     return null;
                 }
                 queue(new NotificationXCommand(wfJob, wfAction));
@@ -215,8 +222,8 @@ public class ActionStartXCommand extends ActionXCommand<Void> {
 
             LOG.warn(XLog.STD, "[***" + wfAction.getId() + "***]" + "Action status=" + wfAction.getStatusStr());
 
-            jpaService.execute(new WorkflowActionUpdateJPAExecutor(wfAction));
-            jpaService.execute(new WorkflowJobUpdateJPAExecutor(wfJob));
+            jpaService.execute(new BulkJPAExecutor().add(new WorkflowActionUpdateJPAExecutor(wfAction)).add(
+                    new WorkflowJobUpdateJPAExecutor(wfJob)));
             // Add SLA status event (STARTED) for WF_ACTION
             SLADbXOperations.writeStausEvent(wfAction.getSlaXml(), wfAction.getId(), Status.STARTED,
                     SlaAppType.WORKFLOW_ACTION);
@@ -258,8 +265,8 @@ public class ActionStartXCommand extends ActionXCommand<Void> {
                     break;
             }
             try {
-                jpaService.execute(new WorkflowActionUpdateJPAExecutor(wfAction));
-                jpaService.execute(new WorkflowJobUpdateJPAExecutor(wfJob));
+                jpaService.execute(new BulkJPAExecutor().add(new WorkflowActionUpdateJPAExecutor(wfAction)).add(
+                        new WorkflowJobUpdateJPAExecutor(wfJob)));
             }
             catch (JPAExecutorException je) {
                 throw new CommandException(je);
@@ -278,8 +285,8 @@ public class ActionStartXCommand extends ActionXCommand<Void> {
             throws CommandException {
         failJob(context);
         try {
-            jpaService.execute(new WorkflowActionUpdateJPAExecutor(action));
-            jpaService.execute(new WorkflowJobUpdateJPAExecutor(workflow));
+            jpaService.execute(new BulkJPAExecutor().add(new WorkflowActionUpdateJPAExecutor(action)).add(
+                    new WorkflowJobUpdateJPAExecutor(workflow)));
         }
         catch (JPAExecutorException je) {
             throw new CommandException(je);
@@ -15,7 +15,6 @@
 package org.apache.oozie.command.wf;
 
 import java.io.IOException;
-import java.io.StringReader;
 import java.net.URI;
 import java.net.URISyntaxException;
 import java.util.Date;
@@ -33,6 +32,7 @@ import org.apache.oozie.client.WorkflowAction;
 import org.apache.oozie.client.WorkflowJob;
 import org.apache.oozie.command.CommandException;
 import org.apache.oozie.service.CallbackService;
+import org.apache.oozie.service.ConfigurationCacheService;
 import org.apache.oozie.service.ELService;
 import org.apache.oozie.service.HadoopAccessorException;
 import org.apache.oozie.service.HadoopAccessorService;
@@ -214,7 +214,7 @@ public abstract class ActionXCommand<T> extends WorkflowXCommand<Void> {
             this.action = action;
             this.isRetry = isRetry;
             try {
-                protoConf = new XConfiguration(new StringReader(workflow.getProtoActionConf()));
+                protoConf = Services.get().get(ConfigurationCacheService.class).parse(workflow.getProtoActionConf());
             }
             catch (IOException ex) {
                 throw new RuntimeException("It should not happen", ex);
@@ -326,7 +326,7 @@ public abstract class ActionXCommand<T> extends WorkflowXCommand<Void> {
          */
         public FileSystem getAppFileSystem() throws HadoopAccessorException, IOException, URISyntaxException {
             WorkflowJob workflow = getWorkflow();
-            XConfiguration jobConf = new XConfiguration(new StringReader(workflow.getConf()));
+            XConfiguration jobConf = Services.get().get(ConfigurationCacheService.class).parse(workflow.getConf());
             Configuration fsConf = new Configuration();
             XConfiguration.copy(jobConf, fsConf);
             return Services.get().get(HadoopAccessorService.class).createFileSystem(workflow.getUser(),
@@ -53,6 +53,7 @@ public class DefinitionXCommand extends WorkflowXCommand<String> {
 
             if (jpaService != null) {
                 this.wfJob = jpaService.execute(new WorkflowJobGetJPAExecutor(jobId));
+                resolveWorkflowInstance(this.wfJob);
                 LogUtils.setLogInfo(wfJob, logInfo);
             }
             else {
@@ -25,11 +25,15 @@ import org.apache.oozie.command.PreconditionException;
 import org.apache.oozie.executor.jpa.WorkflowsJobGetJPAExecutor;
 import org.apache.oozie.service.JPAService;
 import org.apache.oozie.service.Services;
+import org.apache.oozie.util.ContinuationToken;
 
 public class JobsXCommand extends WorkflowXCommand<WorkflowsInfo> {
     private final Map<String, List<String>> filter;
     private final int start;
     private final int len;
+    private final boolean byContinuation;
+    private final ContinuationToken after;
+    private final boolean count;
     private WorkflowsInfo workflows;
 
     /**
@@ -41,10 +45,45 @@ public class JobsXCommand extends WorkflowXCommand<WorkflowsInfo> {
      *        index "start".
      */
     public JobsXCommand(Map<String, List<String>> filter, int start, int length) {
+        this(filter, start, length, true);
+    }
+
+    /**
+     * Constructor taking the filter information
+     *
+     * @param filter Can be name, status, user, group and combination of these
+     * @param start starting from this index in the list of workflows matching the filter are returned
+     * @param length number of workflows to be returned from the list of workflows matching the filter and starting from
+     *        index "start".
+     * @param count if the workflows matching the filter are counted
+     */
+    public JobsXCommand(Map<String, List<String>> filter, int start, int length, boolean count) {
         super("job.info", "job.info", 1, true);
         this.filter = filter;
         this.start = start;
         this.len = length;
+        this.byContinuation = false;
+        this.after = null;
+        this.count = count;
+    }
+
+    /**
+     * Constructor taking the filter information and the position of the last workflow already returned
+     *
+     * @param filter Can be name, status, user, group and combination of these
+     * @param after position of the last workflow of the previous page, null for the first page
+     * @param length number of workflows to be returned from the list of workflows matching the filter and following
+     *        the given position, newest first.
+     * @param count if the workflows matching the filter are counted
+     */
+    public JobsXCommand(Map<String, List<String>> filter, ContinuationToken after, int length, boolean count) {
+        super("job.info", "job.info", 1, true);
+        this.filter = filter;
+        this.start = 0;
+        this.len = length;
+        this.byContinuation = true;
+        this.after = after;
+        this.count = count;
     }
 
     /* (non-Javadoc)
@@ -55,7 +94,14 @@ public class JobsXCommand extends WorkflowXCommand<WorkflowsInfo> {
         try {
             JPAService jpaService = Services.get().get(JPAService.class);
             if (jpaService != null) {
-                this.workflows = jpaService.execute(new WorkflowsJobGetJPAExecutor(this.filter, this.start, this.len));
+                if (byContinuation) {
+                    this.workflows = jpaService.execute(new WorkflowsJobGetJPAExecutor(this.filter, this.after,
+                            this.len, this.count));
+                }
+                else {
+                    this.workflows = jpaService.execute(new WorkflowsJobGetJPAExecutor(this.filter, this.start,
+                            this.len, this.count));
+                }
             }
             else {
                 throw new CommandException(ErrorCode.E0610);
@@ -23,6 +23,7 @@ import org.apache.oozie.WorkflowJobBean;
 import org.apache.oozie.XException;
 import org.apache.oozie.command.CommandException;
 import org.apache.oozie.command.PreconditionException;
+import org.apache.oozie.executor.jpa.BulkJPAExecutor;
 import org.apache.oozie.executor.jpa.JPAExecutorException;
 import org.apache.oozie.executor.jpa.WorkflowActionUpdateJPAExecutor;
 import org.apache.oozie.executor.jpa.WorkflowActionsGetForJobJPAExecutor;
@@ -75,6 +76,7 @@ public class KillXCommand extends WorkflowXCommand<Void> {
             jpaService = Services.get().get(JPAService.class);
             if (jpaService != null) {
                 this.wfJob = jpaService.execute(new WorkflowJobGetJPAExecutor(wfId));
+                resolveWorkflowInstance(this.wfJob);
                 this.actionList = jpaService.execute(new WorkflowActionsGetForJobJPAExecutor(wfId));
                 LogUtils.setLogInfo(wfJob, logInfo);
             }
@@ -115,6 +117,8 @@ public class KillXCommand extends WorkflowXCommand<Void> {
             ((LiteWorkflowInstance) wfInstance).setStatus(WorkflowInstance.Status.KILLED);
             wfJob.setWorkflowInstance(wfInstance);
         }
+        // all the updates are done in a single transaction
+        BulkJPAExecutor bulk = new BulkJPAExecutor();
         try {
             for (WorkflowActionBean action : actionList) {
                 if (action.getStatus() == WorkflowActionBean.Status.RUNNING
@@ -122,7 +126,7 @@ public class KillXCommand extends WorkflowXCommand<Void> {
                     action.setPending();
                     action.setStatus(WorkflowActionBean.Status.KILLED);
 
-                    jpaService.execute(new WorkflowActionUpdateJPAExecutor(action));
+                    bulk.add(new WorkflowActionUpdateJPAExecutor(action));
 
                     queue(new ActionKillXCommand(action.getId(), action.getType()));
                 }
@@ -136,10 +140,11 @@ public class KillXCommand extends WorkflowXCommand<Void> {
                     action.resetPending();
                     SLADbXOperations.writeStausEvent(action.getSlaXml(), action.getId(), Status.KILLED,
                             SlaAppType.WORKFLOW_ACTION);
-                    jpaService.execute(new WorkflowActionUpdateJPAExecutor(action));
+                    bulk.add(new WorkflowActionUpdateJPAExecutor(action));
                 }
             }
-            jpaService.execute(new WorkflowJobUpdateJPAExecutor(wfJob));
+            bulk.add(new WorkflowJobUpdateJPAExecutor(wfJob));
+            jpaService.execute(bulk);
         }
         catch (JPAExecutorException je) {
             throw new CommandException(je);
@@ -14,27 +14,43 @@
  */
 package org.apache.oozie.command.wf;
 
+import java.util.ArrayList;
+import java.util.Date;
 import java.util.List;
 
 import org.apache.oozie.ErrorCode;
 import org.apache.oozie.WorkflowJobBean;
 import org.apache.oozie.XException;
 import org.apache.oozie.service.JPAService;
+import org.apache.oozie.service.PurgeService;
 import org.apache.oozie.service.Services;
 import org.apache.oozie.util.XLog;
 import org.apache.oozie.command.CommandException;
 import org.apache.oozie.command.PreconditionException;
+import org.apache.oozie.executor.jpa.BulkJPAExecutor;
 import org.apache.oozie.executor.jpa.JPAExecutorException;
+import org.apache.oozie.executor.jpa.WorkflowAppDefsDeleteUnreferencedJPAExecutor;
 import org.apache.oozie.executor.jpa.WorkflowActionsDeleteForPurgeJPAExecutor;
-import org.apache.oozie.executor.jpa.WorkflowJobDeleteJPAExecutor;
-import org.apache.oozie.executor.jpa.WorkflowJobsGetForPurgeJPAExecutor;
+import org.apache.oozie.executor.jpa.WorkflowJobsDeleteJPAExecutor;
+import org.apache.oozie.executor.jpa.WorkflowJobsGetPageForPurgeJPAExecutor;
 
+/**
+ * Purge the workflow jobs, and their actions, that ended more than a given number of days ago.
+ * <p/>
+ * The jobs are purged in chunks of <code>limit</code> jobs, ordered by end time and id. The ids of a chunk are loaded
+ * with a single query, then the actions and the jobs of the chunk are deleted with set-based DELETE statements in one
+ * transaction. The workflow application definitions no job references any more, and not used since the purge cutoff,
+ * are deleted in the same transaction. A run deletes at most {@link PurgeService#CONF_PURGE_MAX_CHUNKS} chunks, the next runs of the
+ * {@link PurgeService} delete the remaining jobs.
+ */
 public class PurgeXCommand extends WorkflowXCommand<Void> {
+    private static final long DAY_IN_MS = 24 * 60 * 60 * 1000;
     private static XLog LOG = XLog.getLog(PurgeXCommand.class);
     private JPAService jpaService = null;
     private int olderThan;
     private int limit;
-    private List<WorkflowJobBean> jobList = null;
+    private Date maxEndTime = null;
+    private int maxChunks;
 
     public PurgeXCommand(int olderThan, int limit) {
         super("purge", "purge", 0);
@@ -46,19 +62,53 @@ public class PurgeXCommand extends WorkflowXCommand<Void> {
     protected Void execute() throws CommandException {
         LOG.debug("STARTED Workflow-Purge Attempting to purge Jobs older than [{0}] days.", olderThan);
 
+        int chunks = 0;
+        int jobsDeleted = 0;
         int actionDeleted = 0;
-        if (jobList != null && jobList.size() != 0) {
-            for (WorkflowJobBean w : jobList) {
-                String wfId = w.getId();
-                try {
-                    jpaService.execute(new WorkflowJobDeleteJPAExecutor(wfId));
-                    actionDeleted += jpaService.execute(new WorkflowActionsDeleteForPurgeJPAExecutor(wfId));
+        int appDefsDeleted = 0;
+        try {
+            List<WorkflowJobBean> jobs = jpaService.execute(new WorkflowJobsGetPageForPurgeJPAExecutor(maxEndTime,
+                    limit));
+            while (jobs.size() > 0) {
+                List<String> ids = new ArrayList<String>(jobs.size());
+                for (WorkflowJobBean job : jobs) {
+                    ids.add(job.getId());
                 }
-                catch (JPAExecutorException e) {
-                    throw new CommandException(e);
+                List<Object> deleted = jpaService.execute(new BulkJPAExecutor().add(
+                        new WorkflowActionsDeleteForPurgeJPAExecutor(ids)).add(new WorkflowJobsDeleteJPAExecutor(ids))
+                        .add(new WorkflowAppDefsDeleteUnreferencedJPAExecutor(maxEndTime)));
+                int chunkActions = (Integer) deleted.get(0);
+                int chunkJobs = (Integer) deleted.get(1);
+                int chunkAppDefs = (Integer) deleted.get(2);
+                actionDeleted += chunkActions;
+                jobsDeleted += chunkJobs;
+                appDefsDeleted += chunkAppDefs;
+                instrumentation.incr(INSTRUMENTATION_GROUP, getName() + ".chunks", 1);
+                instrumentation.incr(INSTRUMENTATION_GROUP, getName() + ".jobs", chunkJobs);
+                instrumentation.incr(INSTRUMENTATION_GROUP, getName() + ".actions", chunkActions);
+                instrumentation.incr(INSTRUMENTATION_GROUP, getName() + ".appdefs", chunkAppDefs);
+                LOG.debug("Workflow-Purge deleted jobs :" + jobsDeleted + " and actions " + actionDeleted
+                        + " so far");
+
+                if (jobs.size() < limit) {
+                    break;
                 }
+                if (++chunks >= maxChunks) {
+                    LOG.debug("Workflow-Purge reached [{0}] chunks, remaining jobs will be purged by the next run",
+                              maxChunks);
+                    break;
+                }
+                WorkflowJobBean last = jobs.get(jobs.size() - 1);
+                jobs = jpaService.execute(new WorkflowJobsGetPageForPurgeJPAExecutor(maxEndTime, last.getEndTime(),
+                        last.getId(), limit));
             }
-            LOG.debug("ENDED Workflow-Purge deleted jobs :" + jobList.size() + " and actions " + actionDeleted);
+        }
+        catch (JPAExecutorException e) {
+            throw new CommandException(e);
+        }
+        if (jobsDeleted > 0) {
+            LOG.debug("ENDED Workflow-Purge deleted jobs :" + jobsDeleted + ", actions " + actionDeleted
+                    + " and application definitions " + appDefsDeleted);
         }
         else {
             LOG.debug("ENDED Workflow-Purge no workflow job to be deleted");
@@ -82,7 +132,8 @@ public class PurgeXCommand extends WorkflowXCommand<Void> {
             jpaService = Services.get().get(JPAService.class);
 
             if (jpaService != null) {
-                this.jobList = jpaService.execute(new WorkflowJobsGetForPurgeJPAExecutor(olderThan, limit));
+                this.maxEndTime = new Date(System.currentTimeMillis() - (olderThan * DAY_IN_MS));
+                this.maxChunks = Math.max(1, Services.get().getConf().getInt(PurgeService.CONF_PURGE_MAX_CHUNKS, 10));
             }
             else {
                 throw new CommandException(ErrorCode.E0610);
@@ -34,6 +34,7 @@ import org.apache.oozie.client.WorkflowJob;
 import org.apache.oozie.command.CommandException;
 import org.apache.oozie.command.PreconditionException;
 import org.apache.oozie.command.XCommand;
+import org.apache.oozie.executor.jpa.BulkJPAExecutor;
 import org.apache.oozie.executor.jpa.JPAExecutorException;
 import org.apache.oozie.executor.jpa.WorkflowActionDeleteJPAExecutor;
 import org.apache.oozie.executor.jpa.WorkflowActionsGetForJobJPAExecutor;
@@ -167,8 +168,12 @@ public class ReRunXCommand extends WorkflowXCommand<Void> {
             wfBean.setEndTime(null);
             wfBean.setRun(wfBean.getRun() + 1);
             wfBean.setStatus(WorkflowJob.Status.PREP);
+            // the workflow application is stored in the same transaction as the job
+            BulkJPAExecutor bulk = new BulkJPAExecutor();
+            String appHash = addAppInsert(newWfInstance, bulk);
             wfBean.setWorkflowInstance(newWfInstance);
-            jpaService.execute(new WorkflowJobUpdateJPAExecutor(wfBean));
+            bulk.add(new WorkflowJobUpdateJPAExecutor(wfBean));
+            executeStoringApp(jpaService, bulk, appHash);
         }
         catch (JPAExecutorException e) {
             throw new CommandException(e);
@@ -190,6 +195,7 @@ public class ReRunXCommand extends WorkflowXCommand<Void> {
             jpaService = Services.get().get(JPAService.class);
             if (jpaService != null) {
                 this.wfBean = jpaService.execute(new WorkflowJobGetJPAExecutor(this.jobId));
+                resolveWorkflowInstance(this.wfBean);
                 this.actions = jpaService.execute(new WorkflowActionsGetForJobJPAExecutor(this.jobId));
             }
             else {
@@ -133,6 +133,7 @@ public class ResumeXCommand extends WorkflowXCommand<Void> {
         catch (JPAExecutorException e) {
             throw new CommandException(e);
         }
+        resolveWorkflowInstance(workflow);
         LogUtils.setLogInfo(workflow, logInfo);
     }
 
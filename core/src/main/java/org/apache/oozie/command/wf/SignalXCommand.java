@@ -25,6 +25,7 @@ import org.apache.oozie.XException;
 import org.apache.oozie.command.CommandException;
 import org.apache.oozie.command.PreconditionException;
 import org.apache.oozie.command.coord.CoordActionUpdateXCommand;
+import org.apache.oozie.executor.jpa.BulkJPAExecutor;
 import org.apache.oozie.executor.jpa.JPAExecutorException;
 import org.apache.oozie.executor.jpa.WorkflowActionGetJPAExecutor;
 import org.apache.oozie.executor.jpa.WorkflowActionInsertJPAExecutor;
@@ -37,6 +38,7 @@ import org.apache.oozie.service.SchemaService;
 import org.apache.oozie.service.Services;
 import org.apache.oozie.service.UUIDService;
 import org.apache.oozie.service.WorkflowStoreService;
+import org.apache.oozie.workflow.WorkflowApp;
 import org.apache.oozie.workflow.WorkflowException;
 import org.apache.oozie.workflow.WorkflowInstance;
 import org.apache.oozie.util.ELEvaluator;
@@ -92,6 +94,7 @@ public class SignalXCommand extends WorkflowXCommand<Void> {
             jpaService = Services.get().get(JPAService.class);
             if (jpaService != null) {
                 this.wfJob = jpaService.execute(new WorkflowJobGetJPAExecutor(jobId));
+                resolveWorkflowInstance(this.wfJob);
                 LogUtils.setLogInfo(wfJob, logInfo);
                 if (actionId != null) {
                     this.wfAction = jpaService.execute(new WorkflowActionGetJPAExecutor(actionId));
@@ -126,6 +129,10 @@ public class SignalXCommand extends WorkflowXCommand<Void> {
         workflowInstance.setTransientVar(WorkflowStoreService.WORKFLOW_BEAN, wfJob);
         boolean completed = false;
         boolean skipAction = false;
+        // all the updates and inserts are done in a single transaction at the end of the command
+        BulkJPAExecutor bulk = new BulkJPAExecutor();
+        // jobs written in the self-contained format are converted, their workflow application is stored
+        String appHash = addAppInsert(workflowInstance, bulk);
         if (wfAction == null) {
             if (wfJob.getStatus() == WorkflowJob.Status.PREP) {
                 try {
@@ -140,8 +147,8 @@ public class SignalXCommand extends WorkflowXCommand<Void> {
                 // 1. Add SLA status event for WF-JOB with status STARTED
                 // 2. Add SLA registration events for all WF_ACTIONS
                 SLADbXOperations.writeStausEvent(wfJob.getSlaXml(), jobId, Status.STARTED, SlaAppType.WORKFLOW_JOB);
-                writeSLARegistrationForAllActions(workflowInstance.getApp().getDefinition(), wfJob.getUser(), wfJob
-                        .getGroup(), wfJob.getConf());
+                writeSLARegistrationForAllActions(workflowInstance.getApp(), wfJob.getUser(), wfJob.getGroup(),
+                        wfJob.getConf());
                 queue(new NotificationXCommand(wfJob));
             }
             else {
@@ -165,12 +172,7 @@ public class SignalXCommand extends WorkflowXCommand<Void> {
             if (!skipAction) {
                 wfAction.setTransition(workflowInstance.getTransition(wfAction.getName()));
             }
-            try {
-                jpaService.execute(new WorkflowActionUpdateJPAExecutor(wfAction));
-            }
-            catch (JPAExecutorException je) {
-                throw new CommandException(je);
-            }
+            bulk.add(new WorkflowActionUpdateJPAExecutor(wfAction));
         }
 
         if (completed) {
@@ -182,7 +184,7 @@ public class SignalXCommand extends WorkflowXCommand<Void> {
 
                     actionToKill.setPending();
                     actionToKill.setStatus(WorkflowActionBean.Status.KILLED);
-                    jpaService.execute(new WorkflowActionUpdateJPAExecutor(actionToKill));
+                    bulk.add(new WorkflowActionUpdateJPAExecutor(actionToKill));
                     queue(new ActionKillXCommand(actionToKill.getId(), actionToKill.getType()));
                 }
 
@@ -193,7 +195,7 @@ public class SignalXCommand extends WorkflowXCommand<Void> {
                     actionToFail.setStatus(WorkflowActionBean.Status.FAILED);
                     SLADbXOperations.writeStausEvent(wfAction.getSlaXml(), wfAction.getId(), Status.FAILED,
                             SlaAppType.WORKFLOW_ACTION);
-                    jpaService.execute(new WorkflowActionUpdateJPAExecutor(actionToFail));
+                    bulk.add(new WorkflowActionUpdateJPAExecutor(actionToFail));
                 }
             }
             catch (JPAExecutorException je) {
@@ -238,16 +240,15 @@ public class SignalXCommand extends WorkflowXCommand<Void> {
                         oldAction = jpaService.execute(new WorkflowActionGetJPAExecutor(newAction.getId()));
 
                         oldAction.setPending();
-                        jpaService.execute(new WorkflowActionUpdateJPAExecutor(oldAction));
+                        bulk.add(new WorkflowActionUpdateJPAExecutor(oldAction));
 
                         queue(new SignalXCommand(jobId, oldAction.getId()));
                     }
                     else {
                         newAction.setPending();
-                        String actionSlaXml = getActionSLAXml(newAction.getName(), workflowInstance.getApp()
-                                .getDefinition(), wfJob.getConf());
+                        String actionSlaXml = getActionSLAXml(newAction.getName(), workflowInstance.getApp());
                         newAction.setSlaXml(actionSlaXml);
-                        jpaService.execute(new WorkflowActionInsertJPAExecutor(newAction));
+                        bulk.add(new WorkflowActionInsertJPAExecutor(newAction));
                         queue(new ActionStartXCommand(newAction.getId(), newAction.getType()));
                     }
                 }
@@ -258,7 +259,8 @@ public class SignalXCommand extends WorkflowXCommand<Void> {
         }
 
         try {
-            jpaService.execute(new WorkflowJobUpdateJPAExecutor(wfJob));
+            bulk.add(new WorkflowJobUpdateJPAExecutor(wfJob));
+            executeStoringApp(jpaService, bulk, appHash);
         }
         catch (JPAExecutorException je) {
             throw new CommandException(je);
@@ -281,10 +283,10 @@ public class SignalXCommand extends WorkflowXCommand<Void> {
     }
 
     @SuppressWarnings("unchecked")
-    private String getActionSLAXml(String actionName, String wfXml, String wfConf) throws CommandException {
+    private String getActionSLAXml(String actionName, WorkflowApp app) throws CommandException {
         String slaXml = null;
         try {
-            Element eWfJob = XmlUtils.parseXml(wfXml);
+            Element eWfJob = app.getDefinitionElement();
             for (Element action : (List<Element>) eWfJob.getChildren("action", eWfJob.getNamespace())) {
                 if (action.getAttributeValue("name").equals(actionName) == false) {
                     continue;
@@ -315,10 +317,10 @@ public class SignalXCommand extends WorkflowXCommand<Void> {
     }
 
     @SuppressWarnings("unchecked")
-    private void writeSLARegistrationForAllActions(String wfXml, String user, String group, String strConf)
+    private void writeSLARegistrationForAllActions(WorkflowApp app, String user, String group, String strConf)
             throws CommandException {
         try {
-            Element eWfJob = XmlUtils.parseXml(wfXml);
+            Element eWfJob = app.getDefinitionElement();
             Configuration conf = new XConfiguration(new StringReader(strConf));
             for (Element action : (List<Element>) eWfJob.getChildren("action", eWfJob.getNamespace())) {
                 Element eSla = action.getChild("info", Namespace.getNamespace(SchemaService.SLA_NAME_SPACE_URI));
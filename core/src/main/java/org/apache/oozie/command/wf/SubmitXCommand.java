@@ -31,6 +31,7 @@ import org.apache.oozie.util.ParamChecker;
 import org.apache.oozie.util.XConfiguration;
 import org.apache.oozie.util.XmlUtils;
 import org.apache.oozie.command.CommandException;
+import org.apache.oozie.executor.jpa.BulkJPAExecutor;
 import org.apache.oozie.executor.jpa.WorkflowJobInsertJPAExecutor;
 import org.apache.oozie.service.ELService;
 import org.apache.oozie.service.SchemaService;
@@ -150,6 +151,9 @@ public class SubmitXCommand extends WorkflowXCommand<String> {
             workflow.setUser(conf.get(OozieClient.USER_NAME));
             workflow.setGroup(conf.get(OozieClient.GROUP_NAME));
             workflow.setAuthToken(authToken);
+            // the workflow application is stored in the same transaction as the job
+            BulkJPAExecutor bulk = new BulkJPAExecutor();
+            String appHash = addAppInsert(wfInstance, bulk);
             workflow.setWorkflowInstance(wfInstance);
             workflow.setExternalId(conf.get(OozieClient.EXTERNAL_ID));
 
@@ -164,7 +168,8 @@ public class SubmitXCommand extends WorkflowXCommand<String> {
             //store.insertWorkflow(workflow);
             JPAService jpaService = Services.get().get(JPAService.class);
             if (jpaService != null) {
-                jpaService.execute(new WorkflowJobInsertJPAExecutor(workflow));
+                bulk.add(new WorkflowJobInsertJPAExecutor(workflow));
+                executeStoringApp(jpaService, bulk, appHash);
             }
             else {
                 LOG.error(ErrorCode.E0610);
@@ -141,6 +141,7 @@ public class SuspendXCommand extends WorkflowXCommand<Void> {
         catch (Exception ex) {
             throw new CommandException(ErrorCode.E0603, ex);
         }
+        resolveWorkflowInstance(this.wfJobBean);
         LogUtils.setLogInfo(this.wfJobBean, logInfo);
     }
 
@@ -14,7 +14,24 @@
  */
 package org.apache.oozie.command.wf;
 
+import org.apache.oozie.WorkflowAppDefBean;
+import org.apache.oozie.WorkflowJobBean;
+import org.apache.oozie.command.CommandException;
 import org.apache.oozie.command.XCommand;
+import org.apache.oozie.executor.jpa.BulkJPAExecutor;
+import org.apache.oozie.executor.jpa.JPAExecutor;
+import org.apache.oozie.executor.jpa.JPAExecutorException;
+import org.apache.oozie.executor.jpa.WorkflowAppDefGetJPAExecutor;
+import org.apache.oozie.executor.jpa.WorkflowAppDefInsertJPAExecutor;
+import org.apache.oozie.service.JPAService;
+import org.apache.oozie.service.LiteWorkflowAppService;
+import org.apache.oozie.service.Services;
+import org.apache.oozie.service.WorkflowAppService;
+import org.apache.oozie.util.XLog;
+import org.apache.oozie.workflow.WorkflowException;
+import org.apache.oozie.workflow.WorkflowInstance;
+import org.apache.oozie.workflow.lite.LiteWorkflowApp;
+import org.apache.oozie.workflow.lite.LiteWorkflowInstance;
 
 /**
  * Abstract coordinator command class derived from XCommand
@@ -45,4 +62,87 @@ public abstract class WorkflowXCommand<T> extends XCommand<T> {
         super(name, type, priority, dryrun);
     }
 
-}
\ No newline at end of file
+    /**
+     * Resolve the workflow instance of a job loaded from the database, the job can then return its instance.
+     *
+     * @param job workflow job.
+     * @throws CommandException thrown if the workflow application of the instance could not be loaded.
+     */
+    protected static void resolveWorkflowInstance(WorkflowJobBean job) throws CommandException {
+        try {
+            ((LiteWorkflowAppService) Services.get().get(WorkflowAppService.class)).resolveWorkflowInstance(job);
+        }
+        catch (WorkflowException ex) {
+            throw new CommandException(ex);
+        }
+    }
+
+    /**
+     * Add the insert of the workflow application of an instance to the unit of work writing its job, if the
+     * application is not known to be stored yet.
+     * <p/>
+     * The instance is then marked as stored, it must be set in the job after this call so the job is written in the
+     * compact format. The unit of work must be run with {@link #executeStoringApp}.
+     *
+     * @param instance workflow instance.
+     * @param bulk unit of work writing the job.
+     * @return the hash of the workflow application if its insert was added, <code>null</code> otherwise.
+     */
+    protected static String addAppInsert(WorkflowInstance instance, BulkJPAExecutor bulk) {
+        LiteWorkflowInstance liteInstance = (LiteWorkflowInstance) instance;
+        if (liteInstance.isAppStored()) {
+            return null;
+        }
+        LiteWorkflowApp app = (LiteWorkflowApp) liteInstance.getApp();
+        bulk.add(new WorkflowAppDefInsertJPAExecutor(new WorkflowAppDefBean(app)));
+        liteInstance.setAppStored(true);
+        return app.getHash();
+    }
+
+    /**
+     * Run the unit of work writing a job.
+     * <p/>
+     * If the unit of work inserts the workflow application and fails while the application is stored, another command
+     * stored the same application concurrently and the unit of work is run once more, the insert then skips the
+     * stored application.
+     *
+     * @param jpaService the JPA service.
+     * @param executor unit of work writing the job.
+     * @param appHash hash returned by {@link #addAppInsert}, <code>null</code> if the application insert was not added.
+     * @return the return value of the unit of work.
+     * @throws JPAExecutorException thrown if the unit of work failed.
+     */
+    protected static <T> T executeStoringApp(JPAService jpaService, JPAExecutor<T> executor, String appHash)
+            throws JPAExecutorException {
+        if (appHash == null) {
+            return jpaService.execute(executor);
+        }
+        try {
+            return jpaService.execute(executor);
+        }
+        catch (JPAExecutorException ex) {
+            if (!isAppStored(jpaService, appHash)) {
+                throw ex;
+            }
+        }
+        catch (RuntimeException ex) {
+            if (!isAppStored(jpaService, appHash)) {
+                throw ex;
+            }
+        }
+        XLog.getLog(WorkflowXCommand.class).debug("Workflow application [{0}] stored concurrently, retrying",
+                                                  appHash);
+        return jpaService.execute(executor);
+    }
+
+    private static boolean isAppStored(JPAService jpaService, String appHash) {
+        try {
+            jpaService.execute(new WorkflowAppDefGetJPAExecutor(appHash));
+            return true;
+        }
+        catch (JPAExecutorException ex) {
+            return false;
+        }
+    }
+
+}
@@ -14,22 +14,17 @@
  */
 package org.apache.oozie.coord;
 
-import java.io.IOException;
 import java.util.Calendar;
 import java.util.Date;
 import java.util.TimeZone;
 
 import org.apache.hadoop.conf.Configuration;
-import org.apache.hadoop.fs.Path;
 
 import org.apache.oozie.client.OozieClient;
 import org.apache.oozie.util.DateUtils;
 import org.apache.oozie.util.ELEvaluator;
 import org.apache.oozie.util.ParamChecker;
 import org.apache.oozie.util.XLog;
-import org.apache.oozie.service.HadoopAccessorException;
-import org.apache.oozie.service.Services;
-import org.apache.oozie.service.HadoopAccessorService;
 
 /**
  * This class implements the EL function related to coordinator
@@ -244,14 +239,16 @@ public class CoordELFunctions {
             String group = ParamChecker.notEmpty((String) eval.getVariable(OozieClient.GROUP_NAME),
                     OozieClient.GROUP_NAME);
             String doneFlag = ds.getDoneFlag();
+            DatasetInstanceResolver resolver = new DatasetInstanceResolver(uriTemplate, doneFlag, user, group, conf);
+            ELEvaluator uriEval = new ELEvaluator();
             while (instance >= checkedInstance) {
-                ELEvaluator uriEval = getUriEvaluator(nominalInstanceCal);
+                setUriVariables(uriEval, nominalInstanceCal);
                 String uriPath = uriEval.evaluate(uriTemplate, String.class);
                 String pathWithDoneFlag = uriPath;
                 if (doneFlag.length() > 0) {
                     pathWithDoneFlag += "/" + doneFlag;
                 }
-                if (isPathAvailable(pathWithDoneFlag, user, group, conf)) {
+                if (resolver.isAvailable(uriPath)) {
                     XLog.getLog(CoordELFunctions.class).debug("Found future(" + available + "): " + pathWithDoneFlag);
                     if (available == n) {
                         XLog.getLog(CoordELFunctions.class).debug("Found future File: " + pathWithDoneFlag);
@@ -725,14 +722,16 @@ public class CoordELFunctions {
             String group = ParamChecker.notEmpty((String) eval.getVariable(OozieClient.GROUP_NAME),
                                                  OozieClient.GROUP_NAME);
             String doneFlag = ds.getDoneFlag();
+            DatasetInstanceResolver resolver = new DatasetInstanceResolver(uriTemplate, doneFlag, user, group, conf);
+            ELEvaluator uriEval = new ELEvaluator();
             while (nominalInstanceCal.compareTo(initInstance) >= 0) {
-                ELEvaluator uriEval = getUriEvaluator(nominalInstanceCal);
+                setUriVariables(uriEval, nominalInstanceCal);
                 String uriPath = uriEval.evaluate(uriTemplate, String.class);
                 String pathWithDoneFlag = uriPath;
                 if (doneFlag.length() > 0) {
                     pathWithDoneFlag += "/" + doneFlag;
                 }
-                if (isPathAvailable(pathWithDoneFlag, user, group, conf)) {
+                if (resolver.isAvailable(uriPath)) {
                     XLog.getLog(CoordELFunctions.class).debug("Found latest(" + available + "): " + pathWithDoneFlag);
                     if (available == offset) {
                         XLog.getLog(CoordELFunctions.class).debug("Found Latest File: " + pathWithDoneFlag);
@@ -767,31 +766,13 @@ public class CoordELFunctions {
         return retVal;
     }
 
-    // TODO : Not an efficient way. In a loop environment, we could do something
-    // outside the loop
     /**
-     * Check whether a URI path exists
+     * Set the variables for URI-template evaluation, the evaluator is reused for all the instances of a dataset
      *
-     * @param sPath
-     * @param conf
-     * @return
-     * @throws IOException
-     */
-
-    private static boolean isPathAvailable(String sPath, String user, String group, Configuration conf)
-            throws IOException, HadoopAccessorException {
-        // sPath += "/" + END_OF_OPERATION_INDICATOR_FILE;
-        Path path = new Path(sPath);
-        return Services.get().get(HadoopAccessorService.class).
-                createFileSystem(user, group, path.toUri(), conf).exists(path);
-    }
-
-    /**
+     * @param retEval evaluator to be used for URI-template evaluation
      * @param tm
-     * @return a new Evaluator to be used for URI-template evaluation
      */
-    private static ELEvaluator getUriEvaluator(Calendar tm) {
-        ELEvaluator retEval = new ELEvaluator();
+    private static void setUriVariables(ELEvaluator retEval, Calendar tm) {
         retEval.setVariable("YEAR", tm.get(Calendar.YEAR));
         retEval.setVariable("MONTH", (tm.get(Calendar.MONTH) + 1) < 10 ? "0" + (tm.get(Calendar.MONTH) + 1) : (tm
                 .get(Calendar.MONTH) + 1));
@@ -801,7 +782,6 @@ public class CoordELFunctions {
                 .get(Calendar.HOUR_OF_DAY));
         retEval.setVariable("MINUTE", tm.get(Calendar.MINUTE) < 10 ? "0" + tm.get(Calendar.MINUTE) : tm
                 .get(Calendar.MINUTE));
-        return retEval;
     }
 
     /**
@@ -0,0 +1,163 @@
+/**
+ * Copyright (c) 2010 Yahoo! Inc. All rights reserved.
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License. See accompanying LICENSE file.
+ */
+package org.apache.oozie.coord;
+
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+
+import org.apache.hadoop.conf.Configuration;
+import org.apache.hadoop.fs.FileSystem;
+import org.apache.hadoop.fs.Path;
+import org.apache.oozie.service.DatasetAvailabilityService;
+import org.apache.oozie.service.HadoopAccessorException;
+import org.apache.oozie.service.HadoopAccessorService;
+import org.apache.oozie.service.Services;
+import org.apache.oozie.util.ParamChecker;
+
+/**
+ * Resolves the availability of the instances of a synchronous dataset using directory listings.
+ * <p/>
+ * The first instance checked is probed directly, a walk often stops at it and listing all its ancestor directories
+ * would cost more than a single check. The following instances are resolved with listings.
+ * <p/>
+ * The directory of an instance exists if its name is in the listing of its parent directory, the parent directory
+ * is checked the same way up to the static part of the URI template. Listings are kept for the life of the resolver,
+ * so all the instances under the same directory, or under the same missing directory, cost a single listing. The
+ * done flag of an existing instance is checked through the {@link DatasetAvailabilityService}.
+ * <p/>
+ * URI templates without a variable in the path cannot be listed, their instances are checked one by one.
+ */
+public class DatasetInstanceResolver {
+    private final String doneFlag;
+    private final String user;
+    private final String group;
+    private final Configuration conf;
+    private final DatasetAvailabilityService service;
+    private final String root;
+    private final Map<String, Set<String>> listings = new HashMap<String, Set<String>>();
+    private FileSystem fs;
+    private boolean probed;
+
+    /**
+     * Create a resolver for the instances of a dataset.
+     *
+     * @param uriTemplate URI template of the dataset.
+     * @param doneFlag done flag of the dataset, an empty string if none.
+     * @param user user name.
+     * @param group group name.
+     * @param conf configuration to access the file system.
+     */
+    public DatasetInstanceResolver(String uriTemplate, String doneFlag, String user, String group,
+            Configuration conf) {
+        ParamChecker.notEmpty(uriTemplate, "uriTemplate");
+        this.doneFlag = ParamChecker.notNull(doneFlag, "doneFlag");
+        this.user = ParamChecker.notEmpty(user, "user");
+        this.group = group;
+        this.conf = ParamChecker.notNull(conf, "conf");
+        service = Services.get().get(DatasetAvailabilityService.class);
+        root = getRoot(uriTemplate);
+    }
+
+    /**
+     * Return the URI, with a trailing slash, of the directory containing the first path element with a variable,
+     * <code>null</code> if the template has no variable in its path.
+     */
+    private static String getRoot(String uriTemplate) {
+        int variable = uriTemplate.indexOf("${");
+        if (variable < 0) {
+            return null;
+        }
+        String prefix = uriTemplate.substring(0, variable);
+        int scheme = prefix.indexOf("://");
+        int pathStart = prefix.indexOf('/', (scheme < 0) ? 0 : scheme + 3);
+        int lastSlash = prefix.lastIndexOf('/');
+        if (pathStart < 0 || lastSlash < pathStart || prefix.indexOf('?') >= 0) {
+            return null;
+        }
+        return prefix.substring(0, lastSlash + 1);
+    }
+
+    /**
+     * Return if the URI template of the dataset can be resolved with listings.
+     *
+     * @return if the URI template of the dataset can be resolved with listings.
+     */
+    public boolean isListable() {
+        return root != null;
+    }
+
+    /**
+     * Check if a dataset instance is available.
+     *
+     * @param uri URI of the dataset instance, without the done flag.
+     * @return if the instance exists and, if the dataset has a done flag, its done flag exists.
+     * @throws IOException thrown if the instance could not be checked.
+     * @throws HadoopAccessorException thrown if the file system could not be accessed.
+     */
+    public boolean isAvailable(String uri) throws IOException, HadoopAccessorException {
+        String uriWithDoneFlag = (doneFlag.length() > 0) ? uri + "/" + doneFlag : uri;
+        String relative = getRelative(uri);
+        if (relative == null || !probed) {
+            probed = true;
+            return service.exists(uriWithDoneFlag, user, group, conf);
+        }
+        if (!exists(relative)) {
+            return false;
+        }
+        return doneFlag.length() == 0 || service.exists(uriWithDoneFlag, user, group, conf);
+    }
+
+    /**
+     * Return the path of an instance relative to the root, <code>null</code> if it cannot be listed from the root.
+     */
+    private String getRelative(String uri) {
+        if (root == null || !uri.startsWith(root)) {
+            return null;
+        }
+        String relative = uri.substring(root.length());
+        if (relative.endsWith("/")) {
+            relative = relative.substring(0, relative.length() - 1);
+        }
+        if (relative.length() == 0 || relative.startsWith("/") || relative.indexOf("//") >= 0) {
+            return null;
+        }
+        return relative;
+    }
+
+    private boolean exists(String relative) throws IOException, HadoopAccessorException {
+        int slash = relative.lastIndexOf('/');
+        Set<String> names = list((slash < 0) ? "" : relative.substring(0, slash));
+        return names != null && names.contains(relative.substring(slash + 1));
+    }
+
+    private Set<String> list(String relativeDir) throws IOException, HadoopAccessorException {
+        if (listings.containsKey(relativeDir)) {
+            return listings.get(relativeDir);
+        }
+        Set<String> names = null;
+        if (relativeDir.length() == 0 || exists(relativeDir)) {
+            Path dir = new Path(root + relativeDir);
+            if (fs == null) {
+                fs = Services.get().get(HadoopAccessorService.class).createFileSystem(user, group, dir.toUri(), conf);
+            }
+            names = service.list(fs, dir);
+        }
+        listings.put(relativeDir, names);
+        return names;
+    }
+
+}
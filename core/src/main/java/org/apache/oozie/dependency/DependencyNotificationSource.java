@@ -0,0 +1,66 @@
+/**
+ * Copyright (c) 2010 Yahoo! Inc. All rights reserved.
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License. See accompanying LICENSE file.
+ */
+package org.apache.oozie.dependency;
+
+import org.apache.oozie.service.DependencyRegistryService;
+import org.apache.oozie.service.ServiceException;
+import org.apache.oozie.service.Services;
+
+/**
+ * A dependency notification source tells the {@link DependencyRegistryService} when a dependency, the URI of a dataset
+ * instance, becomes available.
+ * <p/>
+ * The registry asks the source to watch a URI only if the source accepts it, and calls
+ * {@link DependencyRegistryService#dependencyAvailable(String)} back when the URI appears.
+ */
+public interface DependencyNotificationSource {
+
+    /**
+     * Initialize the notification source.
+     *
+     * @param services services instance.
+     * @param registry dependency registry to notify.
+     * @throws ServiceException thrown if the notification source could not be initialized.
+     */
+    public void init(Services services, DependencyRegistryService registry) throws ServiceException;
+
+    /**
+     * Destroy the notification source.
+     */
+    public void destroy();
+
+    /**
+     * Return if the notification source can watch a URI.
+     *
+     * @param uri URI of a dataset instance.
+     * @return if the notification source can watch the URI.
+     */
+    public boolean accept(String uri);
+
+    /**
+     * Start watching a URI.
+     *
+     * @param uri URI of a dataset instance.
+     */
+    public void watch(String uri);
+
+    /**
+     * Stop watching a URI.
+     *
+     * @param uri URI of a dataset instance.
+     */
+    public void unwatch(String uri);
+
+}
@@ -0,0 +1,112 @@
+/**
+ * Copyright (c) 2010 Yahoo! Inc. All rights reserved.
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License. See accompanying LICENSE file.
+ */
+package org.apache.oozie.dependency;
+
+import java.io.File;
+import java.net.URI;
+import java.util.Collections;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.apache.oozie.service.DependencyRegistryService;
+import org.apache.oozie.service.SchedulerService;
+import org.apache.oozie.service.Services;
+import org.apache.oozie.util.XLog;
+
+/**
+ * Notification source for dependencies on the local file system, <code>file:</code> URIs.
+ * <p/>
+ * The watched files are checked every {@link #CONF_INTERVAL} seconds, a check is a local <code>stat</code>.
+ */
+public class LocalFileSystemNotificationSource implements DependencyNotificationSource {
+
+    /**
+     * Interval, in seconds, at which the watched files are checked.
+     */
+    public static final String CONF_INTERVAL = DependencyRegistryService.CONF_PREFIX + "local.interval";
+
+    private static XLog LOG = XLog.getLog(LocalFileSystemNotificationSource.class);
+
+    private final Set<String> watched = Collections.newSetFromMap(new ConcurrentHashMap<String, Boolean>());
+    private DependencyRegistryService registry;
+
+    /**
+     * Initialize the local file system notification source.
+     *
+     * @param services services instance.
+     * @param registry dependency registry to notify.
+     */
+    public void init(Services services, DependencyRegistryService registry) {
+        this.registry = registry;
+        Runnable checker = new Runnable() {
+            public void run() {
+                check();
+            }
+        };
+        services.get(SchedulerService.class).schedule(checker, 1, services.getConf().getInt(CONF_INTERVAL, 5),
+                                                      SchedulerService.Unit.SEC);
+    }
+
+    /**
+     * Destroy the local file system notification source.
+     */
+    public void destroy() {
+        watched.clear();
+    }
+
+    /**
+     * Return if the URI is a <code>file:</code> URI.
+     *
+     * @param uri URI of a dataset instance.
+     * @return if the URI is a <code>file:</code> URI.
+     */
+    public boolean accept(String uri) {
+        return uri.startsWith("file:");
+    }
+
+    /**
+     * Start watching a file.
+     *
+     * @param uri URI of the file.
+     */
+    public void watch(String uri) {
+        watched.add(uri);
+    }
+
+    /**
+     * Stop watching a file.
+     *
+     * @param uri URI of the file.
+     */
+    public void unwatch(String uri) {
+        watched.remove(uri);
+    }
+
+    private void check() {
+        for (String uri : watched) {
+            try {
+                if (new File(new URI(uri).getPath()).exists()) {
+                    LOG.debug("Dependency [{0}] is available", uri);
+                    watched.remove(uri);
+                    registry.dependencyAvailable(uri);
+                }
+            }
+            catch (Exception ex) {
+                LOG.warn("Could not check dependency [{0}], {1}", uri, ex.getMessage(), ex);
+            }
+        }
+    }
+
+}
@@ -0,0 +1,74 @@
+/**
+ * Copyright (c) 2010 Yahoo! Inc. All rights reserved.
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License. See accompanying LICENSE file.
+ */
+package org.apache.oozie.executor.jpa;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import javax.persistence.EntityManager;
+
+/**
+ * Unit of work that runs a list of JPA executors with the same {@link EntityManager}, in a single transaction.
+ * <p/>
+ * Commands collect their update and insert executors and run them at once. This is a single commit, and the SQL
+ * statements are flushed together in JDBC batches (see {@link org.apache.oozie.service.JPAService#CONF_BATCH_LIMIT}).
+ * <p/>
+ * The executors are run in the order they were added, their return values are returned in the same order. If an
+ * executor fails, the whole unit of work is rolled back.
+ */
+public class BulkJPAExecutor implements JPAExecutor<List<Object>> {
+
+    private List<JPAExecutor<?>> executors = new ArrayList<JPAExecutor<?>>();
+
+    /**
+     * Add an executor to the unit of work.
+     *
+     * @param executor executor to add
+     * @return this unit of work
+     */
+    public BulkJPAExecutor add(JPAExecutor<?> executor) {
+        executors.add(executor);
+        return this;
+    }
+
+    /**
+     * Return the number of executors in the unit of work.
+     *
+     * @return the number of executors in the unit of work.
+     */
+    public int size() {
+        return executors.size();
+    }
+
+    /* (non-Javadoc)
+     * @see org.apache.oozie.executor.jpa.JPAExecutor#getName()
+     */
+    @Override
+    public String getName() {
+        return "BulkJPAExecutor";
+    }
+
+    /* (non-Javadoc)
+     * @see org.apache.oozie.executor.jpa.JPAExecutor#execute(javax.persistence.EntityManager)
+     */
+    @Override
+    public List<Object> execute(EntityManager em) throws JPAExecutorException {
+        List<Object> results = new ArrayList<Object>(executors.size());
+        for (JPAExecutor<?> executor : executors) {
+            results.add(executor.execute(em));
+        }
+        return results;
+    }
+}
@@ -0,0 +1,127 @@
+/**
+ * Copyright (c) 2010 Yahoo! Inc. All rights reserved.
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License. See accompanying LICENSE file.
+ */
+package org.apache.oozie.executor.jpa;
+
+import java.sql.Timestamp;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import javax.persistence.EntityManager;
+import javax.persistence.Query;
+
+import org.apache.oozie.ErrorCode;
+import org.apache.oozie.client.Job;
+
+/**
+ * Count the actions, the pending actions and the succeeded actions of the bundle jobs selected as in
+ * {@link BundleJobsGetForStatusTransitJPAExecutor}, with a single GROUP BY query.
+ * <p/>
+ * The counts are keyed by bundle job id, bundle jobs without actions are not in the map.
+ */
+public class BundleActionsGetStatusCountsJPAExecutor implements
+        JPAExecutor<Map<String, BundleActionsGetStatusCountsJPAExecutor.StatusCounts>> {
+
+    /**
+     * Action counts of a bundle job.
+     */
+    public static class StatusCounts {
+        private int actions;
+        private int pending;
+        private int succeeded;
+
+        /**
+         * @return the number of actions of the bundle job.
+         */
+        public int getActions() {
+            return actions;
+        }
+
+        /**
+         * @return the number of pending actions of the bundle job.
+         */
+        public int getPending() {
+            return pending;
+        }
+
+        /**
+         * @return the number of SUCCEEDED actions of the bundle job.
+         */
+        public int getSucceeded() {
+            return succeeded;
+        }
+    }
+
+    private Date lastModifiedTime;
+
+    /**
+     * The constructor for class {@link BundleActionsGetStatusCountsJPAExecutor}
+     *
+     * @param lastModifiedTime only the bundle jobs having actions modified at or after this time are counted, if
+     *        <code>null</code> the pending or running bundle jobs are counted.
+     */
+    public BundleActionsGetStatusCountsJPAExecutor(Date lastModifiedTime) {
+        this.lastModifiedTime = lastModifiedTime;
+    }
+
+    /* (non-Javadoc)
+     * @see org.apache.oozie.executor.jpa.JPAExecutor#getName()
+     */
+    @Override
+    public String getName() {
+        return "BundleActionsGetStatusCountsJPAExecutor";
+    }
+
+    /* (non-Javadoc)
+     * @see org.apache.oozie.executor.jpa.JPAExecutor#execute(javax.persistence.EntityManager)
+     */
+    @Override
+    @SuppressWarnings("unchecked")
+    public Map<String, StatusCounts> execute(EntityManager em) throws JPAExecutorException {
+        Map<String, StatusCounts> counts = new HashMap<String, StatusCounts>();
+        try {
+            Query q;
+            if (lastModifiedTime == null) {
+                q = em.createNamedQuery("GET_BUNDLE_ACTIONS_STATUS_COUNTS_PENDING_OR_RUNNING");
+            }
+            else {
+                q = em.createNamedQuery("GET_BUNDLE_ACTIONS_STATUS_COUNTS_BY_LAST_MODIFIED_TIME");
+                q.setParameter("lastModifiedTime", new Timestamp(lastModifiedTime.getTime()));
+            }
+            List<Object[]> rows = q.getResultList();
+            for (Object[] arr : rows) {
+                String bundleId = (String) arr[0];
+                int count = ((Number) arr[3]).intValue();
+                StatusCounts bundleCounts = counts.get(bundleId);
+                if (bundleCounts == null) {
+                    bundleCounts = new StatusCounts();
+                    counts.put(bundleId, bundleCounts);
+                }
+                bundleCounts.actions += count;
+                if (arr[2] != null && ((Integer) arr[2]) == 1) {
+                    bundleCounts.pending += count;
+                }
+                if (Job.Status.SUCCEEDED.toString().equals(arr[1])) {
+                    bundleCounts.succeeded += count;
+                }
+            }
+        }
+        catch (Exception e) {
+            throw new JPAExecutorException(ErrorCode.E0603, e);
+        }
+        return counts;
+    }
+}
@@ -0,0 +1,92 @@
+/**
+ * Copyright (c) 2010 Yahoo! Inc. All rights reserved.
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License. See accompanying LICENSE file.
+ */
+package org.apache.oozie.executor.jpa;
+
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+
+import javax.persistence.EntityManager;
+import javax.persistence.Query;
+
+import org.apache.oozie.BundleJobBean;
+import org.apache.oozie.ErrorCode;
+import org.apache.oozie.client.Job;
+
+/**
+ * Load the id, status and pending flag of the bundle jobs whose status may have to be updated from the status of
+ * their actions.
+ * <p/>
+ * Without a time, these are the pending or running bundle jobs. With a time, these are the bundle jobs having actions
+ * modified at or after it. Only these columns are queried, the returned beans must not be merged back.
+ */
+public class BundleJobsGetForStatusTransitJPAExecutor implements JPAExecutor<List<BundleJobBean>> {
+
+    private Date lastModifiedTime;
+
+    /**
+     * The constructor for class {@link BundleJobsGetForStatusTransitJPAExecutor}
+     *
+     * @param lastModifiedTime only the bundle jobs having actions modified at or after this time are returned, if
+     *        <code>null</code> the pending or running bundle jobs are returned.
+     */
+    public BundleJobsGetForStatusTransitJPAExecutor(Date lastModifiedTime) {
+        this.lastModifiedTime = lastModifiedTime;
+    }
+
+    /* (non-Javadoc)
+     * @see org.apache.oozie.executor.jpa.JPAExecutor#getName()
+     */
+    @Override
+    public String getName() {
+        return "BundleJobsGetForStatusTransitJPAExecutor";
+    }
+
+    /* (non-Javadoc)
+     * @see org.apache.oozie.executor.jpa.JPAExecutor#execute(javax.persistence.EntityManager)
+     */
+    @Override
+    @SuppressWarnings("unchecked")
+    public List<BundleJobBean> execute(EntityManager em) throws JPAExecutorException {
+        List<BundleJobBean> bundleJobs = new ArrayList<BundleJobBean>();
+        try {
+            Query q;
+            if (lastModifiedTime == null) {
+                q = em.createNamedQuery("GET_BUNDLE_JOBS_STATUS_PENDING_OR_RUNNING");
+            }
+            else {
+                q = em.createNamedQuery("GET_BUNDLE_JOBS_STATUS_BY_ACTION_LAST_MODIFIED_TIME");
+                q.setParameter("lastModifiedTime", new Timestamp(lastModifiedTime.getTime()));
+            }
+            List<Object[]> jobs = q.getResultList();
+            for (Object[] arr : jobs) {
+                BundleJobBean bean = new BundleJobBean();
+                bean.setId((String) arr[0]);
+                if (arr[1] != null) {
+                    bean.setStatus(Job.Status.valueOf((String) arr[1]));
+                }
+                if (arr[2] != null && ((Integer) arr[2]) == 1) {
+                    bean.setPending();
+                }
+                bundleJobs.add(bean);
+            }
+        }
+        catch (Exception e) {
+            throw new JPAExecutorException(ErrorCode.E0603, e);
+        }
+        return bundleJobs;
+    }
+}
@@ -0,0 +1,82 @@
+/**
+ * Copyright (c) 2010 Yahoo! Inc. All rights reserved.
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License. See accompanying LICENSE file.
+ */
+package org.apache.oozie.executor.jpa;
+
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+import javax.persistence.EntityManager;
+import javax.persistence.Query;
+
+import org.apache.oozie.ErrorCode;
+import org.apache.oozie.util.ParamChecker;
+
+/**
+ * Reset the pending flag and update the last modified time of a set of bundle jobs, the other columns are left
+ * untouched.
+ * <p/>
+ * The jobs are updated with one UPDATE statement per {@link BundleJobsUpdateStatusJPAExecutor#MAX_IDS} ids.
+ */
+public class BundleJobsResetPendingJPAExecutor implements JPAExecutor<Integer> {
+
+    private List<String> bundleIds;
+
+    /**
+     * The constructor for class {@link BundleJobsResetPendingJPAExecutor}
+     *
+     * @param bundleIds ids of the bundle jobs to update.
+     */
+    public BundleJobsResetPendingJPAExecutor(Collection<String> bundleIds) {
+        ParamChecker.notNull(bundleIds, "bundleIds");
+        this.bundleIds = new ArrayList<String>(bundleIds);
+    }
+
+    /* (non-Javadoc)
+     * @see org.apache.oozie.executor.jpa.JPAExecutor#getName()
+     */
+    @Override
+    public String getName() {
+        return "BundleJobsResetPendingJPAExecutor";
+    }
+
+    /* (non-Javadoc)
+     * @see org.apache.oozie.executor.jpa.JPAExecutor#execute(javax.persistence.EntityManager)
+     */
+    @Override
+    public Integer execute(EntityManager em) throws JPAExecutorException {
+        int updated = 0;
+        try {
+            Timestamp now = new Timestamp(System.currentTimeMillis());
+            for (int start = 0; start < bundleIds.size(); start += BundleJobsUpdateStatusJPAExecutor.MAX_IDS) {
+                List<String> ids = bundleIds.subList(start, Math.min(start + BundleJobsUpdateStatusJPAExecutor.MAX_IDS,
+                        bundleIds.size()));
+                Query q = em.createQuery(BundleJobsUpdateStatusJPAExecutor.inClause(
+                        "update BundleJobBean w set w.pending = 0, w.lastModifiedTimestamp = :lastModifiedTimestamp",
+                        ids.size()));
+                q.setParameter("lastModifiedTimestamp", now);
+                for (int i = 0; i < ids.size(); i++) {
+                    q.setParameter("id" + i, ids.get(i));
+                }
+                updated += q.executeUpdate();
+            }
+        }
+        catch (Exception e) {
+            throw new JPAExecutorException(ErrorCode.E0603, e);
+        }
+        return updated;
+    }
+}
@@ -0,0 +1,105 @@
+/**
+ * Copyright (c) 2010 Yahoo! Inc. All rights reserved.
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License. See accompanying LICENSE file.
+ */
+package org.apache.oozie.executor.jpa;
+
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+import javax.persistence.EntityManager;
+import javax.persistence.Query;
+
+import org.apache.oozie.ErrorCode;
+import org.apache.oozie.client.Job;
+import org.apache.oozie.util.ParamChecker;
+
+/**
+ * Update the status and last modified time of a set of bundle jobs, the other columns are left untouched.
+ * <p/>
+ * The jobs are updated with one UPDATE statement per {@link #MAX_IDS} ids.
+ */
+public class BundleJobsUpdateStatusJPAExecutor implements JPAExecutor<Integer> {
+
+    /**
+     * Maximum number of ids in the IN clause of a statement.
+     */
+    public static final int MAX_IDS = 500;
+
+    private List<String> bundleIds;
+    private Job.Status status;
+
+    /**
+     * The constructor for class {@link BundleJobsUpdateStatusJPAExecutor}
+     *
+     * @param bundleIds ids of the bundle jobs to update.
+     * @param status new status of the bundle jobs.
+     */
+    public BundleJobsUpdateStatusJPAExecutor(Collection<String> bundleIds, Job.Status status) {
+        ParamChecker.notNull(bundleIds, "bundleIds");
+        this.bundleIds = new ArrayList<String>(bundleIds);
+        this.status = ParamChecker.notNull(status, "status");
+    }
+
+    /* (non-Javadoc)
+     * @see org.apache.oozie.executor.jpa.JPAExecutor#getName()
+     */
+    @Override
+    public String getName() {
+        return "BundleJobsUpdateStatusJPAExecutor";
+    }
+
+    /* (non-Javadoc)
+     * @see org.apache.oozie.executor.jpa.JPAExecutor#execute(javax.persistence.EntityManager)
+     */
+    @Override
+    public Integer execute(EntityManager em) throws JPAExecutorException {
+        int updated = 0;
+        try {
+            Timestamp now = new Timestamp(System.currentTimeMillis());
+            for (int start = 0; start < bundleIds.size(); start += MAX_IDS) {
+                List<String> ids = bundleIds.subList(start, Math.min(start + MAX_IDS, bundleIds.size()));
+                Query q = em.createQuery(inClause(
+                        "update BundleJobBean w set w.status = :status, w.lastModifiedTimestamp = :lastModifiedTimestamp",
+                        ids.size()));
+                q.setParameter("status", status.toString());
+                q.setParameter("lastModifiedTimestamp", now);
+                for (int i = 0; i < ids.size(); i++) {
+                    q.setParameter("id" + i, ids.get(i));
+                }
+                updated += q.executeUpdate();
+            }
+        }
+        catch (Exception e) {
+            throw new JPAExecutorException(ErrorCode.E0603, e);
+        }
+        return updated;
+    }
+
+    /**
+     * Append a "where w.id IN (:id0, ..., :idN)" clause to a statement.
+     *
+     * @param statement statement on the bundle jobs, aliased <code>w</code>.
+     * @param size number of id parameters.
+     * @return the statement with the where clause.
+     */
+    static String inClause(String statement, int size) {
+        StringBuilder sb = new StringBuilder(statement).append(" where w.id IN (");
+        for (int i = 0; i < size; i++) {
+            sb.append((i == 0) ? ":id" : ", :id").append(i);
+        }
+        return sb.append(")").toString();
+    }
+}
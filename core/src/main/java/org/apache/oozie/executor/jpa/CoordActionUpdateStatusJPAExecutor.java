@@ -0,0 +1,73 @@
+/**
+ * Copyright (c) 2010 Yahoo! Inc. All rights reserved.
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License. See accompanying LICENSE file.
+ */
+package org.apache.oozie.executor.jpa;
+
+import java.sql.Timestamp;
+import java.util.Date;
+
+import javax.persistence.EntityManager;
+import javax.persistence.Query;
+
+import org.apache.oozie.CoordinatorActionBean;
+import org.apache.oozie.ErrorCode;
+import org.apache.oozie.util.ParamChecker;
+
+/**
+ * Update the status and last modified time of a coordinator action, the other columns are left untouched.
+ * <p/>
+ * Unlike {@link CoordActionUpdateJPAExecutor} the bean is not merged, so it can be a partial bean loaded by a
+ * projection executor such as {@link CoordJobGetActionsStatusJPAExecutor}.
+ */
+public class CoordActionUpdateStatusJPAExecutor implements JPAExecutor<Void> {
+
+    private CoordinatorActionBean coordAction = null;
+
+    /**
+     * Create the object for CoordActionUpdateStatusJPAExecutor to update the status of a coordinator action.
+     *
+     * @param coordAction coordinator action bean, only its id and status are used
+     */
+    public CoordActionUpdateStatusJPAExecutor(CoordinatorActionBean coordAction) {
+        ParamChecker.notNull(coordAction, "coordAction");
+        this.coordAction = coordAction;
+    }
+
+    /* (non-Javadoc)
+     * @see org.apache.oozie.executor.jpa.JPAExecutor#execute(javax.persistence.EntityManager)
+     */
+    @Override
+    public Void execute(EntityManager em) throws JPAExecutorException {
+        try {
+            coordAction.setLastModifiedTime(new Date());
+            Query q = em.createNamedQuery("UPDATE_COORD_ACTION_STATUS");
+            q.setParameter("id", coordAction.getId());
+            q.setParameter("status", coordAction.getStatus().toString());
+            q.setParameter("lastModifiedTime", new Timestamp(coordAction.getLastModifiedTime().getTime()));
+            q.executeUpdate();
+            return null;
+        }
+        catch (Exception e) {
+            throw new JPAExecutorException(ErrorCode.E0603, e);
+        }
+    }
+
+    /* (non-Javadoc)
+     * @see org.apache.oozie.executor.jpa.JPAExecutor#getName()
+     */
+    @Override
+    public String getName() {
+        return "CoordActionUpdateStatusJPAExecutor";
+    }
+}
@@ -14,6 +14,11 @@
  */
 package org.apache.oozie.executor.jpa;
 
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+
 import javax.persistence.EntityManager;
 import javax.persistence.Query;
 
@@ -21,15 +26,22 @@ import org.apache.oozie.ErrorCode;
 import org.apache.oozie.util.ParamChecker;
 
 /**
- * Delete the list of CoordinatorAction for a CoordJob and return the number of actions been deleted.
+ * Delete the list of completed CoordinatorAction for a set of CoordJobs and return the number of actions been
+ * deleted.
+ * <p/>
+ * The actions are deleted with one DELETE statement per {@link QueryUtils#MAX_IDS} jobs.
  */
 public class CoordActionsDeleteForPurgeJPAExecutor implements JPAExecutor<Integer> {
 
-    private String coordJobId = null;
+    private List<String> coordJobIds;
 
     public CoordActionsDeleteForPurgeJPAExecutor(String coordJobId) {
-        ParamChecker.notNull(coordJobId, "coordJobId");
-        this.coordJobId = coordJobId;
+        this(Collections.singletonList(ParamChecker.notNull(coordJobId, "coordJobId")));
+    }
+
+    public CoordActionsDeleteForPurgeJPAExecutor(Collection<String> coordJobIds) {
+        ParamChecker.notNull(coordJobIds, "coordJobIds");
+        this.coordJobIds = new ArrayList<String>(coordJobIds);
     }
 
     /* (non-Javadoc)
@@ -47,9 +59,16 @@ public class CoordActionsDeleteForPurgeJPAExecutor implements JPAExecutor<Intege
     public Integer execute(EntityManager em) throws JPAExecutorException {
         int actionsDeleted = 0;
         try {
-            Query g = em.createNamedQuery("DELETE_COMPLETED_ACTIONS_FOR_COORDINATOR");
-            g.setParameter("jobId", coordJobId);
-            actionsDeleted = g.executeUpdate();
+            for (int start = 0; start < coordJobIds.size(); start += QueryUtils.MAX_IDS) {
+                List<String> ids = coordJobIds.subList(start, Math.min(start + QueryUtils.MAX_IDS,
+                        coordJobIds.size()));
+                Query g = em.createQuery(QueryUtils.inClause("delete from CoordinatorActionBean a", "a.jobId",
+                        ids.size()) + " and (a.status = 'SUCCEEDED' OR a.status = 'FAILED' OR a.status= 'KILLED')");
+                for (int i = 0; i < ids.size(); i++) {
+                    g.setParameter("id" + i, ids.get(i));
+                }
+                actionsDeleted += g.executeUpdate();
+            }
         }
         catch (Exception e) {
             throw new JPAExecutorException(ErrorCode.E0603, e);
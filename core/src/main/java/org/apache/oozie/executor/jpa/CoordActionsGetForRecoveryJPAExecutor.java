@@ -0,0 +1,100 @@
+/**
+ * Copyright (c) 2010 Yahoo! Inc. All rights reserved.
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License. See accompanying LICENSE file.
+ */
+package org.apache.oozie.executor.jpa;
+
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+
+import javax.persistence.EntityManager;
+import javax.persistence.Query;
+
+import org.apache.oozie.CoordinatorActionBean;
+import org.apache.oozie.ErrorCode;
+import org.apache.oozie.client.CoordinatorAction;
+import org.apache.oozie.util.DateUtils;
+import org.apache.oozie.util.ParamChecker;
+
+/**
+ * Load a page of the WAITING and SUBMITTED coordinator actions that were last modified before a given time, ordered by
+ * last modified time and id.
+ * <p/>
+ * The page starts after the given last modified time and id (keyset pagination), pass the values of the last action of
+ * the previous page to get the next one. Only the id, job id, status and last modified time are queried.
+ */
+public class CoordActionsGetForRecoveryJPAExecutor implements JPAExecutor<List<CoordinatorActionBean>> {
+
+    private Timestamp olderThan;
+    private Timestamp lastModified;
+    private String lastId;
+    private int limit;
+
+    /**
+     * Create the executor for the first page.
+     *
+     * @param olderThan actions modified after this time are not returned.
+     * @param limit maximum number of actions to return.
+     */
+    public CoordActionsGetForRecoveryJPAExecutor(Date olderThan, int limit) {
+        this(olderThan, new Date(0), "", limit);
+    }
+
+    /**
+     * Create the executor for the page following the given action.
+     *
+     * @param olderThan actions modified after this time are not returned.
+     * @param lastModified last modified time of the last action of the previous page.
+     * @param lastId id of the last action of the previous page.
+     * @param limit maximum number of actions to return.
+     */
+    public CoordActionsGetForRecoveryJPAExecutor(Date olderThan, Date lastModified, String lastId, int limit) {
+        this.olderThan = DateUtils.convertDateToTimestamp(ParamChecker.notNull(olderThan, "olderThan"));
+        this.lastModified = DateUtils.convertDateToTimestamp(ParamChecker.notNull(lastModified, "lastModified"));
+        this.lastId = ParamChecker.notNull(lastId, "lastId");
+        this.limit = limit;
+    }
+
+    @Override
+    public String getName() {
+        return "CoordActionsGetForRecoveryJPAExecutor";
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public List<CoordinatorActionBean> execute(EntityManager em) throws JPAExecutorException {
+        List<CoordinatorActionBean> actions = new ArrayList<CoordinatorActionBean>();
+        try {
+            Query q = em.createNamedQuery("GET_WAITING_SUBMITTED_ACTIONS_OLDER_THAN_PAGE");
+            q.setParameter("lastModifiedTime", olderThan);
+            q.setParameter("lastModified", lastModified);
+            q.setParameter("lastId", lastId);
+            q.setMaxResults(limit);
+            List<Object[]> list = q.getResultList();
+            for (Object[] arr : list) {
+                CoordinatorActionBean action = new CoordinatorActionBean();
+                action.setId((String) arr[0]);
+                action.setJobId((String) arr[1]);
+                action.setStatus(CoordinatorAction.Status.valueOf((String) arr[2]));
+                action.setLastModifiedTime((Timestamp) arr[3]);
+                actions.add(action);
+            }
+        }
+        catch (Exception e) {
+            throw new JPAExecutorException(ErrorCode.E0603, e);
+        }
+        return actions;
+    }
+}
@@ -0,0 +1,91 @@
+/**
+ * Copyright (c) 2010 Yahoo! Inc. All rights reserved.
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License. See accompanying LICENSE file.
+ */
+package org.apache.oozie.executor.jpa;
+
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+
+import javax.persistence.EntityManager;
+import javax.persistence.Query;
+
+import org.apache.oozie.ErrorCode;
+import org.apache.oozie.util.DateUtils;
+import org.apache.oozie.util.ParamChecker;
+
+/**
+ * Load a page of the ids of the coordinator jobs having READY actions last modified before a given time, ordered by
+ * job id.
+ * <p/>
+ * The page starts after the given job id (keyset pagination), pass the last job id of the previous page to get the next
+ * one.
+ */
+public class CoordActionsGetReadyGroupByJobIdJPAExecutor implements JPAExecutor<List<String>> {
+
+    private Timestamp olderThan;
+    private String lastJobId;
+    private int limit;
+
+    /**
+     * Create the executor for the first page.
+     *
+     * @param olderThan jobs whose READY actions were all modified after this time are not returned.
+     * @param limit maximum number of job ids to return.
+     */
+    public CoordActionsGetReadyGroupByJobIdJPAExecutor(Date olderThan, int limit) {
+        this(olderThan, "", limit);
+    }
+
+    /**
+     * Create the executor for the page following the given job id.
+     *
+     * @param olderThan jobs whose READY actions were all modified after this time are not returned.
+     * @param lastJobId last job id of the previous page.
+     * @param limit maximum number of job ids to return.
+     */
+    public CoordActionsGetReadyGroupByJobIdJPAExecutor(Date olderThan, String lastJobId, int limit) {
+        this.olderThan = DateUtils.convertDateToTimestamp(ParamChecker.notNull(olderThan, "olderThan"));
+        this.lastJobId = ParamChecker.notNull(lastJobId, "lastJobId");
+        this.limit = limit;
+    }
+
+    @Override
+    public String getName() {
+        return "CoordActionsGetReadyGroupByJobIdJPAExecutor";
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public List<String> execute(EntityManager em) throws JPAExecutorException {
+        List<String> jobIds = new ArrayList<String>();
+        try {
+            Query q = em.createNamedQuery("GET_READY_ACTIONS_GROUP_BY_JOBID_PAGE");
+            q.setParameter(1, lastJobId);
+            q.setParameter(2, olderThan);
+            q.setMaxResults(limit);
+            List<Object[]> list = q.getResultList();
+            for (Object[] arr : list) {
+                if (arr != null && arr[0] != null) {
+                    jobIds.add((String) arr[0]);
+                }
+            }
+        }
+        catch (Exception e) {
+            throw new JPAExecutorException(ErrorCode.E0603, e);
+        }
+        return jobIds;
+    }
+}
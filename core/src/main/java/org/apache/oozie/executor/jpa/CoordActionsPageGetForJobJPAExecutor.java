@@ -0,0 +1,82 @@
+/**
+ * Copyright (c) 2010 Yahoo! Inc. All rights reserved.
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License. See accompanying LICENSE file.
+ */
+package org.apache.oozie.executor.jpa;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import javax.persistence.EntityManager;
+import javax.persistence.Query;
+
+import org.apache.oozie.CoordinatorActionBean;
+import org.apache.oozie.ErrorCode;
+import org.apache.oozie.util.ParamChecker;
+
+/**
+ * Load a page of the CoordinatorActions of a CoordJob, ordered by action number, and return the list.
+ * <p/>
+ * The page holds the actions with an action number greater than the given one, skipping the first
+ * <code>start - 1</code> of them, so the next page can be read from the action number of the last action of the
+ * previous one.
+ */
+public class CoordActionsPageGetForJobJPAExecutor implements JPAExecutor<List<CoordinatorActionBean>> {
+
+    private String coordJobId = null;
+    private int afterActionNumber = 0;
+    private int start = 1;
+    private int len = 50;
+
+    public CoordActionsPageGetForJobJPAExecutor(String coordJobId, int afterActionNumber, int start, int len) {
+        ParamChecker.notNull(coordJobId, "coordJobId");
+        this.coordJobId = coordJobId;
+        this.afterActionNumber = afterActionNumber;
+        this.start = start;
+        this.len = len;
+    }
+
+    /* (non-Javadoc)
+     * @see org.apache.oozie.executor.jpa.JPAExecutor#getName()
+     */
+    @Override
+    public String getName() {
+        return "CoordActionsPageGetForJobJPAExecutor";
+    }
+
+    /* (non-Javadoc)
+     * @see org.apache.oozie.executor.jpa.JPAExecutor#execute(javax.persistence.EntityManager)
+     */
+    @Override
+    @SuppressWarnings("unchecked")
+    public List<CoordinatorActionBean> execute(EntityManager em) throws JPAExecutorException {
+        List<CoordinatorActionBean> actions;
+        List<CoordinatorActionBean> actionList = new ArrayList<CoordinatorActionBean>();
+        try {
+            Query q = em.createNamedQuery("GET_ACTIONS_FOR_COORD_JOB_AFTER_ACTION_NUMBER");
+            q.setParameter("jobId", coordJobId);
+            q.setParameter("actionNumber", afterActionNumber);
+            q.setFirstResult(start - 1);
+            q.setMaxResults(len);
+            actions = q.getResultList();
+            for (CoordinatorActionBean a : actions) {
+                actionList.add(CoordActionsSubsetGetForJobJPAExecutor.getBeanForRunningCoordAction(a));
+            }
+        }
+        catch (Exception e) {
+            throw new JPAExecutorException(ErrorCode.E0603, e);
+        }
+        return actionList;
+    }
+
+}
@@ -77,7 +77,7 @@ public class CoordActionsSubsetGetForJobJPAExecutor implements JPAExecutor<List<
         return actionList;
     }
 
-    private CoordinatorActionBean getBeanForRunningCoordAction(CoordinatorActionBean a) {
+    static CoordinatorActionBean getBeanForRunningCoordAction(CoordinatorActionBean a) {
         if (a != null) {
             CoordinatorActionBean action = new CoordinatorActionBean();
             action.setId(a.getId());
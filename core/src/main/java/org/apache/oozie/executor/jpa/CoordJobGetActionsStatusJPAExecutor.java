@@ -0,0 +1,79 @@
+/**
+ * Copyright (c) 2010 Yahoo! Inc. All rights reserved.
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License. See accompanying LICENSE file.
+ */
+package org.apache.oozie.executor.jpa;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import javax.persistence.EntityManager;
+import javax.persistence.Query;
+
+import org.apache.oozie.CoordinatorActionBean;
+import org.apache.oozie.ErrorCode;
+import org.apache.oozie.client.CoordinatorAction;
+import org.apache.oozie.util.ParamChecker;
+
+/**
+ * Load the id, status and external id of the coordinator actions for a coordinator job.
+ * <p/>
+ * Only these columns are queried, the returned beans do not carry the action XML, configurations or SLA XML. They must
+ * not be merged back, use {@link CoordActionUpdateStatusJPAExecutor} to update their status.
+ */
+public class CoordJobGetActionsStatusJPAExecutor implements JPAExecutor<List<CoordinatorActionBean>> {
+
+    private String coordJobId = null;
+
+    public CoordJobGetActionsStatusJPAExecutor(String coordJobId) {
+        ParamChecker.notNull(coordJobId, "coordJobId");
+        this.coordJobId = coordJobId;
+    }
+
+    @Override
+    public String getName() {
+        return "CoordJobGetActionsStatusJPAExecutor";
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public List<CoordinatorActionBean> execute(EntityManager em) throws JPAExecutorException {
+        List<CoordinatorActionBean> actionBeans = new ArrayList<CoordinatorActionBean>();
+        try {
+            Query q = em.createNamedQuery("GET_ACTIONS_STATUS_FOR_COORD_JOB");
+            q.setParameter("jobId", coordJobId);
+            List<Object[]> actions = q.getResultList();
+            for (Object[] arr : actions) {
+                actionBeans.add(getBeanForCoordActionFromArray(arr));
+            }
+
+            return actionBeans;
+        }
+        catch (Exception e) {
+            throw new JPAExecutorException(ErrorCode.E0603, e);
+        }
+    }
+
+    private CoordinatorActionBean getBeanForCoordActionFromArray(Object[] arr) {
+        CoordinatorActionBean bean = new CoordinatorActionBean();
+        bean.setId((String) arr[0]);
+        bean.setJobId(coordJobId);
+        if (arr[1] != null) {
+            bean.setStatus(CoordinatorAction.Status.valueOf((String) arr[1]));
+        }
+        if (arr[2] != null) {
+            bean.setExternalId((String) arr[2]);
+        }
+        return bean;
+    }
+}
@@ -27,6 +27,7 @@ import org.apache.oozie.CoordinatorJobInfo;
 import org.apache.oozie.client.CoordinatorJob.Status;
 import org.apache.oozie.client.CoordinatorJob.Timeunit;
 import org.apache.oozie.store.StoreStatusFilter;
+import org.apache.oozie.util.ContinuationToken;
 import org.apache.oozie.util.ParamChecker;
 import org.apache.oozie.util.XLog;
 import org.apache.openjpa.persistence.OpenJPAPersistence;
@@ -44,12 +45,45 @@ public class CoordJobInfoGetJPAExecutor implements JPAExecutor<CoordinatorJobInf
     private Map<String, List<String>> filter;
     private int start = 1;
     private int len = 50;
+    private boolean byContinuation = false;
+    private ContinuationToken after;
+    private boolean count = true;
 
     public CoordJobInfoGetJPAExecutor(Map<String, List<String>> filter, int start, int len) {
+        this(filter, start, len, true);
+    }
+
+    /**
+     * @param filter
+     * @param start
+     * @param len
+     * @param count if the coordinator jobs matching the filter are counted, if not the total is -1.
+     */
+    public CoordJobInfoGetJPAExecutor(Map<String, List<String>> filter, int start, int len, boolean count) {
         ParamChecker.notNull(filter, "filter");
         this.filter = filter;
         this.start = start;
         this.len = len;
+        this.count = count;
+    }
+
+    /**
+     * Get the coordinator jobs that follow the given position, newest first.
+     *
+     * @param filter
+     * @param after position of the last coordinator job of the previous page, null for the first page.
+     * @param len
+     * @param count if the coordinator jobs matching the filter are counted, if not the total is -1.
+     */
+    public CoordJobInfoGetJPAExecutor(Map<String, List<String>> filter, ContinuationToken after, int len,
+            boolean count) {
+        ParamChecker.notNull(filter, "filter");
+        this.filter = filter;
+        this.start = 0;
+        this.len = ParamChecker.checkGTZero(len, "len");
+        this.byContinuation = true;
+        this.after = after;
+        this.count = count;
     }
 
     @Override
@@ -68,30 +102,43 @@ public class CoordJobInfoGetJPAExecutor implements JPAExecutor<CoordinatorJobInf
         StoreStatusFilter.filter(filter, orArray, colArray, valArray, sb, StoreStatusFilter.coordSeletStr,
                                  StoreStatusFilter.coordCountStr);
 
-        int realLen = 0;
+        int realLen = -1;
 
         Query q = null;
         Query qTotal = null;
-        if (orArray.size() == 0) {
+        if (count && orArray.size() == 0) {
+            qTotal = em.createNamedQuery("GET_COORD_JOBS_COUNT");
+        }
+        else if (count) {
+            qTotal = em.createQuery(sb.toString().replace(StoreStatusFilter.coordSeletStr,
+                                                          StoreStatusFilter.coordCountStr));
+        }
+        if (byContinuation) {
+            StoreStatusFilter.keyset(sb, StoreStatusFilter.coordSeletStr, after);
+            XLog.getLog(getClass()).debug("Created String is **** " + sb.toString());
+            q = em.createQuery(sb.toString());
+            StoreStatusFilter.setKeysetParameters(q, after);
+            // one more row tells if there is a next page
+            q.setMaxResults(len + 1);
+        }
+        else if (orArray.size() == 0) {
             q = em.createNamedQuery("GET_COORD_JOBS_COLUMNS");
             q.setFirstResult(start - 1);
             q.setMaxResults(len);
-            qTotal = em.createNamedQuery("GET_COORD_JOBS_COUNT");
         }
         else {
-            StringBuilder sbTotal = new StringBuilder(sb);
             sb.append(" order by w.createdTimestamp desc ");
             XLog.getLog(getClass()).debug("Created String is **** " + sb.toString());
             q = em.createQuery(sb.toString());
             q.setFirstResult(start - 1);
             q.setMaxResults(len);
-            qTotal = em.createQuery(sbTotal.toString().replace(StoreStatusFilter.coordSeletStr,
-                                                                          StoreStatusFilter.coordCountStr));
         }
 
         for (int i = 0; i < orArray.size(); i++) {
             q.setParameter(colArray.get(i), valArray.get(i));
-            qTotal.setParameter(colArray.get(i), valArray.get(i));
+            if (qTotal != null) {
+                qTotal.setParameter(colArray.get(i), valArray.get(i));
+            }
         }
 
         OpenJPAQuery kq = OpenJPAPersistence.cast(q);
@@ -105,12 +152,25 @@ public class CoordJobInfoGetJPAExecutor implements JPAExecutor<CoordinatorJobInf
         List<CoordinatorJobBean> coordBeansList = new ArrayList<CoordinatorJobBean>();
 
         for (Object[] arr : objectArrList) {
+            if (coordBeansList.size() == len) {
+                break;
+            }
             CoordinatorJobBean ww = getBeanForCoordinatorJobFromArray(arr);
             coordBeansList.add(ww);
         }
 
-        realLen = ((Long) qTotal.getSingleResult()).intValue();
+        if (qTotal != null) {
+            realLen = ((Long) qTotal.getSingleResult()).intValue();
+        }
 
+        if (byContinuation) {
+            String continuation = null;
+            if (objectArrList.size() > len) {
+                Object[] last = objectArrList.get(len - 1);
+                continuation = new ContinuationToken((Timestamp) last[12], (String) last[0]).toString();
+            }
+            return new CoordinatorJobInfo(coordBeansList, len, realLen, continuation);
+        }
         return new CoordinatorJobInfo(coordBeansList, start, len, realLen);
     }
 
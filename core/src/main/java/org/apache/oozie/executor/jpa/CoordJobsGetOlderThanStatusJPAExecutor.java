@@ -0,0 +1,104 @@
+/**
+ * Copyright (c) 2010 Yahoo! Inc. All rights reserved.
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License. See accompanying LICENSE file.
+ */
+package org.apache.oozie.executor.jpa;
+
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+
+import javax.persistence.EntityManager;
+import javax.persistence.Query;
+
+import org.apache.oozie.CoordinatorJobBean;
+import org.apache.oozie.ErrorCode;
+import org.apache.oozie.client.CoordinatorJob;
+import org.apache.oozie.util.DateUtils;
+import org.apache.oozie.util.ParamChecker;
+
+/**
+ * Load a page of the coordinator jobs in a given status that were last modified before a given time, ordered by last
+ * modified time and id.
+ * <p/>
+ * The page starts after the given last modified time and id (keyset pagination), pass the values of the last job of
+ * the previous page to get the next one. Only the id and last modified time are queried.
+ */
+public class CoordJobsGetOlderThanStatusJPAExecutor implements JPAExecutor<List<CoordinatorJobBean>> {
+
+    private CoordinatorJob.Status status;
+    private Timestamp olderThan;
+    private Timestamp lastModified;
+    private String lastId;
+    private int limit;
+
+    /**
+     * Create the executor for the first page.
+     *
+     * @param status status of the jobs.
+     * @param olderThan jobs modified after this time are not returned.
+     * @param limit maximum number of jobs to return.
+     */
+    public CoordJobsGetOlderThanStatusJPAExecutor(CoordinatorJob.Status status, Date olderThan, int limit) {
+        this(status, olderThan, new Date(0), "", limit);
+    }
+
+    /**
+     * Create the executor for the page following the given job.
+     *
+     * @param status status of the jobs.
+     * @param olderThan jobs modified after this time are not returned.
+     * @param lastModified last modified time of the last job of the previous page.
+     * @param lastId id of the last job of the previous page.
+     * @param limit maximum number of jobs to return.
+     */
+    public CoordJobsGetOlderThanStatusJPAExecutor(CoordinatorJob.Status status, Date olderThan, Date lastModified,
+            String lastId, int limit) {
+        this.status = ParamChecker.notNull(status, "status");
+        this.olderThan = DateUtils.convertDateToTimestamp(ParamChecker.notNull(olderThan, "olderThan"));
+        this.lastModified = DateUtils.convertDateToTimestamp(ParamChecker.notNull(lastModified, "lastModified"));
+        this.lastId = ParamChecker.notNull(lastId, "lastId");
+        this.limit = limit;
+    }
+
+    @Override
+    public String getName() {
+        return "CoordJobsGetOlderThanStatusJPAExecutor";
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public List<CoordinatorJobBean> execute(EntityManager em) throws JPAExecutorException {
+        List<CoordinatorJobBean> jobs = new ArrayList<CoordinatorJobBean>();
+        try {
+            Query q = em.createNamedQuery("GET_COORD_JOBS_OLDER_THAN_STATUS_PAGE");
+            q.setParameter("status", status.toString());
+            q.setParameter("lastModTime", olderThan);
+            q.setParameter("lastModified", lastModified);
+            q.setParameter("lastId", lastId);
+            q.setMaxResults(limit);
+            List<Object[]> list = q.getResultList();
+            for (Object[] arr : list) {
+                CoordinatorJobBean job = new CoordinatorJobBean();
+                job.setId((String) arr[0]);
+                job.setLastModifiedTimestamp((Timestamp) arr[1]);
+                jobs.add(job);
+            }
+        }
+        catch (Exception e) {
+            throw new JPAExecutorException(ErrorCode.E0603, e);
+        }
+        return jobs;
+    }
+}
@@ -0,0 +1,81 @@
+/**
+ * Copyright (c) 2010 Yahoo! Inc. All rights reserved.
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License. See accompanying LICENSE file.
+ */
+package org.apache.oozie.executor.jpa;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import javax.persistence.EntityManager;
+import javax.persistence.Query;
+
+import org.apache.oozie.CoordinatorJobBean;
+import org.apache.oozie.ErrorCode;
+import org.apache.oozie.util.ParamChecker;
+
+/**
+ * Load the user and authentication token of a set of coordinator jobs in a single query.
+ * <p/>
+ * The returned beans only carry the id, user and authentication token, they are keyed by job id. Unknown ids are not
+ * in the map.
+ */
+public class CoordJobsGetUserJPAExecutor implements JPAExecutor<Map<String, CoordinatorJobBean>> {
+
+    private List<String> jobIds;
+
+    public CoordJobsGetUserJPAExecutor(Collection<String> jobIds) {
+        ParamChecker.notNull(jobIds, "jobIds");
+        this.jobIds = new ArrayList<String>(jobIds);
+    }
+
+    @Override
+    public String getName() {
+        return "CoordJobsGetUserJPAExecutor";
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public Map<String, CoordinatorJobBean> execute(EntityManager em) throws JPAExecutorException {
+        Map<String, CoordinatorJobBean> jobs = new HashMap<String, CoordinatorJobBean>();
+        if (jobIds.isEmpty()) {
+            return jobs;
+        }
+        try {
+            StringBuilder sb = new StringBuilder("select w.id, w.user, w.authToken from CoordinatorJobBean w where w.id IN (");
+            for (int i = 0; i < jobIds.size(); i++) {
+                sb.append((i == 0) ? ":id" : ", :id").append(i);
+            }
+            sb.append(")");
+            Query q = em.createQuery(sb.toString());
+            for (int i = 0; i < jobIds.size(); i++) {
+                q.setParameter("id" + i, jobIds.get(i));
+            }
+            List<Object[]> list = q.getResultList();
+            for (Object[] arr : list) {
+                CoordinatorJobBean job = new CoordinatorJobBean();
+                job.setId((String) arr[0]);
+                job.setUser((String) arr[1]);
+                job.setAuthToken((String) arr[2]);
+                jobs.put(job.getId(), job);
+            }
+        }
+        catch (Exception e) {
+            throw new JPAExecutorException(ErrorCode.E0603, e);
+        }
+        return jobs;
+    }
+}
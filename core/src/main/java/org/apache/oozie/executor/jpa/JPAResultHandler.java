@@ -0,0 +1,32 @@
+/**
+ * Copyright (c) 2010 Yahoo! Inc. All rights reserved.
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License. See accompanying LICENSE file.
+ */
+package org.apache.oozie.executor.jpa;
+
+/**
+ * Handler of rows read from the database that are not returned in a list.
+ * <p/>
+ * The rows are passed to the handler one at a time, outside of the transaction they were read in.
+ */
+public interface JPAResultHandler<T> {
+
+    /**
+     * Handle a row.
+     *
+     * @param row the row.
+     * @throws Exception thrown if the row could not be handled, no more rows are read.
+     */
+    public void handle(T row) throws Exception;
+
+}
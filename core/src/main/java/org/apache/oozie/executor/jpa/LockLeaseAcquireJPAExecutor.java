@@ -0,0 +1,92 @@
+/**
+ * Copyright (c) 2010 Yahoo! Inc. All rights reserved.
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License. See accompanying LICENSE file.
+ */
+package org.apache.oozie.executor.jpa;
+
+import java.sql.Timestamp;
+
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceException;
+import javax.persistence.Query;
+
+import org.apache.oozie.LockLeaseBean;
+import org.apache.oozie.util.ParamChecker;
+
+/**
+ * Acquire the lease on a lock resource, returns <code>true</code> if the lease was acquired.
+ * <p/>
+ * The lease is acquired if there is no lease for the resource, if the existing lease has expired or if the existing
+ * lease is already owned by the same owner.
+ */
+public class LockLeaseAcquireJPAExecutor implements JPAExecutor<Boolean> {
+
+    private String resource = null;
+    private String owner = null;
+    private long leaseTime;
+
+    /**
+     * The constructor for class {@link LockLeaseAcquireJPAExecutor}
+     *
+     * @param resource lock resource
+     * @param owner lease owner
+     * @param leaseTime lease duration in milliseconds
+     */
+    public LockLeaseAcquireJPAExecutor(String resource, String owner, long leaseTime) {
+        ParamChecker.notEmpty(resource, "resource");
+        ParamChecker.notEmpty(owner, "owner");
+        this.resource = resource;
+        this.owner = owner;
+        this.leaseTime = leaseTime;
+    }
+
+    /* (non-Javadoc)
+     * @see org.apache.oozie.executor.jpa.JPAExecutor#getName()
+     */
+    @Override
+    public String getName() {
+        return "LockLeaseAcquireJPAExecutor";
+    }
+
+    /* (non-Javadoc)
+     * @see org.apache.oozie.executor.jpa.JPAExecutor#execute(javax.persistence.EntityManager)
+     */
+    @Override
+    public Boolean execute(EntityManager em) throws JPAExecutorException {
+        long now = System.currentTimeMillis();
+        Query q = em.createNamedQuery("UPDATE_LOCK_LEASE_IF_EXPIRED");
+        q.setParameter("resource", resource);
+        q.setParameter("owner", owner);
+        q.setParameter("expiration", new Timestamp(now + leaseTime));
+        q.setParameter("now", new Timestamp(now));
+        if (q.executeUpdate() > 0) {
+            return true;
+        }
+        LockLeaseBean lease = new LockLeaseBean();
+        lease.setResource(resource);
+        lease.setOwner(owner);
+        lease.setExpiration(new Timestamp(now + leaseTime));
+        try {
+            em.persist(lease);
+            em.flush();
+            return true;
+        }
+        catch (PersistenceException ex) {
+            // the lease exists and it is held by another owner
+            if (em.getTransaction().isActive()) {
+                em.getTransaction().rollback();
+            }
+            return false;
+        }
+    }
+}
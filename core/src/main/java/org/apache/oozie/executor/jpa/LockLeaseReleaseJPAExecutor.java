@@ -0,0 +1,62 @@
+/**
+ * Copyright (c) 2010 Yahoo! Inc. All rights reserved.
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License. See accompanying LICENSE file.
+ */
+package org.apache.oozie.executor.jpa;
+
+import javax.persistence.EntityManager;
+import javax.persistence.Query;
+
+import org.apache.oozie.util.ParamChecker;
+
+/**
+ * Release the lease on a lock resource if it is held by the given owner, returns <code>true</code> if a lease was
+ * released.
+ */
+public class LockLeaseReleaseJPAExecutor implements JPAExecutor<Boolean> {
+
+    private String resource = null;
+    private String owner = null;
+
+    /**
+     * The constructor for class {@link LockLeaseReleaseJPAExecutor}
+     *
+     * @param resource lock resource
+     * @param owner lease owner
+     */
+    public LockLeaseReleaseJPAExecutor(String resource, String owner) {
+        ParamChecker.notEmpty(resource, "resource");
+        ParamChecker.notEmpty(owner, "owner");
+        this.resource = resource;
+        this.owner = owner;
+    }
+
+    /* (non-Javadoc)
+     * @see org.apache.oozie.executor.jpa.JPAExecutor#getName()
+     */
+    @Override
+    public String getName() {
+        return "LockLeaseReleaseJPAExecutor";
+    }
+
+    /* (non-Javadoc)
+     * @see org.apache.oozie.executor.jpa.JPAExecutor#execute(javax.persistence.EntityManager)
+     */
+    @Override
+    public Boolean execute(EntityManager em) throws JPAExecutorException {
+        Query q = em.createNamedQuery("DELETE_LOCK_LEASE");
+        q.setParameter("resource", resource);
+        q.setParameter("owner", owner);
+        return q.executeUpdate() > 0;
+    }
+}
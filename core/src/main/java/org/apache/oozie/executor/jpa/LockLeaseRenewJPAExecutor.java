@@ -0,0 +1,70 @@
+/**
+ * Copyright (c) 2010 Yahoo! Inc. All rights reserved.
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License. See accompanying LICENSE file.
+ */
+package org.apache.oozie.executor.jpa;
+
+import java.sql.Timestamp;
+
+import javax.persistence.EntityManager;
+import javax.persistence.Query;
+
+import org.apache.oozie.util.ParamChecker;
+
+/**
+ * Renew the lease on a lock resource if it is still held by the given owner, returns <code>true</code> if the lease was
+ * renewed.
+ * <p/>
+ * A lease that is not renewed has been taken over by another owner, or taken and released by another owner.
+ */
+public class LockLeaseRenewJPAExecutor implements JPAExecutor<Boolean> {
+
+    private String resource = null;
+    private String owner = null;
+    private long leaseTime;
+
+    /**
+     * The constructor for class {@link LockLeaseRenewJPAExecutor}
+     *
+     * @param resource lock resource
+     * @param owner lease owner
+     * @param leaseTime lease duration in milliseconds, from now
+     */
+    public LockLeaseRenewJPAExecutor(String resource, String owner, long leaseTime) {
+        ParamChecker.notEmpty(resource, "resource");
+        ParamChecker.notEmpty(owner, "owner");
+        this.resource = resource;
+        this.owner = owner;
+        this.leaseTime = leaseTime;
+    }
+
+    /* (non-Javadoc)
+     * @see org.apache.oozie.executor.jpa.JPAExecutor#getName()
+     */
+    @Override
+    public String getName() {
+        return "LockLeaseRenewJPAExecutor";
+    }
+
+    /* (non-Javadoc)
+     * @see org.apache.oozie.executor.jpa.JPAExecutor#execute(javax.persistence.EntityManager)
+     */
+    @Override
+    public Boolean execute(EntityManager em) throws JPAExecutorException {
+        Query q = em.createNamedQuery("UPDATE_LOCK_LEASE_EXPIRATION_FOR_OWNER");
+        q.setParameter("resource", resource);
+        q.setParameter("owner", owner);
+        q.setParameter("expiration", new Timestamp(System.currentTimeMillis() + leaseTime));
+        return q.executeUpdate() > 0;
+    }
+}
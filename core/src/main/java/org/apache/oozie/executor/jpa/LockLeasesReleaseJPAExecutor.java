@@ -0,0 +1,56 @@
+/**
+ * Copyright (c) 2010 Yahoo! Inc. All rights reserved.
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License. See accompanying LICENSE file.
+ */
+package org.apache.oozie.executor.jpa;
+
+import javax.persistence.EntityManager;
+import javax.persistence.Query;
+
+import org.apache.oozie.util.ParamChecker;
+
+/**
+ * Release all the leases held by the given owner, returns the number of leases released.
+ */
+public class LockLeasesReleaseJPAExecutor implements JPAExecutor<Integer> {
+
+    private String owner = null;
+
+    /**
+     * The constructor for class {@link LockLeasesReleaseJPAExecutor}
+     *
+     * @param owner lease owner
+     */
+    public LockLeasesReleaseJPAExecutor(String owner) {
+        ParamChecker.notEmpty(owner, "owner");
+        this.owner = owner;
+    }
+
+    /* (non-Javadoc)
+     * @see org.apache.oozie.executor.jpa.JPAExecutor#getName()
+     */
+    @Override
+    public String getName() {
+        return "LockLeasesReleaseJPAExecutor";
+    }
+
+    /* (non-Javadoc)
+     * @see org.apache.oozie.executor.jpa.JPAExecutor#execute(javax.persistence.EntityManager)
+     */
+    @Override
+    public Integer execute(EntityManager em) throws JPAExecutorException {
+        Query q = em.createNamedQuery("DELETE_LOCK_LEASES_FOR_OWNER");
+        q.setParameter("owner", owner);
+        return q.executeUpdate();
+    }
+}
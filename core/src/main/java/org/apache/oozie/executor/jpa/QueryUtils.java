@@ -0,0 +1,46 @@
+/**
+ * Copyright (c) 2010 Yahoo! Inc. All rights reserved.
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License. See accompanying LICENSE file.
+ */
+package org.apache.oozie.executor.jpa;
+
+/**
+ * Helpers to build the JPQL statements of the set-based executors.
+ */
+class QueryUtils {
+
+    /**
+     * Maximum number of ids in the IN clause of a statement, see {@link #inClause}.
+     */
+    static final int MAX_IDS = 500;
+
+    /**
+     * Append a "where &lt;column&gt; IN (:id0, ..., :idN)" clause to a statement.
+     * <p/>
+     * Callers set the <code>id0</code> to <code>idN</code> parameters, and run one statement per {@link #MAX_IDS}
+     * ids.
+     *
+     * @param statement statement to complete.
+     * @param column column compared to the ids, with its alias.
+     * @param size number of id parameters.
+     * @return the statement with the where clause.
+     */
+    static String inClause(String statement, String column, int size) {
+        StringBuilder sb = new StringBuilder(statement).append(" where ").append(column).append(" IN (");
+        for (int i = 0; i < size; i++) {
+            sb.append((i == 0) ? ":id" : ", :id").append(i);
+        }
+        return sb.append(")").toString();
+    }
+
+}
@@ -14,6 +14,11 @@
  */
 package org.apache.oozie.executor.jpa;
 
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+
 import javax.persistence.EntityManager;
 import javax.persistence.Query;
 
@@ -21,15 +26,21 @@ import org.apache.oozie.ErrorCode;
 import org.apache.oozie.util.ParamChecker;
 
 /**
- * Delete the list of WorkflowAction for a WorkflowJob and return the number of actions been deleted.
+ * Delete the list of WorkflowAction for a set of WorkflowJobs and return the number of actions been deleted.
+ * <p/>
+ * The actions are deleted with one DELETE statement per {@link QueryUtils#MAX_IDS} jobs.
  */
 public class WorkflowActionsDeleteForPurgeJPAExecutor implements JPAExecutor<Integer> {
 
-    private String wfId = null;
+    private List<String> wfIds;
 
     public WorkflowActionsDeleteForPurgeJPAExecutor(String wfId) {
-        ParamChecker.notNull(wfId, "wfId");
-        this.wfId = wfId;
+        this(Collections.singletonList(ParamChecker.notNull(wfId, "wfId")));
+    }
+
+    public WorkflowActionsDeleteForPurgeJPAExecutor(Collection<String> wfIds) {
+        ParamChecker.notNull(wfIds, "wfIds");
+        this.wfIds = new ArrayList<String>(wfIds);
     }
 
     /* (non-Javadoc)
@@ -47,9 +58,15 @@ public class WorkflowActionsDeleteForPurgeJPAExecutor implements JPAExecutor<Int
     public Integer execute(EntityManager em) throws JPAExecutorException {
         int actionsDeleted = 0;
         try {
-            Query g = em.createNamedQuery("DELETE_ACTIONS_FOR_WORKFLOW");
-            g.setParameter("wfId", wfId);
-            actionsDeleted = g.executeUpdate();
+            for (int start = 0; start < wfIds.size(); start += QueryUtils.MAX_IDS) {
+                List<String> ids = wfIds.subList(start, Math.min(start + QueryUtils.MAX_IDS, wfIds.size()));
+                Query g = em.createQuery(QueryUtils.inClause("delete from WorkflowActionBean a", "a.wfId",
+                        ids.size()));
+                for (int i = 0; i < ids.size(); i++) {
+                    g.setParameter("id" + i, ids.get(i));
+                }
+                actionsDeleted += g.executeUpdate();
+            }
         }
         catch (Exception e) {
             throw new JPAExecutorException(ErrorCode.E0603, e);
@@ -0,0 +1,101 @@
+/**
+ * Copyright (c) 2010 Yahoo! Inc. All rights reserved.
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License. See accompanying LICENSE file.
+ */
+package org.apache.oozie.executor.jpa;
+
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+
+import javax.persistence.EntityManager;
+import javax.persistence.Query;
+
+import org.apache.oozie.ErrorCode;
+import org.apache.oozie.WorkflowActionBean;
+import org.apache.oozie.client.WorkflowAction;
+import org.apache.oozie.util.DateUtils;
+import org.apache.oozie.util.ParamChecker;
+
+/**
+ * Load a page of the workflow actions that are pending (and not running) since before a given time, ordered by pending
+ * age and id.
+ * <p/>
+ * The page starts after the given pending age and id (keyset pagination), pass the values of the last action of the
+ * previous page to get the next one. Only the id, job id, type, status and pending age are queried.
+ */
+public class WorkflowActionsGetPendingJPAExecutor implements JPAExecutor<List<WorkflowActionBean>> {
+
+    private Timestamp pendingAge;
+    private Timestamp lastPendingAge;
+    private String lastId;
+    private int limit;
+
+    /**
+     * Create the executor for the first page.
+     *
+     * @param pendingAge actions pending since this time or later are not returned.
+     * @param limit maximum number of actions to return.
+     */
+    public WorkflowActionsGetPendingJPAExecutor(Date pendingAge, int limit) {
+        this(pendingAge, new Date(0), "", limit);
+    }
+
+    /**
+     * Create the executor for the page following the given action.
+     *
+     * @param pendingAge actions pending since this time or later are not returned.
+     * @param lastPendingAge pending age of the last action of the previous page.
+     * @param lastId id of the last action of the previous page.
+     * @param limit maximum number of actions to return.
+     */
+    public WorkflowActionsGetPendingJPAExecutor(Date pendingAge, Date lastPendingAge, String lastId, int limit) {
+        this.pendingAge = DateUtils.convertDateToTimestamp(ParamChecker.notNull(pendingAge, "pendingAge"));
+        this.lastPendingAge = DateUtils.convertDateToTimestamp(ParamChecker.notNull(lastPendingAge, "lastPendingAge"));
+        this.lastId = ParamChecker.notNull(lastId, "lastId");
+        this.limit = limit;
+    }
+
+    @Override
+    public String getName() {
+        return "WorkflowActionsGetPendingJPAExecutor";
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public List<WorkflowActionBean> execute(EntityManager em) throws JPAExecutorException {
+        List<WorkflowActionBean> actions = new ArrayList<WorkflowActionBean>();
+        try {
+            Query q = em.createNamedQuery("GET_PENDING_ACTIONS_PAGE");
+            q.setParameter("pendingAge", pendingAge);
+            q.setParameter("lastPendingAge", lastPendingAge);
+            q.setParameter("lastId", lastId);
+            q.setMaxResults(limit);
+            List<Object[]> list = q.getResultList();
+            for (Object[] arr : list) {
+                WorkflowActionBean action = new WorkflowActionBean();
+                action.setId((String) arr[0]);
+                action.setJobId((String) arr[1]);
+                action.setType((String) arr[2]);
+                action.setStatus(WorkflowAction.Status.valueOf((String) arr[3]));
+                action.setPendingAge((Timestamp) arr[4]);
+                actions.add(action);
+            }
+        }
+        catch (Exception e) {
+            throw new JPAExecutorException(ErrorCode.E0603, e);
+        }
+        return actions;
+    }
+}
@@ -0,0 +1,60 @@
+/**
+ * Copyright (c) 2010 Yahoo! Inc. All rights reserved.
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License. See accompanying LICENSE file.
+ */
+package org.apache.oozie.executor.jpa;
+
+import javax.persistence.EntityManager;
+
+import org.apache.oozie.ErrorCode;
+import org.apache.oozie.WorkflowAppDefBean;
+import org.apache.oozie.util.ParamChecker;
+
+/**
+ * Load the workflow application definition with the given content hash.
+ */
+public class WorkflowAppDefGetJPAExecutor implements JPAExecutor<WorkflowAppDefBean> {
+
+    private String hash = null;
+
+    public WorkflowAppDefGetJPAExecutor(String hash) {
+        ParamChecker.notNull(hash, "hash");
+        this.hash = hash;
+    }
+
+    /* (non-Javadoc)
+     * @see org.apache.oozie.executor.jpa.JPAExecutor#getName()
+     */
+    @Override
+    public String getName() {
+        return "WorkflowAppDefGetJPAExecutor";
+    }
+
+    /* (non-Javadoc)
+     * @see org.apache.oozie.executor.jpa.JPAExecutor#execute(javax.persistence.EntityManager)
+     */
+    @Override
+    public WorkflowAppDefBean execute(EntityManager em) throws JPAExecutorException {
+        WorkflowAppDefBean bean;
+        try {
+            bean = em.find(WorkflowAppDefBean.class, hash);
+        }
+        catch (Exception e) {
+            throw new JPAExecutorException(ErrorCode.E0603, e);
+        }
+        if (bean == null) {
+            throw new JPAExecutorException(ErrorCode.E0604, hash);
+        }
+        return bean;
+    }
+}
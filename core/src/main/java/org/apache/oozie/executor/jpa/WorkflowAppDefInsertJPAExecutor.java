@@ -0,0 +1,75 @@
+/**
+ * Copyright (c) 2010 Yahoo! Inc. All rights reserved.
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License. See accompanying LICENSE file.
+ */
+package org.apache.oozie.executor.jpa;
+
+import java.util.Date;
+
+import javax.persistence.EntityManager;
+
+import org.apache.oozie.ErrorCode;
+import org.apache.oozie.WorkflowAppDefBean;
+import org.apache.oozie.util.ParamChecker;
+
+/**
+ * Persist the workflow application definition if it is not already stored, returns if it was inserted.
+ * <p/>
+ * The last used time of a stored definition is updated, at most once every {@link #LAST_USED_INTERVAL} ms, so the
+ * purge does not delete a definition a new job is about to reference.
+ * <p/>
+ * Two servers may insert the same definition at the same time, the commit of one of them fails then and the caller
+ * has to check if the definition has been stored by the other one.
+ */
+public class WorkflowAppDefInsertJPAExecutor implements JPAExecutor<Boolean> {
+
+    public static final long LAST_USED_INTERVAL = 60 * 60 * 1000;
+
+    private WorkflowAppDefBean appDef = null;
+
+    public WorkflowAppDefInsertJPAExecutor(WorkflowAppDefBean appDef) {
+        ParamChecker.notNull(appDef, "appDef");
+        this.appDef = appDef;
+    }
+
+    /* (non-Javadoc)
+     * @see org.apache.oozie.executor.jpa.JPAExecutor#getName()
+     */
+    @Override
+    public String getName() {
+        return "WorkflowAppDefInsertJPAExecutor";
+    }
+
+    /* (non-Javadoc)
+     * @see org.apache.oozie.executor.jpa.JPAExecutor#execute(javax.persistence.EntityManager)
+     */
+    @Override
+    public Boolean execute(EntityManager em) throws JPAExecutorException {
+        try {
+            WorkflowAppDefBean stored = em.find(WorkflowAppDefBean.class, appDef.getHash());
+            if (stored != null) {
+                Date now = new Date();
+                if (stored.getLastUsedTime() == null
+                        || stored.getLastUsedTime().getTime() < now.getTime() - LAST_USED_INTERVAL) {
+                    stored.setLastUsedTime(now);
+                }
+                return false;
+            }
+            em.persist(appDef);
+            return true;
+        }
+        catch (Exception e) {
+            throw new JPAExecutorException(ErrorCode.E0603, e);
+        }
+    }
+}
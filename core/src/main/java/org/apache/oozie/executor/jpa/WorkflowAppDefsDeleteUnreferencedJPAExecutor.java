@@ -0,0 +1,61 @@
+/**
+ * Copyright (c) 2010 Yahoo! Inc. All rights reserved.
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License. See accompanying LICENSE file.
+ */
+package org.apache.oozie.executor.jpa;
+
+import java.util.Date;
+
+import javax.persistence.EntityManager;
+import javax.persistence.Query;
+
+import org.apache.oozie.ErrorCode;
+import org.apache.oozie.util.DateUtils;
+import org.apache.oozie.util.ParamChecker;
+
+/**
+ * Delete the workflow application definitions that no workflow job references and that have not been used since a
+ * given time, return the number of definitions deleted.
+ */
+public class WorkflowAppDefsDeleteUnreferencedJPAExecutor implements JPAExecutor<Integer> {
+
+    private Date lastUsedTime;
+
+    public WorkflowAppDefsDeleteUnreferencedJPAExecutor(Date lastUsedTime) {
+        ParamChecker.notNull(lastUsedTime, "lastUsedTime");
+        this.lastUsedTime = lastUsedTime;
+    }
+
+    /* (non-Javadoc)
+     * @see org.apache.oozie.executor.jpa.JPAExecutor#getName()
+     */
+    @Override
+    public String getName() {
+        return "WorkflowAppDefsDeleteUnreferencedJPAExecutor";
+    }
+
+    /* (non-Javadoc)
+     * @see org.apache.oozie.executor.jpa.JPAExecutor#execute(javax.persistence.EntityManager)
+     */
+    @Override
+    public Integer execute(EntityManager em) throws JPAExecutorException {
+        try {
+            Query q = em.createNamedQuery("DELETE_UNREFERENCED_WORKFLOW_APP_DEFS");
+            q.setParameter("lastUsedTime", DateUtils.convertDateToTimestamp(lastUsedTime));
+            return q.executeUpdate();
+        }
+        catch (Exception e) {
+            throw new JPAExecutorException(ErrorCode.E0603, e);
+        }
+    }
+}
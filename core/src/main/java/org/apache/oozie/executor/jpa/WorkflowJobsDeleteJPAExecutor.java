@@ -0,0 +1,71 @@
+/**
+ * Copyright (c) 2010 Yahoo! Inc. All rights reserved.
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License. See accompanying LICENSE file.
+ */
+package org.apache.oozie.executor.jpa;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+import javax.persistence.EntityManager;
+import javax.persistence.Query;
+
+import org.apache.oozie.ErrorCode;
+import org.apache.oozie.util.ParamChecker;
+
+/**
+ * Delete a set of workflow jobs and return the number of jobs been deleted.
+ * <p/>
+ * The jobs are not loaded, they are deleted with one DELETE statement per {@link QueryUtils#MAX_IDS} ids. Their
+ * actions are not deleted.
+ */
+public class WorkflowJobsDeleteJPAExecutor implements JPAExecutor<Integer> {
+
+    private List<String> wfIds;
+
+    public WorkflowJobsDeleteJPAExecutor(Collection<String> wfIds) {
+        ParamChecker.notNull(wfIds, "wfIds");
+        this.wfIds = new ArrayList<String>(wfIds);
+    }
+
+    /* (non-Javadoc)
+     * @see org.apache.oozie.executor.jpa.JPAExecutor#getName()
+     */
+    @Override
+    public String getName() {
+        return "WorkflowJobsDeleteJPAExecutor";
+    }
+
+    /* (non-Javadoc)
+     * @see org.apache.oozie.executor.jpa.JPAExecutor#execute(javax.persistence.EntityManager)
+     */
+    @Override
+    public Integer execute(EntityManager em) throws JPAExecutorException {
+        int jobsDeleted = 0;
+        try {
+            for (int start = 0; start < wfIds.size(); start += QueryUtils.MAX_IDS) {
+                List<String> ids = wfIds.subList(start, Math.min(start + QueryUtils.MAX_IDS, wfIds.size()));
+                Query g = em.createQuery(QueryUtils.inClause("delete from WorkflowJobBean w", "w.id", ids.size()));
+                for (int i = 0; i < ids.size(); i++) {
+                    g.setParameter("id" + i, ids.get(i));
+                }
+                jobsDeleted += g.executeUpdate();
+            }
+        }
+        catch (Exception e) {
+            throw new JPAExecutorException(ErrorCode.E0603, e);
+        }
+        return jobsDeleted;
+    }
+}
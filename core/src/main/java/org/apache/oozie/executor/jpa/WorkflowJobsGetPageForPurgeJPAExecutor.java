@@ -0,0 +1,96 @@
+/**
+ * Copyright (c) 2010 Yahoo! Inc. All rights reserved.
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License. See accompanying LICENSE file.
+ */
+package org.apache.oozie.executor.jpa;
+
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+
+import javax.persistence.EntityManager;
+import javax.persistence.Query;
+
+import org.apache.oozie.ErrorCode;
+import org.apache.oozie.WorkflowJobBean;
+import org.apache.oozie.util.DateUtils;
+import org.apache.oozie.util.ParamChecker;
+
+/**
+ * Load a page of the completed workflow jobs that ended before a given time, ordered by end time and id.
+ * <p/>
+ * The page starts after the given end time and id (keyset pagination), pass the values of the last job of the
+ * previous page to get the next one. Only the id and end time are queried.
+ */
+public class WorkflowJobsGetPageForPurgeJPAExecutor implements JPAExecutor<List<WorkflowJobBean>> {
+
+    private Timestamp olderThan;
+    private Timestamp lastEnd;
+    private String lastId;
+    private int limit;
+
+    /**
+     * Create the executor for the first page.
+     *
+     * @param olderThan jobs that ended after this time are not returned.
+     * @param limit maximum number of jobs to return.
+     */
+    public WorkflowJobsGetPageForPurgeJPAExecutor(Date olderThan, int limit) {
+        this(olderThan, new Date(0), "", limit);
+    }
+
+    /**
+     * Create the executor for the page following the given job.
+     *
+     * @param olderThan jobs that ended after this time are not returned.
+     * @param lastEnd end time of the last job of the previous page.
+     * @param lastId id of the last job of the previous page.
+     * @param limit maximum number of jobs to return.
+     */
+    public WorkflowJobsGetPageForPurgeJPAExecutor(Date olderThan, Date lastEnd, String lastId, int limit) {
+        this.olderThan = DateUtils.convertDateToTimestamp(ParamChecker.notNull(olderThan, "olderThan"));
+        this.lastEnd = DateUtils.convertDateToTimestamp(ParamChecker.notNull(lastEnd, "lastEnd"));
+        this.lastId = ParamChecker.notNull(lastId, "lastId");
+        this.limit = limit;
+    }
+
+    @Override
+    public String getName() {
+        return "WorkflowJobsGetPageForPurgeJPAExecutor";
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public List<WorkflowJobBean> execute(EntityManager em) throws JPAExecutorException {
+        List<WorkflowJobBean> jobs = new ArrayList<WorkflowJobBean>();
+        try {
+            Query q = em.createNamedQuery("GET_COMPLETED_WORKFLOWS_OLDER_THAN_PAGE");
+            q.setParameter("endTime", olderThan);
+            q.setParameter("lastEnd", lastEnd);
+            q.setParameter("lastId", lastId);
+            q.setMaxResults(limit);
+            List<Object[]> list = q.getResultList();
+            for (Object[] arr : list) {
+                WorkflowJobBean job = new WorkflowJobBean();
+                job.setId((String) arr[0]);
+                job.setEndTime((Timestamp) arr[1]);
+                jobs.add(job);
+            }
+        }
+        catch (Exception e) {
+            throw new JPAExecutorException(ErrorCode.E0603, e);
+        }
+        return jobs;
+    }
+}
@@ -24,8 +24,10 @@ import javax.persistence.Query;
 
 import org.apache.oozie.WorkflowJobBean;
 import org.apache.oozie.WorkflowsInfo;
-import org.apache.oozie.client.OozieClient;
 import org.apache.oozie.client.WorkflowJob.Status;
+import org.apache.oozie.store.StoreStatusFilter;
+import org.apache.oozie.util.ContinuationToken;
+import org.apache.oozie.util.ParamChecker;
 import org.apache.oozie.util.XLog;
 import org.apache.openjpa.persistence.OpenJPAPersistence;
 import org.apache.openjpa.persistence.OpenJPAQuery;
@@ -36,13 +38,12 @@ import org.apache.openjpa.persistence.jdbc.ResultSetType;
 
 public class WorkflowsJobGetJPAExecutor implements JPAExecutor<WorkflowsInfo> {
 
-    private static final String seletStr = "Select w.id, w.appName, w.status, w.run, w.user, w.group, w.createdTimestamp, "
-        + "w.startTimestamp, w.lastModifiedTimestamp, w.endTimestamp from WorkflowJobBean w";
-    private static final String countStr = "Select count(w) from WorkflowJobBean w";
-
     private final Map<String, List<String>> filter;
     private final int start;
     private final int len;
+    private final boolean byContinuation;
+    private final ContinuationToken after;
+    private final boolean count;
 
     /**
      * This JPA Executor gets the workflows info for the range.
@@ -52,9 +53,42 @@ public class WorkflowsJobGetJPAExecutor implements JPAExecutor<WorkflowsInfo> {
      * @param len
      */
     public WorkflowsJobGetJPAExecutor(Map<String, List<String>> filter, int start, int len) {
+        this(filter, start, len, true);
+    }
+
+    /**
+     * This JPA Executor gets the workflows info for the range.
+     *
+     * @param filter
+     * @param start
+     * @param len
+     * @param count if the workflows matching the filter are counted, if not the total is -1.
+     */
+    public WorkflowsJobGetJPAExecutor(Map<String, List<String>> filter, int start, int len, boolean count) {
         this.filter = filter;
         this.start = start;
         this.len = len;
+        this.byContinuation = false;
+        this.after = null;
+        this.count = count;
+    }
+
+    /**
+     * This JPA Executor gets the workflows that follow the given position, newest first.
+     *
+     * @param filter
+     * @param after position of the last workflow of the previous page, null for the first page.
+     * @param len
+     * @param count if the workflows matching the filter are counted, if not the total is -1.
+     */
+    public WorkflowsJobGetJPAExecutor(Map<String, List<String>> filter, ContinuationToken after, int len,
+            boolean count) {
+        this.filter = filter;
+        this.start = 0;
+        this.len = ParamChecker.checkGTZero(len, "len");
+        this.byContinuation = true;
+        this.after = after;
+        this.count = count;
     }
 
     /* (non-Javadoc)
@@ -67,170 +101,44 @@ public class WorkflowsJobGetJPAExecutor implements JPAExecutor<WorkflowsInfo> {
         List<String> colArray = new ArrayList<String>();
         List<String> valArray = new ArrayList<String>();
         StringBuilder sb = new StringBuilder("");
-        boolean isStatus = false;
-        boolean isGroup = false;
-        boolean isAppName = false;
-        boolean isUser = false;
-        boolean isEnabled = false;
-        int index = 0;
-        for (Map.Entry<String, List<String>> entry : filter.entrySet()) {
-            String colName = null;
-            String colVar = null;
-            if (entry.getKey().equals(OozieClient.FILTER_GROUP)) {
-                List<String> values = filter.get(OozieClient.FILTER_GROUP);
-                colName = "group";
-                for (int i = 0; i < values.size(); i++) {
-                    colVar = "group";
-                    colVar = colVar + index;
-                    if (!isEnabled && !isGroup) {
-                        sb.append(seletStr).append(" where w.group IN (:group" + index);
-                        isGroup = true;
-                        isEnabled = true;
-                    }
-                    else {
-                        if (isEnabled && !isGroup) {
-                            sb.append(" and w.group IN (:group" + index);
-                            isGroup = true;
-                        }
-                        else {
-                            if (isGroup) {
-                                sb.append(", :group" + index);
-                            }
-                        }
-                    }
-                    if (i == values.size() - 1) {
-                        sb.append(")");
-                    }
-                    index++;
-                    valArray.add(values.get(i));
-                    orArray.add(colName);
-                    colArray.add(colVar);
-                }
-            }
-            else {
-                if (entry.getKey().equals(OozieClient.FILTER_STATUS)) {
-                    List<String> values = filter.get(OozieClient.FILTER_STATUS);
-                    colName = "status";
-                    for (int i = 0; i < values.size(); i++) {
-                        colVar = "status";
-                        colVar = colVar + index;
-                        if (!isEnabled && !isStatus) {
-                            sb.append(seletStr).append(" where w.status IN (:status" + index);
-                            isStatus = true;
-                            isEnabled = true;
-                        }
-                        else {
-                            if (isEnabled && !isStatus) {
-                                sb.append(" and w.status IN (:status" + index);
-                                isStatus = true;
-                            }
-                            else {
-                                if (isStatus) {
-                                    sb.append(", :status" + index);
-                                }
-                            }
-                        }
-                        if (i == values.size() - 1) {
-                            sb.append(")");
-                        }
-                        index++;
-                        valArray.add(values.get(i));
-                        orArray.add(colName);
-                        colArray.add(colVar);
-                    }
-                }
-                else {
-                    if (entry.getKey().equals(OozieClient.FILTER_NAME)) {
-                        List<String> values = filter.get(OozieClient.FILTER_NAME);
-                        colName = "appName";
-                        for (int i = 0; i < values.size(); i++) {
-                            colVar = "appName";
-                            colVar = colVar + index;
-                            if (!isEnabled && !isAppName) {
-                                sb.append(seletStr).append(" where w.appName IN (:appName" + index);
-                                isAppName = true;
-                                isEnabled = true;
-                            }
-                            else {
-                                if (isEnabled && !isAppName) {
-                                    sb.append(" and w.appName IN (:appName" + index);
-                                    isAppName = true;
-                                }
-                                else {
-                                    if (isAppName) {
-                                        sb.append(", :appName" + index);
-                                    }
-                                }
-                            }
-                            if (i == values.size() - 1) {
-                                sb.append(")");
-                            }
-                            index++;
-                            valArray.add(values.get(i));
-                            orArray.add(colName);
-                            colArray.add(colVar);
-                        }
-                    }
-                    else {
-                        if (entry.getKey().equals(OozieClient.FILTER_USER)) {
-                            List<String> values = filter.get(OozieClient.FILTER_USER);
-                            colName = "user";
-                            for (int i = 0; i < values.size(); i++) {
-                                colVar = "user";
-                                colVar = colVar + index;
-                                if (!isEnabled && !isUser) {
-                                    sb.append(seletStr).append(" where w.user IN (:user" + index);
-                                    isUser = true;
-                                    isEnabled = true;
-                                }
-                                else {
-                                    if (isEnabled && !isUser) {
-                                        sb.append(" and w.user IN (:user" + index);
-                                        isUser = true;
-                                    }
-                                    else {
-                                        if (isUser) {
-                                            sb.append(", :user" + index);
-                                        }
-                                    }
-                                }
-                                if (i == values.size() - 1) {
-                                    sb.append(")");
-                                }
-                                index++;
-                                valArray.add(values.get(i));
-                                orArray.add(colName);
-                                colArray.add(colVar);
-                            }
-                        }
-                    }
-                }
-            }
-        }
 
-        int realLen = 0;
+        StoreStatusFilter.filter(filter, orArray, colArray, valArray, sb, StoreStatusFilter.wfSeletStr,
+                                 StoreStatusFilter.wfCountStr);
+
+        int realLen = -1;
 
         Query q = null;
         Query qTotal = null;
-        if (orArray.size() == 0) {
+        if (count && orArray.size() == 0) {
+            qTotal = em.createNamedQuery("GET_WORKFLOWS_COUNT");
+        }
+        else if (count) {
+            qTotal = em.createQuery(sb.toString().replace(StoreStatusFilter.wfSeletStr, StoreStatusFilter.wfCountStr));
+        }
+        if (byContinuation) {
+            StoreStatusFilter.keyset(sb, StoreStatusFilter.wfSeletStr, after);
+            XLog.getLog(getClass()).debug("Created String is **** " + sb.toString());
+            q = em.createQuery(sb.toString());
+            StoreStatusFilter.setKeysetParameters(q, after);
+            // one more row tells if there is a next page
+            q.setMaxResults(len + 1);
+        }
+        else if (orArray.size() == 0) {
             q = em.createNamedQuery("GET_WORKFLOWS_COLUMNS");
             q.setFirstResult(start - 1);
             q.setMaxResults(len);
-            qTotal = em.createNamedQuery("GET_WORKFLOWS_COUNT");
         }
         else {
-            if (orArray.size() > 0) {
-                StringBuilder sbTotal = new StringBuilder(sb);
-                sb.append(" order by w.startTimestamp desc ");
-                XLog.getLog(getClass()).debug("Created String is **** " + sb.toString());
-                q = em.createQuery(sb.toString());
-                q.setFirstResult(start - 1);
-                q.setMaxResults(len);
-                qTotal = em.createQuery(sbTotal.toString().replace(seletStr, countStr));
-                for (int i = 0; i < orArray.size(); i++) {
-                    q.setParameter(colArray.get(i), valArray.get(i));
-                    qTotal.setParameter(colArray.get(i), valArray.get(i));
-                }
+            sb.append(" order by w.startTimestamp desc ");
+            XLog.getLog(getClass()).debug("Created String is **** " + sb.toString());
+            q = em.createQuery(sb.toString());
+            q.setFirstResult(start - 1);
+            q.setMaxResults(len);
+        }
+        for (int i = 0; i < orArray.size(); i++) {
+            q.setParameter(colArray.get(i), valArray.get(i));
+            if (qTotal != null) {
+                qTotal.setParameter(colArray.get(i), valArray.get(i));
             }
         }
 
@@ -245,12 +153,25 @@ public class WorkflowsJobGetJPAExecutor implements JPAExecutor<WorkflowsInfo> {
         List<WorkflowJobBean> wfBeansList = new ArrayList<WorkflowJobBean>();
 
         for (Object[] arr : objectArrList) {
+            if (wfBeansList.size() == len) {
+                break;
+            }
             WorkflowJobBean ww = getBeanForWorkflowFromArray(arr);
             wfBeansList.add(ww);
         }
 
-        realLen = ((Long) qTotal.getSingleResult()).intValue();
+        if (qTotal != null) {
+            realLen = ((Long) qTotal.getSingleResult()).intValue();
+        }
 
+        if (byContinuation) {
+            String continuation = null;
+            if (objectArrList.size() > len) {
+                Object[] last = objectArrList.get(len - 1);
+                continuation = new ContinuationToken((Timestamp) last[6], (String) last[0]).toString();
+            }
+            return new WorkflowsInfo(wfBeansList, len, realLen, continuation);
+        }
         return new WorkflowsInfo(wfBeansList, start, len, realLen);
     }
 
@@ -18,7 +18,11 @@ import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Queue;
 import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ConcurrentMap;
 import java.util.concurrent.ThreadPoolExecutor;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicInteger;
@@ -26,9 +30,11 @@ import java.util.concurrent.atomic.AtomicLong;
 
 import org.apache.hadoop.conf.Configuration;
 import org.apache.oozie.client.OozieClient.SYSTEM_MODE;
+import org.apache.oozie.util.Histogram;
 import org.apache.oozie.util.Instrumentable;
 import org.apache.oozie.util.Instrumentation;
 import org.apache.oozie.util.PriorityDelayQueue;
+import org.apache.oozie.util.StripedPriorityDelayQueue;
 import org.apache.oozie.util.XCallable;
 import org.apache.oozie.util.XLog;
 import org.apache.oozie.util.PriorityDelayQueue.QueueElement;
@@ -53,6 +59,21 @@ import org.apache.oozie.util.PriorityDelayQueue.QueueElement;
  * of threads is reached, commands remain the queue until threads become available. Sets up a priority queue for the
  * execution of Commands via a ThreadPool. Sets up a Delayed Queue to handle actions which will be ready for execution
  * sometime in the future.
+ * <p/>
+ * {@link #CONF_QUEUE_STRIPED} if the lock-free {@link StripedPriorityDelayQueue} should be used instead of the
+ * {@link PriorityDelayQueue}. Default value is false.
+ * <p/>
+ * {@link #CONF_CALLABLE_CONCURRENCY} maximum number of callables of the same type running concurrently. Default value
+ * is 3. The maximum for a given callable type can be set with the {@link #CONF_CALLABLE_CONCURRENCY} property
+ * followed by <code>.</code> and the callable type.
+ * <p/>
+ * Callables dequeued while their type is at its maximum concurrency are parked in a wait list of their type, they are
+ * queued again as soon as a callable of the same type finishes. Parked callables count towards the queue size.
+ * <p/>
+ * Callables with a key (see {@link XCallable#getKey()}) are queued only if no callable with the same key is already
+ * queued and waiting for execution, duplicates are dropped. The key is released when the callable starts its execution.
+ * A callable due earlier than the pending callable with the same key is queued and takes over the key, the pending
+ * callable does nothing when it runs.
  */
 public class CallableQueueService implements Service, Instrumentable {
     private static final String INSTRUMENTATION_GROUP = "callablequeue";
@@ -62,45 +83,180 @@ public class CallableQueueService implements Service, Instrumentable {
     private static final String INSTR_QUEUED_COUNTER = "queued";
     private static final String INSTR_QUEUE_SIZE_SAMPLER = "queue.size";
     private static final String INSTR_THREADS_ACTIVE_SAMPLER = "threads.active";
+    private static final String INSTR_ENQUEUE_LATENCY_VARIABLE = "enqueue.latency.";
+    private static final String INSTR_PARKED_VARIABLE = "parked";
+    private static final String INSTR_DUPLICATES_COUNTER = "duplicates.suppressed";
+    private static final String INSTR_UNIQUE_PENDING_VARIABLE = "unique.pending";
 
     public static final String CONF_PREFIX = Service.CONF_PREFIX + "CallableQueueService.";
 
     public static final String CONF_QUEUE_SIZE = CONF_PREFIX + "queue.size";
+    public static final String CONF_QUEUE_STRIPED = CONF_PREFIX + "queue.striped";
     public static final String CONF_THREADS = CONF_PREFIX + "threads";
     public static final String CONF_CALLABLE_CONCURRENCY = CONF_PREFIX + "callable.concurrency";
 
-    public static final int CONCURRENCY_DELAY = 500;
-
     public static final int SAFE_MODE_DELAY = 60000;
 
-    final private Map<String, AtomicInteger> activeCallables = new HashMap<String, AtomicInteger>();
+    // A pending key is not honored if its callable is this late, so a key leaked by an unforeseen code path does not
+    // block its callables forever.
+    private static final long UNIQUE_KEY_STALE_TIME = 10 * 60 * 1000;
+
+    final private ConcurrentMap<String, AtomicInteger> activeCallables =
+            new ConcurrentHashMap<String, AtomicInteger>();
+    final private ConcurrentMap<String, Queue<CallableWrapper>> parkedCallables =
+            new ConcurrentHashMap<String, Queue<CallableWrapper>>();
+    final private AtomicInteger parkedCount = new AtomicInteger();
     private int maxCallableConcurrency;
+    private Map<String, Integer> typeMaxCallableConcurrency = new HashMap<String, Integer>();
+    final private ConcurrentMap<String, UniqueCallable> uniqueCallables =
+            new ConcurrentHashMap<String, UniqueCallable>();
+
+    // The queued callable that holds a key and the time it is due. Entries are compared by identity.
+    private static class UniqueCallable {
+        private final XCallable<?> callable;
+        private final long due;
+
+        private UniqueCallable(XCallable<?> callable, long due) {
+            this.callable = callable;
+            this.due = due;
+        }
+    }
 
-    private boolean callableBegin(XCallable callable) {
-        synchronized (activeCallables) {
-            AtomicInteger counter = activeCallables.get(callable.getType());
-            if (counter == null) {
-                counter = new AtomicInteger(1);
-                activeCallables.put(callable.getType(), counter);
+    // Per callable type counters are created once and never removed, the begin/end accounting is a single atomic
+    // operation on the counter and does not use any global monitor.
+    private AtomicInteger getActiveCounter(String type) {
+        AtomicInteger counter = activeCallables.get(type);
+        if (counter == null) {
+            counter = new AtomicInteger();
+            AtomicInteger existing = activeCallables.putIfAbsent(type, counter);
+            if (existing != null) {
+                counter = existing;
+            }
+        }
+        return counter;
+    }
+
+    private int getMaxConcurrency(String type) {
+        Integer max = typeMaxCallableConcurrency.get(type);
+        return (max != null) ? max : maxCallableConcurrency;
+    }
+
+    // Registers the key of the callable with the time the callable is due, returns false if a callable with the same
+    // key is already queued and due no later than this one.
+    private boolean addUniqueCallable(XCallable<?> callable, long delay) {
+        String key = callable.getKey();
+        if (key == null) {
+            return true;
+        }
+        long now = System.currentTimeMillis();
+        UniqueCallable unique = new UniqueCallable(callable, now + delay);
+        while (true) {
+            UniqueCallable existing = uniqueCallables.putIfAbsent(key, unique);
+            if (existing == null) {
                 return true;
             }
-            else {
-                int i = counter.incrementAndGet();
-                return i <= maxCallableConcurrency;
+            boolean stale = existing.due + UNIQUE_KEY_STALE_TIME < now;
+            if (!stale && unique.due >= existing.due) {
+                return false;
+            }
+            if (uniqueCallables.replace(key, existing, unique)) {
+                if (stale) {
+                    log.warn("callable key [{0}] was pending for too long, replacing it", key);
+                }
+                else {
+                    log.debug("callable key [{0}] pending, queuing callable due earlier", key);
+                }
+                return true;
             }
         }
     }
 
+    // Releases the keys held by a callable that could not be queued.
+    private void removeUniqueCallable(XCallable<?> callable) {
+        if (callable instanceof CompositeCallable) {
+            for (XCallable<?> inner : ((CompositeCallable) callable).callables) {
+                removeUniqueCallable(inner);
+            }
+        }
+        else {
+            String key = callable.getKey();
+            if (key != null) {
+                UniqueCallable unique = uniqueCallables.get(key);
+                if (unique != null && unique.callable == callable) {
+                    uniqueCallables.remove(key, unique);
+                }
+            }
+        }
+    }
+
+    // Releases the key of a callable starting its execution. Returns false if the callable does not hold its key
+    // anymore, a callable with the same key due earlier took it over and that one runs instead. The callables of a
+    // composite callable that do not hold their key are removed from it.
+    private boolean claimUniqueCallable(XCallable<?> callable) {
+        if (callable instanceof CompositeCallable) {
+            CompositeCallable composite = (CompositeCallable) callable;
+            List<XCallable<?>> claimed = new ArrayList<XCallable<?>>(composite.callables.size());
+            for (XCallable<?> inner : composite.callables) {
+                if (claimUniqueCallable(inner)) {
+                    claimed.add(inner);
+                }
+            }
+            if (claimed.isEmpty()) {
+                return false;
+            }
+            composite.callables = claimed;
+            return true;
+        }
+        String key = callable.getKey();
+        if (key == null) {
+            return true;
+        }
+        UniqueCallable unique = uniqueCallables.get(key);
+        return unique != null && unique.callable == callable && uniqueCallables.remove(key, unique);
+    }
+
+    private void suppressDuplicate(XCallable<?> callable) {
+        log.debug("callable [{0}] with key [{1}] already queued, dropping it", callable.getName(), callable.getKey());
+        incrCounter(INSTR_DUPLICATES_COUNTER, 1);
+        incrCounter(callable.getType() + "#" + INSTR_DUPLICATES_COUNTER, 1);
+    }
+
+    private boolean callableBegin(XCallable callable) {
+        int i = getActiveCounter(callable.getType()).incrementAndGet();
+        return i == 1 || i <= getMaxConcurrency(callable.getType());
+    }
+
+    // Every parked callable goes through callableEnd() after being parked, and every callableEnd() that leaves the
+    // type under its maximum concurrency releases one parked callable, thus a parked callable is never left behind.
     private void callableEnd(XCallable callable) {
-        synchronized (activeCallables) {
-            AtomicInteger counter = activeCallables.get(callable.getType());
-            if (counter == null) {
-                throw new IllegalStateException("It should not happen");
+        AtomicInteger counter = activeCallables.get(callable.getType());
+        if (counter == null) {
+            throw new IllegalStateException("It should not happen");
+        }
+        if (counter.decrementAndGet() < getMaxConcurrency(callable.getType())) {
+            Queue<CallableWrapper> parked = parkedCallables.get(callable.getType());
+            CallableWrapper wrapper = (parked != null) ? parked.poll() : null;
+            if (wrapper != null) {
+                parkedCount.decrementAndGet();
+                log.trace("releasing parked callable [{0}]", wrapper.getElement().getName());
+                wrapper.setDelay(0, TimeUnit.MILLISECONDS);
+                queue(wrapper, true);
             }
-            else {
-                counter.decrementAndGet();
+        }
+    }
+
+    private void park(CallableWrapper wrapper) {
+        String type = wrapper.getElement().getType();
+        Queue<CallableWrapper> parked = parkedCallables.get(type);
+        if (parked == null) {
+            parked = new ConcurrentLinkedQueue<CallableWrapper>();
+            Queue<CallableWrapper> existing = parkedCallables.putIfAbsent(type, parked);
+            if (existing != null) {
+                parked = existing;
             }
         }
+        parkedCount.incrementAndGet();
+        parked.offer(wrapper);
     }
 
     // Callables are wrapped with the this wrapper for execution, for logging
@@ -127,6 +283,12 @@ public class CallableQueueService implements Service, Instrumentable {
             XCallable<?> callable = getElement();
             try {
                 if (callableBegin(callable)) {
+                    if (!claimUniqueCallable(callable)) {
+                        log.debug("callable [{0}] superseded by a callable with the same key due earlier, skipping it",
+                                  callable.getName());
+                        incrCounter(INSTR_DUPLICATES_COUNTER, 1);
+                        return;
+                    }
                     cron.stop();
                     addInQueueCron(cron);
                     XLog.Info.get().clear();
@@ -146,10 +308,9 @@ public class CallableQueueService implements Service, Instrumentable {
                     }
                 }
                 else {
-                    log.warn("max concurrency for callable [{0}] exceeded, requeueing with [{1}]ms delay", callable
-                            .getType(), CONCURRENCY_DELAY);
-                    setDelay(CONCURRENCY_DELAY, TimeUnit.MILLISECONDS);
-                    queue(this, true);
+                    log.debug("max concurrency for callable [{0}] exceeded, parking it until a callable of the same "
+                            + "type finishes", callable.getType());
+                    park(this);
                     incrCounter(callable.getType() + "#exceeded.concurrency", 1);
                 }
             }
@@ -171,6 +332,7 @@ public class CallableQueueService implements Service, Instrumentable {
     class CompositeCallable implements XCallable<Void> {
         private List<XCallable<?>> callables;
         private String name;
+        private String type;
         private int priority;
         private long createdTime;
 
@@ -188,6 +350,7 @@ public class CallableQueueService implements Service, Instrumentable {
             }
             sb.append("]");
             name = sb.toString();
+            type = "#composite#" + callables.get(0).getType();
         }
 
         @Override
@@ -197,7 +360,7 @@ public class CallableQueueService implements Service, Instrumentable {
 
         @Override
         public String getType() {
-            return "#composite#" + callables.get(0).getType();
+            return type;
         }
 
         @Override
@@ -210,6 +373,11 @@ public class CallableQueueService implements Service, Instrumentable {
             return createdTime;
         }
 
+        @Override
+        public String getKey() {
+            return null;
+        }
+
         public Void call() throws Exception {
             XLog log = XLog.getLog(getClass());
 
@@ -262,10 +430,11 @@ public class CallableQueueService implements Service, Instrumentable {
     private XLog log = XLog.getLog(getClass());
 
     private int queueSize;
-    private PriorityDelayQueue<CallableWrapper> queue;
+    private BlockingQueue<QueueElement<CallableWrapper>> queue;
     private AtomicLong delayQueueExecCounter = new AtomicLong(0);
     private ThreadPoolExecutor executor;
     private Instrumentation instrumentation;
+    private Histogram enqueueLatency = new Histogram();
 
     /**
      * Convenience method for instrumentation counters.
@@ -298,12 +467,22 @@ public class CallableQueueService implements Service, Instrumentable {
         queueSize = conf.getInt(CONF_QUEUE_SIZE, 10000);
         int threads = conf.getInt(CONF_THREADS, 10);
 
-        queue = new PriorityDelayQueue<CallableWrapper>(3, 1000 * 30, TimeUnit.MILLISECONDS, queueSize) {
-            @Override
-            protected void debug(String msgTemplate, Object... msgArgs) {
-                log.trace(msgTemplate, msgArgs);
-            }
-        };
+        if (conf.getBoolean(CONF_QUEUE_STRIPED, false)) {
+            queue = new StripedPriorityDelayQueue<CallableWrapper>(3, 1000 * 30, TimeUnit.MILLISECONDS, queueSize) {
+                @Override
+                protected void debug(String msgTemplate, Object... msgArgs) {
+                    log.trace(msgTemplate, msgArgs);
+                }
+            };
+        }
+        else {
+            queue = new PriorityDelayQueue<CallableWrapper>(3, 1000 * 30, TimeUnit.MILLISECONDS, queueSize) {
+                @Override
+                protected void debug(String msgTemplate, Object... msgArgs) {
+                    log.trace(msgTemplate, msgArgs);
+                }
+            };
+        }
 
         // IMPORTANT: The ThreadPoolExecutor does not always the execute
         // commands out of the queue, there are
@@ -332,6 +511,14 @@ public class CallableQueueService implements Service, Instrumentable {
         }
 
         maxCallableConcurrency = conf.getInt(CONF_CALLABLE_CONCURRENCY, 3);
+        for (Map.Entry<String, String> entry : conf) {
+            if (entry.getKey().startsWith(CONF_CALLABLE_CONCURRENCY + ".")) {
+                String type = entry.getKey().substring(CONF_CALLABLE_CONCURRENCY.length() + 1);
+                int max = conf.getInt(entry.getKey(), maxCallableConcurrency);
+                typeMaxCallableConcurrency.put(type, max);
+                log.info("Max concurrency for callable type [{0}] is [{1}]", type, max);
+            }
+        }
     }
 
     /**
@@ -343,6 +530,9 @@ public class CallableQueueService implements Service, Instrumentable {
             long limit = System.currentTimeMillis() + 30 * 1000;// 30 seconds
             executor.shutdown();
             queue.clear();
+            parkedCallables.clear();
+            parkedCount.set(0);
+            uniqueCallables.clear();
             while (!executor.awaitTermination(1000, TimeUnit.MILLISECONDS)) {
                 log.info("Waiting for executor to shutdown");
                 if (System.currentTimeMillis() > limit) {
@@ -367,14 +557,19 @@ public class CallableQueueService implements Service, Instrumentable {
     }
 
     /**
+     * Return the number of callables waiting for execution, queued or parked because their type is at its maximum
+     * concurrency.
+     *
      * @return int size of queue
      */
-    public synchronized int queueSize() {
-        return queue.size();
+    public int queueSize() {
+        return queue.size() + parkedCount.get();
     }
 
+    // The capacity check reads the queue size counters, it does not lock the queue. Concurrent admissions may go over
+    // the queue size by at most the number of concurrent callers, the same as the previous check-then-act did.
     private boolean queue(CallableWrapper wrapper, boolean ignoreQueueSize) {
-        if (!ignoreQueueSize && queue.size() >= queueSize) {
+        if (!ignoreQueueSize && queueSize() >= queueSize) {
             log.warn("queue if full, ignoring queuing for [{0}]", wrapper.getElement());
             return false;
         }
@@ -422,23 +617,42 @@ public class CallableQueueService implements Service, Instrumentable {
      * @return <code>true</code> if the callable was queued, <code>false</code> if the queue is full and the callable
      *         was not queued.
      */
-    public synchronized boolean queue(XCallable<?> callable, long delay) {
+    public boolean queue(XCallable<?> callable, long delay) {
         if (callable == null) {
             return true;
         }
-        boolean queued = false;
-        if (Services.get().getSystemMode() == SYSTEM_MODE.SAFEMODE) {
-            log.warn("[queue] System is in SAFEMODE. Hence no callable is queued. current queue size " + queue.size());
+        if (!addUniqueCallable(callable, delay)) {
+            suppressDuplicate(callable);
+            return true;
         }
-        else {
-            queued = queue(new CallableWrapper(callable, delay), false);
-            if (queued) {
-                incrCounter(INSTR_QUEUED_COUNTER, 1);
+        return queueUnique(callable, delay);
+    }
+
+    // The key of the callable, if any, is already registered, it is released if the callable is not queued.
+    private boolean queueUnique(XCallable<?> callable, long delay) {
+        long start = System.nanoTime();
+        boolean queued = false;
+        try {
+            if (Services.get().getSystemMode() == SYSTEM_MODE.SAFEMODE) {
+                log.warn("[queue] System is in SAFEMODE. Hence no callable is queued. current queue size "
+                        + queue.size());
             }
             else {
-                log.warn("Could not queue callable");
+                queued = queue(new CallableWrapper(callable, delay), false);
+                if (queued) {
+                    incrCounter(INSTR_QUEUED_COUNTER, 1);
+                }
+                else {
+                    log.warn("Could not queue callable");
+                }
             }
         }
+        finally {
+            if (!queued) {
+                removeUniqueCallable(callable);
+            }
+        }
+        enqueueLatency.record((System.nanoTime() - start) / 1000);
         return queued;
     }
 
@@ -455,17 +669,29 @@ public class CallableQueueService implements Service, Instrumentable {
      *         were not queued.
      */
     @SuppressWarnings("unchecked")
-    public synchronized boolean queueSerial(List<? extends XCallable<?>> callables, long delay) {
+    public boolean queueSerial(List<? extends XCallable<?>> callables, long delay) {
+        if (callables != null) {
+            List<XCallable<?>> uniques = new ArrayList<XCallable<?>>(callables.size());
+            for (XCallable<?> callable : callables) {
+                if (addUniqueCallable(callable, delay)) {
+                    uniques.add(callable);
+                }
+                else {
+                    suppressDuplicate(callable);
+                }
+            }
+            callables = uniques;
+        }
         boolean queued;
         if (callables == null || callables.size() == 0) {
             queued = true;
         }
         else if (callables.size() == 1) {
-            queued = queue(callables.get(0), delay);
+            queued = queueUnique(callables.get(0), delay);
         }
         else {
             XCallable<?> callable = new CompositeCallable(callables);
-            queued = queue(callable, delay);
+            queued = queueUnique(callable, delay);
             if (queued) {
                 incrCounter(INSTR_QUEUED_COUNTER, callables.size());
             }
@@ -482,7 +708,7 @@ public class CallableQueueService implements Service, Instrumentable {
         instrumentation = instr;
         instr.addSampler(INSTRUMENTATION_GROUP, INSTR_QUEUE_SIZE_SAMPLER, 60, 1, new Instrumentation.Variable<Long>() {
             public Long getValue() {
-                return (long) queue.size();
+                return (long) queueSize();
             }
         });
         instr.addSampler(INSTRUMENTATION_GROUP, INSTR_THREADS_ACTIVE_SAMPLER, 60, 1,
@@ -491,6 +717,30 @@ public class CallableQueueService implements Service, Instrumentable {
                 return (long) executor.getActiveCount();
             }
         });
+        instr.addVariable(INSTRUMENTATION_GROUP, INSTR_PARKED_VARIABLE, new Instrumentation.Variable<Long>() {
+            public Long getValue() {
+                return (long) parkedCount.get();
+            }
+        });
+        instr.addVariable(INSTRUMENTATION_GROUP, INSTR_UNIQUE_PENDING_VARIABLE, new Instrumentation.Variable<Long>() {
+            public Long getValue() {
+                return (long) uniqueCallables.size();
+            }
+        });
+        addEnqueueLatencyVariable(instr, "p50", 50);
+        addEnqueueLatencyVariable(instr, "p95", 95);
+        addEnqueueLatencyVariable(instr, "p99", 99);
+        addEnqueueLatencyVariable(instr, "p999", 99.9);
+    }
+
+    // Enqueue latency percentiles are in microseconds, since the service started.
+    private void addEnqueueLatencyVariable(Instrumentation instr, String name, final double percentile) {
+        instr.addVariable(INSTRUMENTATION_GROUP, INSTR_ENQUEUE_LATENCY_VARIABLE + name + ".us",
+                          new Instrumentation.Variable<Long>() {
+            public Long getValue() {
+                return enqueueLatency.getPercentile(percentile);
+            }
+        });
     }
 
     /**
@@ -506,6 +756,11 @@ public class CallableQueueService implements Service, Instrumentable {
             }
             list.add(qe.toString());
         }
+        for (Queue<CallableWrapper> parked : parkedCallables.values()) {
+            for (CallableWrapper wrapper : parked) {
+                list.add("parked, " + wrapper.toString());
+            }
+        }
         return list;
     }
 
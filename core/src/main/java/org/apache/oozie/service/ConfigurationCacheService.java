@@ -0,0 +1,166 @@
+/**
+ * Copyright (c) 2010 Yahoo! Inc. All rights reserved.
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License. See accompanying LICENSE file.
+ */
+package org.apache.oozie.service;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.io.UnsupportedEncodingException;
+import java.util.Map;
+
+import org.apache.hadoop.conf.Configuration;
+import org.apache.oozie.util.BoundedCache;
+import org.apache.oozie.util.IOUtils;
+import org.apache.oozie.util.Instrumentable;
+import org.apache.oozie.util.Instrumentation;
+import org.apache.oozie.util.XConfiguration;
+
+/**
+ * The configuration cache service parses configuration XML strings, job confs, coordinator action run confs and
+ * workflow proto action confs, once.
+ * <p/>
+ * Parsed configurations are cached by the SHA-1 digest of their XML. The cached properties are never exposed, each
+ * call returns a new {@link XConfiguration} with a copy of them that the caller is free to modify.
+ */
+public class ConfigurationCacheService implements Service, Instrumentable {
+
+    public static final String CONF_PREFIX = Service.CONF_PREFIX + "ConfigurationCacheService.";
+
+    /**
+     * Maximum total length, in characters, of the XML of the cached configurations.
+     */
+    public static final String CONF_CACHE_SIZE = CONF_PREFIX + "cache.size";
+
+    private static final String INSTRUMENTATION_GROUP = "configurations";
+
+    public static final String INSTR_HITS_COUNTER = "cache.hits";
+
+    public static final String INSTR_MISSES_COUNTER = "cache.misses";
+
+    private static class ParsedConfiguration {
+        private final String[] names;
+        private final String[] values;
+
+        private ParsedConfiguration(Configuration conf) {
+            int size = conf.size();
+            names = new String[size];
+            values = new String[size];
+            int i = 0;
+            for (Map.Entry<String, String> entry : conf) {
+                names[i] = entry.getKey();
+                values[i] = entry.getValue();
+                i++;
+            }
+        }
+
+        private XConfiguration toConfiguration() {
+            XConfiguration conf = new XConfiguration();
+            for (int i = 0; i < names.length; i++) {
+                conf.set(names[i], values[i]);
+            }
+            return conf;
+        }
+    }
+
+    private BoundedCache<String, ParsedConfiguration> cache;
+    private Instrumentation instrumentation;
+
+    /**
+     * Initialize the configuration cache service.
+     *
+     * @param services services instance.
+     */
+    @Override
+    public void init(Services services) {
+        long cacheSize = services.getConf().getLong(CONF_CACHE_SIZE, 10 * 1024 * 1024);
+        cache = new BoundedCache<String, ParsedConfiguration>(cacheSize);
+    }
+
+    /**
+     * Destroy the configuration cache service.
+     */
+    @Override
+    public void destroy() {
+        cache.clear();
+    }
+
+    /**
+     * Return the public interface of the configuration cache service.
+     *
+     * @return {@link ConfigurationCacheService}.
+     */
+    @Override
+    public Class<? extends Service> getInterface() {
+        return ConfigurationCacheService.class;
+    }
+
+    /**
+     * Instrument the configuration cache service.
+     *
+     * @param instr instance to instrument the configuration cache service to.
+     */
+    @Override
+    public void instrument(Instrumentation instr) {
+        instrumentation = instr;
+        instr.addVariable(INSTRUMENTATION_GROUP, "cache.count", new Instrumentation.Variable<Integer>() {
+            public Integer getValue() {
+                return cache.getCount();
+            }
+        });
+        instr.addVariable(INSTRUMENTATION_GROUP, "cache.size", new Instrumentation.Variable<Long>() {
+            public Long getValue() {
+                return cache.getSize();
+            }
+        });
+    }
+
+    /**
+     * Parse a configuration XML string.
+     * <p/>
+     * The XML is parsed only if the same XML is not in the cache. XML that cannot be parsed is not cached.
+     *
+     * @param xml configuration XML.
+     * @return a new configuration with the properties of the XML.
+     * @throws IOException thrown if the configuration XML could not be parsed.
+     */
+    public XConfiguration parse(String xml) throws IOException {
+        String key = getKey(xml);
+        ParsedConfiguration parsed = cache.get(key);
+        if (parsed != null) {
+            incr(INSTR_HITS_COUNTER);
+        }
+        else {
+            incr(INSTR_MISSES_COUNTER);
+            parsed = new ParsedConfiguration(new XConfiguration(new StringReader(xml)));
+            cache.put(key, parsed, xml.length());
+        }
+        return parsed.toConfiguration();
+    }
+
+    private static String getKey(String xml) {
+        try {
+            return IOUtils.getSHA1(xml.getBytes("UTF-8"));
+        }
+        catch (UnsupportedEncodingException ex) {
+            throw new RuntimeException(ex);
+        }
+    }
+
+    private void incr(String name) {
+        if (instrumentation != null) {
+            instrumentation.incr(INSTRUMENTATION_GROUP, name, 1);
+        }
+    }
+
+}
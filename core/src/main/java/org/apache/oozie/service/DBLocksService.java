@@ -0,0 +1,432 @@
+/**
+ * Copyright (c) 2010 Yahoo! Inc. All rights reserved.
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License. See accompanying LICENSE file.
+ */
+package org.apache.oozie.service;
+
+import java.net.InetAddress;
+import java.net.UnknownHostException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.apache.hadoop.conf.Configuration;
+import org.apache.oozie.ErrorCode;
+import org.apache.oozie.executor.jpa.JPAExecutor;
+import org.apache.oozie.executor.jpa.JPAExecutorException;
+import org.apache.oozie.executor.jpa.LockLeaseAcquireJPAExecutor;
+import org.apache.oozie.executor.jpa.LockLeaseReleaseJPAExecutor;
+import org.apache.oozie.executor.jpa.LockLeaseRenewJPAExecutor;
+import org.apache.oozie.executor.jpa.LockLeasesReleaseJPAExecutor;
+import org.apache.oozie.executor.jpa.LockLeasesRenewJPAExecutor;
+import org.apache.oozie.util.Instrumentation;
+import org.apache.oozie.util.MemoryLocks;
+import org.apache.oozie.util.XLog;
+
+/**
+ * Locks service that backs the in memory locks with leases stored in the database, so that several Oozie servers
+ * sharing the same database do not process the same jobs concurrently.
+ * <p/>
+ * It replaces the {@link MemoryLocksService} when set in the <code>oozie.services.ext</code> property.
+ * <p/>
+ * A WRITE lock is obtained first in memory and then as a lease in the database owned by this server. All the leases
+ * held by the server are renewed with a single update every third of the lease time. The lease of a server that is
+ * gone expires and it can then be taken over by another server. Server clocks must be synchronized with a skew well
+ * under the lease time. Leases left by a previous run of the server, with the same server id, are released before
+ * the first lease is taken.
+ * <p/>
+ * The leases held by a thread fence its transactions: before committing, the {@link JPAService} verifies with
+ * {@link #checkLeases()} that the leases held by the committing thread have not been lost, else the transaction is
+ * rolled back and the command fails.
+ * <p/>
+ * READ locks are shared in memory locks, they do not take a lease.
+ * <p/>
+ * The following configuration parameters control the service:
+ * <p/>
+ * {@link #CONF_LEASE_TIME} duration of a lease, in seconds. Default value is 60.
+ * <p/>
+ * {@link #CONF_POLL_INTERVAL} interval between attempts to obtain a lease held by another server, in milliseconds.
+ * Default value is 500.
+ * <p/>
+ * {@link #CONF_SERVER_ID} identifier of the server as lease owner, it must be unique among the servers sharing the
+ * database. Default value is the Oozie HTTP host name, or the local host name if not set.
+ */
+public class DBLocksService extends MemoryLocksService {
+    private static final String INSTRUMENTATION_GROUP = "locks";
+    private static final String INSTR_ACQUIRED_COUNTER = "db.leases.acquired";
+    private static final String INSTR_TIMED_OUT_COUNTER = "db.leases.timedout";
+    private static final String INSTR_RENEWED_COUNTER = "db.leases.renewed";
+    private static final String INSTR_LOST_COUNTER = "db.leases.lost";
+    private static final String INSTR_FAILED_COUNTER = "db.leases.failed";
+    private static final String INSTR_LEASES_VARIABLE = "db.leases";
+
+    public static final String CONF_PREFIX = Service.CONF_PREFIX + "DBLocksService.";
+    public static final String CONF_LEASE_TIME = CONF_PREFIX + "lease.time";
+    public static final String CONF_POLL_INTERVAL = CONF_PREFIX + "poll.interval";
+    public static final String CONF_SERVER_ID = CONF_PREFIX + "server.id";
+
+    private static XLog LOG = XLog.getLog(DBLocksService.class);
+
+    // leases held by the current thread, checked before its transactions are committed
+    private static final ThreadLocal<List<DBLockToken>> THREAD_LEASES = new ThreadLocal<List<DBLockToken>>() {
+        @Override
+        protected List<DBLockToken> initialValue() {
+            return new ArrayList<DBLockToken>();
+        }
+    };
+
+    // set while the service runs its own lease queries, they are not fenced
+    private static final ThreadLocal<Boolean> LEASE_OPERATION = new ThreadLocal<Boolean>();
+
+    private String serverId;
+    private long leaseTime;
+    private long pollInterval;
+    private volatile boolean active;
+    private volatile boolean leftoversReleased;
+    private Instrumentation instrumentation;
+    private final Map<String, DBLockToken> leases = new ConcurrentHashMap<String, DBLockToken>();
+    // leases that could not be released, the renewal keeps trying to delete them
+    private final Set<String> orphanLeases = Collections.newSetFromMap(new ConcurrentHashMap<String, Boolean>());
+
+    /**
+     * Renews the leases held by the server and releases orphan leases.
+     */
+    class LeaseRenewalRunnable implements Runnable {
+
+        public void run() {
+            if (!active) {
+                return;
+            }
+            for (String resource : orphanLeases) {
+                if (releaseLease(resource)) {
+                    orphanLeases.remove(resource);
+                }
+            }
+            int held = leases.size();
+            if (held > 0) {
+                long start = System.currentTimeMillis();
+                try {
+                    int renewed = executeLeaseOperation(new LockLeasesRenewJPAExecutor(serverId, leaseTime));
+                    incr(INSTR_RENEWED_COUNTER, renewed);
+                    if (renewed == held && orphanLeases.isEmpty()) {
+                        for (DBLockToken token : leases.values()) {
+                            token.renewed(start);
+                        }
+                    }
+                    else {
+                        // some leases may have been taken over by another server, each one is verified
+                        LOG.warn("Renewed [{0}] leases, [{1}] held, verifying each lease", renewed, held);
+                        for (DBLockToken token : leases.values()) {
+                            renewLease(token);
+                        }
+                    }
+                }
+                catch (JPAExecutorException ex) {
+                    LOG.warn("Could not renew leases, {0}", ex.getMessage(), ex);
+                    incr(INSTR_FAILED_COUNTER, 1);
+                }
+            }
+        }
+    }
+
+    /**
+     * Lock token of a WRITE lock held in memory and as a lease in the database.
+     */
+    private class DBLockToken implements MemoryLocks.LockToken {
+        private final String resource;
+        private final MemoryLocks.LockToken memoryToken;
+        private volatile long validUntil;
+        private volatile boolean lost;
+        private volatile boolean released;
+
+        private DBLockToken(String resource, MemoryLocks.LockToken memoryToken, long acquired) {
+            this.resource = resource;
+            this.memoryToken = memoryToken;
+            validUntil = acquired + leaseTime;
+        }
+
+        private boolean isActive() {
+            return active;
+        }
+
+        private void renewed(long start) {
+            validUntil = Math.max(validUntil, start + leaseTime);
+        }
+
+        // The lease is known to be held while its renewal is well ahead of its expiration, else it is renewed now.
+        private boolean isHeld() {
+            if (lost) {
+                return false;
+            }
+            if (validUntil - System.currentTimeMillis() > leaseTime / 3) {
+                return true;
+            }
+            return renewLease(this);
+        }
+
+        public void release() {
+            try {
+                released = true;
+                THREAD_LEASES.get().remove(this);
+                leases.remove(resource);
+                if (!lost && !releaseLease(resource)) {
+                    orphanLeases.add(resource);
+                }
+            }
+            finally {
+                memoryToken.release();
+            }
+        }
+    }
+
+    /**
+     * Initialize the DB locks service.
+     *
+     * @param services services instance.
+     */
+    @Override
+    public void init(Services services) {
+        super.init(services);
+        Configuration conf = services.getConf();
+        leaseTime = conf.getLong(CONF_LEASE_TIME, 60) * 1000;
+        pollInterval = conf.getLong(CONF_POLL_INTERVAL, 500);
+        serverId = conf.get(CONF_SERVER_ID, "").trim();
+        // the default value refers to the 'oozie.http.hostname' system property set by the Oozie start scripts
+        if (serverId.length() == 0 || serverId.contains("${")) {
+            try {
+                serverId = InetAddress.getLocalHost().getHostName();
+            }
+            catch (UnknownHostException ex) {
+                throw new RuntimeException("Could not resolve the local host name, set " + CONF_SERVER_ID, ex);
+            }
+        }
+        active = true;
+        long renewalInterval = Math.max(1, leaseTime / 3);
+        services.get(SchedulerService.class).schedule(new LeaseRenewalRunnable(), renewalInterval, renewalInterval,
+                                                      SchedulerService.Unit.MILLISEC);
+        LOG.info("DB locks service, server id [{0}], lease time [{1}]ms", serverId, leaseTime);
+    }
+
+    /**
+     * Destroy the DB locks service.
+     * <p/>
+     * Leases still held are not released, they expire.
+     */
+    @Override
+    public void destroy() {
+        active = false;
+        leases.clear();
+        orphanLeases.clear();
+        super.destroy();
+    }
+
+    /**
+     * Instruments the DB locks service.
+     *
+     * @param instr instance to instrument the DB locks service to.
+     */
+    @Override
+    public void instrument(Instrumentation instr) {
+        super.instrument(instr);
+        instrumentation = instr;
+        instr.addVariable(INSTRUMENTATION_GROUP, INSTR_LEASES_VARIABLE, new Instrumentation.Variable<Long>() {
+            public Long getValue() {
+                return (long) leases.size();
+            }
+        });
+    }
+
+    /**
+     * Return the identifier of the server as lease owner.
+     *
+     * @return the server identifier.
+     */
+    public String getServerId() {
+        return serverId;
+    }
+
+    /**
+     * Obtain a WRITE lock for a source.
+     * <p/>
+     * The lease fences the transactions committed by the calling thread until the lock is released.
+     *
+     * @param resource resource name.
+     * @param wait time out in milliseconds to wait for the lock, -1 means no timeout and 0 no wait.
+     * @return the lock token for the resource, or <code>null</code> if the lock could not be obtained.
+     * @throws InterruptedException thrown if the thread was interrupted while waiting.
+     */
+    @Override
+    public MemoryLocks.LockToken getWriteLock(String resource, long wait) throws InterruptedException {
+        long limit = System.currentTimeMillis() + wait;
+        MemoryLocks.LockToken memoryToken = super.getWriteLock(resource, wait);
+        if (memoryToken == null) {
+            return null;
+        }
+        boolean acquired = false;
+        long start = System.currentTimeMillis();
+        try {
+            acquired = releaseLeftoverLeases() && acquireLease(resource);
+            while (!acquired && wait != 0) {
+                long sleep = pollInterval;
+                if (wait > 0) {
+                    sleep = Math.min(sleep, limit - System.currentTimeMillis());
+                    if (sleep <= 0) {
+                        break;
+                    }
+                }
+                Thread.sleep(sleep);
+                start = System.currentTimeMillis();
+                acquired = releaseLeftoverLeases() && acquireLease(resource);
+            }
+        }
+        finally {
+            if (!acquired) {
+                memoryToken.release();
+            }
+        }
+        if (!acquired) {
+            incr(INSTR_TIMED_OUT_COUNTER, 1);
+            return null;
+        }
+        DBLockToken token = new DBLockToken(resource, memoryToken, start);
+        leases.put(resource, token);
+        orphanLeases.remove(resource);
+        THREAD_LEASES.get().add(token);
+        incr(INSTR_ACQUIRED_COUNTER, 1);
+        return token;
+    }
+
+    /**
+     * Verify that the leases held by the current thread have not been lost.
+     * <p/>
+     * It is called by the {@link JPAService} before committing a transaction. The check does not query the database
+     * unless a lease is close to its expiration.
+     *
+     * @throws JPAExecutorException thrown if a lease held by the current thread has been lost.
+     */
+    public static void checkLeases() throws JPAExecutorException {
+        List<DBLockToken> tokens = THREAD_LEASES.get();
+        if (tokens.isEmpty() || LEASE_OPERATION.get() != null) {
+            return;
+        }
+        Iterator<DBLockToken> it = tokens.iterator();
+        while (it.hasNext()) {
+            DBLockToken token = it.next();
+            if (token.released || !token.isActive()) {
+                it.remove();
+            }
+            else if (!token.isHeld()) {
+                throw new JPAExecutorException(ErrorCode.E0611, token.resource);
+            }
+        }
+    }
+
+    // Leases owned by this server id and not held were left by a previous run of the server, they would be renewed with
+    // the held ones. They are released once, before this server takes its first lease.
+    private boolean releaseLeftoverLeases() {
+        if (!leftoversReleased) {
+            synchronized (this) {
+                if (!leftoversReleased) {
+                    try {
+                        int released = executeLeaseOperation(new LockLeasesReleaseJPAExecutor(serverId));
+                        if (released > 0) {
+                            LOG.info("Released [{0}] leases left by a previous run of server [{1}]", released,
+                                     serverId);
+                        }
+                        leftoversReleased = true;
+                    }
+                    catch (JPAExecutorException ex) {
+                        LOG.warn("Could not release leftover leases, {0}", ex.getMessage(), ex);
+                        incr(INSTR_FAILED_COUNTER, 1);
+                    }
+                }
+            }
+        }
+        return leftoversReleased;
+    }
+
+    // A lease owned by this server can be taken again, the in memory lock ensures nobody else in the server holds it.
+    private boolean acquireLease(String resource) {
+        try {
+            return executeLeaseOperation(new LockLeaseAcquireJPAExecutor(resource, serverId, leaseTime));
+        }
+        catch (JPAExecutorException ex) {
+            LOG.warn("Could not acquire lease for [{0}], {1}", resource, ex.getMessage(), ex);
+            incr(INSTR_FAILED_COUNTER, 1);
+            return false;
+        }
+    }
+
+    // Returns false if the lease is lost, or if it could not be renewed and it may have expired.
+    private boolean renewLease(DBLockToken token) {
+        long start = System.currentTimeMillis();
+        try {
+            if (executeLeaseOperation(new LockLeaseRenewJPAExecutor(token.resource, serverId, leaseTime))) {
+                token.renewed(start);
+                return true;
+            }
+            if (!token.lost && !token.released) {
+                token.lost = true;
+                LOG.warn("Lease for [{0}] lost", token.resource);
+                incr(INSTR_LOST_COUNTER, 1);
+            }
+            return false;
+        }
+        catch (JPAExecutorException ex) {
+            LOG.warn("Could not renew lease for [{0}], {1}", token.resource, ex.getMessage(), ex);
+            incr(INSTR_FAILED_COUNTER, 1);
+            return System.currentTimeMillis() < token.validUntil;
+        }
+    }
+
+    private boolean releaseLease(String resource) {
+        try {
+            executeLeaseOperation(new LockLeaseReleaseJPAExecutor(resource, serverId));
+            return true;
+        }
+        catch (JPAExecutorException ex) {
+            LOG.warn("Could not release lease for [{0}], {1}", resource, ex.getMessage(), ex);
+            incr(INSTR_FAILED_COUNTER, 1);
+            return false;
+        }
+    }
+
+    // the JPAService is initialized after the locks service, it is looked up when used
+    private <T> T executeLeaseOperation(JPAExecutor<T> executor) throws JPAExecutorException {
+        JPAService jpaService = Services.get().get(JPAService.class);
+        if (jpaService == null) {
+            throw new JPAExecutorException(ErrorCode.E0610);
+        }
+        boolean nested = LEASE_OPERATION.get() != null;
+        LEASE_OPERATION.set(Boolean.TRUE);
+        try {
+            return jpaService.execute(executor);
+        }
+        finally {
+            if (!nested) {
+                LEASE_OPERATION.remove();
+            }
+        }
+    }
+
+    private void incr(String name, long count) {
+        if (instrumentation != null) {
+            instrumentation.incr(INSTRUMENTATION_GROUP, name, count);
+        }
+    }
+
+}
@@ -59,6 +59,7 @@ public class DagXLogInfoService implements Service {
         XLogStreamer.Filter.defineParameter(APP);
         XLogStreamer.Filter.defineParameter(JOB);
         XLogStreamer.Filter.defineParameter(ACTION);
+        XLogStreamer.Filter.defineIndexParameter(JOB);
 
     }
 
@@ -0,0 +1,297 @@
+/**
+ * Copyright (c) 2010 Yahoo! Inc. All rights reserved.
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License. See accompanying LICENSE file.
+ */
+package org.apache.oozie.service;
+
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.net.URI;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+import org.apache.hadoop.conf.Configuration;
+import org.apache.hadoop.fs.FileStatus;
+import org.apache.hadoop.fs.FileSystem;
+import org.apache.hadoop.fs.Path;
+import org.apache.oozie.util.BoundedCache;
+import org.apache.oozie.util.Instrumentable;
+import org.apache.oozie.util.Instrumentation;
+import org.apache.oozie.util.ParamChecker;
+import org.apache.oozie.util.XLog;
+
+/**
+ * The dataset availability service checks if coordinator dataset instances exist.
+ * <p/>
+ * A dataset instance that exists is expected to stay, it is cached until it is evicted by more recent ones. A dataset
+ * instance that does not exist is cached for a short time, {@link #CONF_NEGATIVE_TTL}, so the actions waiting for the
+ * same instance do not check it again and again. Both caches are per user.
+ * <p/>
+ * Consecutive instances checked in a single call that are in the same directory are checked with a single
+ * <code>listStatus</code> of the directory instead of one <code>exists</code> call each.
+ */
+public class DatasetAvailabilityService implements Service, Instrumentable {
+
+    public static final String CONF_PREFIX = Service.CONF_PREFIX + "DatasetAvailabilityService.";
+
+    /**
+     * Maximum number of available instances, and of unavailable instances, kept in the caches.
+     */
+    public static final String CONF_CACHE_SIZE = CONF_PREFIX + "cache.size";
+
+    /**
+     * Time in seconds an unavailable instance is cached.
+     */
+    public static final String CONF_NEGATIVE_TTL = CONF_PREFIX + "negative.ttl";
+
+    /**
+     * Minimum number of instances in the same directory to check them with a listing of the directory.
+     */
+    public static final String CONF_LIST_MIN = CONF_PREFIX + "list.min";
+
+    private static final String INSTRUMENTATION_GROUP = "datasets";
+
+    public static final String INSTR_HITS_COUNTER = "cache.hits";
+
+    public static final String INSTR_NEGATIVE_HITS_COUNTER = "cache.negative.hits";
+
+    public static final String INSTR_MISSES_COUNTER = "cache.misses";
+
+    public static final String INSTR_EXISTS_COUNTER = "fs.exists";
+
+    public static final String INSTR_LIST_COUNTER = "fs.list";
+
+    private static XLog LOG = XLog.getLog(DatasetAvailabilityService.class);
+
+    private BoundedCache<String, Boolean> available;
+    private BoundedCache<String, Long> unavailable;
+    private long negativeTtl;
+    private int listMin;
+    private Instrumentation instrumentation;
+
+    /**
+     * Initialize the dataset availability service.
+     *
+     * @param services services instance.
+     */
+    @Override
+    public void init(Services services) {
+        Configuration conf = services.getConf();
+        int cacheSize = conf.getInt(CONF_CACHE_SIZE, 100000);
+        available = new BoundedCache<String, Boolean>(cacheSize);
+        unavailable = new BoundedCache<String, Long>(cacheSize);
+        negativeTtl = conf.getInt(CONF_NEGATIVE_TTL, 30) * 1000L;
+        listMin = ParamChecker.checkGTZero(conf.getInt(CONF_LIST_MIN, 2), CONF_LIST_MIN);
+    }
+
+    /**
+     * Destroy the dataset availability service.
+     */
+    @Override
+    public void destroy() {
+        available.clear();
+        unavailable.clear();
+    }
+
+    /**
+     * Return the public interface of the dataset availability service.
+     *
+     * @return {@link DatasetAvailabilityService}.
+     */
+    @Override
+    public Class<? extends Service> getInterface() {
+        return DatasetAvailabilityService.class;
+    }
+
+    /**
+     * Instrument the dataset availability service.
+     *
+     * @param instr instance to instrument the dataset availability service to.
+     */
+    @Override
+    public void instrument(Instrumentation instr) {
+        instrumentation = instr;
+        instr.addVariable(INSTRUMENTATION_GROUP, "cache.available", new Instrumentation.Variable<Integer>() {
+            public Integer getValue() {
+                return available.getCount();
+            }
+        });
+        instr.addVariable(INSTRUMENTATION_GROUP, "cache.unavailable", new Instrumentation.Variable<Integer>() {
+            public Integer getValue() {
+                return unavailable.getCount();
+            }
+        });
+    }
+
+    /**
+     * Check if a dataset instance exists.
+     *
+     * @param uri URI of the dataset instance, with its done flag if any.
+     * @param user user name.
+     * @param group group name.
+     * @param conf configuration to access the file system.
+     * @return if the dataset instance exists.
+     * @throws IOException thrown if the dataset instance could not be checked.
+     * @throws HadoopAccessorException thrown if the file system could not be accessed.
+     */
+    public boolean exists(String uri, String user, String group, Configuration conf) throws IOException,
+            HadoopAccessorException {
+        return countAvailable(new String[]{uri}, user, group, conf) == 1;
+    }
+
+    /**
+     * Return the number of dataset instances, from the first one, that exist.
+     * <p/>
+     * Instances are checked in order and the check stops at the first instance that does not exist. Consecutive
+     * instances in the same directory are checked with a single listing of the directory.
+     *
+     * @param uris URIs of the dataset instances, with their done flag if any.
+     * @param user user name.
+     * @param group group name.
+     * @param conf configuration to access the file system.
+     * @return the index of the first instance that does not exist, the number of instances if all exist.
+     * @throws IOException thrown if the dataset instances could not be checked.
+     * @throws HadoopAccessorException thrown if the file system could not be accessed.
+     */
+    public int countAvailable(String[] uris, String user, String group, Configuration conf) throws IOException,
+            HadoopAccessorException {
+        ParamChecker.notNull(uris, "uris");
+        ParamChecker.notEmpty(user, "user");
+        Map<String, FileSystem> fileSystems = new HashMap<String, FileSystem>();
+        long now = System.currentTimeMillis();
+        int start = 0;
+        while (start < uris.length) {
+            Path parent = new Path(uris[start]).getParent();
+            int end = start + 1;
+            while (end < uris.length && parent != null && parent.equals(new Path(uris[end]).getParent())) {
+                end++;
+            }
+            Boolean[] cached = new Boolean[end - start];
+            int uncached = 0;
+            for (int i = start; i < end; i++) {
+                cached[i - start] = getCached(getKey(user, uris[i]), now);
+                if (cached[i - start] == null) {
+                    uncached++;
+                }
+            }
+            Set<String> names = null;
+            boolean listed = false;
+            for (int i = start; i < end; i++) {
+                boolean exist;
+                if (cached[i - start] != null) {
+                    exist = cached[i - start];
+                    incr((exist) ? INSTR_HITS_COUNTER : INSTR_NEGATIVE_HITS_COUNTER);
+                }
+                else {
+                    incr(INSTR_MISSES_COUNTER);
+                    Path path = new Path(uris[i]);
+                    FileSystem fs = getFileSystem(fileSystems, path.toUri(), user, group, conf);
+                    if (parent != null && uncached >= listMin) {
+                        if (!listed) {
+                            names = list(fs, parent);
+                            listed = true;
+                        }
+                        exist = names != null && names.contains(path.getName());
+                    }
+                    else {
+                        incr(INSTR_EXISTS_COUNTER);
+                        exist = fs.exists(path);
+                    }
+                    if (exist) {
+                        available.put(getKey(user, uris[i]), Boolean.TRUE, 1);
+                    }
+                    else if (negativeTtl > 0) {
+                        unavailable.put(getKey(user, uris[i]), now + negativeTtl, 1);
+                    }
+                }
+                if (!exist) {
+                    return i;
+                }
+            }
+            start = end;
+        }
+        return uris.length;
+    }
+
+    /**
+     * Discard a cached unavailable dataset instance, the next check of the instance goes to the file system.
+     *
+     * @param uri URI of the dataset instance, with its done flag if any.
+     * @param user user name.
+     */
+    public void invalidate(String uri, String user) {
+        unavailable.remove(getKey(user, uri));
+    }
+
+    private Boolean getCached(String key, long now) {
+        if (available.get(key) != null) {
+            return Boolean.TRUE;
+        }
+        Long expiration = unavailable.get(key);
+        return (expiration != null && expiration > now) ? Boolean.FALSE : null;
+    }
+
+    /**
+     * List the names of the entries of a dataset directory.
+     * <p/>
+     * The listing is not cached.
+     *
+     * @param fs file system of the directory.
+     * @param dir directory to list.
+     * @return the names of the entries of the directory, <code>null</code> if the directory does not exist.
+     * @throws IOException thrown if the directory could not be listed.
+     */
+    public Set<String> list(FileSystem fs, Path dir) throws IOException {
+        incr(INSTR_LIST_COUNTER);
+        FileStatus[] statuses;
+        try {
+            statuses = fs.listStatus(dir);
+        }
+        catch (FileNotFoundException ex) {
+            statuses = null;
+        }
+        if (statuses == null) {
+            LOG.debug("Dataset directory [{0}] does not exist", dir);
+            return null;
+        }
+        Set<String> names = new HashSet<String>();
+        for (FileStatus status : statuses) {
+            names.add(status.getPath().getName());
+        }
+        return names;
+    }
+
+    private FileSystem getFileSystem(Map<String, FileSystem> fileSystems, URI uri, String user, String group,
+            Configuration conf) throws HadoopAccessorException {
+        String key = uri.getScheme() + "://" + uri.getAuthority();
+        FileSystem fs = fileSystems.get(key);
+        if (fs == null) {
+            fs = Services.get().get(HadoopAccessorService.class).createFileSystem(user, group, uri, conf);
+            fileSystems.put(key, fs);
+        }
+        return fs;
+    }
+
+    private String getKey(String user, String uri) {
+        return user + "@" + uri;
+    }
+
+    private void incr(String name) {
+        if (instrumentation != null) {
+            instrumentation.incr(INSTRUMENTATION_GROUP, name, 1);
+        }
+    }
+
+}
@@ -0,0 +1,264 @@
+/**
+ * Copyright (c) 2010 Yahoo! Inc. All rights reserved.
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License. See accompanying LICENSE file.
+ */
+package org.apache.oozie.service;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+
+import org.apache.hadoop.conf.Configuration;
+import org.apache.hadoop.util.ReflectionUtils;
+import org.apache.oozie.command.coord.CoordActionInputCheckXCommand;
+import org.apache.oozie.dependency.DependencyNotificationSource;
+import org.apache.oozie.util.Instrumentable;
+import org.apache.oozie.util.Instrumentation;
+import org.apache.oozie.util.ParamChecker;
+import org.apache.oozie.util.XLog;
+
+/**
+ * The dependency registry keeps the coordinator actions waiting for a missing dependency, the URI of a dataset
+ * instance, indexed by the URI.
+ * <p/>
+ * A URI is watched by the first {@link DependencyNotificationSource} that accepts it, when the source notifies that
+ * the URI is available the input check of all the actions waiting for it is queued right away. An action waiting for
+ * a watched URI is still checked every {@link #CONF_POLL_INTERVAL} seconds in case a notification is missed, an action
+ * waiting for a URI that no source accepts is checked as often as before.
+ * <p/>
+ * An action waits for a single URI at a time, the first missing one, as the input check stops there.
+ */
+public class DependencyRegistryService implements Service, Instrumentable {
+
+    public static final String CONF_PREFIX = Service.CONF_PREFIX + "DependencyRegistryService.";
+
+    /**
+     * Classes of the notification sources, in order of preference.
+     */
+    public static final String CONF_SOURCES = CONF_PREFIX + "sources";
+
+    /**
+     * Interval, in seconds, at which an action waiting for a watched dependency is checked anyway.
+     */
+    public static final String CONF_POLL_INTERVAL = CONF_PREFIX + "poll.interval";
+
+    private static final String INSTRUMENTATION_GROUP = "dependencies";
+
+    public static final String INSTR_REGISTERED_COUNTER = "registered";
+
+    public static final String INSTR_NOTIFIED_COUNTER = "notified";
+
+    private static XLog LOG = XLog.getLog(DependencyRegistryService.class);
+
+    private static class Waiting {
+        private final DependencyNotificationSource source;
+        private final Map<String, String> actions = new HashMap<String, String>();
+
+        private Waiting(DependencyNotificationSource source) {
+            this.source = source;
+        }
+    }
+
+    private final Map<String, Waiting> dependencies = new HashMap<String, Waiting>();
+    private final Map<String, String> actions = new HashMap<String, String>();
+    private final List<DependencyNotificationSource> sources = new ArrayList<DependencyNotificationSource>();
+    private long pollInterval;
+    private Instrumentation instrumentation;
+
+    /**
+     * Initialize the dependency registry service.
+     *
+     * @param services services instance.
+     * @throws ServiceException thrown if a notification source could not be initialized.
+     */
+    @Override
+    @SuppressWarnings("unchecked")
+    public void init(Services services) throws ServiceException {
+        Configuration conf = services.getConf();
+        pollInterval = ParamChecker.checkGTZero(conf.getInt(CONF_POLL_INTERVAL, 600), CONF_POLL_INTERVAL) * 1000L;
+        Class<? extends DependencyNotificationSource>[] classes =
+                (Class<? extends DependencyNotificationSource>[]) conf.getClasses(CONF_SOURCES);
+        if (classes != null) {
+            for (Class<? extends DependencyNotificationSource> klass : classes) {
+                DependencyNotificationSource source = ReflectionUtils.newInstance(klass, conf);
+                source.init(services, this);
+                sources.add(source);
+                LOG.info("Dependency notification source [{0}] initialized", klass.getName());
+            }
+        }
+    }
+
+    /**
+     * Destroy the dependency registry service.
+     */
+    @Override
+    public void destroy() {
+        for (DependencyNotificationSource source : sources) {
+            source.destroy();
+        }
+        sources.clear();
+        synchronized (this) {
+            dependencies.clear();
+            actions.clear();
+        }
+    }
+
+    /**
+     * Return the public interface of the dependency registry service.
+     *
+     * @return {@link DependencyRegistryService}.
+     */
+    @Override
+    public Class<? extends Service> getInterface() {
+        return DependencyRegistryService.class;
+    }
+
+    /**
+     * Instrument the dependency registry service.
+     *
+     * @param instr instance to instrument the dependency registry service to.
+     */
+    @Override
+    public void instrument(Instrumentation instr) {
+        instrumentation = instr;
+        instr.addVariable(INSTRUMENTATION_GROUP, "waiting.dependencies", new Instrumentation.Variable<Integer>() {
+            public Integer getValue() {
+                synchronized (DependencyRegistryService.this) {
+                    return dependencies.size();
+                }
+            }
+        });
+        instr.addVariable(INSTRUMENTATION_GROUP, "waiting.actions", new Instrumentation.Variable<Integer>() {
+            public Integer getValue() {
+                synchronized (DependencyRegistryService.this) {
+                    return actions.size();
+                }
+            }
+        });
+    }
+
+    /**
+     * Return the interval at which an action waiting for a watched dependency is checked anyway.
+     *
+     * @return the interval in milliseconds.
+     */
+    public long getPollInterval() {
+        return pollInterval;
+    }
+
+    /**
+     * Register a coordinator action waiting for a dependency, it replaces the previous dependency of the action.
+     *
+     * @param uri URI of the missing dataset instance, with its done flag if any.
+     * @param actionId coordinator action ID.
+     * @param user user of the coordinator action.
+     * @return if a notification source watches the dependency, if <code>false</code> the action is not registered.
+     */
+    public synchronized boolean register(String uri, String actionId, String user) {
+        ParamChecker.notEmpty(uri, "uri");
+        ParamChecker.notEmpty(actionId, "actionId");
+        ParamChecker.notEmpty(user, "user");
+        if (uri.equals(actions.get(actionId))) {
+            return true;
+        }
+        unregister(actionId);
+        Waiting waiting = dependencies.get(uri);
+        if (waiting == null) {
+            for (DependencyNotificationSource source : sources) {
+                if (source.accept(uri)) {
+                    waiting = new Waiting(source);
+                    break;
+                }
+            }
+            if (waiting == null) {
+                return false;
+            }
+            dependencies.put(uri, waiting);
+            waiting.source.watch(uri);
+        }
+        waiting.actions.put(actionId, user);
+        actions.put(actionId, uri);
+        incr(INSTR_REGISTERED_COUNTER, 1);
+        LOG.debug("Action [{0}] waits for dependency [{1}]", actionId, uri);
+        return true;
+    }
+
+    /**
+     * Unregister a coordinator action, it does nothing if the action is not registered.
+     *
+     * @param actionId coordinator action ID.
+     */
+    public synchronized void unregister(String actionId) {
+        String uri = actions.remove(actionId);
+        if (uri != null) {
+            Waiting waiting = dependencies.get(uri);
+            waiting.actions.remove(actionId);
+            if (waiting.actions.isEmpty()) {
+                dependencies.remove(uri);
+                waiting.source.unwatch(uri);
+            }
+        }
+    }
+
+    /**
+     * Return the dependency a coordinator action is registered for.
+     *
+     * @param actionId coordinator action ID.
+     * @return the URI of the dependency, <code>null</code> if the action is not registered.
+     */
+    public synchronized String getDependency(String actionId) {
+        return actions.get(actionId);
+    }
+
+    /**
+     * Notify that a dependency is available, the input check of the actions waiting for it is queued.
+     * <p/>
+     * It is called by the notification sources.
+     *
+     * @param uri URI of the dataset instance, with its done flag if any.
+     */
+    public void dependencyAvailable(String uri) {
+        Waiting waiting;
+        synchronized (this) {
+            waiting = dependencies.remove(uri);
+            if (waiting == null) {
+                return;
+            }
+            for (String actionId : waiting.actions.keySet()) {
+                actions.remove(actionId);
+            }
+        }
+        waiting.source.unwatch(uri);
+        DatasetAvailabilityService datasets = Services.get().get(DatasetAvailabilityService.class);
+        if (datasets != null) {
+            for (String user : new HashSet<String>(waiting.actions.values())) {
+                datasets.invalidate(uri, user);
+            }
+        }
+        CallableQueueService queue = Services.get().get(CallableQueueService.class);
+        for (String actionId : waiting.actions.keySet()) {
+            LOG.debug("Dependency [{0}] is available, checking action [{1}]", uri, actionId);
+            queue.queue(new CoordActionInputCheckXCommand(actionId, true));
+        }
+        incr(INSTR_NOTIFIED_COUNTER, waiting.actions.size());
+    }
+
+    private void incr(String name, int count) {
+        if (instrumentation != null) {
+            instrumentation.incr(INSTRUMENTATION_GROUP, name, count);
+        }
+    }
+
+}
@@ -48,12 +48,19 @@ public class ELService implements Service {
 
     public static final String CONF_GROUPS = CONF_PREFIX + "groups";
 
+    /**
+     * Maximum number of parsed EL expressions kept in the cache of the {@link ELEvaluator}.
+     */
+    public static final String CONF_EXPRESSION_CACHE_SIZE = CONF_PREFIX + "expression.cache.size";
+
     private final XLog log = XLog.getLog(getClass());
 
     //<Group Name>, <List of constants>
     private HashMap<String, List<ELConstant>> constants;
     //<Group Name>, <List of functions>
     private HashMap<String, List<ELFunction>> functions;
+    //<Group Name>, <Context with the constants and functions of the group>
+    private HashMap<String, ELEvaluator.Context> contexts;
 
     private static class ELConstant {
         private String name;
@@ -112,9 +119,12 @@ public class ELService implements Service {
      */
     @Override
     public synchronized void init(Services services) throws ServiceException {
+        ELEvaluator.setExpressionCacheSize(services.getConf().getInt(CONF_EXPRESSION_CACHE_SIZE,
+                                                                     ELEvaluator.DEFAULT_EXPRESSION_CACHE_SIZE));
         log.trace("Constants and functions registration");
         constants = new HashMap<String, List<ELConstant>>();
         functions = new HashMap<String, List<ELFunction>>();
+        contexts = new HashMap<String, ELEvaluator.Context>();
         //Get the list of group names from configuration file
         // defined in the property tag: oozie.service.ELSerice.groups
         //String []groupList = services.getConf().get(CONF_GROUPS, "").trim().split(",");
@@ -130,6 +140,15 @@ public class ELService implements Service {
             tmpFunctions.addAll(extractFunctions(services.getConf(), CONF_FUNCTIONS + group));
             tmpFunctions.addAll(extractFunctions(services.getConf(), CONF_EXT_FUNCTIONS + group));
             functions.put(group, tmpFunctions);
+            //the context of the group is shared by the evaluators of the group
+            ELEvaluator.Context context = new ELEvaluator.Context();
+            for (ELConstant constant : tmpConstants) {
+                context.setVariable(constant.name, constant.value);
+            }
+            for (ELFunction function : tmpFunctions) {
+                context.addFunction(function.prefix, function.name, function.method);
+            }
+            contexts.put(group, context);
         }
     }
 
@@ -140,6 +159,7 @@ public class ELService implements Service {
     public void destroy() {
         constants = null;
         functions = null;
+        contexts = null;
     }
 
     /**
@@ -156,29 +176,19 @@ public class ELService implements Service {
      * Return an {@link ELEvaluator} pre-configured with the constants and functions for the specific group of
      * EL-functions and variables defined in the configuration. If the group name doesn't exist,
      * IllegalArgumentException is thrown
+     * <p/>
+     * The constants and functions of the group are not copied, the context of the evaluator is layered on a context of
+     * the group built when the service is initialized.
      *
      * @param group: Name of the group of required EL Evaluator.
      * @return a preconfigured {@link ELEvaluator}.
      */
     public ELEvaluator createEvaluator(String group) {
-        ELEvaluator.Context context = new ELEvaluator.Context();
-        boolean groupDefined = false;
-        if (constants.containsKey(group)) {
-            for (ELConstant constant : constants.get(group)) {
-                context.setVariable(constant.name, constant.value);
-            }
-            groupDefined = true;
-        }
-        if (functions.containsKey(group)) {
-            for (ELFunction function : functions.get(group)) {
-                context.addFunction(function.prefix, function.name, function.method);
-            }
-            groupDefined = true;
-        }
-        if (groupDefined == false) {
+        ELEvaluator.Context context = contexts.get(group);
+        if (context == null) {
             throw new IllegalArgumentException("Group " + group + " is not defined");
         }
-        return new ELEvaluator(context);
+        return new ELEvaluator(new ELEvaluator.Context(context));
     }
 
     private static String[] parseDefinition(String str) throws ServiceException {
@@ -15,8 +15,15 @@
 package org.apache.oozie.service;
 
 import java.io.IOException;
+import java.sql.Connection;
+import java.sql.DatabaseMetaData;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
 import java.text.MessageFormat;
+import java.util.HashSet;
 import java.util.Properties;
+import java.util.Set;
 
 import javax.persistence.EntityManager;
 import javax.persistence.EntityManagerFactory;
@@ -29,6 +36,7 @@ import org.apache.oozie.CoordinatorActionBean;
 import org.apache.oozie.CoordinatorJobBean;
 import org.apache.oozie.ErrorCode;
 import org.apache.oozie.FaultInjection;
+import org.apache.oozie.LockLeaseBean;
 import org.apache.oozie.SLAEventBean;
 import org.apache.oozie.WorkflowActionBean;
 import org.apache.oozie.WorkflowJobBean;
@@ -45,6 +53,7 @@ import org.apache.oozie.util.Instrumentable;
 import org.apache.oozie.util.Instrumentation;
 import org.apache.oozie.util.XLog;
 import org.apache.openjpa.persistence.OpenJPAEntityManagerFactorySPI;
+import org.apache.openjpa.persistence.OpenJPAPersistence;
 
 /**
  * Service that manages JPA and executes {@link JPAExecutor}.
@@ -62,6 +71,24 @@ public class JPAService implements Service, Instrumentable {
     public static final String CONF_MAX_ACTIVE_CONN = CONF_PREFIX + "pool.max.active.conn";
     public static final String CONF_CREATE_DB_SCHEMA = CONF_PREFIX + "create.db.schema";
     public static final String CONF_VALIDATE_DB_CONN = CONF_PREFIX + "validate.db.connection";
+    public static final String CONF_BATCH_LIMIT = CONF_PREFIX + "batch.limit";
+
+    private static final String INSTR_COMMITS_COUNTER = "commits";
+
+    /**
+     * Multi-column indexes for the jobs listings paged by continuation, newest first. OpenJPA mappings can only declare
+     * single column indexes, these are created with DDL. The columns are descending because some databases, Derby
+     * among them, do not scan an index backwards. Each entry is the index name, the table and the indexed columns.
+     * <p/>
+     * The indexes are created only if {@link #CONF_CREATE_DB_SCHEMA} is true, the same DDL is documented in the
+     * installation guide for databases whose schema is created by hand. Keep both in sync.
+     */
+    private static final String[][] INDEXES = {
+        {"I_WF_JOBS_CREATED_ID", "WF_JOBS", "created_time DESC, id DESC"},
+        {"I_WF_JOBS_USER_CREATED", "WF_JOBS", "user_name, created_time DESC, id DESC"},
+        {"I_WF_JOBS_STATUS_CREATED", "WF_JOBS", "status, created_time DESC, id DESC"},
+        {"I_COORD_JOBS_USER_CREATED", "COORD_JOBS", "user_name, created_time DESC, id DESC"},
+        {"I_COORD_JOBS_STATUS_CREATED", "COORD_JOBS", "status, created_time DESC, id DESC"}};
 
     private EntityManagerFactory factory;
     private Instrumentation instr;
@@ -98,6 +125,7 @@ public class JPAService implements Service, Instrumentable {
         String maxConn = conf.get(CONF_MAX_ACTIVE_CONN, "10").trim();
         boolean autoSchemaCreation = conf.getBoolean(CONF_CREATE_DB_SCHEMA, true);
         boolean validateDbConn = conf.getBoolean(CONF_VALIDATE_DB_CONN, false);
+        int batchLimit = conf.getInt(CONF_BATCH_LIMIT, 50);
 
         if (!url.startsWith("jdbc:")) {
             throw new ServiceException(ErrorCode.E0608, url, "invalid JDBC URL, must start with 'jdbc:'");
@@ -133,6 +161,8 @@ public class JPAService implements Service, Instrumentable {
             connProps = MessageFormat.format(connProps, dbSchema);
         }
         props.setProperty("openjpa.ConnectionProperties", connProps);
+        // -1 lets the DB dictionary use its default batch size, 0 disables JDBC batching
+        props.setProperty("openjpa.jdbc.DBDictionary", "batchLimit=" + batchLimit);
 
         factory = Persistence.createEntityManagerFactory(persistentUnit, props);
 
@@ -150,6 +180,7 @@ public class JPAService implements Service, Instrumentable {
         entityManager.find(BundleJobBean.class, 1);
         entityManager.find(JsonBundleJob.class, 1);
         entityManager.find(BundleActionBean.class, 1);
+        entityManager.find(LockLeaseBean.class, 1);
 
         LOG.info(XLog.STD, "All entities initialized");
         // need to use a pseudo no-op transaction so all entities, datasource
@@ -159,6 +190,103 @@ public class JPAService implements Service, Instrumentable {
         LOG.info("JPA configuration: {0}", spi.getConfiguration().getConnectionProperties());
         entityManager.getTransaction().commit();
         entityManager.close();
+
+        if (autoSchemaCreation) {
+            createIndexes();
+        }
+    }
+
+    /**
+     * Create the {@link #INDEXES} that do not exist yet. A failure is logged, the listings work without the indexes.
+     * <p/>
+     * Each index is created in auto-commit mode, outside of a transaction, so a failed DDL statement does not affect
+     * the others. Table names are looked up in the case the database stores identifiers in and index names are
+     * compared ignoring case, databases like PostgreSQL fold unquoted identifiers to lower case.
+     */
+    private void createIndexes() {
+        EntityManager entityManager = getEntityManager();
+        try {
+            Connection conn = (Connection) OpenJPAPersistence.cast(entityManager).getConnection();
+            try {
+                boolean autoCommit = conn.getAutoCommit();
+                conn.setAutoCommit(true);
+                try {
+                    Set<String> existing = getIndexNames(conn, "WF_JOBS", "COORD_JOBS");
+                    for (String[] index : INDEXES) {
+                        if (!existing.contains(index[0])) {
+                            createIndex(conn, index);
+                        }
+                    }
+                }
+                finally {
+                    conn.setAutoCommit(autoCommit);
+                }
+            }
+            finally {
+                conn.close();
+            }
+        }
+        catch (SQLException ex) {
+            LOG.warn("Could not check the jobs indexes, {0}", ex.getMessage(), ex);
+        }
+        finally {
+            entityManager.close();
+        }
+    }
+
+    /**
+     * Return the upper case names of the indexes of the given tables.
+     *
+     * @param conn connection to read the database metadata with.
+     * @param tables tables to read the indexes of.
+     * @return the upper case index names.
+     * @throws SQLException thrown if the metadata could not be read.
+     */
+    private static Set<String> getIndexNames(Connection conn, String... tables) throws SQLException {
+        DatabaseMetaData metaData = conn.getMetaData();
+        Set<String> names = new HashSet<String>();
+        for (String table : tables) {
+            if (metaData.storesLowerCaseIdentifiers()) {
+                table = table.toLowerCase();
+            }
+            else if (metaData.storesUpperCaseIdentifiers()) {
+                table = table.toUpperCase();
+            }
+            ResultSet rs = metaData.getIndexInfo(null, null, table, false, true);
+            try {
+                while (rs.next()) {
+                    if (rs.getString("INDEX_NAME") != null) {
+                        names.add(rs.getString("INDEX_NAME").toUpperCase());
+                    }
+                }
+            }
+            finally {
+                rs.close();
+            }
+        }
+        return names;
+    }
+
+    /**
+     * Create an index, a failure is logged.
+     *
+     * @param conn auto-commit connection to run the DDL statement with.
+     * @param index the index name, the table and the indexed columns.
+     * @throws SQLException thrown if a statement could not be created.
+     */
+    private static void createIndex(Connection conn, String[] index) throws SQLException {
+        Statement st = conn.createStatement();
+        try {
+            st.executeUpdate("CREATE INDEX " + index[0] + " ON " + index[1] + " (" + index[2] + ")");
+            LOG.info("Created index [{0}] on [{1}] ({2})", index[0], index[1], index[2]);
+        }
+        catch (SQLException ex) {
+            LOG.warn("Could not create index [{0}] on [{1}] ({2}), {3}", index[0], index[1], index[2],
+                     ex.getMessage());
+        }
+        finally {
+            st.close();
+        }
     }
 
     /**
@@ -193,7 +321,12 @@ public class JPAService implements Service, Instrumentable {
                     throw new RuntimeException("Skipping Commit for Failover Testing");
                 }
 
+                // the transaction is not committed if the thread lost the lease of a lock it holds
+                DBLocksService.checkLeases();
                 em.getTransaction().commit();
+                if (instr != null) {
+                    instr.incr(INSTRUMENTATION_GROUP, INSTR_COMMITS_COUNTER, 1);
+                }
             }
             return t;
         }
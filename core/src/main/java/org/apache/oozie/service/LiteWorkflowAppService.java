@@ -15,19 +15,87 @@
 package org.apache.oozie.service;
 
 import org.apache.hadoop.conf.Configuration;
+import org.apache.hadoop.fs.FileStatus;
+import org.apache.oozie.ErrorCode;
+import org.apache.oozie.WorkflowJobBean;
 import org.apache.oozie.client.OozieClient;
+import org.apache.oozie.executor.jpa.JPAExecutorException;
+import org.apache.oozie.executor.jpa.WorkflowAppDefGetJPAExecutor;
 import org.apache.oozie.workflow.WorkflowApp;
 import org.apache.oozie.workflow.WorkflowException;
 import org.apache.oozie.workflow.WorkflowLib;
+import org.apache.oozie.workflow.lite.LiteWorkflowApp;
 import org.apache.oozie.service.Services;
+import org.apache.oozie.util.BoundedCache;
+import org.apache.oozie.util.IOUtils;
+import org.apache.oozie.util.Instrumentable;
+import org.apache.oozie.util.Instrumentation;
 import org.apache.oozie.util.ParamChecker;
 
+import java.io.IOException;
+import java.io.UnsupportedEncodingException;
+
 /**
  * Service that provides workflow application definition reading, parsing and creating proto configuration.
+ * <p/>
+ * Parsed workflow applications are immutable, they are cached by their content hash. The cache is bounded by the
+ * total length of the cached definitions and the least recently used applications are evicted first. A definition is
+ * found in the cache by the hash of its XML, by its path and modification time, or by the hash of the application
+ * referenced by a workflow instance.
  */
-public class LiteWorkflowAppService extends WorkflowAppService {
+public class LiteWorkflowAppService extends WorkflowAppService implements Instrumentable {
+
+    public static final String CONF_DEFS_CACHE_SIZE = CONF_PREFIX + "defs.cache.size";
+
+    public static final String CONF_DEFS_CACHE_KEYS = CONF_PREFIX + "defs.cache.keys";
+
+    private static final String INSTRUMENTATION_GROUP = "workflow.defs";
+
+    public static final String INSTR_HITS_COUNTER = "cache.hits";
+
+    public static final String INSTR_PATH_HITS_COUNTER = "cache.path.hits";
+
+    public static final String INSTR_MISSES_COUNTER = "cache.misses";
+
+    private BoundedCache<String, LiteWorkflowApp> defs;
+    private BoundedCache<String, String> keys;
+    private Instrumentation instrumentation;
+
+    /**
+     * Initialize the workflow application service and its definitions cache.
+     *
+     * @param services services instance.
+     */
+    @Override
+    public void init(Services services) {
+        super.init(services);
+        defs = new BoundedCache<String, LiteWorkflowApp>(services.getConf().getLong(CONF_DEFS_CACHE_SIZE, 4194304));
+        keys = new BoundedCache<String, String>(services.getConf().getInt(CONF_DEFS_CACHE_KEYS, 10000));
+    }
+
+    /**
+     * Instrument the workflow application service.
+     *
+     * @param instr instance to instrument the workflow application service to.
+     */
+    public void instrument(Instrumentation instr) {
+        instrumentation = instr;
+        instr.addVariable(INSTRUMENTATION_GROUP, "cache.count", new Instrumentation.Variable<Integer>() {
+            public Integer getValue() {
+                return defs.getCount();
+            }
+        });
+        instr.addVariable(INSTRUMENTATION_GROUP, "cache.size", new Instrumentation.Variable<Long>() {
+            public Long getValue() {
+                return defs.getSize();
+            }
+        });
+    }
+
     /**
      * Parse workflow definition.
+     * <p/>
+     * If the definition of the same user, path and modification time has been parsed it is not read again.
      *
      * @param jobConf workflow job configuration.
      * @param authToken authorization token.
@@ -37,12 +105,120 @@ public class LiteWorkflowAppService extends WorkflowAppService {
         String appPath = ParamChecker.notEmpty(jobConf.get(OozieClient.APP_PATH), OozieClient.APP_PATH);
         String user = ParamChecker.notEmpty(jobConf.get(OozieClient.USER_NAME), OozieClient.USER_NAME);
         String group = ParamChecker.notEmpty(jobConf.get(OozieClient.GROUP_NAME), OozieClient.GROUP_NAME);
+        if (defs.getMaxSize() > 0) {
+            FileStatus status = getDefinitionStatus(appPath, user, group, authToken);
+            String pathKey = user + "@" + appPath + "#" + status.getModificationTime() + "#" + status.getLen();
+            LiteWorkflowApp app = getCached(keys.get(pathKey));
+            if (app != null) {
+                incr(INSTR_PATH_HITS_COUNTER);
+                return app;
+            }
+            app = (LiteWorkflowApp) parseDef(readDefinition(appPath, user, group, authToken));
+            keys.put(pathKey, app.getHash(), 1);
+            return app;
+        }
         String workflowXml = readDefinition(appPath, user, group, authToken);
         return parseDef(workflowXml);
     }
 
+    /**
+     * Parse workflow definition, an application parsed from the same XML is returned from the cache.
+     *
+     * @param workflowXml workflow definition.
+     * @return workflow application.
+     */
     public WorkflowApp parseDef(String workflowXml) throws WorkflowException {
+        String xmlKey = null;
+        if (defs.getMaxSize() > 0) {
+            ParamChecker.notEmpty(workflowXml, "workflowXml");
+            try {
+                xmlKey = IOUtils.getSHA1(workflowXml.getBytes("UTF-8"));
+            }
+            catch (UnsupportedEncodingException ex) {
+                throw new RuntimeException(ex);
+            }
+            LiteWorkflowApp app = getCached(keys.get(xmlKey));
+            if (app != null) {
+                incr(INSTR_HITS_COUNTER);
+                return app;
+            }
+        }
+        incr(INSTR_MISSES_COUNTER);
         WorkflowLib workflowLib = Services.get().get(WorkflowStoreService.class).getWorkflowLibWithNoDB();
-        return workflowLib.parseDef(workflowXml);
+        LiteWorkflowApp app = (LiteWorkflowApp) workflowLib.parseDef(workflowXml);
+        if (xmlKey != null) {
+            cache(app);
+            keys.put(xmlKey, app.getHash(), 1);
+        }
+        return app;
+    }
+
+    /**
+     * Return the workflow application with the given content hash, from the cache or from the WF_APP_DEFS table.
+     *
+     * @param hash content hash of the workflow application.
+     * @return workflow application.
+     * @throws WorkflowException thrown if the workflow application could not be loaded.
+     */
+    public LiteWorkflowApp getDef(String hash) throws WorkflowException {
+        ParamChecker.notEmpty(hash, "hash");
+        LiteWorkflowApp app = getCached(hash);
+        if (app != null) {
+            incr(INSTR_HITS_COUNTER);
+            return app;
+        }
+        incr(INSTR_MISSES_COUNTER);
+        JPAService jpaService = Services.get().get(JPAService.class);
+        if (jpaService == null) {
+            throw new WorkflowException(ErrorCode.E0610);
+        }
+        try {
+            app = jpaService.execute(new WorkflowAppDefGetJPAExecutor(hash)).getApp();
+        }
+        catch (JPAExecutorException ex) {
+            throw new WorkflowException(ex);
+        }
+        cache(app);
+        return app;
+    }
+
+    /**
+     * Resolve the workflow instance of a job written in the compact format, with the job configuration and the
+     * workflow application the instance references. Nothing is done if the instance does not need to be resolved.
+     *
+     * @param job workflow job loaded from the database.
+     * @throws WorkflowException thrown if the workflow application could not be loaded or the job configuration could
+     * not be parsed.
+     */
+    public void resolveWorkflowInstance(WorkflowJobBean job) throws WorkflowException {
+        ParamChecker.notNull(job, "job");
+        if (job.isWorkflowInstanceResolved()) {
+            return;
+        }
+        try {
+            LiteWorkflowApp app = getDef(job.getAppHash());
+            Configuration conf = Services.get().get(ConfigurationCacheService.class).parse(job.getConf());
+            job.resolveWorkflowInstance(conf, app);
+        }
+        catch (WorkflowException ex) {
+            throw new WorkflowException(ErrorCode.E0729, job.getId(), job.getAppHash(), ex.getMessage(), ex);
+        }
+        catch (IOException ex) {
+            throw new WorkflowException(ErrorCode.E0729, job.getId(), job.getAppHash(), ex.getMessage(), ex);
+        }
+    }
+
+    private LiteWorkflowApp getCached(String hash) {
+        return (hash != null) ? defs.get(hash) : null;
+    }
+
+    private void cache(LiteWorkflowApp app) {
+        defs.put(app.getHash(), app, app.getDefinition().length());
+    }
+
+    private void incr(String name) {
+        if (instrumentation != null) {
+            instrumentation.incr(INSTRUMENTATION_GROUP, name, 1);
+        }
     }
 }
@@ -57,6 +57,7 @@ public class MemoryLocksService implements Service, Instrumentable {
      */
     public void instrument(Instrumentation instr) {
         final MemoryLocks finalLocks = this.locks;
+        finalLocks.setInstrumentation(instr);
         instr.addVariable(INSTRUMENTATION_GROUP, "locks", new Instrumentation.Variable<Long>() {
             public Long getValue() {
                 return (long) finalLocks.size();
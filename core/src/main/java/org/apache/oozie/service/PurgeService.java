@@ -39,7 +39,14 @@ public class PurgeService implements Service {
      * Time interval, in seconds, at which the purge jobs service will be scheduled to run.
      */
     public static final String CONF_PURGE_INTERVAL = CONF_PREFIX + "purge.interval";
+    /**
+     * Number of jobs purged per transaction.
+     */
     private static final String COORD_PURGE_LIMIT = CONF_PREFIX + "coord.purge.limit";
+    /**
+     * Maximum number of chunks of jobs deleted by a purge run, the remaining jobs are deleted by the next runs.
+     */
+    public static final String CONF_PURGE_MAX_CHUNKS = CONF_PREFIX + "purge.max.chunks";
 
     private static boolean useXCommand = true;
 
@@ -16,7 +16,10 @@ package org.apache.oozie.service;
 
 import java.util.ArrayList;
 import java.util.Date;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 
 import org.apache.hadoop.conf.Configuration;
 import org.apache.oozie.CoordinatorActionBean;
@@ -37,16 +40,21 @@ import org.apache.oozie.command.wf.ActionStartCommand;
 import org.apache.oozie.command.wf.ActionStartXCommand;
 import org.apache.oozie.command.wf.SignalCommand;
 import org.apache.oozie.command.wf.SignalXCommand;
-import org.apache.oozie.store.CoordinatorStore;
-import org.apache.oozie.store.Store;
-import org.apache.oozie.store.StoreException;
-import org.apache.oozie.store.WorkflowStore;
+import org.apache.oozie.executor.jpa.CoordActionsGetForRecoveryJPAExecutor;
+import org.apache.oozie.executor.jpa.CoordActionsGetReadyGroupByJobIdJPAExecutor;
+import org.apache.oozie.executor.jpa.CoordJobsGetOlderThanStatusJPAExecutor;
+import org.apache.oozie.executor.jpa.CoordJobsGetUserJPAExecutor;
+import org.apache.oozie.executor.jpa.JPAExecutorException;
+import org.apache.oozie.executor.jpa.WorkflowActionsGetPendingJPAExecutor;
 import org.apache.oozie.util.XCallable;
 import org.apache.oozie.util.XLog;
 
 /**
  * The Recovery Service checks for pending actions and premater coordinator jobs older than a configured age and then
  * queues them for execution.
+ * <p/>
+ * The candidates are read in pages of {@link #CONF_PAGE_SIZE} rows, each page starting after the last row of the
+ * previous one. A recovery pass stops reading when the callable queue is filled over {@link #CONF_QUEUE_THRESHOLD}.
  */
 public class RecoveryService implements Service {
 
@@ -69,11 +77,20 @@ public class RecoveryService implements Service {
      * Age of coordinator jobs to recover, in seconds.
      */
     public static final String CONF_COORD_OLDER_THAN = CONF_PREFIX_COORD + "older.than";
+    /**
+     * Number of candidates read from the database at once.
+     */
+    public static final String CONF_PAGE_SIZE = CONF_PREFIX + "page.size";
+    /**
+     * Percentage of the callable queue size over which a recovery pass stops queuing commands.
+     */
+    public static final String CONF_QUEUE_THRESHOLD = CONF_PREFIX + "queue.threshold";
 
     private static final String INSTRUMENTATION_GROUP = "recovery";
     private static final String INSTR_RECOVERED_ACTIONS_COUNTER = "actions";
     private static final String INSTR_RECOVERED_COORD_JOBS_COUNTER = "coord_jobs";
     private static final String INSTR_RECOVERED_COORD_ACTIONS_COUNTER = "coord_actions";
+    private static final String INSTR_THROTTLED_COUNTER = "throttled";
 
     private static boolean useXCommand = true;
 
@@ -81,9 +98,12 @@ public class RecoveryService implements Service {
      * RecoveryRunnable is the Runnable which is scheduled to run with the configured interval, and takes care of the
      * queuing of commands.
      */
-    static class RecoveryRunnable<S extends Store> implements Runnable {
+    static class RecoveryRunnable implements Runnable {
         private long olderThan;
         private long coordOlderThan;
+        private int pageSize;
+        private int queueThreshold;
+        private boolean throttled;
         private long delay = 0;
         private List<XCallable<Void>> callables;
         private List<XCallable<Void>> delayedCallables;
@@ -98,6 +118,11 @@ public class RecoveryService implements Service {
             XLog.Info.get().clear();
             XLog log = XLog.getLog(getClass());
             msg = new StringBuilder();
+            Configuration conf = Services.get().getConf();
+            pageSize = conf.getInt(CONF_PAGE_SIZE, 500);
+            queueThreshold = conf.getInt(CallableQueueService.CONF_QUEUE_SIZE, 10000)
+                    * conf.getInt(CONF_QUEUE_THRESHOLD, 50) / 100;
+            throttled = false;
             runWFRecovery();
             runCoordJobRecovery();
             runCoordActionRecovery();
@@ -125,6 +150,27 @@ public class RecoveryService implements Service {
             }
         }
 
+        /**
+         * Return if the recovery pass must stop because the callable queue is filled over the
+         * {@link RecoveryService#CONF_QUEUE_THRESHOLD}. The check is done before reading each page of candidates, what
+         * is not recovered in this pass is recovered by a later pass.
+         *
+         * @return if the recovery pass must stop.
+         */
+        private boolean isThrottled() {
+            if (!throttled) {
+                CallableQueueService callableQueueService = Services.get().get(CallableQueueService.class);
+                if (callableQueueService.queueSize() >= queueThreshold) {
+                    XLog.getLog(getClass()).info("Callable queue size [{0}] over threshold [{1}], stopping recovery pass",
+                            callableQueueService.queueSize(), queueThreshold);
+                    Services.get().get(InstrumentationService.class).get().incr(INSTRUMENTATION_GROUP,
+                            INSTR_THROTTLED_COUNTER, 1);
+                    throttled = true;
+                }
+            }
+            return throttled;
+        }
+
         /**
          * Recover coordinator jobs that are running and have lastModifiedTimestamp older than the specified interval
          */
@@ -132,61 +178,45 @@ public class RecoveryService implements Service {
             XLog.Info.get().clear();
             XLog log = XLog.getLog(getClass());
 
-            CoordinatorStore store = null;
+            JPAService jpaService = Services.get().get(JPAService.class);
+            Date olderThanDate = new Date(System.currentTimeMillis() - coordOlderThan * 1000);
+            int count = 0;
             try {
-                store = Services.get().get(StoreService.class).getStore(CoordinatorStore.class);
-                store.beginTrx();
-
-                // get list of all jobs that have lastModifiedTimestamp older
-                // than the specified interval
-                List<CoordinatorJobBean> jobs = store.getCoordinatorJobsOlderThanStatus(coordOlderThan,
-                                                                                        CoordinatorJob.Status.PREMATER.toString(), 50, false);
-                //log.debug("QUEUING[{0}] PREMATER coord jobs for potential recovery", jobs.size());
-                msg.append(", COORD_JOBS : " + jobs.size());
-                for (CoordinatorJobBean coordJob : jobs) {
-                    Services.get().get(InstrumentationService.class).get().incr(INSTRUMENTATION_GROUP,
-                                                                                INSTR_RECOVERED_COORD_JOBS_COUNTER, 1);
-                    if (useXCommand) {
-                        queueCallable(new CoordRecoveryXCommand(coordJob.getId()));
-                    } else {
-                        queueCallable(new CoordRecoveryCommand(coordJob.getId()));
-                    }
-                }
-
-                store.commitTrx();
-            }
-            catch (StoreException ex) {
-                if (store != null) {
-                    store.rollbackTrx();
-                }
-                log.warn("Exception while accessing the store", ex);
-            }
-            catch (Exception ex) {
-                log.error("Exception, {0}", ex.getMessage(), ex);
-                if (store != null && store.isActive()) {
-                    try {
-                        store.rollbackTrx();
+                List<CoordinatorJobBean> jobs = null;
+                while (!isThrottled()) {
+                    // get a page of the jobs that have lastModifiedTimestamp older than the specified interval
+                    if (jobs == null) {
+                        jobs = jpaService.execute(new CoordJobsGetOlderThanStatusJPAExecutor(
+                                CoordinatorJob.Status.PREMATER, olderThanDate, pageSize));
                     }
-                    catch (RuntimeException rex) {
-                        log.warn("openjpa error, {0}", rex.getMessage(), rex);
+                    else {
+                        CoordinatorJobBean last = jobs.get(jobs.size() - 1);
+                        jobs = jpaService.execute(new CoordJobsGetOlderThanStatusJPAExecutor(
+                                CoordinatorJob.Status.PREMATER, olderThanDate, last.getLastModifiedTime(),
+                                last.getId(), pageSize));
                     }
-                }
-            }
-            finally {
-                if (store != null) {
-                    if (!store.isActive()) {
-                        try {
-                            store.closeTrx();
-                        }
-                        catch (RuntimeException rex) {
-                            log.warn("Exception while attempting to close store", rex);
+                    for (CoordinatorJobBean coordJob : jobs) {
+                        Services.get().get(InstrumentationService.class).get().incr(INSTRUMENTATION_GROUP,
+                                                                                    INSTR_RECOVERED_COORD_JOBS_COUNTER, 1);
+                        if (useXCommand) {
+                            queueCallable(new CoordRecoveryXCommand(coordJob.getId()));
+                        } else {
+                            queueCallable(new CoordRecoveryCommand(coordJob.getId()));
                         }
                     }
-                    else {
-                        log.warn("transaction is not committed or rolled back before closing entitymanager.");
+                    count += jobs.size();
+                    if (jobs.size() < pageSize) {
+                        break;
                     }
                 }
             }
+            catch (JPAExecutorException ex) {
+                log.warn("Exception while reading PREMATER coordinator jobs", ex);
+            }
+            catch (Exception ex) {
+                log.error("Exception, {0}", ex.getMessage(), ex);
+            }
+            msg.append(", COORD_JOBS : " + count);
         }
 
         /**
@@ -196,75 +226,77 @@ public class RecoveryService implements Service {
             XLog.Info.get().clear();
             XLog log = XLog.getLog(getClass());
 
-            CoordinatorStore store = null;
+            JPAService jpaService = Services.get().get(JPAService.class);
+            Date olderThanDate = new Date(System.currentTimeMillis() - coordOlderThan * 1000);
+            int count = 0;
             try {
-                store = Services.get().get(StoreService.class).getStore(CoordinatorStore.class);
-                store.beginTrx();
-
-                List<CoordinatorActionBean> cactions = store.getRecoveryActionsOlderThan(coordOlderThan, false);
-                //log.debug("QUEUING[{0}] WAITING and SUBMITTED coord actions for potential recovery", cactions.size());
-                msg.append(", COORD_ACTIONS : " + cactions.size());
-                for (CoordinatorActionBean caction : cactions) {
-                    Services.get().get(InstrumentationService.class).get().incr(INSTRUMENTATION_GROUP,
-                                                                                INSTR_RECOVERED_COORD_ACTIONS_COUNTER, 1);
-                    if (caction.getStatus() == CoordinatorActionBean.Status.WAITING) {
-                        if (useXCommand) {
-                            queueCallable(new CoordActionInputCheckXCommand(caction.getId()));
-                        } else {
-                            queueCallable(new CoordActionInputCheckCommand(caction.getId()));
-                        }
-
-                        log.info("Recover a WAITTING coord action :" + caction.getId());
+                List<CoordinatorActionBean> cactions = null;
+                while (!isThrottled()) {
+                    if (cactions == null) {
+                        cactions = jpaService.execute(new CoordActionsGetForRecoveryJPAExecutor(olderThanDate,
+                                pageSize));
                     }
                     else {
+                        CoordinatorActionBean last = cactions.get(cactions.size() - 1);
+                        cactions = jpaService.execute(new CoordActionsGetForRecoveryJPAExecutor(olderThanDate, last
+                                .getLastModifiedTime(), last.getId(), pageSize));
+                    }
+
+                    // the jobs of the SUBMITTED actions of the page are read at once
+                    Set<String> jobIds = new HashSet<String>();
+                    for (CoordinatorActionBean caction : cactions) {
                         if (caction.getStatus() == CoordinatorActionBean.Status.SUBMITTED) {
-                            CoordinatorJobBean coordJob = store.getCoordinatorJob(caction.getJobId(), false);
+                            jobIds.add(caction.getJobId());
+                        }
+                    }
+                    Map<String, CoordinatorJobBean> coordJobs = jpaService.execute(new CoordJobsGetUserJPAExecutor(
+                            jobIds));
+
+                    for (CoordinatorActionBean caction : cactions) {
+                        Services.get().get(InstrumentationService.class).get().incr(INSTRUMENTATION_GROUP,
+                                                                                    INSTR_RECOVERED_COORD_ACTIONS_COUNTER, 1);
+                        if (caction.getStatus() == CoordinatorActionBean.Status.WAITING) {
                             if (useXCommand) {
-                                queueCallable(new CoordActionStartXCommand(caction.getId(), coordJob.getUser(), coordJob
-                                        .getAuthToken()));
+                                queueCallable(new CoordActionInputCheckXCommand(caction.getId()));
                             } else {
-                                queueCallable(new CoordActionStartCommand(caction.getId(), coordJob.getUser(), coordJob
-                                        .getAuthToken()));
+                                queueCallable(new CoordActionInputCheckCommand(caction.getId()));
                             }
 
-                            log.info("Recover a SUBMITTED coord action :" + caction.getId());
+                            log.info("Recover a WAITTING coord action :" + caction.getId());
+                        }
+                        else {
+                            if (caction.getStatus() == CoordinatorActionBean.Status.SUBMITTED) {
+                                CoordinatorJobBean coordJob = coordJobs.get(caction.getJobId());
+                                if (coordJob == null) {
+                                    log.warn("Coordinator job [{0}] of SUBMITTED coord action [{1}] not found",
+                                            caction.getJobId(), caction.getId());
+                                    continue;
+                                }
+                                if (useXCommand) {
+                                    queueCallable(new CoordActionStartXCommand(caction.getId(), coordJob.getUser(),
+                                            coordJob.getAuthToken()));
+                                } else {
+                                    queueCallable(new CoordActionStartCommand(caction.getId(), coordJob.getUser(),
+                                            coordJob.getAuthToken()));
+                                }
+
+                                log.info("Recover a SUBMITTED coord action :" + caction.getId());
+                            }
                         }
                     }
+                    count += cactions.size();
+                    if (cactions.size() < pageSize) {
+                        break;
+                    }
                 }
-                store.commitTrx();
             }
-            catch (StoreException ex) {
-                if (store != null) {
-                    store.rollbackTrx();
-                }
-                log.warn("Exception while accessing the store", ex);
+            catch (JPAExecutorException ex) {
+                log.warn("Exception while reading WAITING and SUBMITTED coordinator actions", ex);
             }
             catch (Exception ex) {
                 log.error("Exception, {0}", ex.getMessage(), ex);
-                if (store != null && store.isActive()) {
-                    try {
-                        store.rollbackTrx();
-                    }
-                    catch (RuntimeException rex) {
-                        log.warn("openjpa error, {0}", rex.getMessage(), rex);
-                    }
-                }
-            }
-            finally {
-                if (store != null) {
-                    if (!store.isActive()) {
-                        try {
-                            store.closeTrx();
-                        }
-                        catch (RuntimeException rex) {
-                            log.warn("Exception while attempting to close store", rex);
-                        }
-                    }
-                    else {
-                        log.warn("transaction is not committed or rolled back before closing entitymanager.");
-                    }
-                }
             }
+            msg.append(", COORD_ACTIONS : " + count);
         }
 
         /**
@@ -274,56 +306,42 @@ public class RecoveryService implements Service {
             XLog.Info.get().clear();
             XLog log = XLog.getLog(getClass());
 
-            CoordinatorStore store = null;
+            JPAService jpaService = Services.get().get(JPAService.class);
+            Date olderThanDate = new Date(System.currentTimeMillis() - coordOlderThan * 1000);
+            int count = 0;
             try {
-                store = Services.get().get(StoreService.class).getStore(CoordinatorStore.class);
-                store.beginTrx();
-                List<String> jobids = store.getRecoveryActionsGroupByJobId(coordOlderThan);
-                //log.debug("QUEUING[{0}] READY coord jobs for potential recovery", jobids.size());
-                msg.append(", COORD_READY_JOBS : " + jobids.size());
-                for (String jobid : jobids) {
-                    if (useXCommand) {
-                        queueCallable(new CoordActionReadyXCommand(jobid));
-                    } else {
-                        queueCallable(new CoordActionReadyCommand(jobid));
+                List<String> jobids = null;
+                while (!isThrottled()) {
+                    if (jobids == null) {
+                        jobids = jpaService.execute(new CoordActionsGetReadyGroupByJobIdJPAExecutor(olderThanDate,
+                                pageSize));
+                    }
+                    else {
+                        jobids = jpaService.execute(new CoordActionsGetReadyGroupByJobIdJPAExecutor(olderThanDate,
+                                jobids.get(jobids.size() - 1), pageSize));
                     }
+                    for (String jobid : jobids) {
+                        if (useXCommand) {
+                            queueCallable(new CoordActionReadyXCommand(jobid));
+                        } else {
+                            queueCallable(new CoordActionReadyCommand(jobid));
+                        }
 
-                    log.info("Recover READY coord actions for jobid :" + jobid);
+                        log.info("Recover READY coord actions for jobid :" + jobid);
+                    }
+                    count += jobids.size();
+                    if (jobids.size() < pageSize) {
+                        break;
+                    }
                 }
-                store.commitTrx();
             }
-            catch (StoreException ex) {
-                if (store != null) {
-                    store.rollbackTrx();
-                }
-                log.warn("Exception while accessing the store", ex);
+            catch (JPAExecutorException ex) {
+                log.warn("Exception while reading READY coordinator actions", ex);
             }
             catch (Exception ex) {
                 log.error("Exception, {0}", ex.getMessage(), ex);
-                if (store != null && store.isActive()) {
-                    try {
-                        store.rollbackTrx();
-                    }
-                    catch (RuntimeException rex) {
-                        log.warn("openjpa error, {0}", rex.getMessage(), rex);
-                    }
-                }
-            }
-            finally {
-                if (store != null) {
-                    if (!store.isActive()) {
-                        try {
-                            store.closeTrx();
-                        }
-                        catch (RuntimeException rex) {
-                            log.warn("Exception while attempting to close store", rex);
-                        }
-                    }
-                    else {
-                        log.warn("transaction is not committed or rolled back before closing entitymanager.");
-                    }
-                }
             }
+            msg.append(", COORD_READY_JOBS : " + count);
         }
 
         /**
@@ -333,107 +351,90 @@ public class RecoveryService implements Service {
             XLog.Info.get().clear();
             XLog log = XLog.getLog(getClass());
             // queue command for action recovery
-            WorkflowStore store = null;
+            JPAService jpaService = Services.get().get(JPAService.class);
+            Date pendingAge = new Date(System.currentTimeMillis() - olderThan * 1000);
+            int count = 0;
             try {
-                store = Services.get().get(StoreService.class).getStore(WorkflowStore.class);
-                store.beginTrx();
                 List<WorkflowActionBean> actions = null;
-                try {
-                    actions = store.getPendingActions(olderThan);
-                }
-                catch (StoreException ex) {
-                    log.warn("Exception while reading pending actions from storage", ex);
-                }
-                //log.debug("QUEUING[{0}] pending wf actions for potential recovery", actions.size());
-                msg.append(" WF_ACTIONS " + actions.size());
-
-                for (WorkflowActionBean action : actions) {
-                    Services.get().get(InstrumentationService.class).get().incr(INSTRUMENTATION_GROUP,
-                            INSTR_RECOVERED_ACTIONS_COUNTER, 1);
-                    if (action.getStatus() == WorkflowActionBean.Status.PREP
-                            || action.getStatus() == WorkflowActionBean.Status.START_MANUAL) {
-
-                        if (useXCommand) {
-                            queueCallable(new ActionStartXCommand(action.getId(), action.getType()));
-                        } else {
-                            queueCallable(new ActionStartCommand(action.getId(), action.getType()));
-                        }
-
+                while (!isThrottled()) {
+                    if (actions == null) {
+                        actions = jpaService.execute(new WorkflowActionsGetPendingJPAExecutor(pendingAge, pageSize));
                     }
-                    else if (action.getStatus() == WorkflowActionBean.Status.START_RETRY) {
-                        Date nextRunTime = action.getPendingAge();
-                        if (useXCommand) {
-                            queueCallable(new ActionStartXCommand(action.getId(), action.getType()), nextRunTime.getTime()
-                                    - System.currentTimeMillis());
-                        } else {
-                            queueCallable(new ActionStartCommand(action.getId(), action.getType()), nextRunTime.getTime()
-                                    - System.currentTimeMillis());
-                        }
-
-                    }
-                    else if (action.getStatus() == WorkflowActionBean.Status.DONE
-                            || action.getStatus() == WorkflowActionBean.Status.END_MANUAL) {
-                        if (useXCommand) {
-                            queueCallable(new ActionEndXCommand(action.getId(), action.getType()));
-                        } else {
-                            queueCallable(new ActionEndCommand(action.getId(), action.getType()));
-                        }
-
+                    else {
+                        WorkflowActionBean last = actions.get(actions.size() - 1);
+                        actions = jpaService.execute(new WorkflowActionsGetPendingJPAExecutor(pendingAge, last
+                                .getPendingAge(), last.getId(), pageSize));
                     }
-                    else if (action.getStatus() == WorkflowActionBean.Status.END_RETRY) {
-                        Date nextRunTime = action.getPendingAge();
-                        if (useXCommand) {
-                            queueCallable(new ActionEndXCommand(action.getId(), action.getType()), nextRunTime.getTime()
-                                    - System.currentTimeMillis());
-                        } else {
-                            queueCallable(new ActionEndCommand(action.getId(), action.getType()), nextRunTime.getTime()
-                                    - System.currentTimeMillis());
-                        }
-
+                    for (WorkflowActionBean action : actions) {
+                        recoverWFAction(action);
                     }
-                    else if (action.getStatus() == WorkflowActionBean.Status.OK
-                            || action.getStatus() == WorkflowActionBean.Status.ERROR) {
-                        if (useXCommand) {
-                            queueCallable(new SignalXCommand(action.getJobId(), action.getId()));
-                        } else {
-                            queueCallable(new SignalCommand(action.getJobId(), action.getId()));
-                        }
-
+                    count += actions.size();
+                    if (actions.size() < pageSize) {
+                        break;
                     }
                 }
-                store.commitTrx();
             }
-            catch (StoreException ex) {
-                if (store != null) {
-                    store.rollbackTrx();
-                }
-                log.warn("Exception while getting store to get pending actions", ex);
+            catch (JPAExecutorException ex) {
+                log.warn("Exception while reading pending actions", ex);
             }
             catch (Exception ex) {
                 log.error("Exception, {0}", ex.getMessage(), ex);
-                if (store != null && store.isActive()) {
-                    try {
-                        store.rollbackTrx();
-                    }
-                    catch (RuntimeException rex) {
-                        log.warn("openjpa error, {0}", rex.getMessage(), rex);
-                    }
+            }
+            msg.append(" WF_ACTIONS " + count);
+        }
+
+        private void recoverWFAction(WorkflowActionBean action) {
+            Services.get().get(InstrumentationService.class).get().incr(INSTRUMENTATION_GROUP,
+                    INSTR_RECOVERED_ACTIONS_COUNTER, 1);
+            if (action.getStatus() == WorkflowActionBean.Status.PREP
+                    || action.getStatus() == WorkflowActionBean.Status.START_MANUAL) {
+
+                if (useXCommand) {
+                    queueCallable(new ActionStartXCommand(action.getId(), action.getType()));
+                } else {
+                    queueCallable(new ActionStartCommand(action.getId(), action.getType()));
                 }
+
             }
-            finally {
-                if (store != null) {
-                    if (!store.isActive()) {
-                        try {
-                            store.closeTrx();
-                        }
-                        catch (RuntimeException rex) {
-                            log.warn("Exception while attempting to close store", rex);
-                        }
-                    }
-                    else {
-                        log.warn("transaction is not committed or rolled back before closing entitymanager.");
-                    }
+            else if (action.getStatus() == WorkflowActionBean.Status.START_RETRY) {
+                Date nextRunTime = action.getPendingAge();
+                if (useXCommand) {
+                    queueCallable(new ActionStartXCommand(action.getId(), action.getType()), nextRunTime.getTime()
+                            - System.currentTimeMillis());
+                } else {
+                    queueCallable(new ActionStartCommand(action.getId(), action.getType()), nextRunTime.getTime()
+                            - System.currentTimeMillis());
+                }
+
+            }
+            else if (action.getStatus() == WorkflowActionBean.Status.DONE
+                    || action.getStatus() == WorkflowActionBean.Status.END_MANUAL) {
+                if (useXCommand) {
+                    queueCallable(new ActionEndXCommand(action.getId(), action.getType()));
+                } else {
+                    queueCallable(new ActionEndCommand(action.getId(), action.getType()));
                 }
+
+            }
+            else if (action.getStatus() == WorkflowActionBean.Status.END_RETRY) {
+                Date nextRunTime = action.getPendingAge();
+                if (useXCommand) {
+                    queueCallable(new ActionEndXCommand(action.getId(), action.getType()), nextRunTime.getTime()
+                            - System.currentTimeMillis());
+                } else {
+                    queueCallable(new ActionEndCommand(action.getId(), action.getType()), nextRunTime.getTime()
+                            - System.currentTimeMillis());
+                }
+
+            }
+            else if (action.getStatus() == WorkflowActionBean.Status.OK
+                    || action.getStatus() == WorkflowActionBean.Status.ERROR) {
+                if (useXCommand) {
+                    queueCallable(new SignalXCommand(action.getJobId(), action.getId()));
+                } else {
+                    queueCallable(new SignalCommand(action.getJobId(), action.getId()));
+                }
+
             }
         }
 
@@ -16,20 +16,18 @@ package org.apache.oozie.service;
 
 import java.util.ArrayList;
 import java.util.Date;
-import java.util.HashSet;
 import java.util.List;
-import java.util.Set;
+import java.util.Map;
 
 import org.apache.hadoop.conf.Configuration;
-import org.apache.oozie.BundleActionBean;
 import org.apache.oozie.BundleJobBean;
 import org.apache.oozie.client.Job;
-import org.apache.oozie.executor.jpa.BundleActionsGetByLastModifiedTimeJPAExecutor;
-import org.apache.oozie.executor.jpa.BundleActionsGetJPAExecutor;
-import org.apache.oozie.executor.jpa.BundleJobGetJPAExecutor;
-import org.apache.oozie.executor.jpa.BundleJobUpdateJPAExecutor;
-import org.apache.oozie.executor.jpa.BundleJobsGetPendingJPAExecutor;
-import org.apache.oozie.executor.jpa.BundleJobsGetRunningJPAExecutor;
+import org.apache.oozie.executor.jpa.BulkJPAExecutor;
+import org.apache.oozie.executor.jpa.BundleActionsGetStatusCountsJPAExecutor;
+import org.apache.oozie.executor.jpa.BundleActionsGetStatusCountsJPAExecutor.StatusCounts;
+import org.apache.oozie.executor.jpa.BundleJobsGetForStatusTransitJPAExecutor;
+import org.apache.oozie.executor.jpa.BundleJobsResetPendingJPAExecutor;
+import org.apache.oozie.executor.jpa.BundleJobsUpdateStatusJPAExecutor;
 import org.apache.oozie.service.SchedulerService;
 import org.apache.oozie.service.Service;
 import org.apache.oozie.service.Services;
@@ -42,11 +40,14 @@ import org.apache.oozie.util.XLog;
  * child actions' pending flag equals 0 (job done), we reset the job's pending
  * flag to 0. If all child actions are succeeded, we set the job's status to
  * SUCCEEDED.
+ * <p/>
+ * Each run reads the candidate jobs and the status counts of their actions with
+ * two queries, and updates the jobs with set based UPDATE statements in a single
+ * transaction.
  */
 public class StatusTransitService implements Service {
     public static final String CONF_PREFIX = Service.CONF_PREFIX + "StatusTransitService.";
     public static final String CONF_STATUSTRANSIT_INTERVAL = CONF_PREFIX + "statusTransit.interval";
-    private static int limit = -1;
     private static Date lastInstanceStartTime = null;
     private final static XLog LOG = XLog.getLog(StatusTransitRunnable.class);
     
@@ -79,45 +80,34 @@ public class StatusTransitService implements Service {
                 else {
                     LOG.info("Acquired lock for [{0}]", StatusTransitService.class.getName());
                     
-                    List<BundleJobBean> pendingJobCheckList = null;
-                    List<BundleJobBean> runningJobCheckList = null;
-                    if (lastInstanceStartTime == null) { // this is the first instance, we need to check for all pending jobs;
-                        pendingJobCheckList = jpaService.execute(new BundleJobsGetPendingJPAExecutor(limit));
-                        runningJobCheckList = jpaService.execute(new BundleJobsGetRunningJPAExecutor(limit));
-                    }
-                    else { // this is not the first instance, we should only check jobs that have actions been 
-                           // updated >= start time of last service run;
-                        List<BundleActionBean> actionList = jpaService.execute(new BundleActionsGetByLastModifiedTimeJPAExecutor(lastInstanceStartTime));
-                        Set<String> bundleIds = new HashSet<String>();
-                        for (BundleActionBean action : actionList) {
-                            bundleIds.add(action.getBundleId());
-                        }
-                        pendingJobCheckList = new ArrayList<BundleJobBean>();
-                        for (String bundleId : bundleIds.toArray(new String[bundleIds.size()])) {
-                            BundleJobBean bundle = jpaService.execute(new BundleJobGetJPAExecutor(bundleId));
-                            pendingJobCheckList.add(bundle);
+                    // the first instance checks all the pending or running jobs, the next instances only check
+                    // the jobs that have actions updated >= start time of last service run;
+                    List<BundleJobBean> bundleJobs = jpaService.execute(new BundleJobsGetForStatusTransitJPAExecutor(
+                            lastInstanceStartTime));
+                    Map<String, StatusCounts> counts = jpaService.execute(new BundleActionsGetStatusCountsJPAExecutor(
+                            lastInstanceStartTime));
+
+                    List<String> doneJobIds = new ArrayList<String>();
+                    List<String> succeededJobIds = new ArrayList<String>();
+                    for (BundleJobBean bundleJob : bundleJobs) {
+                        StatusCounts bundleCounts = counts.get(bundleJob.getId());
+                        if (bundleJob.isPending() && checkAllBundleActionsDone(bundleCounts)) {
+                            doneJobIds.add(bundleJob.getId());
                         }
-                        
-                        runningJobCheckList = pendingJobCheckList;
-                    }
-                    
-                    for (BundleJobBean bundleJob : pendingJobCheckList) {
-                        String jobId = bundleJob.getId();
-                        List<BundleActionBean> actionList = jpaService.execute(new BundleActionsGetJPAExecutor(jobId));
-                        if (checkAllBundleActionsDone(actionList)) {
-                            bundleJob.resetPending();
-                            jpaService.execute(new BundleJobUpdateJPAExecutor(bundleJob));
+                        boolean running = bundleJob.getStatus() == Job.Status.RUNNING
+                                || bundleJob.getStatus() == Job.Status.RUNNINGWITHERROR;
+                        if ((running || lastInstanceStartTime != null) && bundleJob.getStatus() != Job.Status.SUCCEEDED
+                                && checkAllBundleActionsSucceeded(bundleCounts)) {
+                            succeededJobIds.add(bundleJob.getId());
                         }
                     }
 
-                    for (BundleJobBean bundleJob : runningJobCheckList) {
-                        String jobId = bundleJob.getId();
-                        List<BundleActionBean> actionList = jpaService.execute(new BundleActionsGetJPAExecutor(jobId));
-                        if (checkAllBundleActionsSucceeded(actionList)) {
-                            bundleJob.setStatus(Job.Status.SUCCEEDED);
-                            jpaService.execute(new BundleJobUpdateJPAExecutor(bundleJob));
-                        }
+                    if (!doneJobIds.isEmpty() || !succeededJobIds.isEmpty()) {
+                        jpaService.execute(new BulkJPAExecutor().add(new BundleJobsResetPendingJPAExecutor(doneJobIds))
+                                .add(new BundleJobsUpdateStatusJPAExecutor(succeededJobIds, Job.Status.SUCCEEDED)));
                     }
+                    LOG.debug("Checked [{0}] bundle jobs, [{1}] done, [{2}] succeeded", bundleJobs.size(), doneJobIds
+                            .size(), succeededJobIds.size());
 
                     lastInstanceStartTime = d;
                 }
@@ -134,28 +124,13 @@ public class StatusTransitService implements Service {
             }
         }
 
-        private boolean checkAllBundleActionsDone(List<BundleActionBean> actionList) {
-            boolean done = true;
-            for (BundleActionBean action : actionList) {
-                if (action.isPending()) { // action is not done;
-                    done = false;
-                    break;
-                }
-            }
-            
-            return done;
+        private boolean checkAllBundleActionsDone(StatusCounts bundleCounts) {
+            // a job without actions has all its actions done
+            return bundleCounts == null || bundleCounts.getPending() == 0;
         }
         
-        private boolean checkAllBundleActionsSucceeded(List<BundleActionBean> actionList) {
-            boolean succeeded = true;
-            for (BundleActionBean action : actionList) {
-                if (action.getStatus() != Job.Status.SUCCEEDED) {
-                    succeeded = false;
-                    break;
-                }
-            }
-            
-            return succeeded;
+        private boolean checkAllBundleActionsSucceeded(StatusCounts bundleCounts) {
+            return bundleCounts == null || bundleCounts.getSucceeded() == bundleCounts.getActions();
         }
     }
 
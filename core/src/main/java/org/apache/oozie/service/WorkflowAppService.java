@@ -121,6 +121,35 @@ public abstract class WorkflowAppService implements Service {
         }
     }
 
+    /**
+     * Return the file status of a workflow definition, its modification time tells if the definition changed.
+     *
+     * @param appPath application path.
+     * @param user user name.
+     * @param group group name.
+     * @param autToken authentication token.
+     * @return file status of the workflow definition.
+     * @throws WorkflowException thrown if the file status could not be read.
+     */
+    protected FileStatus getDefinitionStatus(String appPath, String user, String group, String autToken)
+            throws WorkflowException {
+        try {
+            URI uri = new URI(appPath);
+            FileSystem fs = Services.get().get(HadoopAccessorService.class).
+                    createFileSystem(user, group, uri, new Configuration());
+            return fs.getFileStatus(new Path(uri.getPath()));
+        }
+        catch (URISyntaxException ex) {
+            throw new WorkflowException(ErrorCode.E0711, appPath, ex.getMessage(), ex);
+        }
+        catch (HadoopAccessorException ex) {
+            throw new WorkflowException(ex);
+        }
+        catch (Exception ex) {
+            throw new WorkflowException(ErrorCode.E0710, ex.getMessage(), ex);
+        }
+    }
+
     /**
      * Create proto configuration. <p/> The proto configuration includes the user,group and the paths which need to be
      * added to distributed cache. These paths include .jar,.so and the resource file paths.
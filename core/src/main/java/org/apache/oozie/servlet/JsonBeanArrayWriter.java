@@ -0,0 +1,94 @@
+/**
+ * Copyright (c) 2010 Yahoo! Inc. All rights reserved.
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License. See accompanying LICENSE file.
+ */
+package org.apache.oozie.servlet;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.List;
+
+import org.apache.oozie.client.rest.JsonBean;
+import org.apache.oozie.executor.jpa.JPAResultHandler;
+import org.json.simple.JSONStreamAware;
+
+/**
+ * Writes a JSON array of beans one bean at a time.
+ * <p/>
+ * Only the JSON object of the bean being written is in memory, the output is the same as the output of a
+ * <code>JSONArray</code> with the JSON objects of all the beans. The writer is a {@link JPAResultHandler} so the beans
+ * can be written while they are read from the database.
+ */
+public class JsonBeanArrayWriter implements JPAResultHandler<JsonBean> {
+    private final Writer writer;
+    private boolean first = true;
+
+    /**
+     * Start a JSON array.
+     *
+     * @param writer writer to write the array to.
+     * @throws IOException thrown if the array could not be written.
+     */
+    public JsonBeanArrayWriter(Writer writer) throws IOException {
+        this.writer = writer;
+        writer.write('[');
+    }
+
+    /**
+     * Write a bean as the next element of the array.
+     *
+     * @param bean bean to write.
+     * @throws IOException thrown if the bean could not be written.
+     */
+    public void handle(JsonBean bean) throws IOException {
+        if (first) {
+            first = false;
+        }
+        else {
+            writer.write(',');
+        }
+        bean.toJSONObject().writeJSONString(writer);
+    }
+
+    /**
+     * End the JSON array.
+     *
+     * @throws IOException thrown if the array could not be written.
+     */
+    public void close() throws IOException {
+        writer.write(']');
+    }
+
+    /**
+     * Return a JSON array of beans that is written one bean at a time.
+     * <p/>
+     * It can replace the <code>JSONArray</code> of the beans in a <code>JSONObject</code>.
+     *
+     * @param beans beans of the array, <code>null</code> for an empty array.
+     * @return a JSON array of beans that is written one bean at a time.
+     */
+    public static JSONStreamAware toJSONStreamAware(final List<? extends JsonBean> beans) {
+        return new JSONStreamAware() {
+            public void writeJSONString(Writer writer) throws IOException {
+                JsonBeanArrayWriter array = new JsonBeanArrayWriter(writer);
+                if (beans != null) {
+                    for (JsonBean bean : beans) {
+                        array.handle(bean);
+                    }
+                }
+                array.close();
+            }
+        };
+    }
+
+}
@@ -15,6 +15,7 @@
 package org.apache.oozie.servlet;
 
 import java.io.IOException;
+import java.io.Writer;
 import java.util.List;
 
 import javax.servlet.ServletInputStream;
@@ -29,11 +30,11 @@ import org.apache.oozie.CoordinatorActionBean;
 import org.apache.oozie.CoordinatorActionInfo;
 import org.apache.oozie.CoordinatorEngine;
 import org.apache.oozie.CoordinatorEngineException;
+import org.apache.oozie.CoordinatorJobBean;
 import org.apache.oozie.DagEngine;
 import org.apache.oozie.DagEngineException;
 import org.apache.oozie.ErrorCode;
 import org.apache.oozie.client.rest.JsonBean;
-import org.apache.oozie.client.rest.JsonCoordinatorJob;
 import org.apache.oozie.client.rest.JsonTags;
 import org.apache.oozie.client.rest.RestConstants;
 import org.apache.oozie.service.BundleEngineService;
@@ -42,6 +43,7 @@ import org.apache.oozie.service.DagEngineService;
 import org.apache.oozie.service.Services;
 import org.apache.oozie.util.XLog;
 import org.json.simple.JSONObject;
+import org.json.simple.JSONStreamAware;
 
 @SuppressWarnings("serial")
 public class V1JobServlet extends BaseJobServlet {
@@ -653,31 +655,57 @@ public class V1JobServlet extends BaseJobServlet {
      * 
      * @param request servlet request
      * @param response servlet response
-     * @return JsonBean CoordinatorJobBean
+     * @return JsonBean of the coordinator job, its actions are written while they are read from the database
      * @throws XServletException
      * @throws BaseEngineException
      */
+    @SuppressWarnings("unchecked")
     private JsonBean getCoordinatorJob(HttpServletRequest request, HttpServletResponse response)
             throws XServletException, BaseEngineException {
-        JsonBean jobBean = null;
-        CoordinatorEngine coordEngine = Services.get().get(CoordinatorEngineService.class).getCoordinatorEngine(
-                getUser(request), getAuthToken(request));
-        String jobId = getResourceName(request);
+        final CoordinatorEngine coordEngine = Services.get().get(CoordinatorEngineService.class)
+                .getCoordinatorEngine(getUser(request), getAuthToken(request));
+        final String jobId = getResourceName(request);
         String startStr = request.getParameter(RestConstants.OFFSET_PARAM);
         String lenStr = request.getParameter(RestConstants.LEN_PARAM);
         int start = (startStr != null) ? Integer.parseInt(startStr) : 1;
         start = (start < 1) ? 1 : start;
         int len = (lenStr != null) ? Integer.parseInt(lenStr) : 0;
         len = (len < 1) ? Integer.MAX_VALUE : len;
+        CoordinatorJobBean coordJob;
         try {
-            JsonCoordinatorJob coordJob = coordEngine.getCoordJob(jobId, start, len);
-            jobBean = coordJob;
+            coordJob = coordEngine.getCoordJobWithoutActions(jobId);
         }
         catch (CoordinatorEngineException ex) {
             throw new XServletException(HttpServletResponse.SC_BAD_REQUEST, ex);
         }
 
-        return jobBean;
+        // the actions are read from the database in pages, each page is written to the response before the next
+        // one is read
+        final JSONObject json = coordJob.toJSONObject();
+        final int actionsStart = start;
+        final int actionsLen = len;
+        json.put(JsonTags.COORDINATOR_ACTIONS, new JSONStreamAware() {
+            public void writeJSONString(Writer writer) throws IOException {
+                JsonBeanArrayWriter actions = new JsonBeanArrayWriter(writer);
+                try {
+                    coordEngine.streamCoordActions(jobId, actionsStart, actionsLen, actions);
+                }
+                catch (BaseEngineException ex) {
+                    for (Throwable cause = ex; cause != null; cause = cause.getCause()) {
+                        if (cause instanceof IOException) {
+                            throw (IOException) cause;
+                        }
+                    }
+                    throw new IOException(ex);
+                }
+                actions.close();
+            }
+        });
+        return new JsonBean() {
+            public JSONObject toJSONObject() {
+                return json;
+            }
+        };
     }
 
     /**
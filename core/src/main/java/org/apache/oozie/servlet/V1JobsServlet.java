@@ -280,18 +280,29 @@ public class V1JobsServlet extends BaseJobsServlet {
             String filter = request.getParameter(RestConstants.JOBS_FILTER_PARAM);
             String startStr = request.getParameter(RestConstants.OFFSET_PARAM);
             String lenStr = request.getParameter(RestConstants.LEN_PARAM);
+            String continuation = request.getParameter(RestConstants.CONTINUATION_PARAM);
+            String countStr = request.getParameter(RestConstants.COUNT_PARAM);
             int start = (startStr != null) ? Integer.parseInt(startStr) : 1;
             start = (start < 1) ? 1 : start;
             int len = (lenStr != null) ? Integer.parseInt(lenStr) : 50;
             len = (len < 1) ? 50 : len;
+            boolean count = (countStr != null) ? Boolean.parseBoolean(countStr) : true;
             DagEngine dagEngine = Services.get().get(DagEngineService.class).getDagEngine(getUser(request),
                     getAuthToken(request));
-            WorkflowsInfo jobs = dagEngine.getJobs(filter, start, len);
+            WorkflowsInfo jobs = (continuation != null) ? dagEngine.getJobsAfter(filter, continuation, len, count)
+                    : dagEngine.getJobs(filter, start, len, count);
             List<WorkflowJobBean> jsonWorkflows = jobs.getWorkflows();
-            json.put(JsonTags.WORKFLOWS_JOBS, WorkflowJobBean.toJSONArray(jsonWorkflows));
-            json.put(JsonTags.WORKFLOWS_TOTAL, jobs.getTotal());
-            json.put(JsonTags.WORKFLOWS_OFFSET, jobs.getStart());
+            json.put(JsonTags.WORKFLOWS_JOBS, JsonBeanArrayWriter.toJSONStreamAware(jsonWorkflows));
+            if (count) {
+                json.put(JsonTags.WORKFLOWS_TOTAL, jobs.getTotal());
+            }
+            if (continuation == null) {
+                json.put(JsonTags.WORKFLOWS_OFFSET, jobs.getStart());
+            }
             json.put(JsonTags.WORKFLOWS_LEN, jobs.getLen());
+            if (jobs.getContinuation() != null) {
+                json.put(JsonTags.WORKFLOWS_CONTINUATION, jobs.getContinuation());
+            }
 
         }
         catch (DagEngineException ex) {
@@ -312,18 +323,30 @@ public class V1JobsServlet extends BaseJobsServlet {
             String filter = request.getParameter(RestConstants.JOBS_FILTER_PARAM);
             String startStr = request.getParameter(RestConstants.OFFSET_PARAM);
             String lenStr = request.getParameter(RestConstants.LEN_PARAM);
+            String continuation = request.getParameter(RestConstants.CONTINUATION_PARAM);
+            String countStr = request.getParameter(RestConstants.COUNT_PARAM);
             int start = (startStr != null) ? Integer.parseInt(startStr) : 1;
             start = (start < 1) ? 1 : start;
             int len = (lenStr != null) ? Integer.parseInt(lenStr) : 50;
             len = (len < 1) ? 50 : len;
+            boolean count = (countStr != null) ? Boolean.parseBoolean(countStr) : true;
             CoordinatorEngine coordEngine = Services.get().get(CoordinatorEngineService.class).getCoordinatorEngine(
                     getUser(request), getAuthToken(request));
-            CoordinatorJobInfo jobs = coordEngine.getCoordJobs(filter, start, len);
+            CoordinatorJobInfo jobs = (continuation != null)
+                    ? coordEngine.getCoordJobsAfter(filter, continuation, len, count)
+                    : coordEngine.getCoordJobs(filter, start, len, count);
             List<CoordinatorJobBean> jsonJobs = jobs.getCoordJobs();
-            json.put(JsonTags.COORDINATOR_JOBS, CoordinatorJobBean.toJSONArray(jsonJobs));
-            json.put(JsonTags.COORD_JOB_TOTAL, jobs.getTotal());
-            json.put(JsonTags.COORD_JOB_OFFSET, jobs.getStart());
+            json.put(JsonTags.COORDINATOR_JOBS, JsonBeanArrayWriter.toJSONStreamAware(jsonJobs));
+            if (count) {
+                json.put(JsonTags.COORD_JOB_TOTAL, jobs.getTotal());
+            }
+            if (continuation == null) {
+                json.put(JsonTags.COORD_JOB_OFFSET, jobs.getStart());
+            }
             json.put(JsonTags.COORD_JOB_LEN, jobs.getLen());
+            if (jobs.getContinuation() != null) {
+                json.put(JsonTags.COORD_JOB_CONTINUATION, jobs.getContinuation());
+            }
 
         }
         catch (CoordinatorEngineException ex) {
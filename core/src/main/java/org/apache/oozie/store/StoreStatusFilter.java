@@ -17,7 +17,10 @@ package org.apache.oozie.store;
 import java.util.List;
 import java.util.Map;
 
+import javax.persistence.Query;
+
 import org.apache.oozie.client.OozieClient;
+import org.apache.oozie.util.ContinuationToken;
 
 public class StoreStatusFilter {
     public static final String coordSeletStr = "Select w.id, w.appName, w.status, w.user, w.group, w.startTimestamp, w.endTimestamp, w.appPath, w.concurrency, w.frequency, w.lastActionTimestamp, w.nextMaterializedTimestamp, w.createdTimestamp, w.timeUnitStr, w.timeZone, w.timeOut from CoordinatorJobBean w";
@@ -28,6 +31,44 @@ public class StoreStatusFilter {
 
     public static final String wfCountStr = "Select count(w) from WorkflowJobBean w";
 
+    // the first condition is implied by the second one, it gives the database a range to start the index scan from
+    private static final String keysetStr = "w.createdTimestamp <= :lastCreated and (w.createdTimestamp < :lastCreated "
+            + "or (w.createdTimestamp = :lastCreated and w.id < :lastId))";
+
+    private static final String keysetOrderStr = " order by w.createdTimestamp desc, w.id desc";
+
+    /**
+     * Append the keyset predicate and the ordering of a listing paged by continuation to a query built by {@link
+     * #filter}.
+     *
+     * @param sb query built by {@link #filter}, empty if there is no filter.
+     * @param seletStr select clause of the query.
+     * @param after position of the last job of the previous page, <code>null</code> for the first page.
+     */
+    public static void keyset(StringBuilder sb, String seletStr, ContinuationToken after) {
+        boolean filtered = sb.length() > 0;
+        if (!filtered) {
+            sb.append(seletStr);
+        }
+        if (after != null) {
+            sb.append(filtered ? " and " : " where ").append(keysetStr);
+        }
+        sb.append(keysetOrderStr);
+    }
+
+    /**
+     * Set the parameters of the keyset predicate appended by {@link #keyset}.
+     *
+     * @param q query.
+     * @param after position of the last job of the previous page, <code>null</code> for the first page.
+     */
+    public static void setKeysetParameters(Query q, ContinuationToken after) {
+        if (after != null) {
+            q.setParameter("lastCreated", after.getCreatedTime());
+            q.setParameter("lastId", after.getId());
+        }
+    }
+
     public static void filter(Map<String, List<String>> filter, List<String> orArray, List<String> colArray, List<String> valArray, StringBuilder sb, String seletStr, String countStr) {
         boolean isStatus = false;
         boolean isGroup = false;
@@ -33,9 +33,11 @@ import org.apache.oozie.WorkflowsInfo;
 import org.apache.oozie.client.OozieClient;
 import org.apache.oozie.client.WorkflowJob.Status;
 import org.apache.oozie.service.InstrumentationService;
+import org.apache.oozie.service.LiteWorkflowAppService;
 import org.apache.oozie.service.SchemaService;
 import org.apache.oozie.service.Services;
 import org.apache.oozie.service.SchemaService.SchemaName;
+import org.apache.oozie.service.WorkflowAppService;
 import org.apache.oozie.util.Instrumentation;
 import org.apache.oozie.util.ParamChecker;
 import org.apache.oozie.util.XLog;
@@ -129,6 +131,13 @@ public class WorkflowStore extends Store {
                 if (wfBean == null) {
                     throw new StoreException(ErrorCode.E0604, id);
                 }
+                try {
+                    ((LiteWorkflowAppService) Services.get().get(WorkflowAppService.class))
+                            .resolveWorkflowInstance(wfBean);
+                }
+                catch (WorkflowException ex) {
+                    throw new StoreException(ex);
+                }
                 /*
                  * WorkflowInstance wfInstance; //krishna and next line
                  * wfInstance = workflowLib.get(id); wfInstance =
@@ -876,6 +885,7 @@ public class WorkflowStore extends Store {
         wfBean.setStartTime(w.getStartTime());
         wfBean.setStatus(w.getStatus());
         wfBean.setWfInstance(w.getWfInstance());
+        wfBean.setAppHash(w.getAppHash());
         return wfBean;
     }
 
@@ -964,6 +974,7 @@ public class WorkflowStore extends Store {
         q.setParameter("startTime", wfBean.getStartTimestamp());
         q.setParameter("status", wfBean.getStatusStr());
         q.setParameter("wfInstance", wfBean.getWfInstance());
+        q.setParameter("appHash", wfBean.getAppHash());
     }
 
     private void setActionQueryParameters(WorkflowActionBean aBean, Query q) {
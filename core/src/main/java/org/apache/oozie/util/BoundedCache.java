@@ -0,0 +1,142 @@
+/**
+ * Copyright (c) 2010 Yahoo! Inc. All rights reserved.
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License. See accompanying LICENSE file.
+ */
+package org.apache.oozie.util;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Cache bounded by the total size of its entries, the least recently used entries are evicted first.
+ * <p/>
+ * The size of an entry is given when it is put, an entry larger than the cache is not cached. The cache is thread
+ * safe.
+ */
+public class BoundedCache<K, V> {
+
+    private static class Entry<V> {
+        private final V value;
+        private final long size;
+
+        private Entry(V value, long size) {
+            this.value = value;
+            this.size = size;
+        }
+    }
+
+    private final long maxSize;
+    private long size = 0;
+    private final LinkedHashMap<K, Entry<V>> map = new LinkedHashMap<K, Entry<V>>(16, 0.75f, true);
+
+    /**
+     * Create a cache.
+     *
+     * @param maxSize maximum total size of the entries, the cache does not keep any entry if it is <code>0</code>.
+     */
+    public BoundedCache(long maxSize) {
+        if (maxSize < 0) {
+            throw new IllegalArgumentException(XLog.format(
+                    "parameter [maxSize] = [{0}] must be greater than or equals zero", maxSize));
+        }
+        this.maxSize = maxSize;
+    }
+
+    /**
+     * Return a cached value.
+     *
+     * @param key key of the value.
+     * @return the cached value, <code>null</code> if it is not in the cache.
+     */
+    public synchronized V get(K key) {
+        Entry<V> entry = map.get(key);
+        return (entry != null) ? entry.value : null;
+    }
+
+    /**
+     * Put a value in the cache, the least recently used entries are evicted if the cache becomes too large.
+     *
+     * @param key key of the value.
+     * @param value value to cache.
+     * @param size size of the value.
+     */
+    public synchronized void put(K key, V value, long size) {
+        ParamChecker.notNull(key, "key");
+        ParamChecker.notNull(value, "value");
+        Entry<V> old = map.remove(key);
+        if (old != null) {
+            this.size -= old.size;
+        }
+        if (size <= maxSize) {
+            map.put(key, new Entry<V>(value, size));
+            this.size += size;
+            Iterator<Map.Entry<K, Entry<V>>> it = map.entrySet().iterator();
+            while (this.size > maxSize) {
+                this.size -= it.next().getValue().size;
+                it.remove();
+            }
+        }
+    }
+
+    /**
+     * Remove a value from the cache.
+     *
+     * @param key key of the value.
+     * @return the removed value, <code>null</code> if it was not in the cache.
+     */
+    public synchronized V remove(K key) {
+        Entry<V> entry = map.remove(key);
+        if (entry == null) {
+            return null;
+        }
+        size -= entry.size;
+        return entry.value;
+    }
+
+    /**
+     * Return the number of entries in the cache.
+     *
+     * @return the number of entries in the cache.
+     */
+    public synchronized int getCount() {
+        return map.size();
+    }
+
+    /**
+     * Return the total size of the entries in the cache.
+     *
+     * @return the total size of the entries in the cache.
+     */
+    public synchronized long getSize() {
+        return size;
+    }
+
+    /**
+     * Return the maximum total size of the entries in the cache.
+     *
+     * @return the maximum total size of the entries in the cache.
+     */
+    public long getMaxSize() {
+        return maxSize;
+    }
+
+    /**
+     * Remove all the entries from the cache.
+     */
+    public synchronized void clear() {
+        map.clear();
+        size = 0;
+    }
+
+}
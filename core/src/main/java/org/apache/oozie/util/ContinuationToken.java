@@ -0,0 +1,99 @@
+/**
+ * Copyright (c) 2010 Yahoo! Inc. All rights reserved.
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License. See accompanying LICENSE file.
+ */
+package org.apache.oozie.util;
+
+import java.sql.Timestamp;
+import java.util.Date;
+
+/**
+ * Position of the last job returned by a jobs listing, used to ask for the jobs that follow it.
+ * <p/>
+ * Listings paged by continuation are ordered by creation time and job ID, both descending. The next page is selected
+ * with a keyset predicate on these columns instead of an offset, so the database does not have to read and skip the
+ * rows of the previous pages.
+ * <p/>
+ * The string form is opaque to clients, they only pass back what the server returned.
+ */
+public class ContinuationToken {
+    private static final char SEPARATOR = '-';
+
+    private final Timestamp createdTime;
+    private final String id;
+
+    /**
+     * Create a continuation token.
+     *
+     * @param createdTime creation time of the last job returned.
+     * @param id ID of the last job returned.
+     */
+    public ContinuationToken(Date createdTime, String id) {
+        this.createdTime = new Timestamp(ParamChecker.notNull(createdTime, "createdTime").getTime());
+        this.id = ParamChecker.notEmpty(id, "id");
+    }
+
+    /**
+     * Return the creation time of the last job returned.
+     *
+     * @return the creation time of the last job returned.
+     */
+    public Timestamp getCreatedTime() {
+        return createdTime;
+    }
+
+    /**
+     * Return the ID of the last job returned.
+     *
+     * @return the ID of the last job returned.
+     */
+    public String getId() {
+        return id;
+    }
+
+    /**
+     * Parse the string form of a continuation token.
+     *
+     * @param token the string form of the token.
+     * @return the continuation token, <code>null</code> if the token is <code>null</code> or empty, meaning the
+     * listing starts from the first job.
+     * @throws IllegalArgumentException thrown if the token is not valid.
+     */
+    public static ContinuationToken parse(String token) {
+        if (token == null || token.length() == 0) {
+            return null;
+        }
+        int index = token.indexOf(SEPARATOR);
+        if (index <= 0 || index == token.length() - 1) {
+            throw new IllegalArgumentException("malformed token");
+        }
+        try {
+            return new ContinuationToken(new Date(Long.parseLong(token.substring(0, index), Character.MAX_RADIX)),
+                                         token.substring(index + 1));
+        }
+        catch (NumberFormatException ex) {
+            throw new IllegalArgumentException("malformed token");
+        }
+    }
+
+    /**
+     * Return the string form of the token.
+     *
+     * @return the string form of the token.
+     */
+    @Override
+    public String toString() {
+        return Long.toString(createdTime.getTime(), Character.MAX_RADIX) + SEPARATOR + id;
+    }
+
+}
@@ -14,27 +14,126 @@
  */
 package org.apache.oozie.util;
 
+import org.apache.commons.el.Coercions;
+import org.apache.commons.el.Expression;
 import org.apache.commons.el.ExpressionEvaluatorImpl;
+import org.apache.commons.el.ExpressionString;
+import org.apache.commons.el.Logger;
 
 import javax.servlet.jsp.el.ELException;
-import javax.servlet.jsp.el.ExpressionEvaluator;
 import javax.servlet.jsp.el.FunctionMapper;
 import javax.servlet.jsp.el.VariableResolver;
 import java.lang.reflect.Method;
 import java.lang.reflect.Modifier;
 import java.util.HashMap;
+import java.util.Iterator;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
 
 /**
- * JSP Expression Language Evaluator. <p/> It provides a more convenient way of using the JSP EL Evaluator.
+ * JSP Expression Language Evaluator. <p/> It provides a more convenient way of using the JSP EL Evaluator. <p/> Parsed
+ * expressions are kept in a process wide cache bounded to about {@link #DEFAULT_EXPRESSION_CACHE_SIZE} expressions,
+ * looking up a cached expression does not lock. When the cache is full a tenth of its expressions, not necessarily
+ * the least recently used ones, are evicted. Strings without <code>${</code> are not parsed.
  */
 public class ELEvaluator {
 
+    /**
+     * Default maximum number of parsed expressions kept in the cache.
+     */
+    public static final int DEFAULT_EXPRESSION_CACHE_SIZE = 10000;
+
+    // the parser does not use the unbounded static cache of commons-el
+    private static final ExpressionEvaluatorImpl PARSER = new ExpressionEvaluatorImpl(true);
+
+    private static final Logger EL_LOGGER = new Logger(System.out);
+
+    private static volatile ExpressionCache expressions = new ExpressionCache(DEFAULT_EXPRESSION_CACHE_SIZE);
+
+    /**
+     * Cache of parsed expressions, approximately bounded to avoid locking on lookups.
+     */
+    private static class ExpressionCache {
+        private final int maxSize;
+        private final ConcurrentHashMap<String, Object> map = new ConcurrentHashMap<String, Object>();
+        private final AtomicInteger count = new AtomicInteger();
+
+        private ExpressionCache(int maxSize) {
+            if (maxSize < 0) {
+                throw new IllegalArgumentException(XLog.format(
+                        "parameter [maxSize] = [{0}] must be greater than or equals zero", maxSize));
+            }
+            this.maxSize = maxSize;
+        }
+
+        private Object get(String expr) {
+            return map.get(expr);
+        }
+
+        private void put(String expr, Object parsed) {
+            if (maxSize > 0 && map.putIfAbsent(expr, parsed) == null && count.incrementAndGet() > maxSize) {
+                // concurrent puts may evict at the same time, the cache then ends up smaller
+                int target = maxSize - Math.max(1, maxSize / 10);
+                Iterator<String> it = map.keySet().iterator();
+                while (count.get() > target && it.hasNext()) {
+                    if (map.remove(it.next()) != null) {
+                        count.decrementAndGet();
+                    }
+                }
+            }
+        }
+
+        private int getCount() {
+            return count.get();
+        }
+    }
+
+    /**
+     * Set the maximum number of parsed expressions kept in the cache, the cache is emptied.
+     *
+     * @param size maximum number of parsed expressions, <code>0</code> disables the cache.
+     */
+    public static void setExpressionCacheSize(int size) {
+        expressions = new ExpressionCache(size);
+    }
+
+    /**
+     * Return the number of parsed expressions in the cache.
+     *
+     * @return the number of parsed expressions in the cache.
+     */
+    public static int getExpressionCacheCount() {
+        return expressions.getCount();
+    }
+
+    /**
+     * Parse an EL expression, it returns the expression itself if it has no <code>${</code>.
+     */
+    private static Object parse(String expr) throws ELException {
+        if (expr == null) {
+            throw new ELException("Null expression string");
+        }
+        if (expr.indexOf("${") < 0) {
+            return expr;
+        }
+        ExpressionCache cache = expressions;
+        Object parsed = cache.get(expr);
+        if (parsed == null) {
+            parsed = PARSER.parseExpressionString(expr);
+            cache.put(expr, parsed);
+        }
+        return parsed;
+    }
+
     /**
      * Provides functions and variables for the EL evaluator. <p/> All functions and variables in the context of an EL
-     * evaluator are accessible from EL expressions.
+     * evaluator are accessible from EL expressions. <p/> A context can be layered on a parent context, the variables
+     * and functions not defined in the context are resolved from the parent context. The parent context must not be
+     * modified while it is used by other contexts.
      */
     public static class Context implements VariableResolver, FunctionMapper {
+        private final Context parent;
         private Map<String, Object> vars;
         private Map<String, Method> functions;
 
@@ -42,8 +141,24 @@ public class ELEvaluator {
          * Create an empty context.
          */
         public Context() {
-            vars = new HashMap<String, Object>();
-            functions = new HashMap<String, Method>();
+            this(null);
+        }
+
+        /**
+         * Create an empty context layered on a parent context. <p/> The variables and functions of the context are
+         * allocated when the first one is added.
+         *
+         * @param parent parent context, it may be <code>null</code>.
+         */
+        public Context(Context parent) {
+            this.parent = parent;
+        }
+
+        private Map<String, Object> getVars() {
+            if (vars == null) {
+                vars = new HashMap<String, Object>();
+            }
+            return vars;
         }
 
         /**
@@ -52,7 +167,7 @@ public class ELEvaluator {
          * @param vars variables to add to the context.
          */
         public void setVariables(Map<String, Object> vars) {
-            this.vars.putAll(vars);
+            getVars().putAll(vars);
         }
 
         /**
@@ -62,7 +177,7 @@ public class ELEvaluator {
          * @param value variable value.
          */
         public void setVariable(String name, Object value) {
-            vars.put(name, value);
+            getVars().put(name, value);
         }
 
         /**
@@ -72,7 +187,10 @@ public class ELEvaluator {
          * @return the variable value.
          */
         public Object getVariable(String name) {
-            return vars.get(name);
+            if (vars != null && vars.containsKey(name)) {
+                return vars.get(name);
+            }
+            return (parent != null) ? parent.getVariable(name) : null;
         }
 
         /**
@@ -87,6 +205,9 @@ public class ELEvaluator {
                 throw new IllegalArgumentException(XLog.format("Method[{0}] must be public and static", method));
             }
             prefix = (prefix.length() > 0) ? prefix + ":" : "";
+            if (functions == null) {
+                functions = new HashMap<String, Method>();
+            }
             functions.put(prefix + functionName, method);
         }
 
@@ -98,10 +219,13 @@ public class ELEvaluator {
          * @throws ELException thrown if the variable is not defined in the context.
          */
         public Object resolveVariable(String name) throws ELException {
-            if (!vars.containsKey(name)) {
+            if (vars != null && vars.containsKey(name)) {
+                return vars.get(name);
+            }
+            if (parent == null) {
                 throw new ELException(XLog.format("variable [{0}] cannot be resolved", name));
             }
-            return vars.get(name);
+            return parent.resolveVariable(name);
         }
 
         /**
@@ -115,7 +239,15 @@ public class ELEvaluator {
             if (prefix.length() > 0) {
                 name = prefix + ":" + name;
             }
-            return functions.get(name);
+            return resolveFunction(name);
+        }
+
+        private Method resolveFunction(String name) {
+            Method method = (functions != null) ? functions.get(name) : null;
+            if (method == null && parent != null) {
+                method = parent.resolveFunction(name);
+            }
+            return method;
         }
     }
 
@@ -135,8 +267,6 @@ public class ELEvaluator {
 
     private Context context;
 
-    private ExpressionEvaluator evaluator = new ExpressionEvaluatorImpl();
-
     /**
      * Creates an ELEvaluator with no functions and no variables defined.
      */
@@ -196,7 +326,18 @@ public class ELEvaluator {
         ELEvaluator existing = current.get();
         try {
             current.set(this);
-            return (T) evaluator.evaluate(expr, clazz, context, context);
+            Object parsed = parse(expr);
+            Object value;
+            if (parsed instanceof Expression) {
+                value = ((Expression) parsed).evaluate(context, context, EL_LOGGER);
+            }
+            else if (parsed instanceof ExpressionString) {
+                value = ((ExpressionString) parsed).evaluate(context, context, EL_LOGGER);
+            }
+            else {
+                value = parsed;
+            }
+            return (T) Coercions.coerce(value, clazz, EL_LOGGER);
         }
         catch (ELException ex) {
             if (ex.getRootCause() instanceof Exception) {
@@ -0,0 +1,151 @@
+/**
+ * Copyright (c) 2010 Yahoo! Inc. All rights reserved.
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License. See accompanying LICENSE file.
+ */
+package org.apache.oozie.util;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Lock-free histogram of non-negative long values, used to compute percentiles of latencies.
+ * <p/>
+ * Values are recorded in log-linear buckets: each power of two range is split in {@link #SUB_BUCKETS} linear buckets,
+ * values below <code>2 * SUB_BUCKETS</code> are recorded exactly. The relative error of a percentile is at most
+ * <code>1 / SUB_BUCKETS</code>.
+ * <p/>
+ * Recording a value is a couple of atomic increments, it does not take any lock and it does not allocate memory.
+ */
+public class Histogram {
+
+    /**
+     * Number of linear sub-buckets per power of two.
+     */
+    public static final int SUB_BUCKETS = 8;
+
+    private static final int SUB_BUCKET_BITS = 3;
+    private static final int BUCKETS = (64 - SUB_BUCKET_BITS) * SUB_BUCKETS;
+
+    private final AtomicLongArray buckets = new AtomicLongArray(BUCKETS);
+    private final AtomicLong count = new AtomicLong();
+    private final AtomicLong max = new AtomicLong();
+
+    /**
+     * Record a value in the histogram.
+     *
+     * @param value value to record, negative values are recorded as zero.
+     */
+    public void record(long value) {
+        if (value < 0) {
+            value = 0;
+        }
+        buckets.incrementAndGet(getBucket(value));
+        count.incrementAndGet();
+        long currentMax = max.get();
+        while (value > currentMax && !max.compareAndSet(currentMax, value)) {
+            currentMax = max.get();
+        }
+    }
+
+    /**
+     * Return the number of recorded values.
+     *
+     * @return the number of recorded values.
+     */
+    public long getCount() {
+        return count.get();
+    }
+
+    /**
+     * Return the largest recorded value.
+     *
+     * @return the largest recorded value, <code>0</code> if no value has been recorded.
+     */
+    public long getMax() {
+        return max.get();
+    }
+
+    /**
+     * Return the value at the given percentile.
+     * <p/>
+     * The returned value is the upper bound of the bucket holding the percentile, capped to the largest recorded value.
+     *
+     * @param percentile percentile, between <code>0</code> and <code>100</code>.
+     * @return the value at the given percentile, <code>0</code> if no value has been recorded.
+     */
+    public long getPercentile(double percentile) {
+        long total = count.get();
+        if (total == 0) {
+            return 0;
+        }
+        long target = Math.max(1, (long) Math.ceil(total * Math.min(100, Math.max(0, percentile)) / 100));
+        long accumulated = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            accumulated += buckets.get(i);
+            if (accumulated >= target) {
+                return Math.min(getBucketUpperBound(i), max.get());
+            }
+        }
+        return max.get();
+    }
+
+    /**
+     * Return a copy of the histogram.
+     * <p/>
+     * Values recorded concurrently with the copy may or may not be in the copy.
+     *
+     * @return a copy of the histogram.
+     */
+    public Histogram copy() {
+        Histogram copy = new Histogram();
+        for (int i = 0; i < BUCKETS; i++) {
+            copy.buckets.set(i, buckets.get(i));
+        }
+        copy.count.set(count.get());
+        copy.max.set(max.get());
+        return copy;
+    }
+
+    /**
+     * Reset the histogram.
+     * <p/>
+     * Values recorded concurrently with a reset may or may not be kept.
+     */
+    public void reset() {
+        for (int i = 0; i < BUCKETS; i++) {
+            buckets.set(i, 0);
+        }
+        count.set(0);
+        max.set(0);
+    }
+
+    static int getBucket(long value) {
+        if (value < SUB_BUCKETS) {
+            return (int) value;
+        }
+        int exponent = 63 - Long.numberOfLeadingZeros(value);
+        int sub = (int) ((value >>> (exponent - SUB_BUCKET_BITS)) & (SUB_BUCKETS - 1));
+        return (exponent - SUB_BUCKET_BITS + 1) * SUB_BUCKETS + sub;
+    }
+
+    static long getBucketUpperBound(int bucket) {
+        int group = bucket / SUB_BUCKETS;
+        if (group == 0) {
+            return bucket;
+        }
+        int sub = bucket % SUB_BUCKETS;
+        long lower = ((long) (SUB_BUCKETS + sub)) << (group - 1);
+        return lower + (1L << (group - 1)) - 1;
+    }
+
+}
@@ -23,6 +23,8 @@ import java.io.Writer;
 import java.io.File;
 import java.io.FileInputStream;
 import java.io.FileOutputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
 import java.util.zip.ZipOutputStream;
 import java.util.zip.ZipEntry;
 import java.util.jar.JarOutputStream;
@@ -170,6 +172,27 @@ public abstract class IOUtils {
         reader.close();
     }
 
+    /**
+     * Return the hex encoded SHA-1 digest of a byte array, used as a content hash.
+     *
+     * @param data bytes to digest.
+     * @return the hex encoded SHA-1 digest.
+     */
+    public static String getSHA1(byte[] data) {
+        ParamChecker.notNull(data, "data");
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-1").digest(data);
+            StringBuilder sb = new StringBuilder(digest.length * 2);
+            for (byte b : digest) {
+                sb.append(Character.forDigit((b >> 4) & 0xF, 16)).append(Character.forDigit(b & 0xF, 16));
+            }
+            return sb.toString();
+        }
+        catch (NoSuchAlgorithmException ex) {
+            throw new RuntimeException(ex);
+        }
+    }
+
     /**
      * Zips a local directory, recursively, into a ZIP stream.
      *
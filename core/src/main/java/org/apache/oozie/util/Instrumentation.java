@@ -20,45 +20,42 @@ import org.apache.oozie.service.ConfigurationService;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
-import java.util.HashMap;
 import java.util.LinkedHashMap;
 import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
 import java.util.concurrent.locks.Lock;
 import java.util.concurrent.locks.ReentrantLock;
 
 /**
  * Instrumentation framework that supports Timers, Counters, Variables and Sampler instrumentation elements. <p/> All
  * instrumentation elements have a group and a name.
+ * <p/>
+ * Counters and timers are updated several times per command execution, they are updated without locks: the groups
+ * are concurrent maps, the counters are striped to avoid contention between threads and the timers use atomic
+ * values and a {@link Histogram} of the total times.
  */
 public class Instrumentation {
     private ScheduledExecutorService scheduler;
-    private Lock counterLock;
-    private Lock timerLock;
-    private Lock variableLock;
-    private Lock samplerLock;
     private Configuration configuration;
     private Map<String, Map<String, Map<String, Object>>> all;
-    private Map<String, Map<String, Element<Long>>> counters;
-    private Map<String, Map<String, Element<Timer>>> timers;
-    private Map<String, Map<String, Element<Variable>>> variables;
-    private Map<String, Map<String, Element<Double>>> samplers;
+    private ConcurrentMap<String, Map<String, Element<Long>>> counters;
+    private ConcurrentMap<String, Map<String, Element<Timer>>> timers;
+    private ConcurrentMap<String, Map<String, Element<Variable>>> variables;
+    private ConcurrentMap<String, Map<String, Element<Double>>> samplers;
 
     /**
      * Instrumentation constructor.
      */
     @SuppressWarnings("unchecked")
     public Instrumentation() {
-        counterLock = new ReentrantLock();
-        timerLock = new ReentrantLock();
-        variableLock = new ReentrantLock();
-        samplerLock = new ReentrantLock();
         all = new LinkedHashMap<String, Map<String, Map<String, Object>>>();
         counters = new ConcurrentHashMap<String, Map<String, Element<Long>>>();
         timers = new ConcurrentHashMap<String, Map<String, Element<Timer>>>();
@@ -200,8 +197,32 @@ public class Instrumentation {
 
     /**
      * Counter Instrumentation element.
+     * <p/>
+     * The counter is striped by thread, each stripe is on its own cache line, so threads incrementing the same counter
+     * do not contend. The value is the sum of the stripes.
      */
-    private static class Counter extends AtomicLong implements Element<Long> {
+    private static class Counter implements Element<Long> {
+        private static final int STRIPES = getStripes();
+        private static final int PADDING = 8;
+
+        private final AtomicLongArray cells = new AtomicLongArray(STRIPES * PADDING);
+
+        private static int getStripes() {
+            int stripes = 1;
+            while (stripes < Runtime.getRuntime().availableProcessors() && stripes < 16) {
+                stripes <<= 1;
+            }
+            return stripes;
+        }
+
+        /**
+         * Add a value to the counter.
+         *
+         * @param count value to add.
+         */
+        public void add(long count) {
+            cells.addAndGet(((int) Thread.currentThread().getId() & (STRIPES - 1)) * PADDING, count);
+        }
 
         /**
          * Return the counter snapshot.
@@ -209,7 +230,11 @@ public class Instrumentation {
          * @return the counter snapshot.
          */
         public Long getValue() {
-            return get();
+            long value = 0;
+            for (int i = 0; i < STRIPES; i++) {
+                value += cells.get(i * PADDING);
+            }
+            return value;
         }
 
         /**
@@ -218,30 +243,37 @@ public class Instrumentation {
          * @return the String representation of the counter value.
          */
         public String toString() {
-            return Long.toString(get());
+            return Long.toString(getValue());
         }
 
     }
 
     /**
      * Timer Instrumentation element.
+     * <p/>
+     * Crons are added without locks. A snapshot taken while crons are added may include part of a cron.
      */
     public static class Timer implements Element<Timer> {
-        Lock lock = new ReentrantLock();
-        private long ownTime;
-        private long totalTime;
-        private long ticks;
-        private long ownSquareTime;
-        private long totalSquareTime;
-        private long ownMinTime;
-        private long ownMaxTime;
-        private long totalMinTime;
-        private long totalMaxTime;
+        private final AtomicLong ownTime = new AtomicLong();
+        private final AtomicLong totalTime = new AtomicLong();
+        private final AtomicLong ticks = new AtomicLong();
+        private final AtomicLong ownSquareTime = new AtomicLong();
+        private final AtomicLong totalSquareTime = new AtomicLong();
+        private final AtomicLong ownMinTime = new AtomicLong(Long.MAX_VALUE);
+        private final AtomicLong ownMaxTime = new AtomicLong();
+        private final AtomicLong totalMinTime = new AtomicLong(Long.MAX_VALUE);
+        private final AtomicLong totalMaxTime = new AtomicLong();
+        private final Histogram totalHistogram;
 
         /**
          * Timer constructor. <p/> It is project private for test purposes.
          */
         Timer() {
+            this(new Histogram());
+        }
+
+        private Timer(Histogram totalHistogram) {
+            this.totalHistogram = totalHistogram;
         }
 
         /**
@@ -250,7 +282,8 @@ public class Instrumentation {
          * @return the String representation of the timer value.
          */
         public String toString() {
-            return XLog.format("ticks[{0}] totalAvg[{1}] ownAvg[{2}]", ticks, getTotalAvg(), getOwnAvg());
+            return XLog.format("ticks[{0}] totalAvg[{1}] ownAvg[{2}] totalP99[{3}]", getTicks(), getTotalAvg(),
+                               getOwnAvg(), getTotalPercentile(99));
         }
 
         /**
@@ -259,23 +292,17 @@ public class Instrumentation {
          * @return the timer snapshot.
          */
         public Timer getValue() {
-            try {
-                lock.lock();
-                Timer timer = new Timer();
-                timer.ownTime = ownTime;
-                timer.totalTime = totalTime;
-                timer.ticks = ticks;
-                timer.ownSquareTime = ownSquareTime;
-                timer.totalSquareTime = totalSquareTime;
-                timer.ownMinTime = ownMinTime;
-                timer.ownMaxTime = ownMaxTime;
-                timer.totalMinTime = totalMinTime;
-                timer.totalMaxTime = totalMaxTime;
-                return timer;
-            }
-            finally {
-                lock.unlock();
-            }
+            Timer timer = new Timer(totalHistogram.copy());
+            timer.ownTime.set(ownTime.get());
+            timer.totalTime.set(totalTime.get());
+            timer.ticks.set(ticks.get());
+            timer.ownSquareTime.set(ownSquareTime.get());
+            timer.totalSquareTime.set(totalSquareTime.get());
+            timer.ownMinTime.set(ownMinTime.get());
+            timer.ownMaxTime.set(ownMaxTime.get());
+            timer.totalMinTime.set(totalMinTime.get());
+            timer.totalMaxTime.set(totalMaxTime.get());
+            return timer;
         }
 
         /**
@@ -284,30 +311,31 @@ public class Instrumentation {
          * @param cron Cron to add.
          */
         void addCron(Cron cron) {
-            try {
-                lock.lock();
-                long own = cron.getOwn();
-                long total = cron.getTotal();
-                ownTime += own;
-                totalTime += total;
-                ticks++;
-                ownSquareTime += own * own;
-                totalSquareTime += total * total;
-                if (ticks == 1) {
-                    ownMinTime = own;
-                    ownMaxTime = own;
-                    totalMinTime = total;
-                    totalMaxTime = total;
-                }
-                else {
-                    ownMinTime = Math.min(ownMinTime, own);
-                    ownMaxTime = Math.max(ownMaxTime, own);
-                    totalMinTime = Math.min(totalMinTime, total);
-                    totalMaxTime = Math.max(totalMaxTime, total);
-                }
+            long own = cron.getOwn();
+            long total = cron.getTotal();
+            ownTime.addAndGet(own);
+            totalTime.addAndGet(total);
+            ownSquareTime.addAndGet(own * own);
+            totalSquareTime.addAndGet(total * total);
+            setMin(ownMinTime, own);
+            setMax(ownMaxTime, own);
+            setMin(totalMinTime, total);
+            setMax(totalMaxTime, total);
+            totalHistogram.record(total);
+            ticks.incrementAndGet();
+        }
+
+        private static void setMin(AtomicLong min, long value) {
+            long current = min.get();
+            while (value < current && !min.compareAndSet(current, value)) {
+                current = min.get();
             }
-            finally {
-                lock.unlock();
+        }
+
+        private static void setMax(AtomicLong max, long value) {
+            long current = max.get();
+            while (value > current && !max.compareAndSet(current, value)) {
+                current = max.get();
             }
         }
 
@@ -317,7 +345,7 @@ public class Instrumentation {
          * @return own accumulated computing time by the timer.
          */
         public long getOwn() {
-            return ownTime;
+            return ownTime.get();
         }
 
         /**
@@ -326,7 +354,7 @@ public class Instrumentation {
          * @return total accumulated computing time by the timer.
          */
         public long getTotal() {
-            return totalTime;
+            return totalTime.get();
         }
 
         /**
@@ -335,7 +363,7 @@ public class Instrumentation {
          * @return the number of times a cron was added to the timer.
          */
         public long getTicks() {
-            return ticks;
+            return ticks.get();
         }
 
         /**
@@ -344,7 +372,7 @@ public class Instrumentation {
          * @return the sum of the square own timer.
          */
         public long getOwnSquareSum() {
-            return ownSquareTime;
+            return ownSquareTime.get();
         }
 
         /**
@@ -353,7 +381,7 @@ public class Instrumentation {
          * @return the sum of the square own timer.
          */
         public long getTotalSquareSum() {
-            return totalSquareTime;
+            return totalSquareTime.get();
         }
 
         /**
@@ -362,7 +390,8 @@ public class Instrumentation {
          * @return the own minimum time.
          */
         public long getOwnMin() {
-            return ownMinTime;
+            long min = ownMinTime.get();
+            return (min != Long.MAX_VALUE) ? min : 0;
         }
 
         /**
@@ -371,7 +400,7 @@ public class Instrumentation {
          * @return the own maximum time.
          */
         public long getOwnMax() {
-            return ownMaxTime;
+            return ownMaxTime.get();
         }
 
         /**
@@ -380,7 +409,8 @@ public class Instrumentation {
          * @return the total minimum time.
          */
         public long getTotalMin() {
-            return totalMinTime;
+            long min = totalMinTime.get();
+            return (min != Long.MAX_VALUE) ? min : 0;
         }
 
         /**
@@ -389,7 +419,7 @@ public class Instrumentation {
          * @return the total maximum time.
          */
         public long getTotalMax() {
-            return totalMaxTime;
+            return totalMaxTime.get();
         }
 
         /**
@@ -398,7 +428,8 @@ public class Instrumentation {
          * @return the own average time.
          */
         public long getOwnAvg() {
-            return (ticks != 0) ? ownTime / ticks : 0;
+            long n = ticks.get();
+            return (n != 0) ? ownTime.get() / n : 0;
         }
 
         /**
@@ -407,7 +438,8 @@ public class Instrumentation {
          * @return the total average time.
          */
         public long getTotalAvg() {
-            return (ticks != 0) ? totalTime / ticks : 0;
+            long n = ticks.get();
+            return (n != 0) ? totalTime.get() / n : 0;
         }
 
         /**
@@ -416,7 +448,7 @@ public class Instrumentation {
          * @return the total time standard deviation.
          */
         public double getTotalStdDev() {
-            return evalStdDev(ticks, totalTime, totalSquareTime);
+            return evalStdDev(ticks.get(), totalTime.get(), totalSquareTime.get());
         }
 
         /**
@@ -425,7 +457,19 @@ public class Instrumentation {
          * @return the own time standard deviation.
          */
         public double getOwnStdDev() {
-            return evalStdDev(ticks, ownTime, ownSquareTime);
+            return evalStdDev(ticks.get(), ownTime.get(), ownSquareTime.get());
+        }
+
+        /**
+         * Returns the total time at the given percentile.
+         * <p/>
+         * The value is read from a histogram, its relative error is at most <code>1 / Histogram.SUB_BUCKETS</code>.
+         *
+         * @param percentile percentile, between <code>0</code> and <code>100</code>.
+         * @return the total time at the given percentile.
+         */
+        public long getTotalPercentile(double percentile) {
+            return totalHistogram.getPercentile(percentile);
         }
 
         private double evalStdDev(long n, long sn, long ssn) {
@@ -443,32 +487,13 @@ public class Instrumentation {
      * @param cron cron to add to the timer.
      */
     public void addCron(String group, String name, Cron cron) {
-        Map<String, Element<Timer>> map = timers.get(group);
-        if (map == null) {
-            try {
-                timerLock.lock();
-                map = timers.get(group);
-                if (map == null) {
-                    map = new HashMap<String, Element<Timer>>();
-                    timers.put(group, map);
-                }
-            }
-            finally {
-                timerLock.unlock();
-            }
-        }
+        ConcurrentMap<String, Element<Timer>> map = getGroup(timers, group);
         Timer timer = (Timer) map.get(name);
         if (timer == null) {
-            try {
-                timerLock.lock();
-                timer = (Timer) map.get(name);
-                if (timer == null) {
-                    timer = new Timer();
-                    map.put(name, timer);
-                }
-            }
-            finally {
-                timerLock.unlock();
+            timer = new Timer();
+            Timer existing = (Timer) map.putIfAbsent(name, timer);
+            if (existing != null) {
+                timer = existing;
             }
         }
         timer.addCron(cron);
@@ -483,35 +508,36 @@ public class Instrumentation {
      * @param count increment to add to the counter.
      */
     public void incr(String group, String name, long count) {
-        Map<String, Element<Long>> map = counters.get(group);
-        if (map == null) {
-            try {
-                counterLock.lock();
-                map = counters.get(group);
-                if (map == null) {
-                    map = new HashMap<String, Element<Long>>();
-                    counters.put(group, map);
-                }
-            }
-            finally {
-                counterLock.unlock();
-            }
-        }
+        ConcurrentMap<String, Element<Long>> map = getGroup(counters, group);
         Counter counter = (Counter) map.get(name);
         if (counter == null) {
-            try {
-                counterLock.lock();
-                counter = (Counter) map.get(name);
-                if (counter == null) {
-                    counter = new Counter();
-                    map.put(name, counter);
-                }
+            counter = new Counter();
+            Counter existing = (Counter) map.putIfAbsent(name, counter);
+            if (existing != null) {
+                counter = existing;
             }
-            finally {
-                counterLock.unlock();
+        }
+        counter.add(count);
+    }
+
+    /**
+     * Return the map of a group, creating it if it does not exist.
+     *
+     * @param groups map of groups.
+     * @param group group name.
+     * @return the map of the group, a concurrent map.
+     */
+    private static <T> ConcurrentMap<String, Element<T>> getGroup(
+            ConcurrentMap<String, Map<String, Element<T>>> groups, String group) {
+        Map<String, Element<T>> map = groups.get(group);
+        if (map == null) {
+            map = new ConcurrentHashMap<String, Element<T>>();
+            Map<String, Element<T>> existing = groups.putIfAbsent(group, map);
+            if (existing != null) {
+                map = existing;
             }
         }
-        counter.addAndGet(count);
+        return (ConcurrentMap<String, Element<T>>) map;
     }
 
     /**
@@ -530,24 +556,10 @@ public class Instrumentation {
      */
     @SuppressWarnings("unchecked")
     public void addVariable(String group, String name, Variable variable) {
-        Map<String, Element<Variable>> map = variables.get(group);
-        if (map == null) {
-            try {
-                variableLock.lock();
-                map = variables.get(group);
-                if (map == null) {
-                    map = new HashMap<String, Element<Variable>>();
-                    variables.put(group, map);
-                }
-            }
-            finally {
-                variableLock.unlock();
-            }
-        }
-        if (map.containsKey(name)) {
+        ConcurrentMap<String, Element<Variable>> map = getGroup(variables, group);
+        if (map.putIfAbsent(name, variable) != null) {
             throw new RuntimeException(XLog.format("Variable group=[{0}] name=[{1}] already defined", group, name));
         }
-        map.put(name, variable);
     }
 
     /**
@@ -774,26 +786,12 @@ public class Instrumentation {
         if (scheduler == null) {
             throw new IllegalStateException("scheduler not set, cannot sample");
         }
-        try {
-            samplerLock.lock();
-            Map<String, Element<Double>> map = samplers.get(group);
-            if (map == null) {
-                map = samplers.get(group);
-                if (map == null) {
-                    map = new HashMap<String, Element<Double>>();
-                    samplers.put(group, map);
-                }
-            }
-            if (map.containsKey(name)) {
-                throw new RuntimeException(XLog.format("Sampler group=[{0}] name=[{1}] already defined", group, name));
-            }
-            Sampler sampler = new Sampler(period, interval, variable);
-            map.put(name, sampler);
-            scheduler.scheduleAtFixedRate(sampler, 0, sampler.getSamplingInterval(), TimeUnit.SECONDS);
-        }
-        finally {
-            samplerLock.unlock();
+        ConcurrentMap<String, Element<Double>> map = getGroup(samplers, group);
+        Sampler sampler = new Sampler(period, interval, variable);
+        if (map.putIfAbsent(name, sampler) != null) {
+            throw new RuntimeException(XLog.format("Sampler group=[{0}] name=[{1}] already defined", group, name));
         }
+        scheduler.scheduleAtFixedRate(sampler, 0, sampler.getSamplingInterval(), TimeUnit.SECONDS);
     }
 
     /**
@@ -14,49 +14,96 @@
  */
 package org.apache.oozie.util;
 
-import java.util.HashMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.locks.ReentrantReadWriteLock;
 import java.util.concurrent.locks.Lock;
 
 /**
  * In memory resource locking that provides READ/WRITE lock capabilities.
+ * <p/>
+ * Locks are fair read/write locks kept in a concurrent map, each lock entry is reference counted by the threads holding
+ * or waiting for it and it is removed from the map when the last of them is done with it. Obtaining and releasing an
+ * uncontended lock does not take any global monitor.
+ * <p/>
+ * If an {@link Instrumentation} is set, the time spent waiting for contended locks is recorded in the
+ * <code>locks</code> group, in a timer per entity type.
  */
 public class MemoryLocks {
-    final private HashMap<String, ReentrantReadWriteLock> locks = new HashMap<String, ReentrantReadWriteLock>();
+    private static final String INSTRUMENTATION_GROUP = "locks";
+
+    final private ConcurrentMap<String, LockEntry> locks = new ConcurrentHashMap<String, LockEntry>();
+    private volatile Instrumentation instrumentation;
 
     private static enum Type {
         READ, WRITE
     }
 
+    @SuppressWarnings("serial")
+    private static class LockEntry extends ReentrantReadWriteLock {
+        // references of the threads holding or waiting for the lock, once it drops to zero the entry is retired and
+        // it is never used again.
+        private final AtomicInteger references = new AtomicInteger(1);
+
+        public LockEntry() {
+            super(true);
+        }
+
+        public boolean retain() {
+            int refs = references.get();
+            while (refs > 0) {
+                if (references.compareAndSet(refs, refs + 1)) {
+                    return true;
+                }
+                refs = references.get();
+            }
+            return false;
+        }
+
+        public boolean release() {
+            return references.decrementAndGet() == 0;
+        }
+    }
+
     /**
      * Lock token returned when obtaining a lock, the token must be released when the lock is not needed anymore.
      */
-    public class LockToken {
-        private final ReentrantReadWriteLock rwLock;
+    public static interface LockToken {
+
+        /**
+         * Release the lock.
+         */
+        public void release();
+    }
+
+    private class MemoryLockToken implements LockToken {
+        private final LockEntry lockEntry;
         private final java.util.concurrent.locks.Lock lock;
         private final String resource;
 
-        private LockToken(ReentrantReadWriteLock rwLock, java.util.concurrent.locks.Lock lock, String resource) {
-            this.rwLock = rwLock;
+        private MemoryLockToken(LockEntry lockEntry, java.util.concurrent.locks.Lock lock, String resource) {
+            this.lockEntry = lockEntry;
             this.lock = lock;
             this.resource = resource;
         }
 
-        /**
-         * Release the lock.
-         */
         public void release() {
-            int val = rwLock.getQueueLength();
-            if (val == 0) {
-                synchronized (locks) {
-                    locks.remove(resource);
-                }
-            }
             lock.unlock();
+            releaseEntry(resource, lockEntry);
         }
     }
 
+    /**
+     * Set the instrumentation used to record the time spent waiting for contended locks.
+     *
+     * @param instrumentation instrumentation instance, <code>null</code> disables the recording.
+     */
+    public void setInstrumentation(Instrumentation instrumentation) {
+        this.instrumentation = instrumentation;
+    }
+
     /**
      * Return the number of active locks.
      *
@@ -90,41 +137,92 @@ public class MemoryLocks {
         return getLock(resource, Type.WRITE, wait);
     }
 
-    private LockToken getLock(String resource, Type type, long wait) throws InterruptedException {
-        ReentrantReadWriteLock lockEntry;
-        synchronized (locks) {
-            if (locks.containsKey(resource)) {
-                lockEntry = locks.get(resource);
+    private LockEntry retainEntry(String resource) {
+        while (true) {
+            LockEntry lockEntry = locks.get(resource);
+            if (lockEntry == null) {
+                LockEntry newEntry = new LockEntry();
+                lockEntry = locks.putIfAbsent(resource, newEntry);
+                if (lockEntry == null) {
+                    return newEntry;
+                }
             }
-            else {
-                lockEntry = new ReentrantReadWriteLock(true);
-                locks.put(resource, lockEntry);
+            if (lockEntry.retain()) {
+                return lockEntry;
             }
+            // retired entry, the releasing thread may not have removed it yet
+            locks.remove(resource, lockEntry);
         }
+    }
 
-        Lock lock = (type.equals(Type.READ)) ? lockEntry.readLock() : lockEntry.writeLock();
-
-        if (wait == -1) {
-            lock.lock();
+    private void releaseEntry(String resource, LockEntry lockEntry) {
+        if (lockEntry.release()) {
+            locks.remove(resource, lockEntry);
         }
-        else {
-            if (wait > 0) {
-                if (!lock.tryLock(wait, TimeUnit.MILLISECONDS)) {
-                    return null;
+    }
+
+    private LockToken getLock(String resource, Type type, long wait) throws InterruptedException {
+        LockEntry lockEntry = retainEntry(resource);
+        Lock lock = (type.equals(Type.READ)) ? lockEntry.readLock() : lockEntry.writeLock();
+        boolean locked = false;
+        try {
+            // a zero timeout tryLock honors the fairness of the lock, unlike tryLock()
+            locked = lock.tryLock(0, TimeUnit.MILLISECONDS);
+            if (!locked && wait != 0) {
+                Instrumentation.Cron cron = new Instrumentation.Cron();
+                cron.start();
+                if (wait == -1) {
+                    lock.lock();
+                    locked = true;
                 }
-            }
-            else {
-                if (!lock.tryLock()) {
-                    return null;
+                else {
+                    locked = lock.tryLock(wait, TimeUnit.MILLISECONDS);
                 }
+                cron.stop();
+                recordContention(resource, cron);
             }
         }
-        synchronized (locks) {
-            if (!locks.containsKey(resource)) {
-                locks.put(resource, lockEntry);
+        finally {
+            if (!locked) {
+                releaseEntry(resource, lockEntry);
             }
         }
-        return new LockToken(lockEntry, lock, resource);
+        return (locked) ? new MemoryLockToken(lockEntry, lock, resource) : null;
+    }
+
+    private void recordContention(String resource, Instrumentation.Cron cron) {
+        Instrumentation instr = instrumentation;
+        if (instr != null) {
+            instr.addCron(INSTRUMENTATION_GROUP, getEntityType(resource) + ".contention", cron);
+        }
+    }
+
+    /**
+     * Return the entity type of a lock resource, used to group lock contention statistics.
+     * <p/>
+     * Resources are usually job IDs (ending with <code>-W</code>, <code>-C</code> or <code>-B</code>), optionally
+     * followed by <code>@</code> and an action name or number.
+     *
+     * @param resource resource name.
+     * @return the entity type of the resource.
+     */
+    static String getEntityType(String resource) {
+        int index = resource.indexOf('@');
+        String id = (index == -1) ? resource : resource.substring(0, index);
+        String type;
+        if (id.endsWith("-W")) {
+            type = "workflow";
+        }
+        else if (id.endsWith("-C")) {
+            type = "coordinator";
+        }
+        else if (id.endsWith("-B")) {
+            type = "bundle";
+        }
+        else {
+            return "other";
+        }
+        return (index == -1) ? type : type + ".action";
     }
 
 }
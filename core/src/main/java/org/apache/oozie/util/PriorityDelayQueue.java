@@ -154,6 +154,31 @@ public class PriorityDelayQueue<E> extends AbstractQueue<PriorityDelayQueue.Queu
             }
         }
 
+        /**
+         * Increase the priority of the element by one, used by anti-starvation promotion.
+         */
+        void incrPriority() {
+            priority++;
+        }
+
+        /**
+         * Return if the element is currently in a queue.
+         *
+         * @return <tt>true</tt> if the element is currently in a queue.
+         */
+        boolean isInQueue() {
+            return inQueue;
+        }
+
+        /**
+         * Set if the element is currently in a queue.
+         *
+         * @param inQueue <tt>true</tt> if the element is currently in a queue.
+         */
+        void setInQueue(boolean inQueue) {
+            this.inQueue = inQueue;
+        }
+
         /**
          * Return the string representation of the wrapper element.
          *
@@ -208,9 +233,7 @@ public class PriorityDelayQueue<E> extends AbstractQueue<PriorityDelayQueue.Queu
         }
         this.maxWait = unit.toMillis(maxWait);
         this.maxSize = maxSize;
-        if (maxSize != -1) {
-            currentSize = new AtomicInteger();
-        }
+        currentSize = new AtomicInteger();
     }
 
     /**
@@ -273,16 +296,14 @@ public class PriorityDelayQueue<E> extends AbstractQueue<PriorityDelayQueue.Queu
 
     /**
      * Return the number of elements in the queue.
+     * <p/>
+     * The size is kept in an atomic counter, this method does not lock the sub-queues.
      *
      * @return the number of elements in the queue.
      */
     @Override
     public int size() {
-        int size = 0;
-        for (DelayQueue<QueueElement<E>> queue : queues) {
-            size += queue.size();
-        }
-        return size;
+        return currentSize.get();
     }
 
     /**
@@ -343,16 +364,14 @@ public class PriorityDelayQueue<E> extends AbstractQueue<PriorityDelayQueue.Queu
         if (queueElement.inQueue) {
             throw new IllegalStateException("queueElement already in a queue");
         }
-        if (!ignoreSize && currentSize != null && currentSize.get() >= maxSize) {
+        if (!ignoreSize && maxSize != -1 && currentSize.get() >= maxSize) {
             return false;
         }
         boolean accepted = queues[queueElement.getPriority()].offer(queueElement);
         debug("offer([{0}]), to P[{1}] delay[{2}ms] accepted[{3}]", queueElement.getElement().toString(),
               queueElement.getPriority(), queueElement.getDelay(TimeUnit.MILLISECONDS), accepted);
         if (accepted) {
-            if (currentSize != null) {
-                currentSize.incrementAndGet();
-            }
+            currentSize.incrementAndGet();
             queueElement.inQueue = true;
         }
         return accepted;
@@ -396,9 +415,7 @@ public class PriorityDelayQueue<E> extends AbstractQueue<PriorityDelayQueue.Queu
                 e = queues[i - 1].poll();
             }
             if (e != null) {
-                if (currentSize != null) {
-                    currentSize.decrementAndGet();
-                }
+                currentSize.decrementAndGet();
                 e.inQueue = false;
                 debug("poll(): [{1}], from P[{2}]", e.getElement().toString(), i);
             }
@@ -679,11 +696,7 @@ public class PriorityDelayQueue<E> extends AbstractQueue<PriorityDelayQueue.Queu
      */
     @Override
     public int drainTo(Collection<? super QueueElement<E>> c) {
-        int count = 0;
-        for (DelayQueue<QueueElement<E>> q : queues) {
-            count += q.drainTo(c);
-        }
-        return count;
+        return drainTo(c, Integer.MAX_VALUE);
     }
 
     /**
@@ -714,22 +727,46 @@ public class PriorityDelayQueue<E> extends AbstractQueue<PriorityDelayQueue.Queu
     @Override
     public int drainTo(Collection<? super QueueElement<E>> c, int maxElements) {
         int left = maxElements;
-        int count = 0;
+        List<QueueElement<E>> list = new ArrayList<QueueElement<E>>();
         for (DelayQueue<QueueElement<E>> q : queues) {
-            int drained = q.drainTo(c, left);
-            count += drained;
-            left -= drained;
+            left -= q.drainTo(list, left);
+        }
+        for (QueueElement<E> e : list) {
+            currentSize.decrementAndGet();
+            e.inQueue = false;
         }
-        return count;
+        c.addAll(list);
+        return list.size();
     }
 
     /**
      * Removes all of the elements from this queue. The queue will be empty after this call returns.
+     * <p/>
+     * Only the elements actually removed are subtracted from the size, elements offered while the queue is being
+     * cleared, without the lock, stay in the queue and in the size.
      */
     @Override
+    @SuppressWarnings("unchecked")
     public void clear() {
-        for (DelayQueue<QueueElement<E>> q : queues) {
-            q.clear();
+        try {
+            lock.lock();
+            for (DelayQueue<QueueElement<E>> q : queues) {
+                List<QueueElement<E>> removed = new ArrayList<QueueElement<E>>();
+                // drainTo only removes the expired elements, the delayed ones are removed one by one
+                q.drainTo(removed);
+                for (Object e : q.toArray()) {
+                    if (q.remove(e)) {
+                        removed.add((QueueElement<E>) e);
+                    }
+                }
+                for (QueueElement<E> e : removed) {
+                    e.inQueue = false;
+                }
+                currentSize.addAndGet(-removed.size());
+            }
+        }
+        finally {
+            lock.unlock();
         }
     }
 }
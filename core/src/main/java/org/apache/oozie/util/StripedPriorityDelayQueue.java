@@ -0,0 +1,691 @@
+/**
+ * Copyright (c) 2010 Yahoo! Inc. All rights reserved.
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License. See accompanying LICENSE file.
+ */
+package org.apache.oozie.util;
+
+import java.util.AbstractQueue;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.ConcurrentModificationException;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+import org.apache.oozie.util.PriorityDelayQueue.QueueElement;
+
+/**
+ * A lock-free alternative to the {@link PriorityDelayQueue} for highly concurrent producers and consumers.
+ * <p/>
+ * Elements use the same {@link QueueElement} wrapper, have the same priority and delay semantics and the same
+ * anti-starvation behavior as in the {@link PriorityDelayQueue}.
+ * <p/>
+ * Elements ready for consumption are kept in one lock-free FIFO sub-queue per priority. Offering an element with no
+ * delay and polling an element never take a lock.
+ * <p/>
+ * Elements queued into the future are handed over, lock-free, to a hashed timing wheel. The timing wheel is advanced
+ * every {@link #TICK} milliseconds, elements whose delay has expired are moved to the sub-queue of their priority.
+ * <p/>
+ * The timing wheel advance and the anti-starvation check are done by the polling threads, but only one thread does it
+ * at a time and no thread waits for it: threads that find the maintenance being done by another thread go on polling
+ * the ready sub-queues.
+ * <p/>
+ * Consumers blocked in {@link #take()} or {@link #poll(long, TimeUnit)} are signaled when an element becomes ready.
+ * While there are elements queued into the future they also wake up every {@link #TICK} milliseconds to advance the
+ * timing wheel. Producers only take the signaling lock when there are blocked consumers.
+ */
+public class StripedPriorityDelayQueue<E> extends AbstractQueue<QueueElement<E>>
+        implements BlockingQueue<QueueElement<E>> {
+
+    /**
+     * Frequency, in milliseconds, of the anti-starvation check.
+     */
+    public static final long ANTI_STARVATION_INTERVAL = PriorityDelayQueue.ANTI_STARVATION_INTERVAL;
+
+    /**
+     * Resolution, in milliseconds, of the timing wheel.
+     */
+    public static final long TICK = 10;
+
+    /**
+     * Number of buckets of the timing wheel.
+     */
+    public static final int WHEEL_SIZE = 1024;
+
+    private int priorities;
+    private ConcurrentLinkedQueue<QueueElement<E>>[] queues;
+    private AtomicInteger[] queueSizes;
+    private ConcurrentLinkedQueue<QueueElement<E>> incoming;
+    private ConcurrentLinkedQueue<QueueElement<E>>[] wheel;
+    private AtomicInteger delayedSize = new AtomicInteger();
+    private transient final ReentrantLock maintenanceLock = new ReentrantLock();
+    private transient final ReentrantLock waitLock = new ReentrantLock();
+    private transient final Condition notEmpty = waitLock.newCondition();
+    private AtomicInteger waiters = new AtomicInteger();
+    private transient volatile long nextMaintenance = 0;
+    private transient long lastTick;
+    private transient long lastAntiStarvationCheck = 0;
+    private long maxWait;
+    private int maxSize;
+    private AtomicInteger currentSize = new AtomicInteger();
+
+    /**
+     * Create a <code>StripedPriorityDelayQueue</code>.
+     *
+     * @param priorities number of priorities the queue will support.
+     * @param maxWait max wait time for elements before they are promoted to the next higher priority.
+     * @param unit time unit of the max wait time.
+     * @param maxSize maximum size of the queue, -1 means unbounded.
+     */
+    @SuppressWarnings("unchecked")
+    public StripedPriorityDelayQueue(int priorities, long maxWait, TimeUnit unit, int maxSize) {
+        if (priorities < 1) {
+            throw new IllegalArgumentException("priorities must be 1 or more");
+        }
+        if (maxWait < 0) {
+            throw new IllegalArgumentException("maxWait must be greater than 0");
+        }
+        if (maxSize < -1 || maxSize == 0) {
+            throw new IllegalArgumentException("maxSize must be -1 or greater than 0");
+        }
+        this.priorities = priorities;
+        queues = new ConcurrentLinkedQueue[priorities];
+        queueSizes = new AtomicInteger[priorities];
+        for (int i = 0; i < priorities; i++) {
+            queues[i] = new ConcurrentLinkedQueue<QueueElement<E>>();
+            queueSizes[i] = new AtomicInteger();
+        }
+        incoming = new ConcurrentLinkedQueue<QueueElement<E>>();
+        wheel = new ConcurrentLinkedQueue[WHEEL_SIZE];
+        for (int i = 0; i < WHEEL_SIZE; i++) {
+            wheel[i] = new ConcurrentLinkedQueue<QueueElement<E>>();
+        }
+        lastTick = System.currentTimeMillis() / TICK - 1;
+        this.maxWait = unit.toMillis(maxWait);
+        this.maxSize = maxSize;
+    }
+
+    /**
+     * Return number of priorities the queue supports.
+     *
+     * @return number of priorities the queue supports.
+     */
+    public int getPriorities() {
+        return priorities;
+    }
+
+    /**
+     * Return the max wait time for elements before they are promoted to the next higher priority.
+     *
+     * @param unit time unit of the max wait time.
+     *
+     * @return the max wait time in the specified time unit.
+     */
+    public long getMaxWait(TimeUnit unit) {
+        return unit.convert(maxWait, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Return the maximum queue size.
+     *
+     * @return the maximum queue size. If <code>-1</code> the queue is unbounded.
+     */
+    public long getMaxSize() {
+        return maxSize;
+    }
+
+    /**
+     * Return an iterator over all the {@link QueueElement} elements (both expired and unexpired) in this queue. The
+     * iterator does not return the elements in any particular order.  The returned <tt>Iterator</tt> is a "weakly
+     * consistent" iterator that will never throw {@link ConcurrentModificationException}, and guarantees to traverse
+     * elements as they existed upon construction of the iterator, and may (but is not guaranteed to) reflect any
+     * modifications subsequent to construction.
+     *
+     * @return an iterator over the {@link QueueElement} elements in this queue.
+     */
+    @Override
+    public Iterator<QueueElement<E>> iterator() {
+        List<QueueElement<E>> list = new ArrayList<QueueElement<E>>();
+        for (ConcurrentLinkedQueue<QueueElement<E>> queue : queues) {
+            list.addAll(queue);
+        }
+        list.addAll(iterator0());
+        return list.iterator();
+    }
+
+    /**
+     * Return the number of elements in the queue.
+     *
+     * @return the number of elements in the queue.
+     */
+    @Override
+    public int size() {
+        return currentSize.get();
+    }
+
+    /**
+     * Return the number of elements on each priority sub-queue.
+     * <p/>
+     * Elements queued into the future are counted in the sub-queue of their priority.
+     *
+     * @return the number of elements on each priority sub-queue.
+     */
+    public int[] sizes() {
+        int[] sizes = new int[priorities];
+        for (int i = 0; i < priorities; i++) {
+            sizes[i] = queueSizes[i].get();
+        }
+        return sizes;
+    }
+
+    /**
+     * Inserts the specified element into this queue if it is possible to do
+     * so immediately without violating capacity restrictions, returning
+     * <tt>true</tt> upon success and throwing an
+     * <tt>IllegalStateException</tt> if no space is currently available.
+     * When using a capacity-restricted queue, it is generally preferable to
+     * use {@link #offer(Object) offer}.
+     *
+     * @param queueElement the {@link QueueElement} element to add.
+     * @return <tt>true</tt> (as specified by {@link Collection#add})
+     * @throws IllegalStateException if the element cannot be added at this
+     *         time due to capacity restrictions
+     * @throws NullPointerException if the specified element is null
+     * @throws IllegalArgumentException if some property of the specified
+     *         element prevents it from being added to this queue
+     */
+    @Override
+    public boolean add(QueueElement<E> queueElement) {
+        return offer(queueElement, false);
+    }
+
+    /**
+     * Insert the specified {@link QueueElement} element into the queue.
+     *
+     * @param queueElement the {@link QueueElement} element to add.
+     * @param ignoreSize if the queue is bound to a maximum size and the maximum size is reached, this parameter (if set
+     * to <tt>true</tt>) allows to ignore the maximum size and add the element to the queue.
+     *
+     * @return <tt>true</tt> if the element has been inserted, <tt>false</tt> if the element was not inserted (the queue
+     *         has reached its maximum size).
+     *
+     * @throws NullPointerException if the specified element is null
+     */
+    boolean offer(QueueElement<E> queueElement, boolean ignoreSize) {
+        if (queueElement == null) {
+            throw new NullPointerException("queueElement is NULL");
+        }
+        if (queueElement.getPriority() < 0 || queueElement.getPriority() >= priorities) {
+            throw new IllegalArgumentException("priority out of range");
+        }
+        if (queueElement.isInQueue()) {
+            throw new IllegalStateException("queueElement already in a queue");
+        }
+        if (!ignoreSize && maxSize != -1) {
+            int size;
+            do {
+                size = currentSize.get();
+                if (size >= maxSize) {
+                    return false;
+                }
+            } while (!currentSize.compareAndSet(size, size + 1));
+        }
+        else {
+            currentSize.incrementAndGet();
+        }
+        queueElement.setInQueue(true);
+        queueSizes[queueElement.getPriority()].incrementAndGet();
+        if (queueElement.getDelay(TimeUnit.MILLISECONDS) <= 0) {
+            queues[queueElement.getPriority()].offer(queueElement);
+            signalWaiters(false);
+        }
+        else {
+            delayedSize.incrementAndGet();
+            incoming.offer(queueElement);
+            signalWaiters(false);
+        }
+        debug("offer([{0}]), to P[{1}] delay[{2}ms] accepted[{3}]", queueElement.getElement().toString(),
+              queueElement.getPriority(), queueElement.getDelay(TimeUnit.MILLISECONDS), true);
+        return true;
+    }
+
+    /**
+     * Insert the specified element into the queue.
+     *
+     * @param queueElement the element to add.
+     *
+     * @return <tt>true</tt> if the element has been inserted, <tt>false</tt> if the element was not inserted (the queue
+     *         has reached its maximum size).
+     *
+     * @throws NullPointerException if the specified element is null
+     */
+    @Override
+    public boolean offer(QueueElement<E> queueElement) {
+        return offer(queueElement, false);
+    }
+
+    /**
+     * Retrieve and remove the head of this queue, or return <tt>null</tt> if this queue has no elements with an expired
+     * delay.
+     * <p/>
+     * The retrieved element is the oldest one from the highest priority sub-queue.
+     * <p/>
+     * Invocations to this method may advance the timing wheel and run the anti-starvation check, if no other thread is
+     * doing it.
+     *
+     * @return the head of this queue, or <tt>null</tt> if this queue has no elements with an expired delay.
+     */
+    @Override
+    public QueueElement<E> poll() {
+        maintenance();
+        for (int i = priorities - 1; i >= 0; i--) {
+            QueueElement<E> e = queues[i].poll();
+            if (e != null) {
+                queueSizes[e.getPriority()].decrementAndGet();
+                currentSize.decrementAndGet();
+                e.setInQueue(false);
+                debug("poll(): [{0}], from P[{1}]", e.getElement().toString(), i);
+                return e;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Retrieve, but does not remove, the head of this queue, or returns <tt>null</tt> if this queue is empty.  Unlike
+     * <tt>poll</tt>, if no expired elements are available in the queue, this method returns the element that will
+     * expire next, if one exists.
+     * <p/>
+     * Finding the element that will expire next requires traversing the timing wheel, this method is not meant to be
+     * used in hot code paths.
+     *
+     * @return the head of this queue, or <tt>null</tt> if this queue is empty.
+     */
+    @Override
+    public QueueElement<E> peek() {
+        maintenance();
+        for (int i = priorities - 1; i >= 0; i--) {
+            QueueElement<E> e = queues[i].peek();
+            if (e != null) {
+                debug("peek(): [{0}], from P[{1}]", e.getElement().toString(), i);
+                return e;
+            }
+        }
+        QueueElement<E> e = null;
+        for (QueueElement<E> ee : iterator0()) {
+            if (e == null || ee.getDelay(TimeUnit.MILLISECONDS) < e.getDelay(TimeUnit.MILLISECONDS)) {
+                e = ee;
+            }
+        }
+        if (e != null) {
+            debug("peek(): [{0}], from P[{1}]", e.getElement().toString(), e.getPriority());
+        }
+        else {
+            debug("peek(): NULL");
+        }
+        return e;
+    }
+
+    /**
+     * Return the elements queued into the future. The timing wheel buckets are traversed without locking, elements
+     * moved by a concurrent maintenance may be missed.
+     *
+     * @return the elements queued into the future.
+     */
+    private List<QueueElement<E>> iterator0() {
+        List<QueueElement<E>> list = new ArrayList<QueueElement<E>>();
+        list.addAll(incoming);
+        for (ConcurrentLinkedQueue<QueueElement<E>> bucket : wheel) {
+            list.addAll(bucket);
+        }
+        return list;
+    }
+
+    /**
+     * Wake up consumers blocked waiting for an element, if any.
+     *
+     * @param all if all the blocked consumers or only one should be woken up.
+     */
+    private void signalWaiters(boolean all) {
+        if (waiters.get() > 0) {
+            waitLock.lock();
+            try {
+                if (all) {
+                    notEmpty.signalAll();
+                }
+                else {
+                    notEmpty.signal();
+                }
+            }
+            finally {
+                waitLock.unlock();
+            }
+        }
+    }
+
+    /**
+     * Retrieve and remove the head of this queue, blocking until an element is ready or the deadline is reached.
+     * <p/>
+     * The blocked thread registers itself as waiter before polling again, so an element offered after that poll
+     * always signals it.
+     *
+     * @param deadline deadline in milliseconds, <tt>-1</tt> for no deadline.
+     * @return the head of the queue, or <tt>null</tt> if the deadline was reached.
+     * @throws InterruptedException if interrupted while waiting
+     */
+    private QueueElement<E> pollUntil(long deadline) throws InterruptedException {
+        QueueElement<E> e = poll();
+        while (e == null) {
+            long wait = (deadline == -1) ? Long.MAX_VALUE : deadline - System.currentTimeMillis();
+            if (wait <= 0) {
+                return null;
+            }
+            waitLock.lockInterruptibly();
+            try {
+                waiters.incrementAndGet();
+                try {
+                    e = poll();
+                    if (e == null) {
+                        if (delayedSize.get() > 0) {
+                            wait = Math.min(wait, Math.max(1, nextMaintenance - System.currentTimeMillis()));
+                        }
+                        if (wait == Long.MAX_VALUE) {
+                            notEmpty.await();
+                        }
+                        else {
+                            notEmpty.await(wait, TimeUnit.MILLISECONDS);
+                        }
+                    }
+                }
+                finally {
+                    waiters.decrementAndGet();
+                }
+            }
+            finally {
+                waitLock.unlock();
+            }
+            if (e == null) {
+                e = poll();
+            }
+        }
+        return e;
+    }
+
+    /**
+     * Advance the timing wheel and run the anti-starvation check, at most once every {@link #TICK} milliseconds.
+     * <p/>
+     * If another thread is already doing it, this method returns immediately.
+     */
+    private void maintenance() {
+        long now = System.currentTimeMillis();
+        if (now >= nextMaintenance && maintenanceLock.tryLock()) {
+            try {
+                long currentTick = now / TICK;
+                advanceWheel(currentTick);
+                drainIncoming(currentTick);
+                if (now - lastAntiStarvationCheck > ANTI_STARVATION_INTERVAL) {
+                    antiStarvation();
+                    lastAntiStarvationCheck = System.currentTimeMillis();
+                }
+                nextMaintenance = (currentTick + 1) * TICK;
+            }
+            finally {
+                maintenanceLock.unlock();
+            }
+        }
+    }
+
+    /**
+     * Move an element whose delay expired to its priority sub-queue.
+     *
+     * @param e the element.
+     */
+    private void ready(QueueElement<E> e) {
+        delayedSize.decrementAndGet();
+        queues[e.getPriority()].offer(e);
+        signalWaiters(false);
+    }
+
+    /**
+     * Move the expired elements of all the fully elapsed ticks of the timing wheel to their priority sub-queues.
+     * <p/>
+     * Must be called holding the maintenance lock.
+     *
+     * @param currentTick the current tick, it is not processed as it has not fully elapsed.
+     */
+    private void advanceWheel(long currentTick) {
+        long ticks = Math.min(currentTick - 1 - lastTick, WHEEL_SIZE);
+        for (long tick = currentTick - ticks; tick < currentTick; tick++) {
+            Iterator<QueueElement<E>> it = wheel[(int) (tick % WHEEL_SIZE)].iterator();
+            while (it.hasNext()) {
+                QueueElement<E> e = it.next();
+                if (e.getDelay(TimeUnit.MILLISECONDS) <= 0) {
+                    it.remove();
+                    ready(e);
+                }
+            }
+        }
+        lastTick = currentTick - 1;
+    }
+
+    /**
+     * Move the elements offered with a delay to the timing wheel, or to their priority sub-queue if their delay
+     * already expired.
+     * <p/>
+     * Must be called holding the maintenance lock and after advancing the timing wheel to the current tick.
+     *
+     * @param currentTick the current tick.
+     */
+    private void drainIncoming(long currentTick) {
+        QueueElement<E> e = incoming.poll();
+        while (e != null) {
+            long delay = e.getDelay(TimeUnit.MILLISECONDS);
+            if (delay <= 0) {
+                ready(e);
+            }
+            else {
+                long tick = Math.max((System.currentTimeMillis() + delay) / TICK, currentTick);
+                wheel[(int) (tick % WHEEL_SIZE)].add(e);
+            }
+            e = incoming.poll();
+        }
+    }
+
+    /**
+     * Promote elements beyond max wait time to the next higher priority sub-queue.
+     * <p/>
+     * Must be called holding the maintenance lock.
+     */
+    private void antiStarvation() {
+        for (int i = priorities - 2; i >= 0; i--) {
+            int moved = 0;
+            QueueElement<E> e = queues[i].peek();
+            while (e != null && e.getDelay(TimeUnit.MILLISECONDS) < -maxWait) {
+                if (queues[i].remove(e)) {
+                    e.setDelay(0, TimeUnit.MILLISECONDS);
+                    queueSizes[i].decrementAndGet();
+                    e.incrPriority();
+                    queueSizes[i + 1].incrementAndGet();
+                    queues[i + 1].offer(e);
+                    moved++;
+                }
+                e = queues[i].peek();
+            }
+            debug("anti-starvation, moved {0} element(s) from P[{1}] to P[{2}]", moved, i, i + 1);
+        }
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < priorities; i++) {
+            sb.append("P[").append(i).append("]=").append(queueSizes[i].get()).append(" ");
+        }
+        debug("sub-queue sizes: {0}", sb.toString());
+    }
+
+    /**
+     * Method for debugging purposes. This implementation is a <tt>NOP</tt>.
+     * <p/>
+     * This method should be overriden for logging purposes.
+     * <p/>
+     * Message templates used by this class are in JDK's <tt>MessageFormat</tt> syntax.
+     *
+     * @param msgTemplate message template.
+     * @param msgArgs arguments for the message template.
+     */
+    protected void debug(String msgTemplate, Object... msgArgs) {
+    }
+
+    //BlockingQueue implementation
+
+    /**
+     * Insert the specified element into this queue, waiting if necessary
+     * for space to become available.
+     * <p/>
+     * NOTE: This method is to fulfill the <tt>BlockingQueue<tt/> interface. Not implemented in the most optimal way.
+     *
+     * @param e the element to add
+     * @throws InterruptedException if interrupted while waiting
+     */
+    @Override
+    public void put(QueueElement<E> e) throws InterruptedException {
+        while (!offer(e, true)) {
+            Thread.sleep(10);
+        }
+    }
+
+    /**
+     * Insert the specified element into this queue, waiting up to the
+     * specified wait time if necessary for space to become available.
+     * <p/>
+     * IMPORTANT: This implementation forces the addition of the element to the queue regardless
+     * of the queue current size. The timeout value is ignored as the element is added immediately.
+     *
+     * @param e the element to add
+     * @param timeout how long to wait before giving up, in units of
+     *        <tt>unit</tt>
+     * @param unit a <tt>TimeUnit</tt> determining how to interpret the
+     *        <tt>timeout</tt> parameter
+     * @return <tt>true</tt> if successful, or <tt>false</tt> if
+     *         the specified waiting time elapses before space is available
+     * @throws InterruptedException if interrupted while waiting
+     */
+    @Override
+    public boolean offer(QueueElement<E> e, long timeout, TimeUnit unit) throws InterruptedException {
+        return offer(e, true);
+    }
+
+    /**
+     * Retrieve and removes the head of this queue, waiting if necessary
+     * until an element becomes available.
+     * <p/>
+     * Elements offered with no delay wake up the waiting thread immediately, elements queued into the future are
+     * detected with the resolution of the timing wheel.
+     *
+     * @return the head of this queue
+     * @throws InterruptedException if interrupted while waiting
+     */
+    @Override
+    public QueueElement<E> take() throws InterruptedException {
+        return pollUntil(-1);
+    }
+
+    /**
+     * Retrieve and removes the head of this queue, waiting up to the
+     * specified wait time if necessary for an element to become available.
+     *
+     * @param timeout how long to wait before giving up, in units of
+     *        <tt>unit</tt>
+     * @param unit a <tt>TimeUnit</tt> determining how to interpret the
+     *        <tt>timeout</tt> parameter
+     * @return the head of this queue, or <tt>null</tt> if the
+     *         specified waiting time elapses before an element is available
+     * @throws InterruptedException if interrupted while waiting
+     */
+    @Override
+    public QueueElement<E> poll(long timeout, TimeUnit unit) throws InterruptedException {
+        return pollUntil(System.currentTimeMillis() + unit.toMillis(timeout));
+    }
+
+    /**
+     * Return the number of additional elements that this queue can ideally
+     * (in the absence of memory or resource constraints) accept without
+     * blocking, or <tt>-1</tt> if there is no intrinsic limit.
+     *
+     * @return the remaining capacity
+     */
+    @Override
+    public int remainingCapacity() {
+        return (maxSize == -1) ? -1 : maxSize - size();
+    }
+
+    /**
+     * Remove all available elements from this queue and adds them
+     * to the given collection.
+     *
+     * @param c the collection to transfer elements into
+     * @return the number of elements transferred
+     */
+    @Override
+    public int drainTo(Collection<? super QueueElement<E>> c) {
+        return drainTo(c, Integer.MAX_VALUE);
+    }
+
+    /**
+     * Remove at most the given number of available elements from
+     * this queue and adds them to the given collection.
+     *
+     * @param c the collection to transfer elements into
+     * @param maxElements the maximum number of elements to transfer
+     * @return the number of elements transferred
+     */
+    @Override
+    public int drainTo(Collection<? super QueueElement<E>> c, int maxElements) {
+        if (c == this) {
+            throw new IllegalArgumentException("cannot drain a queue to itself");
+        }
+        int count = 0;
+        QueueElement<E> e = null;
+        while (count < maxElements && (e = poll()) != null) {
+            c.add(e);
+            count++;
+        }
+        return count;
+    }
+
+    /**
+     * Removes all of the elements from this queue. The queue will be empty after this call returns.
+     */
+    @Override
+    public void clear() {
+        try {
+            maintenanceLock.lock();
+            for (int i = 0; i < priorities; i++) {
+                queues[i].clear();
+                queueSizes[i].set(0);
+            }
+            incoming.clear();
+            for (ConcurrentLinkedQueue<QueueElement<E>> bucket : wheel) {
+                bucket.clear();
+            }
+            delayedSize.set(0);
+            currentSize.set(0);
+        }
+        finally {
+            maintenanceLock.unlock();
+        }
+    }
+
+}
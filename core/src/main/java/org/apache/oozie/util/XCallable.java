@@ -52,4 +52,13 @@ public interface XCallable<T> extends Callable<T> {
      */
     public long getCreatedTime();
 
+    /**
+     * Return the key of the callable. <p/> The {@link org.apache.oozie.service.CallableQueueService} does not queue a
+     * callable if another callable with the same key is already queued, waiting for execution. <p/> Callables with a
+     * <code>null</code> key are always queued.
+     *
+     * @return the callable key, <code>null</code> if the callable must always be queued.
+     */
+    public String getKey();
+
 }
@@ -0,0 +1,346 @@
+/**
+ * Copyright (c) 2010 Yahoo! Inc. All rights reserved.
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License. See accompanying LICENSE file.
+ */
+package org.apache.oozie.util;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.zip.GZIPInputStream;
+
+/**
+ * Index of a rotated log file, mapping the values of a log context parameter (the job id) to the byte ranges of the
+ * log statements having that value.
+ * <p/>
+ * A log statement starts with a line beginning with a timestamp and includes the following continuation lines.
+ * Consecutive statements with the same value are merged in a single range. For gzipped files the offsets are in the
+ * uncompressed stream.
+ * <p/>
+ * The index is written in a sidecar file, next to the log file, the first time it is built. It is reused as long as
+ * the length and the modification time of the log file do not change, rotated log files are not modified.
+ */
+public class XLogIndex {
+
+    /**
+     * Suffix of the index files.
+     */
+    public static final String SUFFIX = ".idx";
+
+    private static final int VERSION = 1;
+    private static final int BUFFER_SIZE = 64 * 1024;
+    private static final String TIMESTAMP_FORMAT = "dddd-dd-dd dd:dd:dd,ddd";
+
+    private static final XLog LOG = XLog.getLog(XLogIndex.class);
+
+    private String parameter;
+    private Map<String, long[]> ranges;
+
+    private XLogIndex(String parameter, Map<String, long[]> ranges) {
+        this.parameter = parameter;
+        this.ranges = ranges;
+    }
+
+    /**
+     * Return the name of the log context parameter indexed.
+     *
+     * @return the name of the log context parameter indexed.
+     */
+    public String getParameter() {
+        return parameter;
+    }
+
+    /**
+     * Return the byte ranges of the log statements having a value.
+     *
+     * @param value value of the parameter.
+     * @return the start (inclusive) and end (exclusive) offsets of each range, in file order, <code>null</code> if no
+     *         log statement has the value.
+     */
+    public long[] getRanges(String value) {
+        return ranges.get(value);
+    }
+
+    /**
+     * Return the number of values indexed.
+     *
+     * @return the number of values indexed.
+     */
+    public int size() {
+        return ranges.size();
+    }
+
+    /**
+     * Return the index of a log file, reading it from its sidecar file or building it.
+     * <p/>
+     * If the sidecar file is missing or stale the index is built and the sidecar file is written. If the sidecar file
+     * cannot be written the built index is returned anyway.
+     *
+     * @param logFile log file, gzipped if its name ends with <code>.gz</code>.
+     * @param parameter name of the log context parameter to index.
+     * @return the index of the log file.
+     * @throws IOException thrown if the log file could not be read.
+     */
+    public static XLogIndex get(File logFile, String parameter) throws IOException {
+        ParamChecker.notEmpty(parameter, "parameter");
+        File indexFile = getIndexFile(logFile);
+        long length = logFile.length();
+        long modTime = logFile.lastModified();
+        if (indexFile.exists()) {
+            try {
+                XLogIndex index = read(indexFile, parameter, length, modTime);
+                if (index != null) {
+                    return index;
+                }
+            }
+            catch (IOException ex) {
+                LOG.warn("Could not read log index [{0}], {1}", indexFile, ex.getMessage());
+            }
+        }
+        InputStream is = open(logFile);
+        XLogIndex index;
+        try {
+            index = build(is, parameter);
+        }
+        finally {
+            is.close();
+        }
+        try {
+            write(index, indexFile, length, modTime);
+        }
+        catch (IOException ex) {
+            LOG.warn("Could not write log index [{0}], {1}", indexFile, ex.getMessage());
+        }
+        return index;
+    }
+
+    /**
+     * Return the sidecar index file of a log file.
+     *
+     * @param logFile log file.
+     * @return the index file.
+     */
+    public static File getIndexFile(File logFile) {
+        return new File(logFile.getParentFile(), logFile.getName() + SUFFIX);
+    }
+
+    /**
+     * Open a log file, decompressing it if its name ends with <code>.gz</code>.
+     *
+     * @param logFile log file.
+     * @return an input stream with the log content.
+     * @throws IOException thrown if the file could not be opened.
+     */
+    public static InputStream open(File logFile) throws IOException {
+        InputStream is = new FileInputStream(logFile);
+        if (logFile.getName().endsWith(".gz")) {
+            is = new GZIPInputStream(new BufferedInputStream(is, BUFFER_SIZE), BUFFER_SIZE);
+        }
+        return is;
+    }
+
+    /**
+     * Build the index of a log stream.
+     *
+     * @param is log stream, it is not closed.
+     * @param parameter name of the log context parameter to index.
+     * @return the index of the log stream.
+     * @throws IOException thrown if the log stream could not be read.
+     */
+    public static XLogIndex build(InputStream is, String parameter) throws IOException {
+        Builder builder = new Builder(parameter);
+        byte[] buffer = new byte[BUFFER_SIZE];
+        byte[] line = new byte[1024];
+        int lineLength = 0;
+        long offset = 0;
+        long lineStart = 0;
+        int read;
+        while ((read = is.read(buffer)) != -1) {
+            for (int i = 0; i < read; i++) {
+                byte b = buffer[i];
+                offset++;
+                if (b != '\n') {
+                    if (lineLength == line.length) {
+                        byte[] grown = new byte[line.length * 2];
+                        System.arraycopy(line, 0, grown, 0, lineLength);
+                        line = grown;
+                    }
+                    line[lineLength++] = b;
+                }
+                else {
+                    builder.addLine(line, lineLength, lineStart);
+                    lineLength = 0;
+                    lineStart = offset;
+                }
+            }
+        }
+        if (lineLength > 0) {
+            builder.addLine(line, lineLength, lineStart);
+        }
+        return builder.build(offset);
+    }
+
+    private static boolean isStatementStart(byte[] line, int length) {
+        if (length < TIMESTAMP_FORMAT.length()) {
+            return false;
+        }
+        for (int i = 0; i < TIMESTAMP_FORMAT.length(); i++) {
+            char c = TIMESTAMP_FORMAT.charAt(i);
+            if ((c == 'd') ? (line[i] < '0' || line[i] > '9') : line[i] != c) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static XLogIndex read(File indexFile, String parameter, long length, long modTime) throws IOException {
+        DataInputStream dis = new DataInputStream(new BufferedInputStream(new FileInputStream(indexFile),
+                BUFFER_SIZE));
+        try {
+            if (dis.readInt() != VERSION || !dis.readUTF().equals(parameter) || dis.readLong() != length
+                    || dis.readLong() != modTime) {
+                return null;
+            }
+            int size = dis.readInt();
+            Map<String, long[]> ranges = new HashMap<String, long[]>(size * 4 / 3 + 1);
+            for (int i = 0; i < size; i++) {
+                String value = dis.readUTF();
+                long[] valueRanges = new long[dis.readInt()];
+                for (int j = 0; j < valueRanges.length; j++) {
+                    valueRanges[j] = dis.readLong();
+                }
+                ranges.put(value, valueRanges);
+            }
+            return new XLogIndex(parameter, ranges);
+        }
+        finally {
+            dis.close();
+        }
+    }
+
+    private static void write(XLogIndex index, File indexFile, long length, long modTime) throws IOException {
+        //written to a temporary file and renamed, concurrent readers never see a partial index
+        File tmp = File.createTempFile("." + indexFile.getName(), ".tmp", indexFile.getParentFile());
+        try {
+            DataOutputStream dos = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(tmp),
+                    BUFFER_SIZE));
+            try {
+                dos.writeInt(VERSION);
+                dos.writeUTF(index.parameter);
+                dos.writeLong(length);
+                dos.writeLong(modTime);
+                dos.writeInt(index.ranges.size());
+                for (Map.Entry<String, long[]> entry : index.ranges.entrySet()) {
+                    dos.writeUTF(entry.getKey());
+                    dos.writeInt(entry.getValue().length);
+                    for (long offset : entry.getValue()) {
+                        dos.writeLong(offset);
+                    }
+                }
+            }
+            finally {
+                dos.close();
+            }
+            indexFile.delete();
+            if (!tmp.renameTo(indexFile)) {
+                throw new IOException("Could not rename [" + tmp + "] to [" + indexFile + "]");
+            }
+        }
+        finally {
+            tmp.delete();
+        }
+    }
+
+    /**
+     * Builds the ranges from the lines of a log stream.
+     */
+    private static class Builder {
+        private String parameter;
+        private Pattern valuePattern;
+        private Map<String, LongList> ranges = new HashMap<String, LongList>();
+        private String current = null;
+        private long rangeStart = 0;
+
+        Builder(String parameter) {
+            this.parameter = parameter;
+            valuePattern = Pattern.compile(Pattern.quote(parameter) + "\\[([^\\]]*)\\]");
+        }
+
+        void addLine(byte[] line, int length, long lineStart) throws IOException {
+            if (isStatementStart(line, length)) {
+                //ids are ASCII, a single byte charset keeps the value intact
+                Matcher matcher = valuePattern.matcher(new String(line, 0, length, "ISO-8859-1"));
+                String value = (matcher.find()) ? matcher.group(1) : null;
+                if (value == null || !value.equals(current)) {
+                    addRange(lineStart);
+                    current = value;
+                    rangeStart = lineStart;
+                }
+            }
+        }
+
+        private void addRange(long end) {
+            if (current != null && end > rangeStart) {
+                LongList list = ranges.get(current);
+                if (list == null) {
+                    list = new LongList();
+                    ranges.put(current, list);
+                }
+                list.add(rangeStart);
+                list.add(end);
+            }
+        }
+
+        XLogIndex build(long end) {
+            addRange(end);
+            Map<String, long[]> map = new HashMap<String, long[]>(ranges.size() * 4 / 3 + 1);
+            for (Map.Entry<String, LongList> entry : ranges.entrySet()) {
+                map.put(entry.getKey(), entry.getValue().toArray());
+            }
+            return new XLogIndex(parameter, map);
+        }
+    }
+
+    /**
+     * Growable array of longs, avoids boxing the offsets while building the index.
+     */
+    private static class LongList {
+        private long[] values = new long[4];
+        private int size;
+
+        void add(long value) {
+            if (size == values.length) {
+                long[] grown = new long[size * 2];
+                System.arraycopy(values, 0, grown, 0, size);
+                values = grown;
+            }
+            values[size++] = value;
+        }
+
+        long[] toArray() {
+            long[] array = new long[size];
+            System.arraycopy(values, 0, array, 0, size);
+            return array;
+        }
+    }
+}
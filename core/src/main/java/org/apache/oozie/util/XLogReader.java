@@ -56,7 +56,8 @@ public class XLogReader {
         }
         while (line != null) {
             if (noFilter) {
-                logWriter.write(line + "\n");
+                logWriter.write(line);
+                logWriter.write('\n');
             }
             else {
                 ArrayList<String> logParts = logFilter.splitLogMessage(line);
@@ -64,7 +65,8 @@ public class XLogReader {
                     patternMatched = logFilter.matches(logParts);
                 }
                 if (patternMatched) {
-                    logWriter.write(line + "\n");
+                    logWriter.write(line);
+                    logWriter.write('\n');
                 }
             }
             lcnt++;
@@ -19,6 +19,7 @@ import java.io.FileInputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.Writer;
+import java.nio.channels.FileChannel;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.Date;
@@ -30,6 +31,10 @@ import java.util.regex.Pattern;
 
 /**
  * XLogStreamer streams the given log file to logWriter after applying the given filter.
+ * <p/>
+ * When the filter has a literal value for the index parameter (the job id), the rotated log files are read through
+ * their {@link XLogIndex}: files without the value are skipped and only the byte ranges of the value are read. Rotated
+ * files ending with <code>.gz</code> are decompressed.
  */
 public class XLogStreamer {
 
@@ -42,6 +47,7 @@ public class XLogStreamer {
         private Map<String, Integer> logLevels;
         private Map<String, String> filterParams;
         private static List<String> parameters = new ArrayList<String>();
+        private static String indexParameter = null;
         private boolean noFilter;
         private Pattern filterPattern;
 
@@ -55,6 +61,7 @@ public class XLogStreamer {
         private static final String PREFIX_REGEX = TIMESTAMP_REGEX + WHITE_SPACE_REGEX + LOG_LEVEL_REGEX
                 + WHITE_SPACE_REGEX;
         private static final Pattern SPLITTER_PATTERN = Pattern.compile(PREFIX_REGEX + ALLOW_ALL_REGEX);
+        private static final Pattern INDEX_VALUE_PATTERN = Pattern.compile("[\\w@\\-]+");
 
         public Filter() {
             filterParams = new HashMap<String, String>();
@@ -94,6 +101,43 @@ public class XLogStreamer {
             parameters.add(filterParam);
         }
 
+        /**
+         * Define the parameter used to index the rotated log files, it must be a defined parameter.
+         *
+         * @param filterParam parameter name.
+         */
+        public static void defineIndexParameter(String filterParam) {
+            if (!parameters.contains(filterParam)) {
+                throw new IllegalArgumentException("Undefined parameter [" + filterParam + "]");
+            }
+            indexParameter = filterParam;
+        }
+
+        /**
+         * Return the parameter used to index the rotated log files.
+         *
+         * @return the index parameter, <code>null</code> if the log files are not indexed.
+         */
+        public static String getIndexParameter() {
+            return indexParameter;
+        }
+
+        /**
+         * Return the value of the index parameter if the filter can be answered from the index, that is if the value
+         * is set and only matches itself.
+         *
+         * @return the value of the index parameter, <code>null</code> if the index cannot be used.
+         */
+        public String getIndexValue() {
+            if (indexParameter != null) {
+                String value = filterParams.get(indexParameter);
+                if (value != null && INDEX_VALUE_PATTERN.matcher(value).matches()) {
+                    return value;
+                }
+            }
+            return null;
+        }
+
         public boolean isFilterPresent() {
             if (noFilter && logLevels == null) {
                 return false;
@@ -165,6 +209,7 @@ public class XLogStreamer {
 
         public static void reset() {
             parameters.clear();
+            indexParameter = null;
         }
     }
 
@@ -205,13 +250,111 @@ public class XLogStreamer {
         else {
             endTimeMillis = endTime.getTime();
         }
+        String indexValue = (logFilter != null) ? logFilter.getIndexValue() : null;
         File dir = new File(logPath);
         ArrayList<FileInfo> fileList = getFileList(dir, startTimeMillis, endTimeMillis, logRotation, logFile);
         for (int i = 0; i < fileList.size(); i++) {
+            File file = new File(fileList.get(i).getFileName());
             InputStream ifs;
-            ifs = new FileInputStream(fileList.get(i).getFileName());
-            XLogReader logReader = new XLogReader(ifs, logFilter, logWriter);
-            logReader.processLog();
+            //the current log file is still written, it is not indexed
+            if (indexValue != null && !file.getName().equals(logFile)) {
+                long[] ranges = XLogIndex.get(file, Filter.getIndexParameter()).getRanges(indexValue);
+                if (ranges == null) {
+                    continue;
+                }
+                ifs = new RangeInputStream(XLogIndex.open(file), ranges);
+            }
+            else {
+                ifs = XLogIndex.open(file);
+            }
+            try {
+                XLogReader logReader = new XLogReader(ifs, logFilter, logWriter);
+                logReader.processLog();
+            }
+            finally {
+                ifs.close();
+            }
+        }
+    }
+
+    /**
+     * Input stream reading only the given byte ranges of a log stream.
+     * <p/>
+     * Plain files are positioned on each range through their channel, the other streams skip to the range.
+     */
+    static class RangeInputStream extends InputStream {
+        private InputStream is;
+        private FileChannel channel;
+        private long[] ranges;
+        private int range;
+        private long position;
+        private long remaining;
+
+        public RangeInputStream(InputStream is, long[] ranges) {
+            this.is = is;
+            this.ranges = ranges;
+            if (is instanceof FileInputStream) {
+                channel = ((FileInputStream) is).getChannel();
+            }
+        }
+
+        private boolean nextRange() throws IOException {
+            while (remaining == 0) {
+                if (range >= ranges.length) {
+                    return false;
+                }
+                long start = ranges[range++];
+                long end = ranges[range++];
+                if (channel != null) {
+                    channel.position(start);
+                }
+                else {
+                    while (position < start) {
+                        long skipped = is.skip(start - position);
+                        if (skipped <= 0) {
+                            return false;
+                        }
+                        position += skipped;
+                    }
+                }
+                position = start;
+                remaining = end - start;
+            }
+            return true;
+        }
+
+        @Override
+        public int read() throws IOException {
+            if (!nextRange()) {
+                return -1;
+            }
+            int b = is.read();
+            if (b != -1) {
+                position++;
+                remaining--;
+            }
+            return b;
+        }
+
+        @Override
+        public int read(byte[] buffer, int offset, int length) throws IOException {
+            if (length == 0) {
+                return 0;
+            }
+            if (!nextRange()) {
+                return -1;
+            }
+            int read = is.read(buffer, offset, (int) Math.min(length, remaining));
+            if (read > 0) {
+                position += read;
+                remaining -= read;
+            }
+            return read;
+        }
+
+        @Override
+        public void close() throws IOException {
+            is.close();
         }
     }
 
@@ -270,6 +413,9 @@ public class XLogStreamer {
                 if (!filename.startsWith(logFile) && !filename.equals(logFile)) {
                     continue;
                 }
+                if (filename.endsWith(XLogIndex.SUFFIX)) {
+                    continue;
+                }
                 File file = new File(dir.getAbsolutePath(), filename);
                 long modTime = file.lastModified();
                 if (modTime < startTime) {
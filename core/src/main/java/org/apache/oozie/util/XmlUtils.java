@@ -20,6 +20,7 @@ import java.io.InputStream;
 import java.io.StringReader;
 import java.io.StringWriter;
 import java.util.Enumeration;
+import java.util.HashMap;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
@@ -67,15 +68,62 @@ public class XmlUtils {
 
     }
 
-    private static SAXBuilder createSAXBuilder() {
-        SAXBuilder saxBuilder = new SAXBuilder();
+    /**
+     * SAX builders are not thread safe, each thread reuses its own builder and the builder reuses its SAX parser.
+     */
+    private static final ThreadLocal<SAXBuilder> SAX_BUILDER = new ThreadLocal<SAXBuilder>() {
+        @Override
+        protected SAXBuilder initialValue() {
+            SAXBuilder saxBuilder = new SAXBuilder();
+            saxBuilder.setReuseParser(true);
+
+            //THIS IS NOT WORKING
+            //saxBuilder.setFeature("http://xml.org/sax/features/external-general-entities", false);
+
+            //INSTEAD WE ARE JUST SETTING AN EntityResolver that does not resolve entities
+            saxBuilder.setEntityResolver(new NoExternalEntityEntityResolver());
+            return saxBuilder;
+        }
+    };
+
+    /**
+     * Validators are not thread safe, each thread reuses its own validator for each schema.
+     * <p/>
+     * The schemas are created once by the {@link SchemaService}, the map is not weak since a validator references its
+     * schema and the entries would never be evicted anyway.
+     */
+    private static final ThreadLocal<Map<Schema, Validator>> VALIDATORS = new ThreadLocal<Map<Schema, Validator>>() {
+        @Override
+        protected Map<Schema, Validator> initialValue() {
+            return new HashMap<Schema, Validator>();
+        }
+    };
 
-        //THIS IS NOT WORKING
-        //saxBuilder.setFeature("http://xml.org/sax/features/external-general-entities", false);
+    private static SAXBuilder createSAXBuilder() {
+        return SAX_BUILDER.get();
+    }
 
-        //INSTEAD WE ARE JUST SETTING AN EntityResolver that does not resolve entities
-        saxBuilder.setEntityResolver(new NoExternalEntityEntityResolver());
-        return saxBuilder;
+    /**
+     * Return a validator for a schema.
+     * <p/>
+     * The validator belongs to the calling thread and it is reused by the following calls for the same schema from
+     * the same thread, it must not be kept or passed to other threads.
+     *
+     * @param schema schema to validate with.
+     * @return a validator for the schema.
+     */
+    public static Validator getValidator(Schema schema) {
+        ParamChecker.notNull(schema, "schema");
+        Map<Schema, Validator> validators = VALIDATORS.get();
+        Validator validator = validators.get(schema);
+        if (validator == null) {
+            validator = schema.newValidator();
+            validators.put(schema, validator);
+        }
+        else {
+            validator.reset();
+        }
+        return validator;
     }
 
     /**
@@ -272,9 +320,7 @@ public class XmlUtils {
      * @param xml to be validated
      */
     public static void validateXml(Schema schema, String xml) throws SAXException, IOException {
-
-        Validator validator = schema.newValidator();
-        validator.validate(new StreamSource(new ByteArrayInputStream(xml.getBytes())));
+        getValidator(schema).validate(new StreamSource(new StringReader(xml)));
     }
 
     /**
@@ -111,9 +111,42 @@ public class SLADbOperations {
                                                  String slaId, SlaAppType appType, String user, String groupName, XLog log)
             throws Exception {
         // System.out.println("BBBBB SLA added");
-        if (eSla == null) {
+        SLAEventBean sla = createSlaRegistrationEvent(eSla, slaId, appType, user, groupName);
+        if (sla == null) {
             return;
         }
+
+        //SLAStore slaStore = (SLAStore) Services.get().get(StoreService.class)
+        //        .getStore(SLAStore.class, store);
+        //slaStore.insertSLAEvent(sla);
+
+        JPAService jpaService = Services.get().get(JPAService.class);
+        if (jpaService != null) {
+            jpaService.execute(new SLAEventInsertJPAExecutor(sla));
+        }
+        else {
+            log.error(ErrorCode.E0610);
+        }
+    }
+
+    /**
+     * Create the SLA registration event of an SLA element without storing it.
+     * <p/>
+     * Commands that persist several beans in one transaction use it to add the event to their unit of work.
+     *
+     * @param eSla SLA element
+     * @param slaId SLA id
+     * @param appType application type
+     * @param user user
+     * @param groupName group
+     * @return the SLA registration event, <code>null</code> if the SLA element is <code>null</code>
+     * @throws Exception thrown if the SLA element is not valid
+     */
+    public static SLAEventBean createSlaRegistrationEvent(Element eSla, String slaId, SlaAppType appType, String user,
+            String groupName) throws Exception {
+        if (eSla == null) {
+            return null;
+        }
         //System.out.println("Writing REG AAAAA " + slaId);
         SLAEventBean sla = new SLAEventBean();
         // sla.setClientId(getTagElement( eSla, "client-id"));
@@ -179,17 +212,7 @@ public class SLADbOperations {
         sla.setJobStatus(Status.CREATED);
         sla.setStatusTimestamp(new Date());
 
-        //SLAStore slaStore = (SLAStore) Services.get().get(StoreService.class)
-        //        .getStore(SLAStore.class, store);
-        //slaStore.insertSLAEvent(sla);
-
-        JPAService jpaService = Services.get().get(JPAService.class);
-        if (jpaService != null) {
-            jpaService.execute(new SLAEventInsertJPAExecutor(sla));
-        }
-        else {
-            log.error(ErrorCode.E0610);
-        }
+        return sla;
     }
 
     public static void writeSlaStatusEvent(String id,
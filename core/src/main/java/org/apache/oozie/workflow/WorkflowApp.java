@@ -14,6 +14,8 @@
  */
 package org.apache.oozie.workflow;
 
+import org.jdom.Element;
+
 /**
  * A workflow definition is a programmatic definition of a workflow application.
  */
@@ -32,4 +34,15 @@ public interface WorkflowApp {
      * @return the original workflow definition (normally XML).
      */
     public String getDefinition();
+
+    /**
+     * Return the parsed workflow definition.
+     * <p/>
+     * The definition is parsed once, the element is shared by all the users of the workflow application and it must
+     * not be modified.
+     *
+     * @return the parsed workflow definition.
+     * @throws WorkflowException thrown if the workflow definition could not be parsed.
+     */
+    public Element getDefinitionElement() throws WorkflowException;
 }
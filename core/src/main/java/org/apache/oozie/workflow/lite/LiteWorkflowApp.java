@@ -18,9 +18,14 @@ import org.apache.hadoop.io.Writable;
 import org.apache.hadoop.util.ReflectionUtils;
 import org.apache.oozie.workflow.WorkflowApp;
 import org.apache.oozie.workflow.WorkflowException;
+import org.apache.oozie.util.IOUtils;
 import org.apache.oozie.util.ParamChecker;
+import org.apache.oozie.util.WritableUtils;
 import org.apache.oozie.util.XLog;
+import org.apache.oozie.util.XmlUtils;
 import org.apache.oozie.ErrorCode;
+import org.jdom.Element;
+import org.jdom.JDOMException;
 
 import java.io.DataInput;
 import java.io.DataOutput;
@@ -38,6 +43,8 @@ public class LiteWorkflowApp implements Writable, WorkflowApp {
     private String definition;
     private Map<String, NodeDef> nodesMap = new LinkedHashMap<String, NodeDef>();
     private boolean complete = false;
+    private String hash;
+    private volatile Element definitionElement;
 
     LiteWorkflowApp() {
     }
@@ -85,6 +92,20 @@ public class LiteWorkflowApp implements Writable, WorkflowApp {
         return definition;
     }
 
+    public Element getDefinitionElement() throws WorkflowException {
+        Element element = definitionElement;
+        if (element == null) {
+            try {
+                element = XmlUtils.parseXml(definition);
+            }
+            catch (JDOMException ex) {
+                throw new WorkflowException(ErrorCode.E0700, ex.getMessage(), ex);
+            }
+            definitionElement = element;
+        }
+        return element;
+    }
+
     public Collection<NodeDef> getNodeDefs() {
         return Collections.unmodifiableCollection(nodesMap.values());
     }
@@ -93,6 +114,21 @@ public class LiteWorkflowApp implements Writable, WorkflowApp {
         return nodesMap.get(name);
     }
 
+    /**
+     * Return the content hash of the workflow application.
+     * <p/>
+     * The hash is the hex encoded SHA-1 digest of the serialized application, two applications with the same
+     * definition and nodes have the same hash. It is computed once, the application must be complete.
+     *
+     * @return the content hash of the workflow application.
+     */
+    public String getHash() {
+        if (hash == null) {
+            hash = IOUtils.getSHA1(WritableUtils.toByteArray(this));
+        }
+        return hash;
+    }
+
     public void validateWorkflowIntegrity() {
         //TODO traverse wf, ensure there are not cycles, no open paths, and one END
     }
@@ -48,6 +48,13 @@ public class LiteWorkflowInstance implements Writable, WorkflowInstance {
     private static String ROOT = PATH_SEPARATOR;
     private static String TRANSITION_SEPARATOR = "#";
 
+    /**
+     * Marker written by {@link #writeCompact(DataOutput)} where the first format has the instance id, it is never a
+     * valid instance id.
+     */
+    private static final String COMPACT_FORMAT = "\u0000LWI";
+    private static final int COMPACT_FORMAT_VERSION = 1;
+
     private static class NodeInstance {
         String nodeName;
         boolean started = false;
@@ -147,6 +154,8 @@ public class LiteWorkflowInstance implements Writable, WorkflowInstance {
     private Map<String, NodeInstance> executionPaths = new HashMap<String, NodeInstance>();
     private Map<String, String> persistentVars = new HashMap<String, String>();
     private Map<String, Object> transientVars = new HashMap<String, Object>();
+    private String appHash;
+    private boolean appStored = false;
 
     protected LiteWorkflowInstance() {
         log = XLog.getLog(getClass());
@@ -535,6 +544,28 @@ public class LiteWorkflowInstance implements Writable, WorkflowInstance {
         dOut.write(array);
 
         def.write(dOut);
+        writeState(dOut);
+    }
+
+    /**
+     * Serialize the instance in the compact format.
+     * <p/>
+     * The configuration and the workflow application are not written, only the hash of the application is. The
+     * configuration and the application must be stored elsewhere by the caller and given back to {@link
+     * #resolve(Configuration, LiteWorkflowApp)} after reading the instance.
+     *
+     * @param dOut data output.
+     * @throws IOException thrown if the instance could not be serialized.
+     */
+    public void writeCompact(DataOutput dOut) throws IOException {
+        dOut.writeUTF(COMPACT_FORMAT);
+        dOut.writeInt(COMPACT_FORMAT_VERSION);
+        dOut.writeUTF(instanceId);
+        dOut.writeUTF(getAppHash());
+        writeState(dOut);
+    }
+
+    private void writeState(DataOutput dOut) throws IOException {
         dOut.writeUTF(status.toString());
         dOut.writeInt(executionPaths.size());
         for (Map.Entry<String, NodeInstance> entry : executionPaths.entrySet()) {
@@ -549,19 +580,45 @@ public class LiteWorkflowInstance implements Writable, WorkflowInstance {
         }
     }
 
+    /**
+     * Deserialize the instance, either format is read.
+     * <p/>
+     * An instance read from the compact format is not resolved, its configuration and application are
+     * <code>null</code> until {@link #resolve(Configuration, LiteWorkflowApp)} is called.
+     *
+     * @param dIn data input.
+     * @throws IOException thrown if the instance could not be deserialized.
+     */
     @Override
     public void readFields(DataInput dIn) throws IOException {
-        instanceId = dIn.readUTF();
+        String first = dIn.readUTF();
+        if (COMPACT_FORMAT.equals(first)) {
+            int version = dIn.readInt();
+            if (version != COMPACT_FORMAT_VERSION) {
+                throw new IOException(XLog.format("Unsupported workflow instance format version [{0}]", version));
+            }
+            instanceId = dIn.readUTF();
+            appHash = dIn.readUTF();
+            readState(dIn);
+        }
+        else {
+            instanceId = first;
 
-        //Hadoop Configuration has to get its act right
-        int len = dIn.readInt();
-        byte[] array = new byte[len];
-        dIn.readFully(array);
-        ByteArrayInputStream bais = new ByteArrayInputStream(array);
-        conf = new XConfiguration(bais);
-
-        def = new LiteWorkflowApp();
-        def.readFields(dIn);
+            //Hadoop Configuration has to get its act right
+            int len = dIn.readInt();
+            byte[] array = new byte[len];
+            dIn.readFully(array);
+            ByteArrayInputStream bais = new ByteArrayInputStream(array);
+            conf = new XConfiguration(bais);
+
+            def = new LiteWorkflowApp();
+            def.readFields(dIn);
+            readState(dIn);
+            refreshLog();
+        }
+    }
+
+    private void readState(DataInput dIn) throws IOException {
         status = Status.valueOf(dIn.readUTF());
         int numExPaths = dIn.readInt();
         for (int x = 0; x < numExPaths; x++) {
@@ -578,9 +635,64 @@ public class LiteWorkflowInstance implements Writable, WorkflowInstance {
             String vVal = dIn.readUTF();
             persistentVars.put(vName, vVal);
         }
+    }
+
+    /**
+     * Return if the instance has its configuration and workflow application.
+     *
+     * @return <code>false</code> if the instance was read from the compact format and it has not been resolved yet.
+     */
+    public boolean isResolved() {
+        return def != null;
+    }
+
+    /**
+     * Give the configuration and the workflow application to an instance read from the compact format.
+     *
+     * @param conf the instance configuration.
+     * @param def the workflow application, its hash must be the one the instance was written with.
+     */
+    public void resolve(Configuration conf, LiteWorkflowApp def) {
+        ParamChecker.notNull(conf, "conf");
+        ParamChecker.notNull(def, "def");
+        if (!def.getHash().equals(appHash)) {
+            throw new IllegalArgumentException(XLog.format("Workflow application hash [{0}] is not [{1}]",
+                                                           def.getHash(), appHash));
+        }
+        this.conf = conf;
+        this.def = def;
+        appStored = true;
         refreshLog();
     }
 
+    /**
+     * Return the hash of the workflow application of the instance.
+     *
+     * @return the hash of the workflow application.
+     */
+    public String getAppHash() {
+        return (def != null) ? def.getHash() : appHash;
+    }
+
+    /**
+     * Return if the workflow application of the instance is known to be stored, the instance can then be written in
+     * the compact format.
+     *
+     * @return if the workflow application is known to be stored.
+     */
+    public boolean isAppStored() {
+        return appStored;
+    }
+
+    /**
+     * Set if the workflow application of the instance is known to be stored.
+     *
+     * @param appStored if the workflow application is known to be stored.
+     */
+    public void setAppStored(boolean appStored) {
+        this.appStored = appStored;
+    }
+
     @Override
     public Configuration getConf() {
         return conf;
@@ -92,4 +92,24 @@ public class TestWorkflowXClient extends DagServletTestCase {
             }
         });
     }
+
+    public void testJobsPage() throws Exception {
+        runTest(END_POINTS, SERVLET_CLASSES, IS_SECURITY_ENABLED, new Callable<Void>() {
+            public Void call() throws Exception {
+                String oozieUrl = getContextURL();
+                XOozieClient wc = new XOozieClient(oozieUrl);
+
+                JobsPage<WorkflowJob> page = wc.getJobsPage("name=x", null, 4, false);
+                assertEquals(MockDagEngineService.INIT_WF_COUNT, page.getJobs().size());
+                assertEquals(MockDagEngineService.JOB_ID + 0, page.getJobs().get(0).getId());
+                assertEquals(-1, page.getTotal());
+                assertEquals("next", page.getContinuation());
+
+                page = wc.getJobsPage("name=x", page.getContinuation(), 4, true);
+                assertEquals(MockDagEngineService.INIT_WF_COUNT, page.getTotal());
+                assertNull(page.getContinuation());
+                return null;
+            }
+        });
+    }
 }
@@ -59,6 +59,11 @@ public class TestCommand extends XTestCase {
             return 1;
         }
 
+        @Override
+        public String getKey() {
+            return null;
+        }
+
         @Override
         public String toString() {
             StringBuilder sb = new StringBuilder();
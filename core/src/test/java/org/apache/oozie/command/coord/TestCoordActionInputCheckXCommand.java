@@ -28,6 +28,7 @@ import org.apache.oozie.command.CommandException;
 import org.apache.oozie.executor.jpa.CoordActionGetJPAExecutor;
 import org.apache.oozie.executor.jpa.CoordJobInsertJPAExecutor;
 import org.apache.oozie.executor.jpa.JPAExecutorException;
+import org.apache.oozie.service.DependencyRegistryService;
 import org.apache.oozie.service.JPAService;
 import org.apache.oozie.service.Services;
 import org.apache.oozie.util.DateUtils;
@@ -45,6 +46,11 @@ public class TestCoordActionInputCheckXCommand extends CoordXTestCase {
         createDir(getTestCaseDir() + "/2009/15/");
         new CoordActionInputCheckXCommand(jobId + "@1").call();
         checkCoordAction(jobId + "@1");
+
+        // the action waits for the first missing directory
+        String dependency = Services.get().get(DependencyRegistryService.class).getDependency(jobId + "@1");
+        assertNotNull(dependency);
+        assertTrue(dependency, dependency.indexOf("/2009/22/") >= 0);
     }
 
     private void addRecordToJobTable(String jobId) throws CommandException {
@@ -25,6 +25,7 @@ import org.apache.oozie.SLAEventBean;
 import org.apache.oozie.client.CoordinatorJob;
 import org.apache.oozie.client.CoordinatorJob.Timeunit;
 import org.apache.oozie.command.CommandException;
+import org.apache.oozie.command.XCommand;
 import org.apache.oozie.executor.jpa.CoordActionGetJPAExecutor;
 import org.apache.oozie.executor.jpa.CoordJobGetActionsJPAExecutor;
 import org.apache.oozie.executor.jpa.CoordJobGetJPAExecutor;
@@ -32,6 +33,7 @@ import org.apache.oozie.executor.jpa.CoordJobInsertJPAExecutor;
 import org.apache.oozie.executor.jpa.JPAExecutorException;
 import org.apache.oozie.executor.jpa.SLAEventsGetForSeqIdJPAExecutor;
 import org.apache.oozie.local.LocalOozie;
+import org.apache.oozie.service.InstrumentationService;
 import org.apache.oozie.service.JPAService;
 import org.apache.oozie.service.Services;
 import org.apache.oozie.test.XDataTestCase;
@@ -109,6 +111,27 @@ public class TestCoordActionMaterializeXCommand extends XDataTestCase {
         checkCoordActionsTimeout(job.getId() + "@1", 300);
     }
 
+    public void testActionMaterCapped() throws Exception {
+        Services.get().getConf().setInt(CoordActionMaterializeXCommand.CONF_MAX_ACTIONS, 2);
+        Date startTime = DateUtils.parseDateUTC("2009-03-06T10:00Z");
+        Date endTime = DateUtils.parseDateUTC("2009-03-06T10:14Z");
+        final CoordinatorJobBean job = addRecordToCoordJobTable(CoordinatorJob.Status.PREMATER, startTime, endTime,
+                null);
+        new CoordActionMaterializeXCommand(job.getId(), startTime, endTime).call();
+
+        //the remaining action is materialized by a queued command
+        final JPAService jpaService = Services.get().get(JPAService.class);
+        waitFor(10 * 1000, new Predicate() {
+            public boolean evaluate() throws Exception {
+                return jpaService.execute(new CoordJobGetJPAExecutor(job.getId())).getStatus() !=
+                        CoordinatorJob.Status.PREMATER;
+            }
+        });
+        checkCoordActions(job.getId(), 3, CoordinatorJob.Status.SUCCEEDED);
+        assertEquals(2, Services.get().get(InstrumentationService.class).get().getCounters().get(
+                XCommand.INSTRUMENTATION_GROUP).get("coord_action_mater.executions").getValue().longValue());
+    }
+
     protected CoordinatorJobBean addRecordToCoordJobTable(CoordinatorJob.Status status, Date startTime, Date endTime)
             throws Exception {
         CoordinatorJobBean coordJob = createCoordJob(status);
@@ -0,0 +1,123 @@
+/**
+ * Copyright (c) 2010 Yahoo! Inc. All rights reserved.
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License. See accompanying LICENSE file.
+ */
+package org.apache.oozie.command.coord;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.apache.oozie.CoordinatorActionBean;
+import org.apache.oozie.CoordinatorJobBean;
+import org.apache.oozie.ErrorCode;
+import org.apache.oozie.client.CoordinatorAction;
+import org.apache.oozie.client.CoordinatorJob;
+import org.apache.oozie.command.CommandException;
+import org.apache.oozie.executor.jpa.JPAResultHandler;
+import org.apache.oozie.local.LocalOozie;
+import org.apache.oozie.service.Services;
+import org.apache.oozie.test.XDataTestCase;
+
+public class TestCoordActionsStreamXCommand extends XDataTestCase {
+    Services services;
+
+    @Override
+    protected void setUp() throws Exception {
+        super.setUp();
+        services = new Services();
+        services.init();
+        cleanUpDBTables();
+        LocalOozie.start();
+    }
+
+    @Override
+    protected void tearDown() throws Exception {
+        LocalOozie.stop();
+        services.destroy();
+        super.tearDown();
+    }
+
+    private static class ListHandler implements JPAResultHandler<CoordinatorActionBean> {
+        private final List<CoordinatorActionBean> actions = new ArrayList<CoordinatorActionBean>();
+
+        public void handle(CoordinatorActionBean action) {
+            actions.add(action);
+        }
+    }
+
+    public void testStreamActions() throws Exception {
+        CoordinatorJobBean job = addRecordToCoordJobTable(CoordinatorJob.Status.RUNNING);
+        for (int i = 1; i <= 5; i++) {
+            addRecordToCoordActionTable(job.getId(), i, CoordinatorAction.Status.WAITING, "coord-action-get.xml");
+        }
+
+        ListHandler handler = new ListHandler();
+        assertEquals(5, (int) new CoordActionsStreamXCommand(job.getId(), 1, Integer.MAX_VALUE, handler).call());
+        assertEquals(5, handler.actions.size());
+        for (int i = 0; i < 5; i++) {
+            assertEquals(i + 1, handler.actions.get(i).getActionNumber());
+            assertEquals(job.getId(), handler.actions.get(i).getJobId());
+        }
+
+        handler = new ListHandler();
+        assertEquals(1, (int) new CoordActionsStreamXCommand(job.getId(), 2, 1, handler).call());
+        assertEquals(2, handler.actions.get(0).getActionNumber());
+    }
+
+    public void testStreamActionsInPages() throws Exception {
+        CoordinatorJobBean job = addRecordToCoordJobTable(CoordinatorJob.Status.RUNNING);
+        for (int i = 1; i <= 5; i++) {
+            addRecordToCoordActionTable(job.getId(), i, CoordinatorAction.Status.WAITING, "coord-action-get.xml");
+        }
+
+        ListHandler handler = new ListHandler();
+        assertEquals(5, (int) new CoordActionsStreamXCommand(job.getId(), 1, Integer.MAX_VALUE, handler, 2).call());
+        assertEquals(5, handler.actions.size());
+        for (int i = 0; i < 5; i++) {
+            assertEquals(i + 1, handler.actions.get(i).getActionNumber());
+        }
+
+        handler = new ListHandler();
+        assertEquals(3, (int) new CoordActionsStreamXCommand(job.getId(), 2, 3, handler, 2).call());
+        assertEquals(3, handler.actions.size());
+        for (int i = 0; i < 3; i++) {
+            assertEquals(i + 2, handler.actions.get(i).getActionNumber());
+        }
+
+        handler = new ListHandler();
+        assertEquals(4, (int) new CoordActionsStreamXCommand(job.getId(), 2, 10, handler, 4).call());
+        assertEquals(5, handler.actions.get(3).getActionNumber());
+    }
+
+    public void testStreamActionsHandlerFailure() throws Exception {
+        CoordinatorJobBean job = addRecordToCoordJobTable(CoordinatorJob.Status.RUNNING);
+        for (int i = 1; i <= 3; i++) {
+            addRecordToCoordActionTable(job.getId(), i, CoordinatorAction.Status.WAITING, "coord-action-get.xml");
+        }
+        final int[] handled = new int[1];
+        try {
+            new CoordActionsStreamXCommand(job.getId(), 1, 10, new JPAResultHandler<CoordinatorActionBean>() {
+                public void handle(CoordinatorActionBean action) throws Exception {
+                    handled[0]++;
+                    throw new Exception("handler failure");
+                }
+            }).call();
+            fail();
+        }
+        catch (CommandException ex) {
+            assertEquals(ErrorCode.E0307, ex.getErrorCode());
+        }
+        assertEquals(1, handled[0]);
+    }
+
+}
@@ -0,0 +1,131 @@
+/**
+ * Copyright (c) 2010 Yahoo! Inc. All rights reserved.
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License. See accompanying LICENSE file.
+ */
+package org.apache.oozie.command.coord;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.apache.oozie.CoordinatorJobBean;
+import org.apache.oozie.client.CoordinatorAction;
+import org.apache.oozie.client.CoordinatorJob;
+import org.apache.oozie.executor.jpa.CoordActionGetJPAExecutor;
+import org.apache.oozie.executor.jpa.CoordJobGetJPAExecutor;
+import org.apache.oozie.executor.jpa.CoordJobInsertJPAExecutor;
+import org.apache.oozie.executor.jpa.JPAExecutorException;
+import org.apache.oozie.service.JPAService;
+import org.apache.oozie.service.PurgeService;
+import org.apache.oozie.service.Services;
+import org.apache.oozie.test.XDataTestCase;
+import org.apache.oozie.util.DateUtils;
+
+public class TestCoordPurgeXCommand extends XDataTestCase {
+    private Services services;
+
+    @Override
+    protected void setUp() throws Exception {
+        super.setUp();
+        services = new Services();
+        services.init();
+        cleanUpDBTables();
+    }
+
+    @Override
+    protected void tearDown() throws Exception {
+        services.destroy();
+        super.tearDown();
+    }
+
+    private CoordinatorJobBean addOldCoordJob(CoordinatorJob.Status status) throws Exception {
+        CoordinatorJobBean job = createCoordJob(status);
+        job.setLastModifiedTime(DateUtils.parseDateUTC("2009-01-02T23:59Z"));
+        services.get(JPAService.class).execute(new CoordJobInsertJPAExecutor(job));
+        addRecordToCoordActionTable(job.getId(), 1, CoordinatorAction.Status.SUCCEEDED, "coord-action-get.xml");
+        return job;
+    }
+
+    /**
+     * Test : purge the completed coord jobs and their actions, in chunks smaller than the number of jobs.
+     *
+     * @throws Exception
+     */
+    public void testCoordPurgeXCommand() throws Exception {
+        JPAService jpaService = services.get(JPAService.class);
+        List<String> purged = new ArrayList<String>();
+        purged.add(addOldCoordJob(CoordinatorJob.Status.SUCCEEDED).getId());
+        purged.add(addOldCoordJob(CoordinatorJob.Status.FAILED).getId());
+        purged.add(addOldCoordJob(CoordinatorJob.Status.KILLED).getId());
+        String running = addOldCoordJob(CoordinatorJob.Status.RUNNING).getId();
+
+        new CoordPurgeXCommand(7, 2).call();
+
+        for (String jobId : purged) {
+            try {
+                jpaService.execute(new CoordJobGetJPAExecutor(jobId));
+                fail("Job should be purged. Should fail.");
+            }
+            catch (JPAExecutorException ce) {
+                // Job doesn't exist. Exception is expected.
+            }
+            try {
+                jpaService.execute(new CoordActionGetJPAExecutor(jobId + "@1"));
+                fail("Action should be purged. Should fail.");
+            }
+            catch (JPAExecutorException ce) {
+                // Action doesn't exist. Exception is expected.
+            }
+        }
+        assertNotNull(jpaService.execute(new CoordJobGetJPAExecutor(running)));
+        assertNotNull(jpaService.execute(new CoordActionGetJPAExecutor(running + "@1")));
+    }
+
+    /**
+     * Test : a run purges a limited number of chunks, the next run purges the remaining jobs.
+     *
+     * @throws Exception
+     */
+    public void testCoordPurgeXCommandMaxChunks() throws Exception {
+        JPAService jpaService = services.get(JPAService.class);
+        List<String> purged = new ArrayList<String>();
+        for (int i = 0; i < 3; i++) {
+            purged.add(addOldCoordJob(CoordinatorJob.Status.SUCCEEDED).getId());
+        }
+        services.getConf().setInt(PurgeService.CONF_PURGE_MAX_CHUNKS, 1);
+
+        new CoordPurgeXCommand(7, 2).call();
+        int remaining = 0;
+        for (String jobId : purged) {
+            try {
+                jpaService.execute(new CoordJobGetJPAExecutor(jobId));
+                remaining++;
+            }
+            catch (JPAExecutorException ce) {
+                // Job doesn't exist. Exception is expected.
+            }
+        }
+        assertEquals(1, remaining);
+
+        new CoordPurgeXCommand(7, 2).call();
+        for (String jobId : purged) {
+            try {
+                jpaService.execute(new CoordJobGetJPAExecutor(jobId));
+                fail("Job should be purged. Should fail.");
+            }
+            catch (JPAExecutorException ce) {
+                // Job doesn't exist. Exception is expected.
+            }
+        }
+    }
+
+}
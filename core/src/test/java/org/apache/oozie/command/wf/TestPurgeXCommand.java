@@ -14,21 +14,32 @@
  */
 package org.apache.oozie.command.wf;
 
+import java.util.ArrayList;
 import java.util.Date;
+import java.util.List;
+import java.util.Map;
 
 import org.apache.hadoop.conf.Configuration;
 import org.apache.hadoop.fs.Path;
 import org.apache.oozie.WorkflowActionBean;
+import org.apache.oozie.WorkflowAppDefBean;
 import org.apache.oozie.WorkflowJobBean;
 import org.apache.oozie.client.OozieClient;
 import org.apache.oozie.client.WorkflowAction;
 import org.apache.oozie.client.WorkflowJob;
 import org.apache.oozie.command.CommandException;
+import org.apache.oozie.command.XCommand;
 import org.apache.oozie.executor.jpa.JPAExecutorException;
 import org.apache.oozie.executor.jpa.WorkflowActionGetJPAExecutor;
+import org.apache.oozie.executor.jpa.WorkflowActionsGetForJobJPAExecutor;
+import org.apache.oozie.executor.jpa.WorkflowAppDefGetJPAExecutor;
+import org.apache.oozie.executor.jpa.WorkflowAppDefInsertJPAExecutor;
 import org.apache.oozie.executor.jpa.WorkflowJobGetJPAExecutor;
 import org.apache.oozie.executor.jpa.WorkflowJobInsertJPAExecutor;
+import org.apache.oozie.executor.jpa.WorkflowJobUpdateJPAExecutor;
+import org.apache.oozie.service.InstrumentationService;
 import org.apache.oozie.service.JPAService;
+import org.apache.oozie.service.PurgeService;
 import org.apache.oozie.service.Services;
 import org.apache.oozie.service.UUIDService;
 import org.apache.oozie.service.WorkflowAppService;
@@ -36,6 +47,7 @@ import org.apache.oozie.service.WorkflowStoreService;
 import org.apache.oozie.service.UUIDService.ApplicationType;
 import org.apache.oozie.test.XDataTestCase;
 import org.apache.oozie.util.DateUtils;
+import org.apache.oozie.util.Instrumentation;
 import org.apache.oozie.util.XmlUtils;
 import org.apache.oozie.workflow.WorkflowApp;
 import org.apache.oozie.workflow.WorkflowInstance;
@@ -190,6 +202,101 @@ public class TestPurgeXCommand extends XDataTestCase {
 
     }
 
+    /**
+     * Test : purge more wf jobs than the chunk size, each chunk is deleted in its own transaction and
+     * a run deletes a limited number of chunks
+     *
+     * @throws Exception
+     */
+    public void testPurgeXCommandChunks() throws Exception {
+        JPAService jpaService = Services.get().get(JPAService.class);
+        List<String> jobIds = new ArrayList<String>();
+        for (int i = 0; i < 5; i++) {
+            WorkflowJobBean job = this.addRecordToWfJobTable(WorkflowJob.Status.SUCCEEDED,
+                    WorkflowInstance.Status.SUCCEEDED);
+            this.addRecordToWfActionTable(job.getId(), "1", WorkflowAction.Status.OK);
+            this.addRecordToWfActionTable(job.getId(), "2", WorkflowAction.Status.OK);
+            jobIds.add(job.getId());
+        }
+        Services.get().getConf().setInt(PurgeService.CONF_PURGE_MAX_CHUNKS, 2);
+
+        //a run stops after 2 chunks
+        new PurgeXCommand(7, 2).call();
+        Map<String, Instrumentation.Element<Long>> counters = Services.get().get(InstrumentationService.class).get()
+                .getCounters().get(XCommand.INSTRUMENTATION_GROUP);
+        assertEquals(2, counters.get("purge.chunks").getValue().longValue());
+        assertEquals(4, counters.get("purge.jobs").getValue().longValue());
+        assertEquals(8, counters.get("purge.actions").getValue().longValue());
+
+        //the next run purges the remaining jobs
+        new PurgeXCommand(7, 2).call();
+        for (String jobId : jobIds) {
+            try {
+                jpaService.execute(new WorkflowJobGetJPAExecutor(jobId));
+                fail("Job should be purged. Should fail.");
+            }
+            catch (JPAExecutorException ce) {
+                // Job doesn't exist. Exception is expected.
+            }
+            assertEquals(0, jpaService.execute(new WorkflowActionsGetForJobJPAExecutor(jobId)).size());
+        }
+        assertEquals(3, counters.get("purge.chunks").getValue().longValue());
+        assertEquals(5, counters.get("purge.jobs").getValue().longValue());
+        assertEquals(10, counters.get("purge.actions").getValue().longValue());
+    }
+
+    /**
+     * Test : the purge deletes the workflow application definitions no job references any more, unless they have
+     * been used since the purge cutoff.
+     *
+     * @throws Exception
+     */
+    public void testPurgeXCommandAppDefs() throws Exception {
+        JPAService jpaService = Services.get().get(JPAService.class);
+        Date oldTime = DateUtils.parseDateUTC("2009-12-18T01:00Z");
+        WorkflowAppDefBean purgedDef = addAppDef("purgedApp", oldTime);
+        WorkflowAppDefBean sharedDef = addAppDef("sharedApp", oldTime);
+        WorkflowAppDefBean recentDef = addAppDef("recentApp", new Date());
+
+        WorkflowJobBean purgedJob = addRecordToWfJobTable(WorkflowJob.Status.SUCCEEDED,
+                WorkflowInstance.Status.SUCCEEDED);
+        purgedJob.setAppHash(purgedDef.getHash());
+        jpaService.execute(new WorkflowJobUpdateJPAExecutor(purgedJob));
+        WorkflowJobBean sharedPurgedJob = addRecordToWfJobTable(WorkflowJob.Status.SUCCEEDED,
+                WorkflowInstance.Status.SUCCEEDED);
+        sharedPurgedJob.setAppHash(sharedDef.getHash());
+        jpaService.execute(new WorkflowJobUpdateJPAExecutor(sharedPurgedJob));
+        WorkflowJobBean sharedJob = addRecordToWfJobTable(WorkflowJob.Status.RUNNING,
+                WorkflowInstance.Status.RUNNING);
+        sharedJob.setEndTime(null);
+        sharedJob.setAppHash(sharedDef.getHash());
+        jpaService.execute(new WorkflowJobUpdateJPAExecutor(sharedJob));
+
+        new PurgeXCommand(7, 10).call();
+
+        try {
+            jpaService.execute(new WorkflowAppDefGetJPAExecutor(purgedDef.getHash()));
+            fail("Application definition should be purged. Should fail.");
+        }
+        catch (JPAExecutorException ce) {
+            // Application definition doesn't exist. Exception is expected.
+        }
+        assertNotNull(jpaService.execute(new WorkflowAppDefGetJPAExecutor(sharedDef.getHash())));
+        assertNotNull(jpaService.execute(new WorkflowAppDefGetJPAExecutor(recentDef.getHash())));
+        Map<String, Instrumentation.Element<Long>> counters = Services.get().get(InstrumentationService.class).get()
+                .getCounters().get(XCommand.INSTRUMENTATION_GROUP);
+        assertEquals(1, counters.get("purge.appdefs").getValue().longValue());
+    }
+
+    private WorkflowAppDefBean addAppDef(String name, Date lastUsedTime) throws Exception {
+        LiteWorkflowApp app = new LiteWorkflowApp(name, "<workflow-app name='" + name + "'/>",
+                new StartNodeDef("end")).addNode(new EndNodeDef("end"));
+        WorkflowAppDefBean appDef = new WorkflowAppDefBean(app);
+        appDef.setLastUsedTime(lastUsedTime);
+        Services.get().get(JPAService.class).execute(new WorkflowAppDefInsertJPAExecutor(appDef));
+        return appDef;
+    }
+
     /**
      * Test : purge wf job and action failed
      *
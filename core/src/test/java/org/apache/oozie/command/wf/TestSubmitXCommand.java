@@ -0,0 +1,203 @@
+/**
+ * Copyright (c) 2010 Yahoo! Inc. All rights reserved.
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License. See accompanying LICENSE file.
+ */
+package org.apache.oozie.command.wf;
+
+import java.io.File;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.PrintWriter;
+
+import javax.persistence.EntityManager;
+
+import org.apache.hadoop.conf.Configuration;
+import org.apache.oozie.ErrorCode;
+import org.apache.oozie.WorkflowAppDefBean;
+import org.apache.oozie.WorkflowJobBean;
+import org.apache.oozie.client.OozieClient;
+import org.apache.oozie.command.CommandException;
+import org.apache.oozie.executor.jpa.JPAExecutor;
+import org.apache.oozie.executor.jpa.JPAExecutorException;
+import org.apache.oozie.executor.jpa.WorkflowAppDefGetJPAExecutor;
+import org.apache.oozie.executor.jpa.WorkflowAppDefInsertJPAExecutor;
+import org.apache.oozie.executor.jpa.WorkflowJobGetJPAExecutor;
+import org.apache.oozie.service.JPAService;
+import org.apache.oozie.service.Services;
+import org.apache.oozie.service.XLogService;
+import org.apache.oozie.test.XFsTestCase;
+import org.apache.oozie.util.WritableUtils;
+import org.apache.oozie.util.XConfiguration;
+import org.apache.oozie.workflow.lite.EndNodeDef;
+import org.apache.oozie.workflow.lite.LiteWorkflowApp;
+import org.apache.oozie.workflow.lite.LiteWorkflowInstance;
+import org.apache.oozie.workflow.lite.StartNodeDef;
+
+public class TestSubmitXCommand extends XFsTestCase {
+    private Services services;
+
+    @Override
+    protected void setUp() throws Exception {
+        super.setUp();
+        setSystemProperty(XLogService.LOG4J_FILE, "oozie-log4j.properties");
+        services = new Services();
+        services.init();
+    }
+
+    @Override
+    protected void tearDown() throws Exception {
+        services.destroy();
+        super.tearDown();
+    }
+
+    public void testSubmitStoresApp() throws Exception {
+        Configuration conf = new XConfiguration();
+        String appPath = getTestCaseDir();
+        String appXml = "<workflow-app xmlns='uri:oozie:workflow:0.1' name='store-app-wf'> "
+                + "<start to='end' /> "
+                + "<end name='end' /> "
+                + "</workflow-app>";
+
+        writeToFile(appXml, appPath + "/workflow.xml");
+        conf.set(OozieClient.APP_PATH, appPath + "/workflow.xml");
+        conf.set(OozieClient.USER_NAME, getTestUser());
+        conf.set(OozieClient.GROUP_NAME, "other");
+        injectKerberosInfo(conf);
+        String jobId = new SubmitXCommand(conf, "UNIT_TESTING").call();
+        assertNotNull(jobId);
+
+        JPAService jpaService = Services.get().get(JPAService.class);
+        WorkflowJobBean job = jpaService.execute(new WorkflowJobGetJPAExecutor(jobId));
+        assertFalse(job.isWorkflowInstanceResolved());
+        try {
+            job.getWorkflowInstance();
+            fail();
+        }
+        catch (IllegalStateException ex) {
+            //nop, the instance is in the compact format
+        }
+        WorkflowXCommand.resolveWorkflowInstance(job);
+        LiteWorkflowInstance instance = (LiteWorkflowInstance) job.getWorkflowInstance();
+        assertTrue(instance.isAppStored());
+        assertTrue(job.getWfInstance().length < WritableUtils.toByteArray(instance).length);
+        assertEquals("store-app-wf",
+                     jpaService.execute(new WorkflowAppDefGetJPAExecutor(instance.getAppHash())).getAppName());
+    }
+
+    public void testResolveMissingApp() throws Exception {
+        Configuration conf = new XConfiguration();
+        String appPath = getTestCaseDir();
+        String appXml = "<workflow-app xmlns='uri:oozie:workflow:0.1' name='missing-app-wf'> "
+                + "<start to='end' /> "
+                + "<end name='end' /> "
+                + "</workflow-app>";
+
+        writeToFile(appXml, appPath + "/workflow.xml");
+        conf.set(OozieClient.APP_PATH, appPath + "/workflow.xml");
+        conf.set(OozieClient.USER_NAME, getTestUser());
+        conf.set(OozieClient.GROUP_NAME, "other");
+        injectKerberosInfo(conf);
+        String jobId = new SubmitXCommand(conf, "UNIT_TESTING").call();
+
+        final JPAService jpaService = Services.get().get(JPAService.class);
+        final String appHash = jpaService.execute(new WorkflowJobGetJPAExecutor(jobId)).getAppHash();
+        assertNotNull(appHash);
+        jpaService.execute(new JPAExecutor<Void>() {
+            public String getName() {
+                return "deleteAppDef";
+            }
+
+            public Void execute(EntityManager em) throws JPAExecutorException {
+                em.remove(em.find(WorkflowAppDefBean.class, appHash));
+                return null;
+            }
+        });
+
+        //a new server does not have the application in its cache
+        services.destroy();
+        services = new Services();
+        services.init();
+
+        try {
+            new DefinitionXCommand(jobId).call();
+            fail();
+        }
+        catch (CommandException ex) {
+            assertEquals(ErrorCode.E0729, ex.getErrorCode());
+        }
+        //the job can still be loaded
+        assertEquals(jobId, Services.get().get(JPAService.class).execute(new WorkflowJobGetJPAExecutor(jobId))
+                .getId());
+    }
+
+    public void testExecuteStoringAppRetry() throws Exception {
+        final JPAService jpaService = Services.get().get(JPAService.class);
+        final LiteWorkflowApp app = new LiteWorkflowApp("retry-wf-" + System.currentTimeMillis(), "<workflow-app/>",
+                                                        new StartNodeDef("end")).addNode(new EndNodeDef("end"));
+        final int[] runs = new int[1];
+
+        //the unit of work fails while the application is not stored, it is not retried
+        JPAExecutor<String> failing = new JPAExecutor<String>() {
+            public String getName() {
+                return "failing";
+            }
+
+            public String execute(EntityManager em) throws JPAExecutorException {
+                runs[0]++;
+                throw new RuntimeException("failing");
+            }
+        };
+        try {
+            WorkflowXCommand.executeStoringApp(jpaService, failing, app.getHash());
+            fail();
+        }
+        catch (RuntimeException ex) {
+            assertEquals(1, runs[0]);
+        }
+
+        //another transaction stores the application while the unit of work fails, it is retried
+        runs[0] = 0;
+        JPAExecutor<String> concurrent = new JPAExecutor<String>() {
+            public String getName() {
+                return "concurrent";
+            }
+
+            public String execute(EntityManager em) throws JPAExecutorException {
+                if (runs[0]++ == 0) {
+                    jpaService.execute(new WorkflowAppDefInsertJPAExecutor(new WorkflowAppDefBean(app)));
+                    throw new RuntimeException("concurrent insert");
+                }
+                return "done";
+            }
+        };
+        assertEquals("done", WorkflowXCommand.executeStoringApp(jpaService, concurrent, app.getHash()));
+        assertEquals(2, runs[0]);
+    }
+
+    private void writeToFile(String appXml, String appPath) throws IOException {
+        File wf = new File(appPath);
+        PrintWriter out = null;
+        try {
+            out = new PrintWriter(new FileWriter(wf));
+            out.println(appXml);
+        }
+        catch (IOException iex) {
+            throw iex;
+        }
+        finally {
+            if (out != null) {
+                out.close();
+            }
+        }
+    }
+}
@@ -0,0 +1,153 @@
+/**
+ * Copyright (c) 2010 Yahoo! Inc. All rights reserved.
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License. See accompanying LICENSE file.
+ */
+package org.apache.oozie.coord;
+
+import java.io.File;
+import java.util.Calendar;
+import java.util.TimeZone;
+
+import org.apache.hadoop.conf.Configuration;
+import org.apache.hadoop.fs.Path;
+import org.apache.oozie.service.DatasetAvailabilityService;
+import org.apache.oozie.service.InstrumentationService;
+import org.apache.oozie.service.Services;
+import org.apache.oozie.test.XTestCase;
+import org.apache.oozie.util.Instrumentation;
+
+public class TestDatasetInstanceResolver extends XTestCase {
+    private static final String TEMPLATE = "/${YEAR}/${MONTH}/${DAY}/${HOUR}/${MINUTE}";
+    private Services services;
+
+    @Override
+    protected void setUp() throws Exception {
+        super.setUp();
+        services = new Services();
+        services.init();
+    }
+
+    @Override
+    protected void tearDown() throws Exception {
+        services.destroy();
+        super.tearDown();
+    }
+
+    private long getCounter(String name) {
+        Instrumentation.Element<Long> counter = services.get(InstrumentationService.class).get().getCounters()
+                .get("datasets").get(name);
+        return (counter != null) ? counter.getValue() : 0;
+    }
+
+    private String getUri(Calendar cal) {
+        return String.format("file://%s/%04d/%02d/%02d/%02d/%02d", getTestCaseDir(), cal.get(Calendar.YEAR),
+                cal.get(Calendar.MONTH) + 1, cal.get(Calendar.DAY_OF_MONTH), cal.get(Calendar.HOUR_OF_DAY),
+                cal.get(Calendar.MINUTE));
+    }
+
+    // 30 days of a 5 minutes dataset, from the most recent instance, only 2011-01-10 has data
+    private String[] createInstances(boolean doneFlag) throws Exception {
+        Calendar cal = Calendar.getInstance(TimeZone.getTimeZone("UTC"));
+        cal.clear();
+        cal.set(2011, Calendar.JANUARY, 30, 23, 55);
+        String[] uris = new String[30 * 24 * 12];
+        for (int i = 0; i < uris.length; i++) {
+            uris[i] = getUri(cal);
+            if (cal.get(Calendar.DAY_OF_MONTH) == 10) {
+                File dir = new File(new Path(uris[i]).toUri().getPath());
+                assertTrue(dir.mkdirs());
+                if (doneFlag && cal.get(Calendar.MINUTE) != 0) {
+                    assertTrue(new File(dir, "_SUCCESS").createNewFile());
+                }
+            }
+            cal.add(Calendar.MINUTE, -5);
+        }
+        return uris;
+    }
+
+    public void testListing() throws Exception {
+        String[] uris = createInstances(false);
+        DatasetInstanceResolver resolver = new DatasetInstanceResolver("file://" + getTestCaseDir() + TEMPLATE, "",
+                getTestUser(), getTestGroup(), new Configuration());
+        assertTrue(resolver.isListable());
+
+        int available = 0;
+        for (String uri : uris) {
+            if (resolver.isAvailable(uri)) {
+                assertTrue(uri, uri.contains("/2011/01/10/"));
+                available++;
+            }
+        }
+        assertEquals(24 * 12, available);
+
+        // the first instance is probed, then the root, 2011, 2011/01, 2011/01/10 and its 24 hours are listed, the
+        // missing days are not
+        assertEquals(28, getCounter(DatasetAvailabilityService.INSTR_LIST_COUNTER));
+        assertEquals(1, getCounter(DatasetAvailabilityService.INSTR_EXISTS_COUNTER));
+    }
+
+    public void testFirstInstanceProbed() throws Exception {
+        String[] uris = createInstances(false);
+        DatasetInstanceResolver resolver = new DatasetInstanceResolver("file://" + getTestCaseDir() + TEMPLATE, "",
+                getTestUser(), getTestGroup(), new Configuration());
+        int first = 20 * 24 * 12;
+        assertTrue(uris[first], uris[first].contains("/2011/01/10/23/55"));
+        assertTrue(resolver.isAvailable(uris[first]));
+
+        // a walk stopping at the first instance does not list its ancestors
+        assertEquals(0, getCounter(DatasetAvailabilityService.INSTR_LIST_COUNTER));
+        assertEquals(1, getCounter(DatasetAvailabilityService.INSTR_EXISTS_COUNTER));
+
+        // the walk continues with listings
+        assertTrue(resolver.isAvailable(uris[first + 1]));
+        assertEquals(5, getCounter(DatasetAvailabilityService.INSTR_LIST_COUNTER));
+        assertEquals(1, getCounter(DatasetAvailabilityService.INSTR_EXISTS_COUNTER));
+    }
+
+    public void testListingDoneFlag() throws Exception {
+        String[] uris = createInstances(true);
+        DatasetInstanceResolver resolver = new DatasetInstanceResolver("file://" + getTestCaseDir() + TEMPLATE,
+                "_SUCCESS", getTestUser(), getTestGroup(), new Configuration());
+        int available = 0;
+        for (String uri : uris) {
+            if (resolver.isAvailable(uri)) {
+                available++;
+            }
+        }
+        assertEquals(24 * 11, available);
+
+        // the first instance is probed, the done flag is only checked for the existing instances
+        assertEquals(28, getCounter(DatasetAvailabilityService.INSTR_LIST_COUNTER));
+        assertEquals(24 * 12 + 1, getCounter(DatasetAvailabilityService.INSTR_EXISTS_COUNTER));
+    }
+
+    public void testMissingRoot() throws Exception {
+        DatasetInstanceResolver resolver = new DatasetInstanceResolver("file://" + getTestCaseDir() + "/missing"
+                + TEMPLATE, "", getTestUser(), getTestGroup(), new Configuration());
+        assertFalse(resolver.isAvailable("file://" + getTestCaseDir() + "/missing/2011/01/01/00/00"));
+        assertFalse(resolver.isAvailable("file://" + getTestCaseDir() + "/missing/2011/01/01/00/05"));
+        assertFalse(resolver.isAvailable("file://" + getTestCaseDir() + "/missing/2011/01/01/00/10"));
+        assertEquals(1, getCounter(DatasetAvailabilityService.INSTR_EXISTS_COUNTER));
+        assertEquals(1, getCounter(DatasetAvailabilityService.INSTR_LIST_COUNTER));
+    }
+
+    public void testProbing() throws Exception {
+        String uri = "file://" + getTestCaseDir() + "/static";
+        DatasetInstanceResolver resolver = new DatasetInstanceResolver(uri, "", getTestUser(), getTestGroup(),
+                new Configuration());
+        assertFalse(resolver.isListable());
+        assertFalse(resolver.isAvailable(uri));
+        assertEquals(1, getCounter(DatasetAvailabilityService.INSTR_EXISTS_COUNTER));
+    }
+
+}
@@ -0,0 +1,109 @@
+/**
+ * Copyright (c) 2010 Yahoo! Inc. All rights reserved.
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License. See accompanying LICENSE file.
+ */
+package org.apache.oozie.executor.jpa;
+
+import javax.persistence.EntityManager;
+
+import org.apache.oozie.ErrorCode;
+import org.apache.oozie.WorkflowActionBean;
+import org.apache.oozie.WorkflowJobBean;
+import org.apache.oozie.client.WorkflowAction;
+import org.apache.oozie.client.WorkflowJob;
+import org.apache.oozie.local.LocalOozie;
+import org.apache.oozie.service.InstrumentationService;
+import org.apache.oozie.service.JPAService;
+import org.apache.oozie.service.Services;
+import org.apache.oozie.test.XDataTestCase;
+import org.apache.oozie.util.Instrumentation;
+import org.apache.oozie.workflow.WorkflowInstance;
+
+public class TestBulkJPAExecutor extends XDataTestCase {
+    Services services;
+
+    @Override
+    protected void setUp() throws Exception {
+        super.setUp();
+        services = new Services();
+        services.init();
+        cleanUpDBTables();
+        LocalOozie.start();
+    }
+
+    @Override
+    protected void tearDown() throws Exception {
+        LocalOozie.stop();
+        services.destroy();
+        super.tearDown();
+    }
+
+    public void testBulkUpdate() throws Exception {
+        WorkflowJobBean job = addRecordToWfJobTable(WorkflowJob.Status.RUNNING, WorkflowInstance.Status.RUNNING);
+        WorkflowActionBean action1 = addRecordToWfActionTable(job.getId(), "1", WorkflowAction.Status.PREP);
+        WorkflowActionBean action2 = addRecordToWfActionTable(job.getId(), "2", WorkflowAction.Status.PREP);
+
+        JPAService jpaService = Services.get().get(JPAService.class);
+        action1.setStatus(WorkflowAction.Status.OK);
+        action2.setStatus(WorkflowAction.Status.RUNNING);
+        job.setStatus(WorkflowJob.Status.SUCCEEDED);
+        BulkJPAExecutor bulk = new BulkJPAExecutor().add(new WorkflowActionUpdateJPAExecutor(action1)).add(
+                new WorkflowActionUpdateJPAExecutor(action2)).add(new WorkflowJobUpdateJPAExecutor(job));
+        assertEquals(3, bulk.size());
+
+        long commits = getCommits();
+        jpaService.execute(bulk);
+        assertEquals(commits + 1, getCommits());
+
+        assertEquals(WorkflowAction.Status.OK,
+                jpaService.execute(new WorkflowActionGetJPAExecutor(action1.getId())).getStatus());
+        assertEquals(WorkflowAction.Status.RUNNING,
+                jpaService.execute(new WorkflowActionGetJPAExecutor(action2.getId())).getStatus());
+        assertEquals(WorkflowJob.Status.SUCCEEDED, jpaService.execute(new WorkflowJobGetJPAExecutor(job.getId()))
+                .getStatus());
+    }
+
+    public void testBulkRollback() throws Exception {
+        WorkflowJobBean job = addRecordToWfJobTable(WorkflowJob.Status.RUNNING, WorkflowInstance.Status.RUNNING);
+        WorkflowActionBean action = addRecordToWfActionTable(job.getId(), "1", WorkflowAction.Status.PREP);
+
+        JPAService jpaService = Services.get().get(JPAService.class);
+        action.setStatus(WorkflowAction.Status.OK);
+        BulkJPAExecutor bulk = new BulkJPAExecutor().add(new WorkflowActionUpdateJPAExecutor(action)).add(
+                new JPAExecutor<Void>() {
+                    public String getName() {
+                        return "FailingJPAExecutor";
+                    }
+
+                    public Void execute(EntityManager em) throws JPAExecutorException {
+                        throw new JPAExecutorException(ErrorCode.E0603, "failing executor");
+                    }
+                });
+        try {
+            jpaService.execute(bulk);
+            fail();
+        }
+        catch (JPAExecutorException ex) {
+            assertEquals(ErrorCode.E0603, ex.getErrorCode());
+        }
+        assertEquals(WorkflowAction.Status.PREP,
+                jpaService.execute(new WorkflowActionGetJPAExecutor(action.getId())).getStatus());
+    }
+
+    private long getCommits() {
+        Instrumentation instr = Services.get().get(InstrumentationService.class).get();
+        Instrumentation.Element<Long> commits = instr.getCounters().get("jpa").get("commits");
+        return (commits == null) ? 0 : commits.getValue();
+    }
+
+}
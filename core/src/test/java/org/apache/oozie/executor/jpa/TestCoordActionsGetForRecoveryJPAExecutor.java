@@ -0,0 +1,95 @@
+/**
+ * Copyright (c) 2010 Yahoo! Inc. All rights reserved.
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License. See accompanying LICENSE file.
+ */
+package org.apache.oozie.executor.jpa;
+
+import java.util.Date;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import org.apache.oozie.CoordinatorActionBean;
+import org.apache.oozie.CoordinatorJobBean;
+import org.apache.oozie.client.CoordinatorAction;
+import org.apache.oozie.client.CoordinatorJob;
+import org.apache.oozie.local.LocalOozie;
+import org.apache.oozie.service.JPAService;
+import org.apache.oozie.service.Services;
+import org.apache.oozie.test.XDataTestCase;
+
+public class TestCoordActionsGetForRecoveryJPAExecutor extends XDataTestCase {
+    Services services;
+
+    @Override
+    protected void setUp() throws Exception {
+        super.setUp();
+        services = new Services();
+        services.init();
+        cleanUpDBTables();
+        LocalOozie.start();
+    }
+
+    @Override
+    protected void tearDown() throws Exception {
+        LocalOozie.stop();
+        services.destroy();
+        super.tearDown();
+    }
+
+    private void addAction(String jobId, int actionNum, CoordinatorAction.Status status, Date lastModified)
+            throws Exception {
+        CoordinatorActionBean action = createCoordAction(jobId, actionNum, status, "coord-action-get.xml");
+        action.setLastModifiedTime(lastModified);
+        Services.get().get(JPAService.class).execute(new CoordActionInsertJPAExecutor(action));
+    }
+
+    public void testCoordActionsGetForRecovery() throws Exception {
+        CoordinatorJobBean job = addRecordToCoordJobTable(CoordinatorJob.Status.RUNNING);
+        Date old = new Date(System.currentTimeMillis() - 3600 * 1000);
+        for (int i = 1; i <= 4; i++) {
+            addAction(job.getId(), i, CoordinatorAction.Status.WAITING, old);
+        }
+        addAction(job.getId(), 5, CoordinatorAction.Status.SUBMITTED, new Date(old.getTime() + 1000));
+        addAction(job.getId(), 6, CoordinatorAction.Status.RUNNING, old);
+        addAction(job.getId(), 7, CoordinatorAction.Status.WAITING, new Date());
+
+        JPAService jpaService = Services.get().get(JPAService.class);
+        Date olderThan = new Date(System.currentTimeMillis() - 600 * 1000);
+        Set<String> ids = new HashSet<String>();
+        List<CoordinatorActionBean> actions = jpaService.execute(new CoordActionsGetForRecoveryJPAExecutor(olderThan,
+                2));
+        int pages = 1;
+        while (true) {
+            for (CoordinatorActionBean action : actions) {
+                assertTrue(ids.add(action.getId()));
+                assertEquals(job.getId(), action.getJobId());
+                assertNull(action.getActionXml());
+            }
+            if (actions.size() < 2) {
+                break;
+            }
+            CoordinatorActionBean last = actions.get(actions.size() - 1);
+            actions = jpaService.execute(new CoordActionsGetForRecoveryJPAExecutor(olderThan, last
+                    .getLastModifiedTime(), last.getId(), 2));
+            pages++;
+        }
+        assertEquals(3, pages);
+        assertEquals(5, ids.size());
+        // the last page holds the most recently modified action
+        assertEquals(CoordinatorAction.Status.SUBMITTED, actions.get(0).getStatus());
+        assertFalse(ids.contains(job.getId() + "@6"));
+        assertFalse(ids.contains(job.getId() + "@7"));
+    }
+
+}
@@ -0,0 +1,74 @@
+/**
+ * Copyright (c) 2010 Yahoo! Inc. All rights reserved.
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License. See accompanying LICENSE file.
+ */
+package org.apache.oozie.executor.jpa;
+
+import java.util.List;
+
+import org.apache.oozie.CoordinatorActionBean;
+import org.apache.oozie.CoordinatorJobBean;
+import org.apache.oozie.client.CoordinatorAction;
+import org.apache.oozie.client.CoordinatorJob;
+import org.apache.oozie.local.LocalOozie;
+import org.apache.oozie.service.JPAService;
+import org.apache.oozie.service.Services;
+import org.apache.oozie.test.XDataTestCase;
+
+public class TestCoordActionsPageGetForJobJPAExecutor extends XDataTestCase {
+    Services services;
+
+    @Override
+    protected void setUp() throws Exception {
+        super.setUp();
+        services = new Services();
+        services.init();
+        cleanUpDBTables();
+        LocalOozie.start();
+    }
+
+    @Override
+    protected void tearDown() throws Exception {
+        LocalOozie.stop();
+        services.destroy();
+        super.tearDown();
+    }
+
+    public void testGetPages() throws Exception {
+        CoordinatorJobBean job = addRecordToCoordJobTable(CoordinatorJob.Status.RUNNING);
+        for (int i = 3; i >= 1; i--) {
+            addRecordToCoordActionTable(job.getId(), i, CoordinatorAction.Status.WAITING, "coord-action-get.xml");
+        }
+        JPAService jpaService = Services.get().get(JPAService.class);
+        assertNotNull(jpaService);
+
+        List<CoordinatorActionBean> page = jpaService.execute(new CoordActionsPageGetForJobJPAExecutor(job.getId(),
+                0, 1, 2));
+        assertEquals(2, page.size());
+        assertEquals(1, page.get(0).getActionNumber());
+        assertEquals(2, page.get(1).getActionNumber());
+
+        page = jpaService.execute(new CoordActionsPageGetForJobJPAExecutor(job.getId(), 2, 1, 2));
+        assertEquals(1, page.size());
+        assertEquals(3, page.get(0).getActionNumber());
+
+        page = jpaService.execute(new CoordActionsPageGetForJobJPAExecutor(job.getId(), 0, 2, Integer.MAX_VALUE));
+        assertEquals(2, page.size());
+        assertEquals(2, page.get(0).getActionNumber());
+        assertEquals(3, page.get(1).getActionNumber());
+
+        page = jpaService.execute(new CoordActionsPageGetForJobJPAExecutor(job.getId(), 3, 1, 2));
+        assertEquals(0, page.size());
+    }
+
+}
@@ -0,0 +1,83 @@
+/**
+ * Copyright (c) 2010 Yahoo! Inc. All rights reserved.
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License. See accompanying LICENSE file.
+ */
+package org.apache.oozie.executor.jpa;
+
+import java.util.List;
+
+import org.apache.oozie.CoordinatorActionBean;
+import org.apache.oozie.CoordinatorJobBean;
+import org.apache.oozie.client.CoordinatorAction;
+import org.apache.oozie.client.CoordinatorJob;
+import org.apache.oozie.local.LocalOozie;
+import org.apache.oozie.service.JPAService;
+import org.apache.oozie.service.Services;
+import org.apache.oozie.test.XDataTestCase;
+
+public class TestCoordJobGetActionsStatusJPAExecutor extends XDataTestCase {
+    Services services;
+
+    @Override
+    protected void setUp() throws Exception {
+        super.setUp();
+        services = new Services();
+        services.init();
+        cleanUpDBTables();
+        LocalOozie.start();
+    }
+
+    @Override
+    protected void tearDown() throws Exception {
+        LocalOozie.stop();
+        services.destroy();
+        super.tearDown();
+    }
+
+    public void testCoordActionsStatusGet() throws Exception {
+        CoordinatorJobBean job = addRecordToCoordJobTable(CoordinatorJob.Status.RUNNING);
+        CoordinatorActionBean action = addRecordToCoordActionTable(job.getId(), 1, CoordinatorAction.Status.RUNNING,
+                "coord-action-get.xml");
+
+        JPAService jpaService = Services.get().get(JPAService.class);
+        assertNotNull(jpaService);
+        List<CoordinatorActionBean> actions = jpaService.execute(new CoordJobGetActionsStatusJPAExecutor(job.getId()));
+        assertEquals(1, actions.size());
+        CoordinatorActionBean bean = actions.get(0);
+        assertEquals(action.getId(), bean.getId());
+        assertEquals(job.getId(), bean.getJobId());
+        assertEquals(CoordinatorAction.Status.RUNNING, bean.getStatus());
+        assertEquals(action.getExternalId(), bean.getExternalId());
+        // the LOB columns are not loaded
+        assertNull(bean.getActionXml());
+        assertNull(bean.getCreatedConf());
+    }
+
+    public void testCoordActionStatusUpdate() throws Exception {
+        CoordinatorJobBean job = addRecordToCoordJobTable(CoordinatorJob.Status.RUNNING);
+        CoordinatorActionBean action = addRecordToCoordActionTable(job.getId(), 1, CoordinatorAction.Status.RUNNING,
+                "coord-action-get.xml");
+
+        JPAService jpaService = Services.get().get(JPAService.class);
+        CoordinatorActionBean bean = jpaService.execute(new CoordJobGetActionsStatusJPAExecutor(job.getId())).get(0);
+        bean.setStatus(CoordinatorAction.Status.KILLED);
+        jpaService.execute(new CoordActionUpdateStatusJPAExecutor(bean));
+
+        CoordinatorActionBean newAction = jpaService.execute(new CoordActionGetJPAExecutor(action.getId()));
+        assertEquals(CoordinatorAction.Status.KILLED, newAction.getStatus());
+        // the columns not loaded by the projection are left untouched
+        assertEquals(action.getActionXml(), newAction.getActionXml());
+        assertEquals(action.getCreatedConf(), newAction.getCreatedConf());
+    }
+
+}
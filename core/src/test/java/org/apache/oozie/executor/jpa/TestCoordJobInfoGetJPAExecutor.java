@@ -15,10 +15,12 @@
 package org.apache.oozie.executor.jpa;
 
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 
+import org.apache.oozie.CoordinatorJobBean;
 import org.apache.oozie.CoordinatorJobInfo;
 import org.apache.oozie.client.CoordinatorJob;
 import org.apache.oozie.client.OozieClient;
@@ -26,6 +28,7 @@ import org.apache.oozie.local.LocalOozie;
 import org.apache.oozie.service.JPAService;
 import org.apache.oozie.service.Services;
 import org.apache.oozie.test.XDataTestCase;
+import org.apache.oozie.util.ContinuationToken;
 
 public class TestCoordJobInfoGetJPAExecutor extends XDataTestCase {
     Services services;
@@ -57,6 +60,39 @@ public class TestCoordJobInfoGetJPAExecutor extends XDataTestCase {
         _testGetJobInfoForUserAndStatus();
     }
 
+    public void testCoordJobGetByContinuation() throws Exception {
+        List<String> ids = new ArrayList<String>();
+        for (int i = 0; i < 3; i++) {
+            ids.add(addRecordToCoordJobTable(CoordinatorJob.Status.RUNNING).getId());
+        }
+        addRecordToCoordJobTable(CoordinatorJob.Status.KILLED);
+        JPAService jpaService = Services.get().get(JPAService.class);
+        Map<String, List<String>> filter = new HashMap<String, List<String>>();
+        List<String> list = new ArrayList<String>();
+        list.add("RUNNING");
+        filter.put(OozieClient.FILTER_STATUS, list);
+
+        CoordinatorJobInfo ret = jpaService.execute(new CoordJobInfoGetJPAExecutor(filter, null, 2, true));
+        assertEquals(2, ret.getCoordJobs().size());
+        assertEquals(3, ret.getTotal());
+        assertNotNull(ret.getContinuation());
+        List<String> got = new ArrayList<String>();
+        for (CoordinatorJobBean job : ret.getCoordJobs()) {
+            got.add(job.getId());
+        }
+
+        ContinuationToken after = ContinuationToken.parse(ret.getContinuation());
+        ret = jpaService.execute(new CoordJobInfoGetJPAExecutor(filter, after, 2, false));
+        assertEquals(1, ret.getCoordJobs().size());
+        assertEquals(-1, ret.getTotal());
+        assertNull(ret.getContinuation());
+        got.add(ret.getCoordJobs().get(0).getId());
+
+        Collections.sort(ids);
+        Collections.sort(got);
+        assertEquals(ids, got);
+    }
+
     private void _testGetJobInfoForStatus() throws Exception {
         JPAService jpaService = Services.get().get(JPAService.class);
         assertNotNull(jpaService);
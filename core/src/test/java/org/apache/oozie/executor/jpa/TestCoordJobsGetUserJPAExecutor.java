@@ -0,0 +1,63 @@
+/**
+ * Copyright (c) 2010 Yahoo! Inc. All rights reserved.
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License. See accompanying LICENSE file.
+ */
+package org.apache.oozie.executor.jpa;
+
+import java.util.Arrays;
+import java.util.Map;
+
+import org.apache.oozie.CoordinatorJobBean;
+import org.apache.oozie.client.CoordinatorJob;
+import org.apache.oozie.local.LocalOozie;
+import org.apache.oozie.service.JPAService;
+import org.apache.oozie.service.Services;
+import org.apache.oozie.test.XDataTestCase;
+
+public class TestCoordJobsGetUserJPAExecutor extends XDataTestCase {
+    Services services;
+
+    @Override
+    protected void setUp() throws Exception {
+        super.setUp();
+        services = new Services();
+        services.init();
+        cleanUpDBTables();
+        LocalOozie.start();
+    }
+
+    @Override
+    protected void tearDown() throws Exception {
+        LocalOozie.stop();
+        services.destroy();
+        super.tearDown();
+    }
+
+    public void testCoordJobsUserGet() throws Exception {
+        CoordinatorJobBean job1 = addRecordToCoordJobTable(CoordinatorJob.Status.RUNNING);
+        CoordinatorJobBean job2 = addRecordToCoordJobTable(CoordinatorJob.Status.SUCCEEDED);
+
+        JPAService jpaService = Services.get().get(JPAService.class);
+        Map<String, CoordinatorJobBean> jobs = jpaService.execute(new CoordJobsGetUserJPAExecutor(Arrays.asList(
+                job1.getId(), job2.getId(), "unknown")));
+        assertEquals(2, jobs.size());
+        assertEquals(job1.getUser(), jobs.get(job1.getId()).getUser());
+        assertEquals(job1.getAuthToken(), jobs.get(job1.getId()).getAuthToken());
+        assertEquals(job2.getUser(), jobs.get(job2.getId()).getUser());
+        // the LOB columns other than the authentication token are not loaded
+        assertNull(jobs.get(job1.getId()).getJobXml());
+
+        assertTrue(jpaService.execute(new CoordJobsGetUserJPAExecutor(Arrays.<String>asList())).isEmpty());
+    }
+
+}
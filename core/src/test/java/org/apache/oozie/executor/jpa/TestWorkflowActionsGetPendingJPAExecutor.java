@@ -0,0 +1,91 @@
+/**
+ * Copyright (c) 2010 Yahoo! Inc. All rights reserved.
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License. See accompanying LICENSE file.
+ */
+package org.apache.oozie.executor.jpa;
+
+import java.util.Date;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import org.apache.oozie.WorkflowActionBean;
+import org.apache.oozie.WorkflowJobBean;
+import org.apache.oozie.client.WorkflowAction;
+import org.apache.oozie.client.WorkflowJob;
+import org.apache.oozie.local.LocalOozie;
+import org.apache.oozie.service.JPAService;
+import org.apache.oozie.service.Services;
+import org.apache.oozie.test.XDataTestCase;
+import org.apache.oozie.workflow.WorkflowInstance;
+
+public class TestWorkflowActionsGetPendingJPAExecutor extends XDataTestCase {
+    Services services;
+
+    @Override
+    protected void setUp() throws Exception {
+        super.setUp();
+        services = new Services();
+        services.init();
+        cleanUpDBTables();
+        LocalOozie.start();
+    }
+
+    @Override
+    protected void tearDown() throws Exception {
+        LocalOozie.stop();
+        services.destroy();
+        super.tearDown();
+    }
+
+    private void addAction(String wfId, String name, WorkflowAction.Status status, Date pendingAge)
+            throws Exception {
+        WorkflowActionBean action = createWorkflowAction(wfId, name, status);
+        if (pendingAge != null) {
+            action.setPendingOnly();
+            action.setPendingAge(pendingAge);
+        }
+        Services.get().get(JPAService.class).execute(new WorkflowActionInsertJPAExecutor(action));
+    }
+
+    public void testWorkflowActionsPendingGet() throws Exception {
+        WorkflowJobBean job = addRecordToWfJobTable(WorkflowJob.Status.RUNNING, WorkflowInstance.Status.RUNNING);
+        Date old = new Date(System.currentTimeMillis() - 3600 * 1000);
+        addAction(job.getId(), "1", WorkflowAction.Status.PREP, old);
+        addAction(job.getId(), "2", WorkflowAction.Status.DONE, old);
+        addAction(job.getId(), "3", WorkflowAction.Status.OK, new Date(old.getTime() + 1000));
+        addAction(job.getId(), "4", WorkflowAction.Status.RUNNING, old);
+        addAction(job.getId(), "5", WorkflowAction.Status.PREP, new Date());
+        addAction(job.getId(), "6", WorkflowAction.Status.PREP, null);
+
+        JPAService jpaService = Services.get().get(JPAService.class);
+        Date pendingAge = new Date(System.currentTimeMillis() - 120 * 1000);
+        Set<String> ids = new HashSet<String>();
+        List<WorkflowActionBean> actions = jpaService.execute(new WorkflowActionsGetPendingJPAExecutor(pendingAge, 1));
+        while (!actions.isEmpty()) {
+            assertEquals(1, actions.size());
+            WorkflowActionBean action = actions.get(0);
+            assertTrue(ids.add(action.getId()));
+            assertEquals(job.getId(), action.getJobId());
+            assertEquals("map-reduce", action.getType());
+            assertNull(action.getConf());
+            actions = jpaService.execute(new WorkflowActionsGetPendingJPAExecutor(pendingAge, action.getPendingAge(),
+                    action.getId(), 1));
+        }
+        assertEquals(3, ids.size());
+        assertTrue(ids.contains(job.getId() + "@1"));
+        assertTrue(ids.contains(job.getId() + "@2"));
+        assertTrue(ids.contains(job.getId() + "@3"));
+    }
+
+}
@@ -0,0 +1,113 @@
+/**
+ * Copyright (c) 2010 Yahoo! Inc. All rights reserved.
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License. See accompanying LICENSE file.
+ */
+package org.apache.oozie.executor.jpa;
+
+import org.apache.oozie.WorkflowAppDefBean;
+import org.apache.oozie.WorkflowJobBean;
+import org.apache.oozie.client.WorkflowJob;
+import org.apache.oozie.service.JPAService;
+import org.apache.oozie.service.LiteWorkflowAppService;
+import org.apache.oozie.service.Services;
+import org.apache.oozie.service.WorkflowAppService;
+import org.apache.oozie.test.XDataTestCase;
+import org.apache.oozie.util.WritableUtils;
+import org.apache.oozie.workflow.WorkflowInstance;
+import org.apache.oozie.workflow.lite.EndNodeDef;
+import org.apache.oozie.workflow.lite.LiteWorkflowApp;
+import org.apache.oozie.workflow.lite.LiteWorkflowInstance;
+import org.apache.oozie.workflow.lite.StartNodeDef;
+
+public class TestWorkflowAppDefJPAExecutor extends XDataTestCase {
+    Services services;
+
+    @Override
+    protected void setUp() throws Exception {
+        super.setUp();
+        services = new Services();
+        services.init();
+        cleanUpDBTables();
+    }
+
+    @Override
+    protected void tearDown() throws Exception {
+        services.destroy();
+        super.tearDown();
+    }
+
+    public void testAppDefInsertGet() throws Exception {
+        LiteWorkflowApp app = new LiteWorkflowApp("testAppDef", "<workflow-app/>", new StartNodeDef("end"))
+                .addNode(new EndNodeDef("end"));
+        JPAService jpaService = Services.get().get(JPAService.class);
+        assertNotNull(jpaService);
+
+        try {
+            jpaService.execute(new WorkflowAppDefGetJPAExecutor(app.getHash()));
+        }
+        catch (JPAExecutorException ex) {
+            //nop, a previous run may have stored it
+        }
+        jpaService.execute(new WorkflowAppDefInsertJPAExecutor(new WorkflowAppDefBean(app)));
+        assertFalse(jpaService.execute(new WorkflowAppDefInsertJPAExecutor(new WorkflowAppDefBean(app))));
+
+        WorkflowAppDefBean bean = jpaService.execute(new WorkflowAppDefGetJPAExecutor(app.getHash()));
+        assertEquals(app.getHash(), bean.getHash());
+        assertEquals("testAppDef", bean.getAppName());
+        assertNotNull(bean.getCreatedTime());
+        assertEquals(app.getHash(), bean.getApp().getHash());
+        assertNotNull(bean.getApp().getNode("end"));
+
+        try {
+            jpaService.execute(new WorkflowAppDefGetJPAExecutor("nohash"));
+            fail();
+        }
+        catch (JPAExecutorException ex) {
+            //nop
+        }
+    }
+
+    public void testWorkflowInstanceCompact() throws Exception {
+        WorkflowJobBean job = addRecordToWfJobTable(WorkflowJob.Status.RUNNING, WorkflowInstance.Status.RUNNING);
+        JPAService jpaService = Services.get().get(JPAService.class);
+        assertNotNull(jpaService);
+
+        //the application is not known to be stored, the instance is written with its configuration and application
+        WorkflowJobBean bean = jpaService.execute(new WorkflowJobGetJPAExecutor(job.getId()));
+        LiteWorkflowInstance instance = (LiteWorkflowInstance) bean.getWorkflowInstance();
+        assertFalse(instance.isAppStored());
+        assertEquals(WritableUtils.toByteArray(instance).length, bean.getWfInstance().length);
+
+        //the application is stored in the same transaction as the job, the instance is written in the compact format
+        BulkJPAExecutor bulk = new BulkJPAExecutor();
+        bulk.add(new WorkflowAppDefInsertJPAExecutor(new WorkflowAppDefBean((LiteWorkflowApp) instance.getApp())));
+        instance.setAppStored(true);
+        bean.setWorkflowInstance(instance);
+        bulk.add(new WorkflowJobUpdateJPAExecutor(bean));
+        jpaService.execute(bulk);
+
+        bean = jpaService.execute(new WorkflowJobGetJPAExecutor(job.getId()));
+        assertFalse(bean.isWorkflowInstanceResolved());
+        ((LiteWorkflowAppService) Services.get().get(WorkflowAppService.class)).resolveWorkflowInstance(bean);
+        instance = (LiteWorkflowInstance) bean.getWorkflowInstance();
+        assertTrue(instance.isResolved());
+        assertTrue(instance.isAppStored());
+        assertEquals(job.getWorkflowInstance().getId(), instance.getId());
+        assertEquals(WorkflowInstance.Status.RUNNING, instance.getStatus());
+        assertEquals(getTestUser(), instance.getConf().get("user.name"));
+        assertEquals("testApp", instance.getApp().getName());
+        assertTrue(bean.getWfInstance().length < WritableUtils.toByteArray(instance).length);
+        assertNotNull(jpaService.execute(new WorkflowAppDefGetJPAExecutor(instance.getAppHash())));
+    }
+
+}
@@ -14,17 +14,31 @@
  */
 package org.apache.oozie.executor.jpa;
 
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 
+import javax.persistence.EntityManager;
+
+import org.apache.oozie.ErrorCode;
 import org.apache.oozie.WorkflowJobBean;
 import org.apache.oozie.WorkflowsInfo;
+import org.apache.oozie.client.OozieClient;
 import org.apache.oozie.client.WorkflowJob;
 import org.apache.oozie.service.JPAService;
 import org.apache.oozie.service.Services;
 import org.apache.oozie.test.XDataTestCase;
+import org.apache.oozie.util.ContinuationToken;
 import org.apache.oozie.workflow.WorkflowInstance;
+import org.apache.openjpa.persistence.OpenJPAPersistence;
 
 public class TestWorkflowsJobGetJPAExecutor extends XDataTestCase {
     Services services;
@@ -67,4 +81,118 @@ public class TestWorkflowsJobGetJPAExecutor extends XDataTestCase {
         wfBeans = wfInfo.getWorkflows();
         assertEquals(2, wfBeans.size());
     }
-}
\ No newline at end of file
+
+    public void testWfJobsGetByContinuation() throws Exception {
+        List<String> ids = new ArrayList<String>();
+        for (int i = 0; i < 5; i++) {
+            ids.add(addRecordToWfJobTable(WorkflowJob.Status.PREP, WorkflowInstance.Status.PREP).getId());
+        }
+        addRecordToWfJobTable(WorkflowJob.Status.RUNNING, WorkflowInstance.Status.RUNNING);
+        JPAService jpaService = Services.get().get(JPAService.class);
+
+        Map<String, List<String>> filter = new HashMap<String, List<String>>();
+        filter.put(OozieClient.FILTER_STATUS, Collections.singletonList(WorkflowJob.Status.PREP.toString()));
+        List<WorkflowJobBean> jobs = new ArrayList<WorkflowJobBean>();
+        ContinuationToken after = null;
+        int pages = 0;
+        do {
+            WorkflowsInfo wfInfo = jpaService.execute(new WorkflowsJobGetJPAExecutor(filter, after, 2, pages == 0));
+            assertEquals((pages == 0) ? 5 : -1, wfInfo.getTotal());
+            assertTrue(wfInfo.getWorkflows().size() <= 2);
+            jobs.addAll(wfInfo.getWorkflows());
+            after = ContinuationToken.parse(wfInfo.getContinuation());
+            pages++;
+        } while (after != null);
+        assertEquals(3, pages);
+
+        //newest first, the IDs break the ties between jobs created in the same millisecond
+        List<String> got = new ArrayList<String>();
+        for (int i = 0; i < jobs.size(); i++) {
+            got.add(jobs.get(i).getId());
+            if (i > 0) {
+                WorkflowJobBean previous = jobs.get(i - 1);
+                int cmp = previous.getCreatedTime().compareTo(jobs.get(i).getCreatedTime());
+                assertTrue(cmp > 0 || (cmp == 0 && previous.getId().compareTo(jobs.get(i).getId()) > 0));
+            }
+        }
+        Collections.sort(ids);
+        Collections.sort(got);
+        assertEquals(ids, got);
+
+        //a full last page has no continuation
+        WorkflowsInfo wfInfo = jpaService.execute(new WorkflowsJobGetJPAExecutor(
+                new HashMap<String, List<String>>(), null, 6, false));
+        assertEquals(6, wfInfo.getWorkflows().size());
+        assertNull(wfInfo.getContinuation());
+    }
+
+    public void testListingIndexes() throws Exception {
+        Set<String> indexes = getIndexes();
+        assertTrue(indexes.contains("I_WF_JOBS_CREATED_ID"));
+        assertTrue(indexes.contains("I_WF_JOBS_USER_CREATED"));
+        assertTrue(indexes.contains("I_WF_JOBS_STATUS_CREATED"));
+        assertTrue(indexes.contains("I_COORD_JOBS_USER_CREATED"));
+        assertTrue(indexes.contains("I_COORD_JOBS_STATUS_CREATED"));
+    }
+
+    public void testMissingListingIndexesCreated() throws Exception {
+        Services.get().get(JPAService.class).execute(new JPAExecutor<Void>() {
+            public String getName() {
+                return "DropIndexes";
+            }
+
+            public Void execute(EntityManager em) throws JPAExecutorException {
+                try {
+                    Connection conn = (Connection) OpenJPAPersistence.cast(em).getConnection();
+                    Statement st = conn.createStatement();
+                    st.executeUpdate("DROP INDEX I_WF_JOBS_USER_CREATED");
+                    st.executeUpdate("DROP INDEX I_COORD_JOBS_STATUS_CREATED");
+                    st.close();
+                    conn.close();
+                }
+                catch (SQLException ex) {
+                    throw new JPAExecutorException(ErrorCode.E0603, ex);
+                }
+                return null;
+            }
+        });
+        Set<String> indexes = getIndexes();
+        assertFalse(indexes.contains("I_WF_JOBS_USER_CREATED"));
+        assertFalse(indexes.contains("I_COORD_JOBS_STATUS_CREATED"));
+
+        services.destroy();
+        services = new Services();
+        services.init();
+        indexes = getIndexes();
+        assertTrue(indexes.contains("I_WF_JOBS_CREATED_ID"));
+        assertTrue(indexes.contains("I_WF_JOBS_USER_CREATED"));
+        assertTrue(indexes.contains("I_COORD_JOBS_STATUS_CREATED"));
+    }
+
+    private Set<String> getIndexes() throws Exception {
+        return Services.get().get(JPAService.class).execute(new JPAExecutor<Set<String>>() {
+            public String getName() {
+                return "GetIndexes";
+            }
+
+            public Set<String> execute(EntityManager em) throws JPAExecutorException {
+                Set<String> indexes = new HashSet<String>();
+                try {
+                    Connection conn = (Connection) OpenJPAPersistence.cast(em).getConnection();
+                    for (String table : new String[]{"WF_JOBS", "COORD_JOBS"}) {
+                        ResultSet rs = conn.getMetaData().getIndexInfo(null, null, table, false, true);
+                        while (rs.next()) {
+                            indexes.add(rs.getString("INDEX_NAME"));
+                        }
+                        rs.close();
+                    }
+                    conn.close();
+                }
+                catch (SQLException ex) {
+                    throw new JPAExecutorException(ErrorCode.E0603, ex);
+                }
+                return indexes;
+            }
+        });
+    }
+}
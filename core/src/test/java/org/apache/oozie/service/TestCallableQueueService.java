@@ -14,11 +14,15 @@
  */
 package org.apache.oozie.service;
 
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.atomic.AtomicLong;
 
 import org.apache.oozie.test.XTestCase;
+import org.apache.oozie.util.Instrumentation;
 import org.apache.oozie.util.XCallable;
 
 public class TestCallableQueueService extends XTestCase {
@@ -31,6 +35,7 @@ public class TestCallableQueueService extends XTestCase {
         int wait;
         long order;
         long created = System.currentTimeMillis();
+        String key;
 
         public MyCallable() {
             this(0, 0);
@@ -66,6 +71,11 @@ public class TestCallableQueueService extends XTestCase {
             return created;
         }
 
+        @Override
+        public String getKey() {
+            return key;
+        }
+
         @Override
         public String toString() {
             StringBuilder sb = new StringBuilder();
@@ -158,6 +168,58 @@ public class TestCallableQueueService extends XTestCase {
 
     }
 
+    public void testStripedQueue() throws Exception {
+        setSystemProperty(CallableQueueService.CONF_QUEUE_STRIPED, "true");
+        testDelayedQueuing();
+        testPriorityExecution();
+    }
+
+    public void testConcurrentQueuing() throws Exception {
+        Services services = new Services();
+        services.init();
+
+        final CallableQueueService queueservice = services.get(CallableQueueService.class);
+        final List<MyCallable> callables = new ArrayList<MyCallable>();
+        for (int i = 0; i < 100; i++) {
+            callables.add(new MyCallable("type" + (i % 10), 0, 0));
+        }
+        final CountDownLatch latch = new CountDownLatch(4);
+        for (int i = 0; i < 4; i++) {
+            final int offset = i;
+            new Thread() {
+                public void run() {
+                    for (int j = offset; j < callables.size(); j += 4) {
+                        queueservice.queue(callables.get(j));
+                    }
+                    latch.countDown();
+                }
+            }.start();
+        }
+        latch.await();
+        waitFor(5000, new Predicate() {
+            public boolean evaluate() throws Exception {
+                for (MyCallable callable : callables) {
+                    if (callable.executed == 0) {
+                        return false;
+                    }
+                }
+                return true;
+            }
+        });
+        for (MyCallable callable : callables) {
+            assertTrue(callable.executed != 0);
+        }
+
+        Instrumentation instr = services.get(InstrumentationService.class).get();
+        Instrumentation.Element p50 = instr.getVariables().get("callablequeue").get("enqueue.latency.p50.us");
+        Instrumentation.Element p99 = instr.getVariables().get("callablequeue").get("enqueue.latency.p99.us");
+        assertNotNull(p50);
+        assertNotNull(p99);
+        assertTrue((Long) p50.getValue() <= (Long) p99.getValue());
+
+        services.destroy();
+    }
+
     public void testQueueSerial() throws Exception {
         EXEC_ORDER = new AtomicLong();
         Services services = new Services();
@@ -203,6 +265,11 @@ public class TestCallableQueueService extends XTestCase {
             return 0;
         }
 
+        @Override
+        public String getKey() {
+            return null;
+        }
+
         @Override
         public Void call() throws Exception {
             incr();
@@ -232,6 +299,84 @@ public class TestCallableQueueService extends XTestCase {
         }
     }
 
+    public void testDuplicateSuppression() throws Exception {
+        Services services = new Services();
+        services.init();
+        CallableQueueService queueservice = services.get(CallableQueueService.class);
+
+        final MyCallable callable1 = new MyCallable();
+        final MyCallable callable2 = new MyCallable();
+        final MyCallable callable3 = new MyCallable();
+        final MyCallable callable4 = new MyCallable();
+        callable1.key = "k1";
+        callable2.key = "k1";
+        callable3.key = "k2";
+        callable4.key = "k1";
+
+        assertTrue(queueservice.queue(callable1, 200));
+        assertTrue(queueservice.queue(callable2, 200));
+        List<MyCallable> serial = new ArrayList<MyCallable>();
+        serial.add(callable3);
+        serial.add(callable4);
+        assertTrue(queueservice.queueSerial(serial, 200));
+
+        waitFor(2000, new Predicate() {
+            public boolean evaluate() throws Exception {
+                return callable1.executed != 0 && callable3.executed != 0;
+            }
+        });
+        Thread.sleep(100);
+        assertTrue(callable1.executed != 0);
+        assertEquals(0, callable2.executed);
+        assertTrue(callable3.executed != 0);
+        assertEquals(0, callable4.executed);
+
+        // once executed the key is released
+        assertTrue(queueservice.queue(callable2));
+        waitFor(1000, new Predicate() {
+            public boolean evaluate() throws Exception {
+                return callable2.executed != 0;
+            }
+        });
+        assertTrue(callable2.executed != 0);
+
+        Instrumentation instr = services.get(InstrumentationService.class).get();
+        assertEquals(2, instr.getCounters().get("callablequeue").get("duplicates.suppressed").getValue().longValue());
+        services.destroy();
+    }
+
+    public void testEarlierDuplicateTakesOver() throws Exception {
+        Services services = new Services();
+        services.init();
+        CallableQueueService queueservice = services.get(CallableQueueService.class);
+
+        final MyCallable delayed = new MyCallable();
+        final MyCallable immediate = new MyCallable();
+        final MyCallable later = new MyCallable();
+        delayed.key = "k1";
+        immediate.key = "k1";
+        later.key = "k1";
+
+        assertTrue(queueservice.queue(delayed, 1000));
+        assertTrue(queueservice.queue(immediate));
+        waitFor(1000, new Predicate() {
+            public boolean evaluate() throws Exception {
+                return immediate.executed != 0;
+            }
+        });
+        assertTrue(immediate.executed != 0);
+
+        // the key is free again, the pending delayed callable does not hold it anymore
+        assertTrue(queueservice.queue(later, 1500));
+        Thread.sleep(2000);
+        assertEquals(0, delayed.executed);
+        assertTrue(later.executed != 0);
+
+        Instrumentation instr = services.get(InstrumentationService.class).get();
+        assertEquals(1, instr.getCounters().get("callablequeue").get("duplicates.suppressed").getValue().longValue());
+        services.destroy();
+    }
+
     public void testConcurrencyLimit() throws Exception {
         Services services = new Services();
         services.init();
@@ -257,6 +402,126 @@ public class TestCallableQueueService extends XTestCase {
         services.destroy();
     }
 
+    public void testTypeConcurrencyLimitParking() throws Exception {
+        Services services = new Services();
+        services.getConf().setInt(CallableQueueService.CONF_CALLABLE_CONCURRENCY + ".parking", 2);
+        services.init();
+
+        final AtomicInteger running = new AtomicInteger();
+        final AtomicInteger maxRunning = new AtomicInteger();
+        final CallableQueueService queueservice = services.get(CallableQueueService.class);
+        final List<MyCallable> callables = new ArrayList<MyCallable>();
+        for (int i = 0; i < 10; i++) {
+            callables.add(new MyCallable("parking", 0, 100) {
+                @Override
+                public Void call() throws Exception {
+                    int current = running.incrementAndGet();
+                    synchronized (maxRunning) {
+                        maxRunning.set(Math.max(maxRunning.get(), current));
+                    }
+                    try {
+                        return super.call();
+                    }
+                    finally {
+                        running.decrementAndGet();
+                    }
+                }
+            });
+        }
+        for (MyCallable callable : callables) {
+            queueservice.queue(callable);
+        }
+        waitFor(5000, new Predicate() {
+            public boolean evaluate() throws Exception {
+                for (MyCallable callable : callables) {
+                    if (callable.executed == 0) {
+                        return false;
+                    }
+                }
+                return true;
+            }
+        });
+        for (MyCallable callable : callables) {
+            assertTrue(callable.executed != 0);
+        }
+
+        // callables over the type concurrency were parked and released, never more than 2 ran at once
+        Instrumentation instr = services.get(InstrumentationService.class).get();
+        assertEquals(2, maxRunning.get());
+        assertTrue(instr.getCounters().get("callablequeue").get("parking#exceeded.concurrency").getValue() > 0);
+        assertEquals(0L, instr.getVariables().get("callablequeue").get("parked").getValue());
+        assertEquals(0, queueservice.queueSize());
+
+        services.destroy();
+    }
+
+    public void testParkedCallablesCountInQueueSize() throws Exception {
+        setSystemProperty(CallableQueueService.CONF_QUEUE_SIZE, "3");
+        Services services = new Services();
+        services.getConf().setInt(CallableQueueService.CONF_CALLABLE_CONCURRENCY + ".parked", 1);
+        services.init();
+
+        CallableQueueService queueservice = services.get(CallableQueueService.class);
+        final Instrumentation instr = services.get(InstrumentationService.class).get();
+        final List<MyCallable> callables = new ArrayList<MyCallable>();
+        for (int i = 0; i < 3; i++) {
+            callables.add(new MyCallable("parked", 0, 2000));
+        }
+        for (MyCallable callable : callables) {
+            assertTrue(queueservice.queue(callable));
+        }
+        waitFor(5000, new Predicate() {
+            public boolean evaluate() throws Exception {
+                Object parked = instr.getVariables().get("callablequeue").get("parked").getValue();
+                return parked.equals(2L);
+            }
+        });
+        assertEquals(2, queueservice.queueSize());
+
+        // the parked callables fill the queue
+        assertTrue(queueservice.queue(new MyCallable("parked", 0, 0)));
+        assertFalse(queueservice.queue(new MyCallable("other", 0, 0)));
+
+        waitFor(20000, new Predicate() {
+            public boolean evaluate() throws Exception {
+                for (MyCallable callable : callables) {
+                    if (callable.executed == 0) {
+                        return false;
+                    }
+                }
+                return true;
+            }
+        });
+        for (MyCallable callable : callables) {
+            assertTrue(callable.executed != 0);
+        }
+
+        services.destroy();
+    }
+
+    public void testDestroyResetsParkedCount() throws Exception {
+        Services services = new Services();
+        services.getConf().setInt(CallableQueueService.CONF_CALLABLE_CONCURRENCY + ".parked", 1);
+        services.init();
+
+        CallableQueueService queueservice = services.get(CallableQueueService.class);
+        final Instrumentation instr = services.get(InstrumentationService.class).get();
+        for (int i = 0; i < 3; i++) {
+            assertTrue(queueservice.queue(new MyCallable("parked", 0, 2000)));
+        }
+        waitFor(5000, new Predicate() {
+            public boolean evaluate() throws Exception {
+                Object parked = instr.getVariables().get("callablequeue").get("parked").getValue();
+                return parked.equals(2L);
+            }
+        });
+        assertEquals(2, queueservice.queueSize());
+
+        services.destroy();
+        assertEquals(0, queueservice.queueSize());
+        assertEquals(0L, instr.getVariables().get("callablequeue").get("parked").getValue());
+    }
+
     public void testSerialConcurrencyLimit() throws Exception {
         EXEC_ORDER = new AtomicLong();
         Services services = new Services();
@@ -291,7 +556,7 @@ public class TestCallableQueueService extends XTestCase {
 
         int secondBatch = 0;
         for (MyCallable c : callables) {
-            if (c.executed - first > CallableQueueService.CONCURRENCY_DELAY) {
+            if (c.executed - first > 50) {
                 secondBatch++;
             }
         }
@@ -333,7 +598,7 @@ public class TestCallableQueueService extends XTestCase {
 
         int secondBatch = 0;
         for (MyCallable c : callables) {
-            if (c.executed - first > CallableQueueService.CONCURRENCY_DELAY) {
+            if (c.executed - first > 50) {
                 secondBatch++;
             }
         }
@@ -0,0 +1,138 @@
+/**
+ * Copyright (c) 2010 Yahoo! Inc. All rights reserved.
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License. See accompanying LICENSE file.
+ */
+package org.apache.oozie.service;
+
+import java.io.IOException;
+import java.io.StringReader;
+
+import org.apache.oozie.test.XTestCase;
+import org.apache.oozie.util.Instrumentation;
+import org.apache.oozie.util.XConfiguration;
+
+public class TestConfigurationCacheService extends XTestCase {
+    private Services services;
+
+    @Override
+    protected void setUp() throws Exception {
+        super.setUp();
+        services = new Services();
+        services.init();
+    }
+
+    @Override
+    protected void tearDown() throws Exception {
+        services.destroy();
+        super.tearDown();
+    }
+
+    private long getCounter(String name) {
+        Instrumentation.Element<Long> counter = services.get(InstrumentationService.class).get().getCounters()
+                .get("configurations").get(name);
+        return (counter != null) ? counter.getValue() : 0;
+    }
+
+    private String createConf(int properties) {
+        XConfiguration conf = new XConfiguration();
+        for (int i = 0; i < properties; i++) {
+            conf.set("oozie.test.property." + i, "hdfs://localhost:8020/user/test/app/${nameNode}/" + i);
+        }
+        return conf.toXmlString();
+    }
+
+    public void testParse() throws Exception {
+        ConfigurationCacheService ccs = services.get(ConfigurationCacheService.class);
+        assertNotNull(ccs);
+        String xml = createConf(10);
+
+        XConfiguration conf1 = ccs.parse(xml);
+        assertEquals(10, conf1.size());
+        assertEquals("hdfs://localhost:8020/user/test/app/${nameNode}/3", conf1.getRaw("oozie.test.property.3"));
+        assertEquals(1, getCounter(ConfigurationCacheService.INSTR_MISSES_COUNTER));
+        assertEquals(0, getCounter(ConfigurationCacheService.INSTR_HITS_COUNTER));
+
+        //changes to a returned configuration do not change the cached one
+        conf1.set("oozie.test.property.3", "x");
+        conf1.set("a", "A");
+        XConfiguration conf2 = ccs.parse(xml);
+        assertNotSame(conf1, conf2);
+        assertEquals(10, conf2.size());
+        assertEquals("hdfs://localhost:8020/user/test/app/${nameNode}/3", conf2.getRaw("oozie.test.property.3"));
+        assertNull(conf2.get("a"));
+        assertEquals(1, getCounter(ConfigurationCacheService.INSTR_MISSES_COUNTER));
+        assertEquals(1, getCounter(ConfigurationCacheService.INSTR_HITS_COUNTER));
+
+        //a different XML is parsed
+        assertEquals(5, ccs.parse(createConf(5)).size());
+        assertEquals(2, getCounter(ConfigurationCacheService.INSTR_MISSES_COUNTER));
+
+        //invalid XML is not cached
+        for (int i = 0; i < 2; i++) {
+            try {
+                ccs.parse("<configuration><property>");
+                fail();
+            }
+            catch (IOException ex) {
+                //expected
+            }
+        }
+        assertEquals(4, getCounter(ConfigurationCacheService.INSTR_MISSES_COUNTER));
+        assertEquals(1, getCounter(ConfigurationCacheService.INSTR_HITS_COUNTER));
+    }
+
+    public void testCacheSize() throws Exception {
+        services.destroy();
+        String xml1 = createConf(10);
+        String xml2 = createConf(11);
+        setSystemProperty(ConfigurationCacheService.CONF_CACHE_SIZE, Integer.toString(xml2.length()));
+        services = new Services();
+        services.init();
+        ConfigurationCacheService ccs = services.get(ConfigurationCacheService.class);
+
+        ccs.parse(xml1);
+        ccs.parse(xml1);
+        assertEquals(1, getCounter(ConfigurationCacheService.INSTR_HITS_COUNTER));
+
+        //the least recently used configuration is evicted
+        ccs.parse(xml2);
+        ccs.parse(xml1);
+        assertEquals(1, getCounter(ConfigurationCacheService.INSTR_HITS_COUNTER));
+        assertEquals(3, getCounter(ConfigurationCacheService.INSTR_MISSES_COUNTER));
+    }
+
+    public void testPerformance() throws Exception {
+        ConfigurationCacheService ccs = services.get(ConfigurationCacheService.class);
+        String xml = createConf(200);
+        int count = 2000;
+        for (int i = 0; i < count / 10; i++) {
+            new XConfiguration(new StringReader(xml));
+            ccs.parse(xml);
+        }
+
+        long start = System.nanoTime();
+        for (int i = 0; i < count; i++) {
+            assertEquals(200, new XConfiguration(new StringReader(xml)).size());
+        }
+        long parse = System.nanoTime() - start;
+
+        start = System.nanoTime();
+        for (int i = 0; i < count; i++) {
+            assertEquals(200, ccs.parse(xml).size());
+        }
+        long cached = System.nanoTime() - start;
+
+        assertTrue(cached < parse);
+    }
+
+}
@@ -0,0 +1,177 @@
+/**
+ * Copyright (c) 2010 Yahoo! Inc. All rights reserved.
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License. See accompanying LICENSE file.
+ */
+package org.apache.oozie.service;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.apache.oozie.ErrorCode;
+import org.apache.oozie.executor.jpa.JPAExecutorException;
+import org.apache.oozie.executor.jpa.LockLeaseAcquireJPAExecutor;
+import org.apache.oozie.executor.jpa.LockLeaseReleaseJPAExecutor;
+import org.apache.oozie.test.XTestCase;
+import org.apache.oozie.util.Instrumentation;
+import org.apache.oozie.util.MemoryLocks;
+
+public class TestDBLocksService extends XTestCase {
+    private Services services;
+    private DBLocksService server1;
+    private DBLocksService server2;
+
+    @Override
+    protected void setUp() throws Exception {
+        super.setUp();
+        setSystemProperty(Services.CONF_SERVICE_EXT_CLASSES, DBLocksService.class.getName());
+        setSystemProperty(DBLocksService.CONF_LEASE_TIME, "1");
+        setSystemProperty(DBLocksService.CONF_POLL_INTERVAL, "50");
+        services = new Services();
+        services.init();
+        server1 = (DBLocksService) services.get(MemoryLocksService.class);
+
+        // a second locks service with its own server id plays the role of another Oozie server sharing the database
+        services.getConf().set(DBLocksService.CONF_SERVER_ID, "server2");
+        server2 = new DBLocksService();
+        server2.init(services);
+        server2.instrument(new Instrumentation());
+    }
+
+    @Override
+    protected void tearDown() throws Exception {
+        server2.destroy();
+        services.destroy();
+        super.tearDown();
+    }
+
+    public void testService() throws Exception {
+        assertNotNull(server1);
+        assertEquals("server2", server2.getServerId());
+        assertFalse(server1.getServerId().equals(server2.getServerId()));
+    }
+
+    public void testLeaseExclusion() throws Exception {
+        MemoryLocks.LockToken token1 = server1.getWriteLock("0000000-000000000000000-oozie-test-W", 0);
+        assertNotNull(token1);
+        assertNull(server2.getWriteLock("0000000-000000000000000-oozie-test-W", 0));
+        token1.release();
+        MemoryLocks.LockToken token2 = server2.getWriteLock("0000000-000000000000000-oozie-test-W", 0);
+        assertNotNull(token2);
+        assertNull(server1.getWriteLock("0000000-000000000000000-oozie-test-W", 0));
+        token2.release();
+
+        // a lease owned by the same server can be taken again once released in memory
+        token1 = server1.getWriteLock("0000000-000000000000000-oozie-test-W", 0);
+        assertNotNull(token1);
+        token1.release();
+        assertNotNull(server1.getWriteLock("0000000-000000000000000-oozie-test-W", 0));
+
+        Instrumentation instr = services.get(InstrumentationService.class).get();
+        assertEquals(3, instr.getCounters().get("locks").get("db.leases.acquired").getValue().longValue());
+    }
+
+    public void testLeaseWait() throws Exception {
+        final CountDownLatch locked = new CountDownLatch(1);
+        final AtomicBoolean error = new AtomicBoolean();
+        Thread thread = new Thread() {
+            public void run() {
+                try {
+                    MemoryLocks.LockToken token1 = server1.getWriteLock("0000001-000000000000000-oozie-test-W", 0);
+                    locked.countDown();
+                    Thread.sleep(300);
+                    token1.release();
+                }
+                catch (Exception ex) {
+                    error.set(true);
+                }
+            }
+        };
+        thread.start();
+        locked.await();
+        assertNull(server2.getWriteLock("0000001-000000000000000-oozie-test-W", 0));
+        MemoryLocks.LockToken token2 = server2.getWriteLock("0000001-000000000000000-oozie-test-W", 5000);
+        assertNotNull(token2);
+        token2.release();
+        thread.join();
+        assertFalse(error.get());
+    }
+
+    public void testLeaseExpiration() throws Exception {
+        // lease of a server that is gone
+        assertTrue(services.get(JPAService.class).execute(
+                new LockLeaseAcquireJPAExecutor("0000002-000000000000000-oozie-test-W", "gone", 1000)));
+        assertNull(server1.getWriteLock("0000002-000000000000000-oozie-test-W", 0));
+        MemoryLocks.LockToken token = server1.getWriteLock("0000002-000000000000000-oozie-test-W", 5000);
+        assertNotNull(token);
+        token.release();
+    }
+
+    public void testLeaseRenewal() throws Exception {
+        MemoryLocks.LockToken token1 = server1.getWriteLock("0000003-000000000000000-oozie-test-W", 0);
+        assertNotNull(token1);
+        // the lease time is 1 second, the lease must have been renewed
+        Thread.sleep(2500);
+        assertNull(server2.getWriteLock("0000003-000000000000000-oozie-test-W", 0));
+        Instrumentation instr = services.get(InstrumentationService.class).get();
+        assertTrue(instr.getCounters().get("locks").get("db.leases.renewed").getValue() > 0);
+        assertEquals(1L, instr.getVariables().get("locks").get("db.leases").getValue());
+        token1.release();
+        assertNotNull(server2.getWriteLock("0000003-000000000000000-oozie-test-W", 0));
+    }
+
+    public void testReadLocksAreShared() throws Exception {
+        MemoryLocks.LockToken token1 = server1.getReadLock("0000004-000000000000000-oozie-test-W", 0);
+        MemoryLocks.LockToken token2 = server1.getReadLock("0000004-000000000000000-oozie-test-W", 0);
+        assertNotNull(token1);
+        assertNotNull(token2);
+        assertNull(server1.getWriteLock("0000004-000000000000000-oozie-test-W", 0));
+
+        // read locks do not take a lease, another server can write
+        MemoryLocks.LockToken token3 = server2.getWriteLock("0000004-000000000000000-oozie-test-W", 0);
+        assertNotNull(token3);
+        token3.release();
+        token1.release();
+        token2.release();
+        Instrumentation instr = services.get(InstrumentationService.class).get();
+        assertEquals(0L, instr.getVariables().get("locks").get("db.leases").getValue());
+    }
+
+    public void testLostLeaseFencing() throws Exception {
+        JPAService jpaService = services.get(JPAService.class);
+        String resource = "0000005-000000000000000-oozie-test-W";
+        MemoryLocks.LockToken token = server1.getWriteLock(resource, 0);
+        assertNotNull(token);
+        assertTrue(jpaService.execute(new LockLeaseAcquireJPAExecutor("0000006-000000000000000-oozie-test-W",
+                                                                      "other", 1000)));
+
+        // the lease is taken over by another server, the renewal finds it lost
+        assertTrue(jpaService.execute(new LockLeaseReleaseJPAExecutor(resource, server1.getServerId())));
+        assertTrue(jpaService.execute(new LockLeaseAcquireJPAExecutor(resource, "other", 60000)));
+        Thread.sleep(1500);
+        try {
+            jpaService.execute(new LockLeaseAcquireJPAExecutor("0000007-000000000000000-oozie-test-W", "other", 1000));
+            fail();
+        }
+        catch (JPAExecutorException ex) {
+            assertEquals(ErrorCode.E0611, ex.getErrorCode());
+        }
+        Instrumentation instr = services.get(InstrumentationService.class).get();
+        assertEquals(1L, instr.getCounters().get("locks").get("db.leases.lost").getValue().longValue());
+
+        // once the lock is released the thread commits again
+        token.release();
+        assertTrue(jpaService.execute(new LockLeaseAcquireJPAExecutor("0000007-000000000000000-oozie-test-W",
+                                                                      "other", 1000)));
+    }
+
+}
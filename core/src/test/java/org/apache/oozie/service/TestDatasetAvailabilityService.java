@@ -0,0 +1,108 @@
+/**
+ * Copyright (c) 2010 Yahoo! Inc. All rights reserved.
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License. See accompanying LICENSE file.
+ */
+package org.apache.oozie.service;
+
+import java.io.File;
+
+import org.apache.hadoop.conf.Configuration;
+import org.apache.oozie.test.XTestCase;
+import org.apache.oozie.util.Instrumentation;
+
+public class TestDatasetAvailabilityService extends XTestCase {
+    private Services services;
+
+    @Override
+    protected void setUp() throws Exception {
+        super.setUp();
+        setSystemProperty(DatasetAvailabilityService.CONF_NEGATIVE_TTL, "60");
+        services = new Services();
+        services.init();
+    }
+
+    @Override
+    protected void tearDown() throws Exception {
+        services.destroy();
+        super.tearDown();
+    }
+
+    private String createInstance(String name) {
+        File dir = new File(getTestCaseDir(), name);
+        assertTrue(dir.mkdirs());
+        return "file://" + dir.getAbsolutePath();
+    }
+
+    private long getCounter(String name) {
+        Instrumentation.Element<Long> counter = services.get(InstrumentationService.class).get().getCounters()
+                .get("datasets").get(name);
+        return (counter != null) ? counter.getValue() : 0;
+    }
+
+    public void testExists() throws Exception {
+        DatasetAvailabilityService das = services.get(DatasetAvailabilityService.class);
+        assertNotNull(das);
+        String instance = createInstance("2011/01/01");
+        String missing = "file://" + getTestCaseDir() + "/2011/01/02";
+        Configuration conf = new Configuration();
+
+        assertTrue(das.exists(instance, getTestUser(), getTestGroup(), conf));
+        assertFalse(das.exists(missing, getTestUser(), getTestGroup(), conf));
+        assertEquals(2, getCounter(DatasetAvailabilityService.INSTR_EXISTS_COUNTER));
+
+        //both results are cached
+        assertTrue(das.exists(instance, getTestUser(), getTestGroup(), conf));
+        assertFalse(das.exists(missing, getTestUser(), getTestGroup(), conf));
+        assertEquals(2, getCounter(DatasetAvailabilityService.INSTR_EXISTS_COUNTER));
+        assertEquals(1, getCounter(DatasetAvailabilityService.INSTR_HITS_COUNTER));
+        assertEquals(1, getCounter(DatasetAvailabilityService.INSTR_NEGATIVE_HITS_COUNTER));
+
+        //the negative result is kept until it expires
+        createInstance("2011/01/02");
+        assertFalse(das.exists(missing, getTestUser(), getTestGroup(), conf));
+
+        //caches are per user
+        assertTrue(das.exists(missing, getTestUser2(), getTestGroup(), conf));
+    }
+
+    public void testCountAvailable() throws Exception {
+        DatasetAvailabilityService das = services.get(DatasetAvailabilityService.class);
+        String[] uris = new String[24];
+        for (int i = 0; i < uris.length; i++) {
+            String hour = (i < 10) ? "0" + i : "" + i;
+            if (i != 12) {
+                createInstance("2011/01/01/" + hour);
+            }
+            uris[i] = "file://" + getTestCaseDir() + "/2011/01/01/" + hour;
+        }
+        Configuration conf = new Configuration();
+
+        //the check stops at the first missing instance, the directory is listed once
+        assertEquals(12, das.countAvailable(uris, getTestUser(), getTestGroup(), conf));
+        assertEquals(1, getCounter(DatasetAvailabilityService.INSTR_LIST_COUNTER));
+        assertEquals(0, getCounter(DatasetAvailabilityService.INSTR_EXISTS_COUNTER));
+        assertEquals(13, getCounter(DatasetAvailabilityService.INSTR_MISSES_COUNTER));
+
+        //instances in a missing directory do not exist
+        String[] missing = {"file://" + getTestCaseDir() + "/2011/01/02/00",
+            "file://" + getTestCaseDir() + "/2011/01/02/01"};
+        assertEquals(0, das.countAvailable(missing, getTestUser(), getTestGroup(), conf));
+        assertEquals(2, getCounter(DatasetAvailabilityService.INSTR_LIST_COUNTER));
+
+        assertEquals(12, das.countAvailable(uris, getTestUser(), getTestGroup(), conf));
+        assertEquals(2, getCounter(DatasetAvailabilityService.INSTR_LIST_COUNTER));
+        assertEquals(12, getCounter(DatasetAvailabilityService.INSTR_HITS_COUNTER));
+        assertEquals(1, getCounter(DatasetAvailabilityService.INSTR_NEGATIVE_HITS_COUNTER));
+    }
+
+}
@@ -0,0 +1,99 @@
+/**
+ * Copyright (c) 2010 Yahoo! Inc. All rights reserved.
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License. See accompanying LICENSE file.
+ */
+package org.apache.oozie.service;
+
+import java.io.File;
+
+import org.apache.oozie.dependency.LocalFileSystemNotificationSource;
+import org.apache.oozie.test.XTestCase;
+import org.apache.oozie.util.Instrumentation;
+
+public class TestDependencyRegistryService extends XTestCase {
+    private Services services;
+
+    @Override
+    protected void setUp() throws Exception {
+        super.setUp();
+        setSystemProperty(LocalFileSystemNotificationSource.CONF_INTERVAL, "1");
+        services = new Services();
+        services.init();
+    }
+
+    @Override
+    protected void tearDown() throws Exception {
+        services.destroy();
+        super.tearDown();
+    }
+
+    private long getCounter(String name) {
+        Instrumentation.Element<Long> counter = services.get(InstrumentationService.class).get().getCounters()
+                .get("dependencies").get(name);
+        return (counter != null) ? counter.getValue() : 0;
+    }
+
+    public void testRegister() throws Exception {
+        DependencyRegistryService registry = services.get(DependencyRegistryService.class);
+        assertNotNull(registry);
+        String uri1 = "file://" + getTestCaseDir() + "/2011/01/01/_SUCCESS";
+        String uri2 = "file://" + getTestCaseDir() + "/2011/01/02/_SUCCESS";
+
+        assertTrue(registry.register(uri1, "a1", getTestUser()));
+        assertTrue(registry.register(uri1, "a2", getTestUser()));
+        assertEquals(uri1, registry.getDependency("a1"));
+        assertEquals(uri1, registry.getDependency("a2"));
+        assertEquals(2, getCounter(DependencyRegistryService.INSTR_REGISTERED_COUNTER));
+
+        //registering the same dependency again does nothing
+        assertTrue(registry.register(uri1, "a1", getTestUser()));
+        assertEquals(2, getCounter(DependencyRegistryService.INSTR_REGISTERED_COUNTER));
+
+        //an action waits for one dependency at a time
+        assertTrue(registry.register(uri2, "a1", getTestUser()));
+        assertEquals(uri2, registry.getDependency("a1"));
+
+        registry.unregister("a1");
+        registry.unregister("a2");
+        assertNull(registry.getDependency("a1"));
+        assertNull(registry.getDependency("a2"));
+
+        //no notification source for HDFS
+        assertFalse(registry.register("hdfs://localhost:9000/2011/01/01/_SUCCESS", "a1", getTestUser()));
+        assertNull(registry.getDependency("a1"));
+    }
+
+    public void testNotification() throws Exception {
+        final DependencyRegistryService registry = services.get(DependencyRegistryService.class);
+        File dir = new File(getTestCaseDir(), "2011/01/01");
+        String uri = "file://" + dir.getAbsolutePath() + "/_SUCCESS";
+        assertFalse(services.get(DatasetAvailabilityService.class).exists(uri, getTestUser(), getTestGroup(),
+                                                                          services.getConf()));
+        assertTrue(registry.register(uri, "0000000-000000000000000-oozie-test-C@1", getTestUser()));
+
+        assertTrue(dir.mkdirs());
+        assertTrue(new File(dir, "_SUCCESS").createNewFile());
+        waitFor(10000, new Predicate() {
+            public boolean evaluate() throws Exception {
+                return registry.getDependency("0000000-000000000000000-oozie-test-C@1") == null;
+            }
+        });
+        assertNull(registry.getDependency("0000000-000000000000000-oozie-test-C@1"));
+        assertEquals(1, getCounter(DependencyRegistryService.INSTR_NOTIFIED_COUNTER));
+
+        //the unavailable instance is no longer cached
+        assertTrue(services.get(DatasetAvailabilityService.class).exists(uri, getTestUser(), getTestGroup(),
+                                                                         services.getConf()));
+    }
+
+}
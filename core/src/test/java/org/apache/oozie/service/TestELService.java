@@ -14,6 +14,8 @@
  */
 package org.apache.oozie.service;
 
+import java.lang.management.ManagementFactory;
+
 import javax.servlet.jsp.el.ELException;
 
 import org.apache.oozie.test.XTestCase;
@@ -39,4 +41,54 @@ public class TestELService extends XTestCase {
         services.destroy();
     }
 
+    public void testEvaluatorsOfGroup() throws Exception {
+        Services services = new Services();
+        services.init();
+        try {
+            ELService elService = services.get(ELService.class);
+            ELEvaluator eval1 = elService.createEvaluator("workflow");
+            ELEvaluator eval2 = elService.createEvaluator("workflow");
+
+            //variables are per evaluator, constants and functions are shared
+            eval1.setVariable("a", "A");
+            eval1.setVariable("KB", 1);
+            assertEquals("A", eval1.evaluate("${a}", String.class));
+            assertEquals(new Long(1), eval1.evaluate("${KB}", Long.class));
+            assertNull(eval2.getVariable("a"));
+            assertEquals(new Long(1024), eval2.evaluate("${KB}", Long.class));
+            assertEquals("ab", eval2.evaluate("${concat('a', 'b')}", String.class));
+            try {
+                eval2.evaluate("${a}", String.class);
+                fail();
+            }
+            catch (ELException ex) {
+                //nop
+            }
+            try {
+                elService.createEvaluator("undefined");
+                fail();
+            }
+            catch (IllegalArgumentException ex) {
+                //nop
+            }
+
+            //allocation per evaluator, measured if the JVM supports it
+            java.lang.management.ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+            if (threads instanceof com.sun.management.ThreadMXBean) {
+                com.sun.management.ThreadMXBean sunThreads = (com.sun.management.ThreadMXBean) threads;
+                long threadId = Thread.currentThread().getId();
+                int count = 100000;
+                long allocated = sunThreads.getThreadAllocatedBytes(threadId);
+                for (int i = 0; i < count; i++) {
+                    elService.createEvaluator("coord-action-create");
+                }
+                allocated = (sunThreads.getThreadAllocatedBytes(threadId) - allocated) / count;
+                assertTrue("allocated " + allocated, allocated < 256);
+            }
+        }
+        finally {
+            services.destroy();
+        }
+    }
+
 }
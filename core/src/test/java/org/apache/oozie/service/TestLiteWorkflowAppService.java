@@ -22,6 +22,7 @@ import org.apache.oozie.workflow.WorkflowException;
 import org.apache.oozie.workflow.lite.LiteWorkflowApp;
 import org.apache.oozie.test.XTestCase;
 import org.apache.oozie.util.IOUtils;
+import org.apache.oozie.util.Instrumentation;
 import org.apache.oozie.util.XConfiguration;
 import org.apache.oozie.action.ActionExecutor;
 import org.apache.oozie.action.ActionExecutorException;
@@ -261,6 +262,68 @@ public class TestLiteWorkflowAppService extends XTestCase {
         }
     }
 
+    public void testDefinitionsCache() throws Exception {
+        Services services = new Services();
+        try {
+            services.init();
+            LiteWorkflowAppService wps = (LiteWorkflowAppService) services.get(WorkflowAppService.class);
+            Instrumentation instr = services.get(InstrumentationService.class).get();
+
+            Reader reader = IOUtils.getResourceAsReader("wf-schema-valid.xml", -1);
+            Writer writer = new FileWriter(getTestCaseDir() + "/workflow.xml");
+            IOUtils.copyCharStream(reader, writer);
+
+            Configuration jobConf = new XConfiguration();
+            jobConf.set(OozieClient.APP_PATH, "file://" + getTestCaseDir() + File.separator + "workflow.xml");
+            jobConf.set(OozieClient.USER_NAME, getTestUser());
+            jobConf.set(OozieClient.GROUP_NAME, "group");
+            injectKerberosInfo(jobConf);
+
+            LiteWorkflowApp app = (LiteWorkflowApp) wps.parseDef(jobConf, "authToken");
+            assertEquals(1, getCounter(instr, LiteWorkflowAppService.INSTR_MISSES_COUNTER));
+            assertSame(app, wps.parseDef(jobConf, "authToken"));
+            assertEquals(1, getCounter(instr, LiteWorkflowAppService.INSTR_PATH_HITS_COUNTER));
+            assertSame(app, wps.parseDef(IOUtils.getResourceAsString("wf-schema-valid.xml", -1)));
+            assertEquals(1, getCounter(instr, LiteWorkflowAppService.INSTR_HITS_COUNTER));
+            assertSame(app, wps.getDef(app.getHash()));
+            assertEquals(2, getCounter(instr, LiteWorkflowAppService.INSTR_HITS_COUNTER));
+            assertEquals(1, getCounter(instr, LiteWorkflowAppService.INSTR_MISSES_COUNTER));
+
+            //a modified definition is parsed again
+            writer = new FileWriter(getTestCaseDir() + "/workflow.xml");
+            writer.write(IOUtils.getResourceAsString("wf-schema-valid.xml", -1).replace("test-wf", "test-wf-1"));
+            writer.close();
+            LiteWorkflowApp app1 = (LiteWorkflowApp) wps.parseDef(jobConf, "authToken");
+            assertNotSame(app, app1);
+            assertFalse(app.getHash().equals(app1.getHash()));
+            assertEquals(2, getCounter(instr, LiteWorkflowAppService.INSTR_MISSES_COUNTER));
+        }
+        finally {
+            services.destroy();
+        }
+    }
+
+    public void testDefinitionsCacheDisabled() throws Exception {
+        setSystemProperty(LiteWorkflowAppService.CONF_DEFS_CACHE_SIZE, "0");
+        Services services = new Services();
+        try {
+            services.init();
+            WorkflowAppService wps = services.get(WorkflowAppService.class);
+            String wfXml = IOUtils.getResourceAsString("wf-schema-valid.xml", -1);
+            WorkflowApp app = wps.parseDef(wfXml);
+            assertNotSame(app, wps.parseDef(wfXml));
+            assertEquals(2, getCounter(services.get(InstrumentationService.class).get(),
+                                       LiteWorkflowAppService.INSTR_MISSES_COUNTER));
+        }
+        finally {
+            services.destroy();
+        }
+    }
+
+    private long getCounter(Instrumentation instr, String name) {
+        return instr.getCounters().get("workflow.defs").get(name).getValue();
+    }
+
     public void testCreateprotoConf() throws Exception {
         Services services = new Services();
         try {
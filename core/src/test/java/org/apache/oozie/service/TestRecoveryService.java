@@ -201,6 +201,49 @@ public class TestRecoveryService extends XTestCase {
 
     }
 
+    /**
+     * Tests the throttling of the Recovery Service Runnable command. </p> Insert a coordinator job with PREMATER. Then,
+     * runs the recovery runnable with a callable queue threshold of 0 and ensures nothing is recovered. Runs it again
+     * with the default threshold and ensures the state changes to RUNNING.
+     *
+     * @throws Exception
+     */
+    public void testRecoveryServiceThrottled() throws Exception {
+        final String jobId = "0000000-" + new Date().getTime() + "-testCoordRecoveryService-C";
+        final CoordinatorEngine ce = new CoordinatorEngine(getTestUser(), "UNIT_TESTING");
+        CoordinatorStore store = Services.get().get(StoreService.class).getStore(CoordinatorStore.class);
+        store.beginTrx();
+        try {
+            createTestCaseSubDir("no-op");
+            createTestCaseSubDir("no-op/lib");
+            createTestCaseSubDir("workflows");
+            createTestCaseSubDir("in");
+            addRecordToJobTable(jobId, store, getTestCaseDir());
+            store.commitTrx();
+        }
+        finally {
+            store.closeTrx();
+        }
+
+        Thread.sleep(3000);
+        Services.get().getConf().setInt(RecoveryService.CONF_QUEUE_THRESHOLD, 0);
+        Runnable recoveryRunnable = new RecoveryRunnable(0, 1);
+        recoveryRunnable.run();
+        Thread.sleep(3000);
+        assertEquals(CoordinatorJobBean.Status.PREMATER, ce.getCoordJob(jobId).getStatus());
+        assertEquals(1L, Services.get().get(InstrumentationService.class).get().getCounters().get("recovery").get(
+                "throttled").getValue().longValue());
+
+        Services.get().getConf().setInt(RecoveryService.CONF_QUEUE_THRESHOLD, 50);
+        recoveryRunnable.run();
+        waitFor(200000, new Predicate() {
+            public boolean evaluate() throws Exception {
+                return (ce.getCoordJob(jobId).getStatus() == CoordinatorJobBean.Status.RUNNING);
+            }
+        });
+        assertEquals(CoordinatorJobBean.Status.RUNNING, ce.getCoordJob(jobId).getStatus());
+    }
+
     /**
      * Tests functionality of the Recovery Service Runnable command. </p> Insert a coordinator job with PREPMATER and
      * action with SUBMITTED. Then, runs the recovery runnable and ensures the action status changes to READY.
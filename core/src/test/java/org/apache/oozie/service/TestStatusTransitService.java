@@ -0,0 +1,132 @@
+/**
+ * Copyright (c) 2010 Yahoo! Inc. All rights reserved.
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License. See accompanying LICENSE file.
+ */
+package org.apache.oozie.service;
+
+import java.util.Date;
+import java.util.Map;
+
+import org.apache.oozie.BundleActionBean;
+import org.apache.oozie.BundleJobBean;
+import org.apache.oozie.client.Job;
+import org.apache.oozie.executor.jpa.BundleActionInsertJPAExecutor;
+import org.apache.oozie.executor.jpa.BundleActionsGetStatusCountsJPAExecutor;
+import org.apache.oozie.executor.jpa.BundleJobGetJPAExecutor;
+import org.apache.oozie.executor.jpa.BundleJobInsertJPAExecutor;
+import org.apache.oozie.executor.jpa.BundleActionsGetStatusCountsJPAExecutor.StatusCounts;
+import org.apache.oozie.service.StatusTransitService.StatusTransitRunnable;
+import org.apache.oozie.test.XDataTestCase;
+
+public class TestStatusTransitService extends XDataTestCase {
+    private Services services;
+
+    @Override
+    protected void setUp() throws Exception {
+        super.setUp();
+        services = new Services();
+        services.init();
+        cleanUpDBTables();
+    }
+
+    @Override
+    protected void tearDown() throws Exception {
+        services.destroy();
+        super.tearDown();
+    }
+
+    private BundleJobBean addBundleJob(Job.Status status, boolean pending) throws Exception {
+        BundleJobBean bundle = createBundleJob(status);
+        if (pending) {
+            bundle.setPending();
+        }
+        services.get(JPAService.class).execute(new BundleJobInsertJPAExecutor(bundle));
+        return bundle;
+    }
+
+    private void addBundleAction(String bundleId, String coordName, Job.Status status, boolean pending)
+            throws Exception {
+        BundleActionBean action = new BundleActionBean();
+        action.setBundleId(bundleId);
+        action.setCoordName(coordName);
+        action.setBundleActionId(bundleId + "_" + coordName);
+        action.setStatus(status);
+        action.setPending(pending ? 1 : 0);
+        action.setLastModifiedTime(new Date());
+        services.get(JPAService.class).execute(new BundleActionInsertJPAExecutor(action));
+    }
+
+    private BundleJobBean getBundleJob(String bundleId) throws Exception {
+        return services.get(JPAService.class).execute(new BundleJobGetJPAExecutor(bundleId));
+    }
+
+    public void testBundleActionsStatusCounts() throws Exception {
+        BundleJobBean job = addBundleJob(Job.Status.RUNNING, true);
+        addBundleAction(job.getId(), "c1", Job.Status.SUCCEEDED, false);
+        addBundleAction(job.getId(), "c2", Job.Status.SUCCEEDED, false);
+        addBundleAction(job.getId(), "c3", Job.Status.RUNNING, true);
+        BundleJobBean other = addBundleJob(Job.Status.SUCCEEDED, false);
+        addBundleAction(other.getId(), "c1", Job.Status.SUCCEEDED, false);
+
+        Map<String, StatusCounts> counts = services.get(JPAService.class).execute(
+                new BundleActionsGetStatusCountsJPAExecutor(null));
+        // the jobs that are neither pending nor running are not counted
+        assertEquals(1, counts.size());
+        assertEquals(3, counts.get(job.getId()).getActions());
+        assertEquals(1, counts.get(job.getId()).getPending());
+        assertEquals(2, counts.get(job.getId()).getSucceeded());
+
+        counts = services.get(JPAService.class).execute(new BundleActionsGetStatusCountsJPAExecutor(new Date(0)));
+        assertEquals(2, counts.size());
+        assertEquals(1, counts.get(other.getId()).getSucceeded());
+    }
+
+    public void testBundleStatusTransit() throws Exception {
+        BundleJobBean succeeded = addBundleJob(Job.Status.RUNNING, true);
+        addBundleAction(succeeded.getId(), "c1", Job.Status.SUCCEEDED, false);
+        addBundleAction(succeeded.getId(), "c2", Job.Status.SUCCEEDED, false);
+
+        BundleJobBean pending = addBundleJob(Job.Status.RUNNING, true);
+        addBundleAction(pending.getId(), "c1", Job.Status.SUCCEEDED, false);
+        addBundleAction(pending.getId(), "c2", Job.Status.RUNNING, true);
+
+        BundleJobBean failed = addBundleJob(Job.Status.RUNNING, false);
+        addBundleAction(failed.getId(), "c1", Job.Status.SUCCEEDED, false);
+        addBundleAction(failed.getId(), "c2", Job.Status.FAILED, false);
+
+        BundleJobBean paused = addBundleJob(Job.Status.PAUSED, true);
+        addBundleAction(paused.getId(), "c1", Job.Status.SUCCEEDED, false);
+        addBundleAction(paused.getId(), "c2", Job.Status.PAUSED, false);
+
+        new StatusTransitRunnable().run();
+
+        BundleJobBean job = getBundleJob(succeeded.getId());
+        assertEquals(Job.Status.SUCCEEDED, job.getStatus());
+        assertFalse(job.isPending());
+
+        job = getBundleJob(pending.getId());
+        assertEquals(Job.Status.RUNNING, job.getStatus());
+        assertTrue(job.isPending());
+
+        job = getBundleJob(failed.getId());
+        assertEquals(Job.Status.RUNNING, job.getStatus());
+        assertFalse(job.isPending());
+
+        job = getBundleJob(paused.getId());
+        assertEquals(Job.Status.PAUSED, job.getStatus());
+        assertFalse(job.isPending());
+        // the columns not set by the status transition are left untouched
+        assertEquals(paused.getJobXml(), job.getJobXml());
+    }
+
+}
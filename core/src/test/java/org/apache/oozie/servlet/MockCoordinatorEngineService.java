@@ -34,6 +34,7 @@ import org.apache.oozie.client.CoordinatorJob;
 import org.apache.oozie.client.CoordinatorJob.Execution;
 import org.apache.oozie.client.rest.JsonCoordinatorAction;
 import org.apache.oozie.client.rest.RestConstants;
+import org.apache.oozie.executor.jpa.JPAResultHandler;
 import org.apache.oozie.service.CoordinatorEngineService;
 import org.apache.oozie.util.DateUtils;
 
@@ -164,6 +165,31 @@ public class MockCoordinatorEngineService extends CoordinatorEngineService {
             return (CoordinatorJobBean) coordJobs.get(idx);
         }
 
+        @Override
+        public CoordinatorJobBean getCoordJobWithoutActions(String jobId) throws BaseEngineException {
+            did = RestConstants.JOB_SHOW_INFO;
+            int idx = validateCoordinatorIdx(jobId);
+            return (CoordinatorJobBean) coordJobs.get(idx);
+        }
+
+        @Override
+        public int streamCoordActions(String jobId, int start, int length,
+                JPAResultHandler<? super CoordinatorActionBean> handler) throws BaseEngineException {
+            int idx = validateCoordinatorIdx(jobId);
+            List<CoordinatorAction> actions = coordJobs.get(idx).getActions();
+            int count = 0;
+            for (int i = start - 1; i < actions.size() && count < length; i++) {
+                try {
+                    handler.handle((CoordinatorActionBean) actions.get(i));
+                }
+                catch (Exception ex) {
+                    throw new CoordinatorEngineException(ErrorCode.ETEST, jobId);
+                }
+                count++;
+            }
+            return count;
+        }
+
         @Override
         public String getDefinition(String jobId) throws BaseEngineException {
             did = RestConstants.JOB_SHOW_DEFINITION;
@@ -178,10 +178,19 @@ public class MockDagEngineService extends DagEngineService {
         }
 
         @Override
-        public WorkflowsInfo getJobs(String filter, int start, int len) throws DagEngineException {
+        public WorkflowsInfo getJobs(String filter, int start, int len, boolean count) throws DagEngineException {
             parseFilter(filter);
             did = RestConstants.JOBS_FILTER_PARAM;
-            return new WorkflowsInfo((List) workflows, start, len, workflows.size());
+            return new WorkflowsInfo((List) workflows, start, len, (count) ? workflows.size() : -1);
+        }
+
+        @Override
+        public WorkflowsInfo getJobsAfter(String filter, String continuation, int len, boolean count)
+                throws DagEngineException {
+            parseFilter(filter);
+            did = RestConstants.CONTINUATION_PARAM;
+            String next = (continuation.length() == 0) ? "next" : null;
+            return new WorkflowsInfo((List) workflows, len, (count) ? workflows.size() : -1, next);
         }
 
         @Override
@@ -0,0 +1,81 @@
+/**
+ * Copyright (c) 2010 Yahoo! Inc. All rights reserved.
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License. See accompanying LICENSE file.
+ */
+package org.apache.oozie.servlet;
+
+import java.io.StringWriter;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+
+import org.apache.oozie.WorkflowJobBean;
+import org.apache.oozie.client.WorkflowJob;
+import org.apache.oozie.client.rest.JsonTags;
+import org.apache.oozie.test.XTestCase;
+import org.json.simple.JSONArray;
+import org.json.simple.JSONObject;
+
+public class TestJsonBeanArrayWriter extends XTestCase {
+
+    private List<WorkflowJobBean> createJobs(int count) {
+        List<WorkflowJobBean> jobs = new ArrayList<WorkflowJobBean>();
+        for (int i = 0; i < count; i++) {
+            WorkflowJobBean job = new WorkflowJobBean();
+            job.setId("000000" + i + "-oozie-W");
+            job.setAppName("app \"" + i + "\"");
+            job.setAppPath("hdfs://localhost:8020/user/test/app/" + i);
+            job.setUser("test");
+            job.setGroup("testg");
+            job.setStatus(WorkflowJob.Status.RUNNING);
+            job.setCreatedTime(new Date(i * 1000L));
+            job.setConf("<configuration/>");
+            jobs.add(job);
+        }
+        return jobs;
+    }
+
+    @SuppressWarnings("unchecked")
+    public void testSameOutputAsJSONArray() throws Exception {
+        for (int count : new int[]{0, 1, 5}) {
+            List<WorkflowJobBean> jobs = createJobs(count);
+
+            JSONObject expected = new JSONObject();
+            expected.put(JsonTags.WORKFLOWS_JOBS, WorkflowJobBean.toJSONArray(jobs));
+            expected.put(JsonTags.WORKFLOWS_TOTAL, count);
+            JSONObject streamed = new JSONObject();
+            streamed.put(JsonTags.WORKFLOWS_JOBS, JsonBeanArrayWriter.toJSONStreamAware(jobs));
+            streamed.put(JsonTags.WORKFLOWS_TOTAL, count);
+
+            StringWriter writer = new StringWriter();
+            streamed.writeJSONString(writer);
+            assertEquals(expected.toJSONString(), writer.toString());
+        }
+    }
+
+    public void testWriter() throws Exception {
+        List<WorkflowJobBean> jobs = createJobs(3);
+        StringWriter writer = new StringWriter();
+        JsonBeanArrayWriter array = new JsonBeanArrayWriter(writer);
+        for (WorkflowJobBean job : jobs) {
+            array.handle(job);
+        }
+        array.close();
+        assertEquals(WorkflowJobBean.toJSONArray(jobs).toJSONString(), writer.toString());
+
+        writer = new StringWriter();
+        JsonBeanArrayWriter.toJSONStreamAware(null).writeJSONString(writer);
+        assertEquals(new JSONArray().toJSONString(), writer.toString());
+    }
+
+}
@@ -20,6 +20,7 @@ import org.apache.oozie.client.rest.RestConstants;
 import org.apache.oozie.client.rest.JsonTags;
 import org.apache.oozie.util.IOUtils;
 import org.apache.oozie.servlet.V1JobServlet;
+import org.json.simple.JSONArray;
 import org.json.simple.JSONObject;
 import org.json.simple.JSONValue;
 
@@ -152,8 +153,24 @@ public class TestV1JobServlet extends DagServletTestCase {
                 assertTrue(conn.getHeaderField("content-type").startsWith(RestConstants.JSON_CONTENT_TYPE));
                 JSONObject obj = (JSONObject) JSONValue.parse(new InputStreamReader(conn.getInputStream()));
                 assertEquals(MockCoordinatorEngineService.JOB_ID + 1, obj.get(JsonTags.COORDINATOR_JOB_ID));
+                assertEquals(1, ((JSONArray) obj.get(JsonTags.COORDINATOR_ACTIONS)).size());
                 assertEquals(RestConstants.JOB_SHOW_INFO, MockCoordinatorEngineService.did);
 
+                MockCoordinatorEngineService.reset();
+                params = new HashMap<String, String>();
+                params.put(RestConstants.JOB_SHOW_PARAM, RestConstants.JOB_SHOW_INFO);
+                params.put(RestConstants.OFFSET_PARAM, "2");
+                params.put(RestConstants.LEN_PARAM, "1");
+                url = createURL(MockCoordinatorEngineService.JOB_ID + 3, params);
+                conn = (HttpURLConnection) url.openConnection();
+                conn.setRequestMethod("GET");
+                assertEquals(HttpServletResponse.SC_OK, conn.getResponseCode());
+                obj = (JSONObject) JSONValue.parse(new InputStreamReader(conn.getInputStream()));
+                JSONArray actions = (JSONArray) obj.get(JsonTags.COORDINATOR_ACTIONS);
+                assertEquals(1, actions.size());
+                assertEquals(MockCoordinatorEngineService.ACTION_ID + 1,
+                        ((JSONObject) actions.get(0)).get(JsonTags.COORDINATOR_ACTION_ID));
+
                 MockCoordinatorEngineService.reset();
                 params = new HashMap<String, String>();
                 params.put(RestConstants.JOB_SHOW_PARAM, RestConstants.JOB_SHOW_INFO);
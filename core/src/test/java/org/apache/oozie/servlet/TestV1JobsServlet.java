@@ -147,6 +147,37 @@ public class TestV1JobsServlet extends DagServletTestCase {
                     assertNotNull(((JSONObject) array.get(i)).get(JsonTags.WORKFLOW_APP_PATH));
                 }
 
+                assertEquals(new Long(MockDagEngineService.INIT_WF_COUNT), json.get(JsonTags.WORKFLOWS_TOTAL));
+                assertEquals(new Long(2), json.get(JsonTags.WORKFLOWS_OFFSET));
+                assertNull(json.get(JsonTags.WORKFLOWS_CONTINUATION));
+
+                params = new HashMap<String, String>();
+                params.put(RestConstants.JOBS_FILTER_PARAM, "name=x");
+                params.put(RestConstants.CONTINUATION_PARAM, "");
+                params.put(RestConstants.LEN_PARAM, "100");
+                params.put(RestConstants.COUNT_PARAM, "false");
+                url = createURL("", params);
+                conn = (HttpURLConnection) url.openConnection();
+                conn.setRequestMethod("GET");
+                assertEquals(HttpServletResponse.SC_OK, conn.getResponseCode());
+                assertEquals(RestConstants.CONTINUATION_PARAM, MockDagEngineService.did);
+                json = (JSONObject) JSONValue.parse(new InputStreamReader(conn.getInputStream()));
+                array = (JSONArray) json.get(JsonTags.WORKFLOWS_JOBS);
+                assertEquals(MockDagEngineService.INIT_WF_COUNT, array.size());
+                assertEquals("next", json.get(JsonTags.WORKFLOWS_CONTINUATION));
+                assertNull(json.get(JsonTags.WORKFLOWS_TOTAL));
+                assertNull(json.get(JsonTags.WORKFLOWS_OFFSET));
+
+                params.put(RestConstants.CONTINUATION_PARAM, "next");
+                params.put(RestConstants.COUNT_PARAM, "true");
+                url = createURL("", params);
+                conn = (HttpURLConnection) url.openConnection();
+                conn.setRequestMethod("GET");
+                assertEquals(HttpServletResponse.SC_OK, conn.getResponseCode());
+                json = (JSONObject) JSONValue.parse(new InputStreamReader(conn.getInputStream()));
+                assertNull(json.get(JsonTags.WORKFLOWS_CONTINUATION));
+                assertEquals(new Long(MockDagEngineService.INIT_WF_COUNT), json.get(JsonTags.WORKFLOWS_TOTAL));
+
                 params = new HashMap<String, String>();
                 params.put(RestConstants.JOBTYPE_PARAM, "wf");
                 params.put(RestConstants.JOBS_EXTERNAL_ID_PARAM, "external-valid");
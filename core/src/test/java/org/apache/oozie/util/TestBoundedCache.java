@@ -0,0 +1,71 @@
+/**
+ * Copyright (c) 2010 Yahoo! Inc. All rights reserved.
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License. See accompanying LICENSE file.
+ */
+package org.apache.oozie.util;
+
+import junit.framework.TestCase;
+
+public class TestBoundedCache extends TestCase {
+
+    public void testEviction() {
+        BoundedCache<String, String> cache = new BoundedCache<String, String>(10);
+        cache.put("a", "A", 4);
+        cache.put("b", "B", 4);
+        assertEquals(2, cache.getCount());
+        assertEquals(8, cache.getSize());
+
+        //'a' is the most recently used, 'b' is evicted
+        assertEquals("A", cache.get("a"));
+        cache.put("c", "C", 4);
+        assertEquals(2, cache.getCount());
+        assertEquals(8, cache.getSize());
+        assertEquals("A", cache.get("a"));
+        assertNull(cache.get("b"));
+        assertEquals("C", cache.get("c"));
+
+        //replacing an entry updates the size
+        cache.put("c", "CC", 6);
+        assertEquals(10, cache.getSize());
+        assertEquals("CC", cache.get("c"));
+
+        //an entry larger than the cache is not cached
+        cache.put("d", "D", 11);
+        assertNull(cache.get("d"));
+        assertEquals(2, cache.getCount());
+
+        assertEquals("A", cache.remove("a"));
+        assertNull(cache.remove("a"));
+        assertEquals(1, cache.getCount());
+        assertEquals(6, cache.getSize());
+
+        cache.clear();
+        assertEquals(0, cache.getCount());
+        assertEquals(0, cache.getSize());
+    }
+
+    public void testDisabled() {
+        BoundedCache<String, String> cache = new BoundedCache<String, String>(0);
+        cache.put("a", "A", 1);
+        assertNull(cache.get("a"));
+        assertEquals(0, cache.getCount());
+        try {
+            new BoundedCache<String, String>(-1);
+            fail();
+        }
+        catch (IllegalArgumentException ex) {
+            //nop
+        }
+    }
+
+}
@@ -0,0 +1,49 @@
+/**
+ * Copyright (c) 2010 Yahoo! Inc. All rights reserved.
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License. See accompanying LICENSE file.
+ */
+package org.apache.oozie.util;
+
+import java.util.Date;
+
+import org.apache.oozie.test.XTestCase;
+
+public class TestContinuationToken extends XTestCase {
+
+    public void testRoundTrip() {
+        Date created = new Date(1293840000123L);
+        ContinuationToken token = new ContinuationToken(created, "0000001-110101000000000-oozie-tucu-W");
+        ContinuationToken parsed = ContinuationToken.parse(token.toString());
+        assertEquals(created.getTime(), parsed.getCreatedTime().getTime());
+        assertEquals("0000001-110101000000000-oozie-tucu-W", parsed.getId());
+        assertEquals(token.toString(), parsed.toString());
+    }
+
+    public void testFirstPage() {
+        assertNull(ContinuationToken.parse(null));
+        assertNull(ContinuationToken.parse(""));
+    }
+
+    public void testInvalid() {
+        for (String token : new String[]{"x", "-id", "12-", "!!-id"}) {
+            try {
+                ContinuationToken.parse(token);
+                fail(token);
+            }
+            catch (IllegalArgumentException ex) {
+                //expected
+            }
+        }
+    }
+
+}
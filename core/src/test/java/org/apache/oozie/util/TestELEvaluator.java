@@ -14,9 +14,11 @@
  */
 package org.apache.oozie.util;
 
+import org.apache.commons.el.ExpressionEvaluatorImpl;
 import org.apache.oozie.test.XTestCase;
 
 import javax.servlet.jsp.el.ELException;
+import javax.servlet.jsp.el.ExpressionEvaluator;
 import java.lang.reflect.Method;
 import java.util.HashMap;
 import java.util.Map;
@@ -164,4 +166,99 @@ public class TestELEvaluator extends XTestCase {
         }
     }
 
+    public void testLayeredContext() throws Exception {
+        ELEvaluator.Context parent = new ELEvaluator.Context();
+        parent.setVariable("a", "A");
+        parent.setVariable("b", "B");
+        parent.addFunction("a", "a", functionA);
+        ELEvaluator.Context support = new ELEvaluator.Context(parent);
+        support.setVariable("b", "b");
+        support.setVariable("c", null);
+        assertEquals("A", support.getVariable("a"));
+        assertEquals("b", support.getVariable("b"));
+        assertNull(support.getVariable("c"));
+        assertEquals("B", parent.getVariable("b"));
+        assertNull(parent.getVariable("c"));
+        assertEquals(functionA, support.resolveFunction("a", "a"));
+        assertNull(support.resolveFunction("a", "b"));
+
+        ELEvaluator evaluator = new ELEvaluator(support);
+        assertEquals("Aab", evaluator.evaluate("${a}${a:a()}${b}", String.class));
+        assertNull(evaluator.evaluate("${c}", Object.class));
+        try {
+            evaluator.evaluate("${d}", String.class);
+            fail();
+        }
+        catch (ELException ex) {
+            //nop
+        }
+    }
+
+    public void testExpressionCache() throws Exception {
+        ELEvaluator.setExpressionCacheSize(2);
+        try {
+            ELEvaluator.Context support = new ELEvaluator.Context();
+            support.setVariable("a", "A");
+            support.addFunction("a", "a", functionA);
+            ELEvaluator evaluator = new ELEvaluator(support);
+
+            //strings without expressions are not parsed
+            assertEquals("a\\b$c{d}", evaluator.evaluate("a\\b$c{d}", String.class));
+            assertEquals(new Integer(5), evaluator.evaluate("5", Integer.class));
+            assertEquals("", evaluator.evaluate("", String.class));
+            assertEquals(0, ELEvaluator.getExpressionCacheCount());
+
+            assertEquals("Aa", evaluator.evaluate("${a}${a:a()}", String.class));
+            assertEquals("Aa", evaluator.evaluate("${a}${a:a()}", String.class));
+            assertEquals(1, ELEvaluator.getExpressionCacheCount());
+            assertEquals(new Integer(3), evaluator.evaluate("${1 + 2}", Integer.class));
+            assertEquals("3", evaluator.evaluate("${1 + 2}", String.class));
+            assertEquals(2, ELEvaluator.getExpressionCacheCount());
+
+            //a full cache evicts expressions
+            assertEquals(Boolean.TRUE, evaluator.evaluate("${a == 'A'}", Boolean.class));
+            assertEquals(1, ELEvaluator.getExpressionCacheCount());
+            assertEquals(new Integer(4), evaluator.evaluate("${2 + 2}", Integer.class));
+            assertEquals(2, ELEvaluator.getExpressionCacheCount());
+            assertEquals(Boolean.TRUE, evaluator.evaluate("${a == 'A'}", Boolean.class));
+
+            //a parsed expression is evaluated with the variables of the evaluator
+            support.setVariable("a", "B");
+            assertEquals(Boolean.FALSE, evaluator.evaluate("${a == 'A'}", Boolean.class));
+
+            try {
+                evaluator.evaluate("${a", String.class);
+                fail();
+            }
+            catch (ELException ex) {
+                //nop
+            }
+        }
+        finally {
+            ELEvaluator.setExpressionCacheSize(ELEvaluator.DEFAULT_EXPRESSION_CACHE_SIZE);
+        }
+    }
+
+    public void testExpressionCacheResults() throws Exception {
+        String[] templates = {"hdfs://nn:8020/data/${YEAR}/${MONTH}/${DAY}/${HOUR}/${MINUTE}",
+            "${YEAR}-${MONTH}-${DAY}T${HOUR}:${MINUTE}Z", "${a == 'A' ? 'x' : 'y'}", "${YEAR * 12 + MONTH}",
+            "/user/oozie/app"};
+        ELEvaluator.Context support = new ELEvaluator.Context();
+        support.setVariable("a", "A");
+        support.setVariable("YEAR", 2011);
+        support.setVariable("MONTH", 1);
+        support.setVariable("DAY", 1);
+        support.setVariable("HOUR", 0);
+        support.setVariable("MINUTE", 0);
+        ELEvaluator evaluator = new ELEvaluator(support);
+        ExpressionEvaluator uncached = new ExpressionEvaluatorImpl(true);
+        //the second evaluation uses the cached expressions
+        for (int i = 0; i < 2; i++) {
+            for (String template : templates) {
+                assertEquals(uncached.evaluate(template, String.class, support, support),
+                             evaluator.evaluate(template, String.class));
+            }
+        }
+    }
+
 }
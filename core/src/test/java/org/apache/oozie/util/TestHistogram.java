@@ -0,0 +1,75 @@
+/**
+ * Copyright (c) 2010 Yahoo! Inc. All rights reserved.
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License. See accompanying LICENSE file.
+ */
+package org.apache.oozie.util;
+
+import junit.framework.TestCase;
+
+public class TestHistogram extends TestCase {
+
+    public void testBuckets() {
+        for (int i = 0; i < 2 * Histogram.SUB_BUCKETS; i++) {
+            assertEquals(i, Histogram.getBucket(i));
+            assertEquals(i, Histogram.getBucketUpperBound(i));
+        }
+        long[] values = {16, 17, 100, 1000, 123456, Long.MAX_VALUE};
+        for (long value : values) {
+            int bucket = Histogram.getBucket(value);
+            assertTrue(value <= Histogram.getBucketUpperBound(bucket));
+            assertTrue(value > Histogram.getBucketUpperBound(bucket - 1));
+        }
+    }
+
+    public void testPercentiles() {
+        Histogram histogram = new Histogram();
+        assertEquals(0, histogram.getCount());
+        assertEquals(0, histogram.getPercentile(50));
+        for (int i = 1; i <= 1000; i++) {
+            histogram.record(i);
+        }
+        assertEquals(1000, histogram.getCount());
+        assertEquals(1000, histogram.getMax());
+        assertTrue(Math.abs(histogram.getPercentile(50) - 500) <= 500 / Histogram.SUB_BUCKETS);
+        assertTrue(Math.abs(histogram.getPercentile(99) - 990) <= 990 / Histogram.SUB_BUCKETS);
+        assertEquals(1000, histogram.getPercentile(100));
+        assertEquals(1, histogram.getPercentile(0));
+
+        histogram.reset();
+        assertEquals(0, histogram.getCount());
+        assertEquals(0, histogram.getMax());
+        histogram.record(-1);
+        assertEquals(0, histogram.getPercentile(50));
+    }
+
+    public void testConcurrentRecording() throws Exception {
+        final Histogram histogram = new Histogram();
+        Thread[] threads = new Thread[4];
+        for (int i = 0; i < threads.length; i++) {
+            threads[i] = new Thread() {
+                public void run() {
+                    for (int j = 0; j < 10000; j++) {
+                        histogram.record(j);
+                    }
+                }
+            };
+            threads[i].start();
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        assertEquals(40000, histogram.getCount());
+        assertEquals(9999, histogram.getMax());
+    }
+
+}
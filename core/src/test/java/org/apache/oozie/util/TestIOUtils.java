@@ -70,4 +70,9 @@ public class TestIOUtils extends XTestCase {
         }
     }
 
+    public void testGetSHA1() throws Exception {
+        assertEquals("a9993e364706816aba3e25717850c26c9cd0d89d", IOUtils.getSHA1("abc".getBytes("UTF-8")));
+        assertEquals("da39a3ee5e6b4b0d3255bfef95601890afd80709", IOUtils.getSHA1(new byte[0]));
+    }
+
 }
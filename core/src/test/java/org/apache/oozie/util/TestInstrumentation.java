@@ -16,6 +16,8 @@ package org.apache.oozie.util;
 
 import org.apache.oozie.test.XTestCase;
 
+import java.util.ArrayList;
+import java.util.List;
 import java.util.concurrent.ScheduledThreadPoolExecutor;
 import java.util.concurrent.ScheduledExecutorService;
 
@@ -300,4 +302,71 @@ public class TestInstrumentation extends XTestCase {
                 get("timers").get("a").get("1")).getValue()).getOwn());
     }
 
+    private Instrumentation.Cron createCron(final long time) {
+        return new Instrumentation.Cron() {
+            @Override
+            public long getOwn() {
+                return time;
+            }
+
+            @Override
+            public long getTotal() {
+                return time;
+            }
+        };
+    }
+
+    public void testTimerPercentiles() throws Exception {
+        Instrumentation.Timer timer = new Instrumentation.Timer();
+        assertEquals(0, timer.getTotalPercentile(50));
+        for (int i = 1; i <= 1000; i++) {
+            timer.addCron(createCron(i));
+        }
+        Instrumentation.Timer snapshot = timer.getValue();
+        timer.addCron(createCron(100000));
+
+        assertEquals(1000, snapshot.getTicks());
+        assertEquals(1, snapshot.getTotalMin());
+        assertEquals(1000, snapshot.getTotalMax());
+        assertEquals("", 500, snapshot.getTotalPercentile(50), 500 / Histogram.SUB_BUCKETS);
+        assertEquals("", 950, snapshot.getTotalPercentile(95), 950 / Histogram.SUB_BUCKETS);
+        assertEquals("", 990, snapshot.getTotalPercentile(99), 990 / Histogram.SUB_BUCKETS);
+        assertEquals(1000, snapshot.getTotalPercentile(99.9));
+        assertEquals(100000, timer.getTotalPercentile(100));
+    }
+
+    public void testConcurrentUpdates() throws Exception {
+        final int updates = 200000;
+        for (int threadCount = 1; threadCount <= 8; threadCount *= 2) {
+            final Instrumentation inst = new Instrumentation();
+            final Instrumentation.Cron cron = createCron(5);
+            List<Thread> threads = new ArrayList<Thread>();
+            for (int i = 0; i < threadCount; i++) {
+                threads.add(new Thread() {
+                    @Override
+                    public void run() {
+                        for (int j = 0; j < updates; j++) {
+                            inst.incr("a", "1", 1);
+                            inst.addCron("a", "1", cron);
+                        }
+                    }
+                });
+            }
+            for (Thread thread : threads) {
+                thread.start();
+            }
+            for (Thread thread : threads) {
+                thread.join();
+            }
+
+            assertEquals(new Long(threadCount * updates), inst.getCounters().get("a").get("1").getValue());
+            Instrumentation.Timer timer = inst.getTimers().get("a").get("1").getValue();
+            assertEquals(threadCount * updates, timer.getTicks());
+            assertEquals(threadCount * updates * 5L, timer.getTotal());
+            assertEquals(5, timer.getTotalMin());
+            assertEquals(5, timer.getTotalMax());
+            assertEquals(5, timer.getTotalPercentile(99));
+        }
+    }
+
 }
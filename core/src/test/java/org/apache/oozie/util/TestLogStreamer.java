@@ -15,10 +15,14 @@
 package org.apache.oozie.util;
 
 import java.io.File;
+import java.io.FileOutputStream;
 import java.io.FileWriter;
 import java.io.IOException;
+import java.io.OutputStreamWriter;
 import java.io.StringWriter;
+import java.io.Writer;
 import java.util.Date;
+import java.util.zip.GZIPOutputStream;
 
 import org.apache.oozie.test.XTestCase;
 import org.apache.oozie.util.XLogStreamer;
@@ -94,4 +98,99 @@ public class TestLogStreamer extends XTestCase {
         assertEquals(true, out[2].contains("_L4_"));
         assertEquals(true, out[3].contains("_L7_"));
     }
+
+    private XLogStreamer.Filter createFilter(String jobId, boolean indexed) {
+        XLogStreamer.Filter.reset();
+        XLogStreamer.Filter.defineParameter("USER");
+        XLogStreamer.Filter.defineParameter("GROUP");
+        XLogStreamer.Filter.defineParameter("TOKEN");
+        XLogStreamer.Filter.defineParameter("APP");
+        XLogStreamer.Filter.defineParameter("JOB");
+        XLogStreamer.Filter.defineParameter("ACTION");
+        if (indexed) {
+            XLogStreamer.Filter.defineIndexParameter("JOB");
+        }
+        XLogStreamer.Filter xf = new XLogStreamer.Filter();
+        xf.setParameter("JOB", jobId);
+        return xf;
+    }
+
+    private String statement(String jobId, String text) {
+        return "2009-06-24 02:43:13,958  INFO _" + text + "_:323 - USER[oozie] GROUP[-] TOKEN[-] APP[app] JOB[" + jobId
+                + "] ACTION[-] " + text + "\n";
+    }
+
+    private File writeLog(String name, String content, long modTime) throws IOException {
+        File file = new File(getTestCaseDir(), name);
+        Writer writer = (name.endsWith(".gz")) ? new OutputStreamWriter(new GZIPOutputStream(new FileOutputStream(
+                file))) : new FileWriter(file);
+        writer.write(content);
+        writer.close();
+        file.setLastModified(modTime);
+        return file;
+    }
+
+    private String stream(XLogStreamer.Filter xf) throws IOException {
+        StringWriter sw = new StringWriter();
+        new XLogStreamer(xf, sw, getTestCaseDir(), "test.log", 1).streamLog(null, null);
+        return sw.toString();
+    }
+
+    public void testStreamLogIndexed() throws IOException {
+        long currTime = System.currentTimeMillis();
+        File rotated = writeLog("test.log.1", statement("A", "L1") + "continuation of L1\n" + statement("B", "L2")
+                + statement("A", "L3") + statement("A", "L4"), currTime - 9000);
+        File gzipped = writeLog("test.log.2.gz", statement("B", "L5") + statement("A", "L6") + "continuation of L6",
+                currTime - 8000);
+        writeLog("test.log.3", statement("B", "L7"), currTime - 7000);
+        File current = writeLog("test.log", statement("A", "L8") + statement("B", "L9"), currTime - 6000);
+
+        String expected = statement("A", "L1") + "continuation of L1\n" + statement("A", "L3") + statement("A", "L4")
+                + statement("A", "L6") + "continuation of L6\n" + statement("A", "L8");
+        assertEquals(expected, stream(createFilter("A", false)));
+        assertFalse(XLogIndex.getIndexFile(rotated).exists());
+
+        assertEquals(expected, stream(createFilter("A", true)));
+        assertTrue(XLogIndex.getIndexFile(rotated).exists());
+        assertTrue(XLogIndex.getIndexFile(gzipped).exists());
+        assertFalse(XLogIndex.getIndexFile(current).exists());
+
+        XLogIndex index = XLogIndex.get(rotated, "JOB");
+        assertEquals(2, index.size());
+        assertEquals(4, index.getRanges("A").length);
+        assertEquals(2, index.getRanges("B").length);
+
+        //the sidecar index is reused
+        assertEquals(expected, stream(createFilter("A", true)));
+        assertEquals(stream(createFilter("B", false)), stream(createFilter("B", true)));
+        assertEquals(stream(createFilter("C", false)), stream(createFilter("C", true)));
+
+        //a modified file is indexed again
+        writeLog("test.log.1", statement("A", "L10"), currTime - 9000);
+        assertEquals(statement("A", "L10") + statement("A", "L6") + "continuation of L6\n" + statement("A", "L8"),
+                stream(createFilter("A", true)));
+
+        //a regular expression value is not answered from the index
+        assertEquals(stream(createFilter("A|B", false)), stream(createFilter("A|B", true)));
+    }
+
+    public void testStreamLogIndexedLargeFile() throws IOException {
+        long currTime = System.currentTimeMillis();
+        StringBuilder sb = new StringBuilder();
+        for (int file = 1; file <= 4; file++) {
+            sb.setLength(0);
+            for (int i = 0; i < 25000; i++) {
+                sb.append(statement("job-" + (i % 1000), "F" + file + "L" + i));
+            }
+            writeLog("test.log." + file + ((file % 2 == 0) ? ".gz" : ""), sb.toString(), currTime - 10000 + file);
+        }
+
+        String scanned = stream(createFilter("job-500", false));
+        String indexing = stream(createFilter("job-500", true));
+        String indexed = stream(createFilter("job-500", true));
+
+        assertEquals(100, scanned.split("\n").length);
+        assertEquals(scanned, indexing);
+        assertEquals(scanned, indexed);
+    }
 }
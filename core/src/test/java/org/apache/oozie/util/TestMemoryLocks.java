@@ -14,6 +14,9 @@
  */
 package org.apache.oozie.util;
 
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+
 import org.apache.oozie.test.XTestCase;
 
 public class TestMemoryLocks extends XTestCase {
@@ -214,4 +217,81 @@ public class TestMemoryLocks extends XTestCase {
         assertEquals("a:1-L a:1-U a:2-L a:2-U", sb.toString().trim());
     }
 
+    public void testLocksRemoved() throws Exception {
+        MemoryLocks.LockToken token1 = locks.getReadLock("a", -1);
+        MemoryLocks.LockToken token2 = locks.getReadLock("a", 0);
+        assertEquals(1, locks.size());
+        assertNull(locks.getWriteLock("a", 0));
+        assertNull(locks.getWriteLock("a", 10));
+        assertEquals(1, locks.size());
+        token1.release();
+        assertEquals(1, locks.size());
+        token2.release();
+        assertEquals(0, locks.size());
+        locks.getWriteLock("a", 0).release();
+        assertEquals(0, locks.size());
+    }
+
+    public void testEntityType() {
+        assertEquals("workflow", MemoryLocks.getEntityType("0000000-000000000000000-oozie-tucu-W"));
+        assertEquals("workflow.action", MemoryLocks.getEntityType("0000000-000000000000000-oozie-tucu-W@a"));
+        assertEquals("coordinator", MemoryLocks.getEntityType("0000000-000000000000000-oozie-tucu-C"));
+        assertEquals("coordinator.action", MemoryLocks.getEntityType("0000000-000000000000000-oozie-tucu-C@1"));
+        assertEquals("bundle", MemoryLocks.getEntityType("0000000-000000000000000-oozie-tucu-B"));
+        assertEquals("other", MemoryLocks.getEntityType("org.apache.oozie.service.StatusTransitService"));
+    }
+
+    public void testContentionInstrumentation() throws Exception {
+        Instrumentation instr = new Instrumentation();
+        locks.setInstrumentation(instr);
+        MemoryLocks.LockToken token = locks.getReadLock("a-W", 0);
+        assertNull(instr.getTimers().get("locks"));
+        assertNull(locks.getWriteLock("a-W", 10));
+        token.release();
+        assertNotNull(instr.getTimers().get("locks").get("workflow.contention"));
+    }
+
+    private void runConcurrentLocking(final int threads, final int iterations, final int resources,
+                                      final AtomicInteger violations) throws Exception {
+        final CountDownLatch start = new CountDownLatch(1);
+        final CountDownLatch done = new CountDownLatch(threads);
+        final AtomicInteger[] holders = new AtomicInteger[resources];
+        for (int i = 0; i < resources; i++) {
+            holders[i] = new AtomicInteger();
+        }
+        for (int i = 0; i < threads; i++) {
+            final int offset = i;
+            new Thread(new Runnable() {
+                public void run() {
+                    try {
+                        start.await();
+                        for (int j = 0; j < iterations; j++) {
+                            int resource = (j + offset) % resources;
+                            MemoryLocks.LockToken token = locks.getWriteLock("r" + resource, -1);
+                            if (holders[resource].incrementAndGet() != 1) {
+                                violations.incrementAndGet();
+                            }
+                            holders[resource].decrementAndGet();
+                            token.release();
+                        }
+                    }
+                    catch (InterruptedException ex) {
+                        throw new RuntimeException(ex);
+                    }
+                    done.countDown();
+                }
+            }).start();
+        }
+        start.countDown();
+        done.await();
+    }
+
+    public void testConcurrentLocking() throws Exception {
+        AtomicInteger violations = new AtomicInteger();
+        runConcurrentLocking(8, 20000, 4, violations);
+        runConcurrentLocking(8, 20000, 100000, violations);
+        assertEquals(0, violations.get());
+        assertEquals(0, locks.size());
+    }
+
 }
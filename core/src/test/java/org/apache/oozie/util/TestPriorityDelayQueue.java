@@ -386,4 +386,29 @@ public class TestPriorityDelayQueue extends TestCase {
         assertEquals(0, q.size());
     }
 
+    public void testClearConcurrentOffer() throws Exception {
+        final PriorityDelayQueue<Integer> q = new PriorityDelayQueue<Integer>(3, 500, TimeUnit.MILLISECONDS, -1);
+        Thread offerer = new Thread() {
+            public void run() {
+                for (int i = 0; i < 10000; i++) {
+                    q.offer(new PriorityDelayQueue.QueueElement<Integer>(i, i % 3, i % 2, TimeUnit.MINUTES));
+                }
+            }
+        };
+        offerer.start();
+        while (offerer.isAlive()) {
+            q.clear();
+        }
+        offerer.join();
+        int size = 0;
+        Iterator<PriorityDelayQueue.QueueElement<Integer>> it = q.iterator();
+        while (it.hasNext()) {
+            it.next();
+            size++;
+        }
+        assertEquals(size, q.size());
+        q.clear();
+        assertEquals(0, q.size());
+    }
+
 }
@@ -0,0 +1,370 @@
+/**
+ * Copyright (c) 2010 Yahoo! Inc. All rights reserved.
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License. See accompanying LICENSE file.
+ */
+package org.apache.oozie.util;
+
+import junit.framework.TestCase;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.apache.oozie.util.PriorityDelayQueue.QueueElement;
+
+public class TestStripedPriorityDelayQueue extends TestCase {
+
+    private static QueueElement<Integer> pollWithin(BlockingQueue<QueueElement<Integer>> q, long timeout)
+            throws Exception {
+        long limit = System.currentTimeMillis() + timeout;
+        QueueElement<Integer> e = q.poll();
+        while (e == null && System.currentTimeMillis() < limit) {
+            Thread.sleep(1);
+            e = q.poll();
+        }
+        return e;
+    }
+
+    public void testQueueConstructor() throws Exception {
+        try {
+            new StripedPriorityDelayQueue<Integer>(0, 1000, TimeUnit.MILLISECONDS, -1);
+            fail();
+        }
+        catch (IllegalArgumentException ex) {
+        }
+
+        try {
+            new StripedPriorityDelayQueue<Integer>(1, 1000, TimeUnit.MILLISECONDS, 0);
+            fail();
+        }
+        catch (IllegalArgumentException ex) {
+        }
+
+        try {
+            new StripedPriorityDelayQueue<Integer>(1, 1000, TimeUnit.MILLISECONDS, -2);
+            fail();
+        }
+        catch (IllegalArgumentException ex) {
+        }
+    }
+
+    public void testBoundUnboundQueueSize() {
+        StripedPriorityDelayQueue<Integer> q =
+                new StripedPriorityDelayQueue<Integer>(1, 1000, TimeUnit.MILLISECONDS, -1);
+        assertEquals(1, q.getPriorities());
+        assertEquals(-1, q.getMaxSize());
+        assertEquals(1000, q.getMaxWait(TimeUnit.MILLISECONDS));
+        assertEquals(0, q.size());
+        assertTrue(q.offer(new QueueElement<Integer>(1)));
+        assertEquals(1, q.size());
+        assertTrue(q.offer(new QueueElement<Integer>(1)));
+        assertEquals(2, q.size());
+
+        q = new StripedPriorityDelayQueue<Integer>(1, 1000, TimeUnit.MILLISECONDS, 1);
+        assertEquals(1, q.getMaxSize());
+        assertTrue(q.offer(new QueueElement<Integer>(1)));
+        assertEquals(1, q.size());
+        assertFalse(q.offer(new QueueElement<Integer>(1)));
+        assertEquals(1, q.size());
+        assertNotNull(q.poll());
+        assertEquals(0, q.size());
+        assertTrue(q.offer(new QueueElement<Integer>(1)));
+        assertEquals(1, q.size());
+    }
+
+    public void testPoll() throws Exception {
+        StripedPriorityDelayQueue<Integer> q =
+                new StripedPriorityDelayQueue<Integer>(3, 500, TimeUnit.MILLISECONDS, -1);
+
+        //test immediate offer polling
+
+        q.offer(new QueueElement<Integer>(1));
+        assertEquals((Integer) 1, q.poll().getElement());
+        assertEquals(0, q.size());
+
+        //test delayed offer polling
+
+        q.offer(new QueueElement<Integer>(2, 0, 50, TimeUnit.MILLISECONDS));
+        assertNull(q.poll());
+        assertEquals((Integer) 2, pollWithin(q, 100).getElement());
+        assertEquals(0, q.size());
+
+        //test different priorities immediate offer polling
+
+        q.offer(new QueueElement<Integer>(10, 0, 0, TimeUnit.MILLISECONDS));
+        q.offer(new QueueElement<Integer>(30, 2, 0, TimeUnit.MILLISECONDS));
+        q.offer(new QueueElement<Integer>(20, 1, 0, TimeUnit.MILLISECONDS));
+
+        assertEquals((Integer) 30, q.poll().getElement());
+        assertEquals((Integer) 20, q.poll().getElement());
+        assertEquals((Integer) 10, q.poll().getElement());
+        assertEquals(0, q.size());
+
+        //test different priorities equal delayed offer polling
+
+        q.offer(new QueueElement<Integer>(10, 0, 10, TimeUnit.MILLISECONDS));
+        q.offer(new QueueElement<Integer>(30, 2, 10, TimeUnit.MILLISECONDS));
+        q.offer(new QueueElement<Integer>(20, 1, 10, TimeUnit.MILLISECONDS));
+
+        Thread.sleep(10 + 2 * StripedPriorityDelayQueue.TICK);
+
+        List<Integer> list = new ArrayList<Integer>();
+        while (list.size() != 3) {
+            QueueElement<Integer> e = q.poll();
+            if (e != null) {
+                list.add(e.getElement());
+            }
+        }
+        assertEquals((Integer) 30, list.get(0));
+        assertEquals((Integer) 20, list.get(1));
+        assertEquals((Integer) 10, list.get(2));
+        assertEquals(0, q.size());
+
+        //test different priorities different delayed offer polling within delay
+
+        q.offer(new QueueElement<Integer>(10, 0, 100, TimeUnit.MILLISECONDS));
+        q.offer(new QueueElement<Integer>(30, 2, 200, TimeUnit.MILLISECONDS));
+        q.offer(new QueueElement<Integer>(20, 1, 0, TimeUnit.MILLISECONDS));
+
+        assertEquals((Integer) 20, q.poll().getElement());
+        assertEquals((Integer) 10, pollWithin(q, 150).getElement());
+        assertEquals((Integer) 30, pollWithin(q, 150).getElement());
+        assertEquals(0, q.size());
+    }
+
+    public void testDelayBeyondWheel() throws Exception {
+        StripedPriorityDelayQueue<Integer> q =
+                new StripedPriorityDelayQueue<Integer>(1, 500, TimeUnit.MILLISECONDS, -1);
+        long delay = StripedPriorityDelayQueue.TICK * (StripedPriorityDelayQueue.WHEEL_SIZE + 10);
+        long start = System.currentTimeMillis();
+        q.offer(new QueueElement<Integer>(1, 0, delay, TimeUnit.MILLISECONDS));
+        QueueElement<Integer> e = pollWithin(q, delay + 1000);
+        assertNotNull(e);
+        assertTrue(System.currentTimeMillis() - start >= delay);
+    }
+
+    public void testPeek() throws Exception {
+        StripedPriorityDelayQueue<Integer> q =
+                new StripedPriorityDelayQueue<Integer>(3, 500, TimeUnit.MILLISECONDS, -1);
+
+        q.offer(new QueueElement<Integer>(1));
+        assertEquals((Integer) 1, q.peek().getElement());
+        q.poll();
+        assertEquals(0, q.size());
+
+        q.offer(new QueueElement<Integer>(10, 0, 0, TimeUnit.MILLISECONDS));
+        q.offer(new QueueElement<Integer>(30, 2, 0, TimeUnit.MILLISECONDS));
+        q.offer(new QueueElement<Integer>(20, 1, 0, TimeUnit.MILLISECONDS));
+
+        assertEquals((Integer) 30, q.peek().getElement());
+        assertNotNull(q.poll());
+        assertEquals((Integer) 20, q.peek().getElement());
+        assertNotNull(q.poll());
+        assertEquals((Integer) 10, q.peek().getElement());
+        assertNotNull(q.poll());
+        assertEquals(0, q.size());
+
+        q.offer(new QueueElement<Integer>(30, 2, 300, TimeUnit.MILLISECONDS));
+        q.offer(new QueueElement<Integer>(10, 0, 100, TimeUnit.MILLISECONDS));
+        q.offer(new QueueElement<Integer>(20, 1, 200, TimeUnit.MILLISECONDS));
+
+        assertEquals((Integer) 10, q.peek().getElement());
+        assertEquals((Integer) 10, pollWithin(q, 150).getElement());
+        assertEquals((Integer) 20, q.peek().getElement());
+        assertEquals((Integer) 20, pollWithin(q, 150).getElement());
+        assertEquals((Integer) 30, q.peek().getElement());
+        assertEquals((Integer) 30, pollWithin(q, 150).getElement());
+        assertEquals(0, q.size());
+    }
+
+    public void testAntiStarvation() throws Exception {
+        StripedPriorityDelayQueue<Integer> q =
+                new StripedPriorityDelayQueue<Integer>(3, 500, TimeUnit.MILLISECONDS, -1);
+        q.offer(new QueueElement<Integer>(1));
+        q.peek();
+        assertEquals(1, q.sizes()[0]);
+        Thread.sleep(600);
+        q.peek();
+        assertEquals(1, q.sizes()[1]);
+        Thread.sleep(600);
+        q.peek();
+        assertEquals(1, q.sizes()[2]);
+        assertEquals(2, q.poll().getPriority());
+    }
+
+    public void testConcurrency() throws Exception {
+        final int threads = 5;
+        final int elements = 1000;
+        final int priorities = 5;
+        final StripedPriorityDelayQueue<Integer> queue =
+                new StripedPriorityDelayQueue<Integer>(priorities, 100, TimeUnit.MILLISECONDS, -1);
+        final CountDownLatch latch = new CountDownLatch(threads);
+
+        for (int i = 0; i < threads; i++) {
+            new Thread(new Runnable() {
+                public void run() {
+                    for (int j = 0; j < elements; j++) {
+                        queue.offer(new QueueElement<Integer>(j, (int) (Math.random() * priorities),
+                                                              (int) (Math.random() * 100), TimeUnit.MILLISECONDS));
+                    }
+                    latch.countDown();
+                }
+            }).start();
+        }
+
+        final AtomicInteger consumed = new AtomicInteger();
+        Thread[] consumers = new Thread[threads];
+        for (int i = 0; i < threads; i++) {
+            consumers[i] = new Thread(new Runnable() {
+                public void run() {
+                    try {
+                        while (consumed.get() < threads * elements) {
+                            if (queue.poll(10, TimeUnit.MILLISECONDS) != null) {
+                                consumed.incrementAndGet();
+                            }
+                        }
+                    }
+                    catch (InterruptedException ex) {
+                        throw new RuntimeException(ex);
+                    }
+                }
+            });
+            consumers[i].start();
+        }
+        latch.await();
+        for (Thread consumer : consumers) {
+            consumer.join(10000);
+        }
+        assertEquals(threads * elements, consumed.get());
+        assertEquals(0, queue.size());
+    }
+
+    public void testIterator() throws Exception {
+        StripedPriorityDelayQueue<Integer> q =
+                new StripedPriorityDelayQueue<Integer>(3, 500, TimeUnit.MILLISECONDS, -1);
+
+        q.offer(new QueueElement<Integer>(1, 1, 10, TimeUnit.MILLISECONDS));
+        q.offer(new QueueElement<Integer>(10, 0, 0, TimeUnit.MILLISECONDS));
+        q.offer(new QueueElement<Integer>(30, 2, 0, TimeUnit.MILLISECONDS));
+        q.offer(new QueueElement<Integer>(20, 1, 0, TimeUnit.MILLISECONDS));
+
+        Iterator<QueueElement<Integer>> it = q.iterator();
+        int size = 0;
+        while (it.hasNext()) {
+            it.next();
+            size++;
+        }
+        assertEquals(4, size);
+
+        assertNotNull(q.poll());
+        assertNotNull(q.poll());
+
+        it = q.iterator();
+        size = 0;
+        while (it.hasNext()) {
+            it.next();
+            size++;
+        }
+        assertEquals(2, size);
+    }
+
+    public void testClear() {
+        StripedPriorityDelayQueue<Integer> q =
+                new StripedPriorityDelayQueue<Integer>(3, 500, TimeUnit.MILLISECONDS, -1);
+        q.offer(new QueueElement<Integer>(1, 1, 10, TimeUnit.MILLISECONDS));
+        q.offer(new QueueElement<Integer>(10, 0, 0, TimeUnit.MILLISECONDS));
+        assertEquals(2, q.size());
+        q.clear();
+        assertEquals(0, q.size());
+        assertEquals(0, q.sizes()[0]);
+        assertEquals(0, q.sizes()[1]);
+    }
+
+    public void testBoundedUnderContention() throws Exception {
+        final int threads = 8;
+        final int maxSize = 100;
+        final StripedPriorityDelayQueue<Integer> queue =
+                new StripedPriorityDelayQueue<Integer>(3, 30000, TimeUnit.MILLISECONDS, maxSize);
+        final CountDownLatch start = new CountDownLatch(1);
+        final AtomicInteger accepted = new AtomicInteger();
+        Thread[] producers = new Thread[threads];
+        for (int i = 0; i < threads; i++) {
+            producers[i] = new Thread(new Runnable() {
+                public void run() {
+                    try {
+                        start.await();
+                        for (int j = 0; j < maxSize; j++) {
+                            if (queue.offer(new QueueElement<Integer>(j, j % 3, 0, TimeUnit.MILLISECONDS))) {
+                                accepted.incrementAndGet();
+                            }
+                        }
+                    }
+                    catch (InterruptedException ex) {
+                        throw new RuntimeException(ex);
+                    }
+                }
+            });
+            producers[i].start();
+        }
+        start.countDown();
+        for (Thread producer : producers) {
+            producer.join();
+        }
+        assertEquals(maxSize, accepted.get());
+        assertEquals(maxSize, queue.size());
+        assertEquals(0, queue.remainingCapacity());
+    }
+
+    public void testTakeIsSignaled() throws Exception {
+        final StripedPriorityDelayQueue<Integer> queue =
+                new StripedPriorityDelayQueue<Integer>(3, 30000, TimeUnit.MILLISECONDS, -1);
+        final int elements = 1000;
+        final List<Integer> taken = new ArrayList<Integer>();
+        Thread consumer = new Thread(new Runnable() {
+            public void run() {
+                try {
+                    for (int i = 0; i < elements; i++) {
+                        taken.add(queue.take().getElement());
+                    }
+                }
+                catch (InterruptedException ex) {
+                    throw new RuntimeException(ex);
+                }
+            }
+        });
+        consumer.start();
+        for (int i = 0; i < elements; i++) {
+            queue.offer(new QueueElement<Integer>(i));
+            if (i % 100 == 0) {
+                Thread.sleep(5);
+            }
+        }
+        queue.offer(new QueueElement<Integer>(-1, 0, 50, TimeUnit.MILLISECONDS));
+        consumer.join(10000);
+        assertFalse(consumer.isAlive());
+        assertEquals(elements, taken.size());
+        for (int i = 0; i < elements; i++) {
+            assertEquals((Integer) i, taken.get(i));
+        }
+
+        //a delayed element wakes up a consumer blocked with no delayed elements pending
+        assertEquals((Integer) (-1), queue.take().getElement());
+        assertNull(queue.poll(20, TimeUnit.MILLISECONDS));
+        assertEquals(0, queue.size());
+    }
+
+}
@@ -14,8 +14,20 @@
  */
 package org.apache.oozie.util;
 
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.List;
+
+import javax.xml.validation.Schema;
+import javax.xml.validation.Validator;
+
+import org.apache.oozie.service.SchemaService;
+import org.apache.oozie.service.Services;
 import org.apache.oozie.test.XTestCase;
 import org.jdom.Element;
+import org.jdom.JDOMException;
+import org.jdom.input.SAXBuilder;
+import org.xml.sax.SAXException;
 
 public class TestXmlUtils extends XTestCase {
 
@@ -33,4 +45,119 @@ public class TestXmlUtils extends XTestCase {
         String result = XmlUtils.removeComments(xmlStr);
         System.out.println("Result After Comments removal :\n" + result);
     }
+
+    private static final String ACTION_XML = "<map-reduce xmlns='uri:oozie:workflow:0.2'>"
+            + "<job-tracker>localhost:8021</job-tracker><name-node>hdfs://localhost:8020</name-node>"
+            + "<configuration><property><name>mapred.input.dir</name><value>/user/test/input</value></property>"
+            + "<property><name>mapred.output.dir</name><value>/user/test/output</value></property>"
+            + "</configuration></map-reduce>";
+
+    public void testParseXmlReusesParser() throws Exception {
+        Element e1 = XmlUtils.parseXml("<a><b/></a>");
+        try {
+            XmlUtils.parseXml("<a><b></a>");
+            fail();
+        }
+        catch (JDOMException ex) {
+            //expected
+        }
+        Element e2 = XmlUtils.parseXml("<a><c/></a>");
+        assertNotSame(e1.getDocument(), e2.getDocument());
+        assertNotNull(e1.getChild("b"));
+        assertNotNull(e2.getChild("c"));
+    }
+
+    public void testParseXmlConcurrent() throws Exception {
+        final List<Throwable> errors = new ArrayList<Throwable>();
+        List<Thread> threads = new ArrayList<Thread>();
+        for (int i = 0; i < 4; i++) {
+            final String name = "t" + i;
+            threads.add(new Thread() {
+                @Override
+                public void run() {
+                    try {
+                        for (int j = 0; j < 500; j++) {
+                            Element e = XmlUtils.parseXml("<" + name + "><v>" + j + "</v></" + name + ">");
+                            assertEquals(name, e.getName());
+                            assertEquals(Integer.toString(j), e.getChildText("v"));
+                        }
+                    }
+                    catch (Throwable ex) {
+                        synchronized (errors) {
+                            errors.add(ex);
+                        }
+                    }
+                }
+            });
+        }
+        for (Thread thread : threads) {
+            thread.start();
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        assertTrue(errors.toString(), errors.isEmpty());
+    }
+
+    public void testGetValidator() throws Exception {
+        Services services = new Services();
+        services.init();
+        try {
+            final Schema schema = services.get(SchemaService.class).getSchema(SchemaService.SchemaName.WORKFLOW);
+            String wfXml = IOUtils.getResourceAsString("wf-schema-valid.xml", -1);
+
+            Validator validator = XmlUtils.getValidator(schema);
+            assertSame(validator, XmlUtils.getValidator(schema));
+
+            //validators are not shared between threads
+            final Validator[] other = new Validator[1];
+            Thread thread = new Thread() {
+                @Override
+                public void run() {
+                    other[0] = XmlUtils.getValidator(schema);
+                }
+            };
+            thread.start();
+            thread.join();
+            assertNotNull(other[0]);
+            assertNotSame(validator, other[0]);
+
+            //a validator is still usable after an invalid document
+            XmlUtils.validateXml(schema, wfXml);
+            try {
+                XmlUtils.validateXml(schema, IOUtils.getResourceAsString("wf-schema-invalid.xml", -1));
+                fail();
+            }
+            catch (SAXException ex) {
+                //expected
+            }
+            XmlUtils.validateXml(schema, wfXml);
+        }
+        finally {
+            services.destroy();
+        }
+    }
+
+    public void testReusedParserAndValidator() throws Exception {
+        Services services = new Services();
+        services.init();
+        try {
+            Schema schema = services.get(SchemaService.class).getSchema(SchemaService.SchemaName.WORKFLOW);
+            String wfXml = IOUtils.getResourceAsString("wf-schema-valid.xml", -1);
+            String coordXml = IOUtils.getResourceAsString("coord-matd-job.xml", -1);
+            for (String xml : new String[]{wfXml, coordXml, ACTION_XML}) {
+                Element created = new SAXBuilder().build(new StringReader(xml)).getRootElement();
+                for (int i = 0; i < 10; i++) {
+                    assertEquals(XmlUtils.prettyPrint(created).toString(),
+                                 XmlUtils.prettyPrint(XmlUtils.parseXml(xml)).toString());
+                }
+            }
+            for (int i = 0; i < 10; i++) {
+                XmlUtils.validateXml(schema, wfXml);
+            }
+        }
+        finally {
+            services.destroy();
+        }
+    }
 }
@@ -20,6 +20,8 @@ import org.apache.oozie.service.ActionService;
 import org.apache.oozie.workflow.WorkflowException;
 import org.apache.oozie.test.XTestCase;
 import org.apache.oozie.util.IOUtils;
+import org.apache.oozie.util.WritableUtils;
+import org.jdom.Element;
 import org.apache.oozie.ErrorCode;
 
 public class TestLiteWorkflowAppParser extends XTestCase {
@@ -86,4 +88,22 @@ public class TestLiteWorkflowAppParser extends XTestCase {
         }
     }
 
+    public void testDefinitionElement() throws Exception {
+        LiteWorkflowAppParser parser = new LiteWorkflowAppParser(null,
+                                                                 LiteWorkflowStoreService.LiteDecisionHandler.class,
+                                                                 LiteWorkflowStoreService.LiteActionHandler.class);
+        LiteWorkflowApp app = parser.validateAndParse(IOUtils.getResourceAsReader("wf-schema-valid.xml", -1));
+
+        //the definition is parsed once
+        Element element = app.getDefinitionElement();
+        assertEquals("workflow-app", element.getName());
+        assertEquals(app.getName(), element.getAttributeValue("name"));
+        assertSame(element, app.getDefinitionElement());
+
+        //a deserialized application parses its definition again
+        LiteWorkflowApp copy = WritableUtils.fromByteArray(WritableUtils.toByteArray(app), LiteWorkflowApp.class);
+        assertNotSame(element, copy.getDefinitionElement());
+        assertEquals(app.getName(), copy.getDefinitionElement().getAttributeValue("name"));
+    }
+
 }
@@ -23,6 +23,10 @@ import org.apache.oozie.util.WritableUtils;
 import org.apache.oozie.util.XConfiguration;
 import org.apache.oozie.ErrorCode;
 
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.HashMap;
@@ -705,6 +709,61 @@ public class TestLiteWorkflowLib extends XTestCase {
     }
 
 
+    public void testCompactJobPersistance() throws Exception {
+        LiteWorkflowApp def = new LiteWorkflowApp("wf", "<worklfow-app/>", new StartNodeDef("one"))
+                .addNode(new NodeDef("one", null, AsynchNodeHandler.class, Arrays.asList(new String[]{"end"})))
+                .addNode(new EndNodeDef("end"));
+        XConfiguration conf = new XConfiguration();
+        conf.set("a", "A");
+
+        LiteWorkflowInstance job = new LiteWorkflowInstance(def, conf, "1");
+        job.setVar("a", "A");
+        job.start();
+        assertEquals(WorkflowInstance.Status.RUNNING, job.getStatus());
+
+        ByteArrayOutputStream baos = new ByteArrayOutputStream();
+        DataOutputStream dos = new DataOutputStream(baos);
+        job.writeCompact(dos);
+        dos.close();
+        byte[] compact = baos.toByteArray();
+        assertTrue(compact.length < WritableUtils.toByteArray(job).length);
+
+        job = new LiteWorkflowInstance();
+        job.readFields(new DataInputStream(new ByteArrayInputStream(compact)));
+        assertFalse(job.isResolved());
+        assertNull(job.getApp());
+        assertEquals("1", job.getId());
+        assertEquals(def.getHash(), job.getAppHash());
+        assertEquals(WorkflowInstance.Status.RUNNING, job.getStatus());
+        assertEquals("A", job.getVar("a"));
+
+        LiteWorkflowApp otherDef = new LiteWorkflowApp("wf", "<worklfow-app/>", new StartNodeDef("end"))
+                .addNode(new EndNodeDef("end"));
+        try {
+            job.resolve(conf, otherDef);
+            fail();
+        }
+        catch (IllegalArgumentException ex) {
+            //nop
+        }
+
+        LiteWorkflowApp readDef = WritableUtils.fromByteArray(WritableUtils.toByteArray(def), LiteWorkflowApp.class);
+        assertEquals(def.getHash(), readDef.getHash());
+        job.resolve(conf, readDef);
+        assertTrue(job.isResolved());
+        assertTrue(job.isAppStored());
+        assertEquals("A", job.getConf().get("a"));
+        job.signal("/", "");
+        assertEquals(WorkflowInstance.Status.SUCCEEDED, job.getStatus());
+
+        //the first format is still read
+        job = WritableUtils.fromByteArray(WritableUtils.toByteArray(job), LiteWorkflowInstance.class);
+        assertTrue(job.isResolved());
+        assertFalse(job.isAppStored());
+        assertEquals(WorkflowInstance.Status.SUCCEEDED, job.getStatus());
+    }
+
+
     public void testImmediateError() throws WorkflowException {
         LiteWorkflowApp workflowDef = new LiteWorkflowApp("testWf", "<worklfow-app/>", new StartNodeDef("one"))
                 .addNode(new NodeDef("one", null, SynchNodeHandler.class, Arrays.asList(new String[]{"two"})))